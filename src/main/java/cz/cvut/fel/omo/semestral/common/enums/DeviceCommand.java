@@ -2,9 +2,60 @@ package cz.cvut.fel.omo.semestral.common.enums;
 
 /**
  * Represents a command that can be sent to a device.
+ * <p>
+ * Commands which set a setting to an absolute value leave the device in the same state no matter which
+ * command of the same setting preceded them, so such a command supersedes a directly preceding command of
+ * the same setting, see {@link #supersedes(DeviceCommand)}. Relative commands, such as stepping the volume
+ * or toggling the gate, depend on the state they are executed in and never supersede each other.
  */
 public enum DeviceCommand {
-    TURN_ON,
-    TURN_OFF,
-    ARM_ALARM, DISARM_ALARM, INCREASE_VOLUME, DECREASE_VOLUME, NEXT_CHANNEL, PREVIOUS_CHANNEL, INCREASE_TEMPERATURE, DECREASE_TEMPERATURE, SWITCH_TO_HEATING, SWITCH_TO_COOLING, SWITCH_TO_VENTILATION, TOGGLE_GATE,
+    TURN_ON(Setting.POWER),
+    TURN_OFF(Setting.POWER),
+    ARM_ALARM, DISARM_ALARM, INCREASE_VOLUME, DECREASE_VOLUME, NEXT_CHANNEL, PREVIOUS_CHANNEL, INCREASE_TEMPERATURE, DECREASE_TEMPERATURE,
+    SWITCH_TO_HEATING(Setting.HVAC_MODE), SWITCH_TO_COOLING(Setting.HVAC_MODE), SWITCH_TO_VENTILATION(Setting.HVAC_MODE),
+    TOGGLE_GATE,
+    /** Sets the volume to the value of the command */
+    SET_VOLUME(Setting.VOLUME),
+    /** Sets the channel to the value of the command */
+    SET_CHANNEL(Setting.CHANNEL),
+    /** Sets the temperature to the value of the command */
+    SET_TEMPERATURE(Setting.TEMPERATURE);
+
+    /** The setting a command sets to an absolute value, null for relative commands */
+    private final Setting setting;
+
+    DeviceCommand() {
+        this(null);
+    }
+
+    DeviceCommand(Setting setting) {
+        this.setting = setting;
+    }
+
+    /**
+     * Checks whether the command carries a value, see {@link cz.cvut.fel.omo.semestral.entity.devices.IDeviceCommand#executeCommand(DeviceCommand, double)}.
+     *
+     * @return True for the setpoint commands.
+     */
+    public boolean hasValue() {
+        return this == SET_VOLUME || this == SET_CHANNEL || this == SET_TEMPERATURE;
+    }
+
+    /**
+     * Checks whether executing this command directly after the given one leaves the device in the same state
+     * as executing this command alone, so the given command need not be executed at all.
+     *
+     * @param previous The command preceding this one.
+     * @return True if both commands set the same setting to an absolute value.
+     */
+    public boolean supersedes(DeviceCommand previous) {
+        return setting != null && setting == previous.setting;
+    }
+
+    /**
+     * The settings of a device which commands set to absolute values.
+     */
+    private enum Setting {
+        POWER, HVAC_MODE, VOLUME, CHANNEL, TEMPERATURE
+    }
 }
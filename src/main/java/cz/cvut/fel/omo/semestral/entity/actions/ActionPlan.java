@@ -0,0 +1,407 @@
+package cz.cvut.fel.omo.semestral.entity.actions;
+
+import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
+import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.SportEquipmentType;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Compact queue of the actions a being is going to perform, one action per tick.
+ * <p>
+ * The actions are not kept as {@link Action} objects but encoded in a ring buffer of two {@code long} columns.
+ * The first packs the action type, the kind of its value and a run length, the second holds the value itself:
+ * a number or a flag as it is, a sport equipment by its ordinal, and a room, a device or any other object by
+ * its position in a table of the targets of the plan. Consecutive equal actions, above all the long stretches
+ * of {@link UserInputType#B_NOTHING}, are stored once together with the number of repetitions, so an idle
+ * stretch of any length takes sixteen bytes.
+ * <p>
+ * Actions are added either as {@link Action} objects or through the typed {@code add} methods, which do not box
+ * their values. The next action is read through typed accessors such as {@link #peekType()} and
+ * {@link #peekRoom()}, which neither allocate nor box its value. An {@link Action} object is only made by
+ * {@link #peekAction()} when the action has to leave the plan, for instance to be recorded or sent to a device
+ * system.
+ * <p>
+ * A plan may be backed by an {@link ActionSource}, such as a scenario file, which is read as the plan runs out
+ * of actions. Only the actions read so far are held in memory then, and {@link #size()} counts just them.
+ * Actions added to such a plan, like the repairs of broken devices, follow the actions read so far, so they are
+ * not held back until the source is exhausted.
+ */
+public class ActionPlan {
+    private static final UserInputType[] TYPES = UserInputType.values();
+    private static final SportEquipmentType[] SPORT_EQUIPMENT = SportEquipmentType.values();
+    private static final int INITIAL_CAPACITY = 8;
+
+    // Kinds of the value of an action, kept next to the action type
+    private static final int NONE = 0;
+    private static final int INT = 1;
+    private static final int DOUBLE = 2;
+    private static final int BOOLEAN = 3;
+    private static final int SPORT = 4;
+    private static final int ROOM = 5;
+    private static final int DEVICE = 6;
+    private static final int OBJECT = 7;
+
+    /** Action type in bits 0-7, kind of the value in bits 8-15 and the number of repetitions in bits 32-63 */
+    private long[] codes = new long[INITIAL_CAPACITY];
+    /** Values of the actions, or positions in the target table */
+    private long[] values = new long[INITIAL_CAPACITY];
+    private int head;
+    /** Number of runs of equal actions in the plan */
+    private int runs;
+    /** Number of actions in the plan, counting every repetition */
+    private long size;
+    /** Rooms, devices and other objects the actions refer to */
+    private final List<Object> targets = new ArrayList<>();
+    private final Map<Object, Integer> targetIds = new IdentityHashMap<>();
+    /** Where the further actions come from, null once there are none */
+    private ActionSource source;
+
+    /**
+     * Creates an empty plan.
+     */
+    public ActionPlan() {
+    }
+
+    /**
+     * Creates a plan of the given actions.
+     *
+     * @param actions The actions in the order they are performed.
+     */
+    public ActionPlan(Queue<Action> actions) {
+        if (actions != null) {
+            actions.forEach(this::add);
+        }
+    }
+
+    /**
+     * Creates a plan reading its actions from a source as they are needed.
+     *
+     * @param source The source of the actions.
+     */
+    public ActionPlan(ActionSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Adds an action to the end of the plan.
+     *
+     * @param action The action to be added.
+     */
+    public void add(Action action) {
+        UserInputType type = action.getType();
+        Object value = action.getValue();
+        if (value == null) {
+            add(type);
+        } else if (value instanceof Integer number) {
+            add(type, number.intValue());
+        } else if (value instanceof Double number) {
+            add(type, number.doubleValue());
+        } else if (value instanceof Boolean flag) {
+            add(type, flag.booleanValue());
+        } else if (value instanceof SportEquipmentType sportEquipment) {
+            add(type, sportEquipment);
+        } else if (value instanceof Room room) {
+            add(type, room);
+        } else if (value instanceof IDevice) {
+            addTarget(type, DEVICE, value);
+        } else {
+            addTarget(type, OBJECT, value);
+        }
+    }
+
+    /**
+     * Adds an action without a value to the end of the plan.
+     *
+     * @param type The type of the action.
+     */
+    public void add(UserInputType type) {
+        append(type, NONE, 0, 1);
+    }
+
+    /**
+     * Adds an action with an integer value to the end of the plan, without boxing the value.
+     *
+     * @param type  The type of the action.
+     * @param value The value of the action.
+     */
+    public void add(UserInputType type, int value) {
+        append(type, INT, value, 1);
+    }
+
+    /**
+     * Adds an action with a decimal value to the end of the plan, without boxing the value.
+     *
+     * @param type  The type of the action.
+     * @param value The value of the action.
+     */
+    public void add(UserInputType type, double value) {
+        append(type, DOUBLE, Double.doubleToRawLongBits(value), 1);
+    }
+
+    /**
+     * Adds an action with a flag to the end of the plan, without boxing the flag.
+     *
+     * @param type  The type of the action.
+     * @param value The value of the action.
+     */
+    public void add(UserInputType type, boolean value) {
+        append(type, BOOLEAN, value ? 1 : 0, 1);
+    }
+
+    /**
+     * Adds an action with a sport equipment to the end of the plan.
+     *
+     * @param type           The type of the action.
+     * @param sportEquipment The sport equipment of the action.
+     */
+    public void add(UserInputType type, SportEquipmentType sportEquipment) {
+        append(type, SPORT, sportEquipment.ordinal(), 1);
+    }
+
+    /**
+     * Adds an action referring to a room to the end of the plan.
+     *
+     * @param type The type of the action.
+     * @param room The room of the action.
+     */
+    public void add(UserInputType type, Room room) {
+        addTarget(type, ROOM, room);
+    }
+
+    /**
+     * Adds a stretch of ticks in which the being does nothing.
+     *
+     * @param ticks The number of idle ticks.
+     */
+    public void addIdle(int ticks) {
+        if (ticks > 0) {
+            append(UserInputType.B_NOTHING, NONE, 0, ticks);
+        }
+    }
+
+    public boolean isEmpty() {
+        return !hasRun(0);
+    }
+
+    /**
+     * Gets the number of actions read into the plan, each idle tick counts as one action.
+     *
+     * @return The number of actions, at most {@link Integer#MAX_VALUE}.
+     */
+    public int size() {
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets the number of runs of equal actions read into the plan, which is what the plan takes memory for.
+     *
+     * @return The number of runs.
+     */
+    public int getRunCount() {
+        return runs;
+    }
+
+    /**
+     * Checks whether the plan has a run of equal actions at a position, reading further actions from the source
+     * of the plan until it has.
+     *
+     * @param run The position of the run, 0 is the run of the next action.
+     * @return True if there is such a run.
+     */
+    public boolean hasRun(int run) {
+        while (runs <= run && source != null) {
+            if (!source.appendTo(this)) {
+                source = null;
+            }
+        }
+        return run < runs;
+    }
+
+    /**
+     * Gets the type of a run of equal actions.
+     *
+     * @param run The position of the run, 0 is the run of the next action.
+     * @return The type of the actions of the run.
+     */
+    public UserInputType getRunType(int run) {
+        return TYPES[(int) (codes[slot(run)] & 0xFF)];
+    }
+
+    /**
+     * Gets the number of actions of a run of equal actions.
+     *
+     * @param run The position of the run, 0 is the run of the next action.
+     * @return The number of actions of the run.
+     */
+    public int getRunLength(int run) {
+        return (int) (codes[slot(run)] >>> 32);
+    }
+
+    /**
+     * Gets the type of the next action.
+     *
+     * @return The type of the next action, null if the plan is empty.
+     */
+    public UserInputType peekType() {
+        return hasRun(0) ? getRunType(0) : null;
+    }
+
+    /**
+     * Gets the room the next action refers to.
+     *
+     * @return The room, null if the value of the next action is not a room.
+     */
+    public Room peekRoom() {
+        return headKind() == ROOM ? (Room) targets.get((int) values[head]) : null;
+    }
+
+    /**
+     * Gets the device the next action refers to.
+     *
+     * @return The device, null if the value of the next action is not a device.
+     */
+    public IDevice peekDevice() {
+        return headKind() == DEVICE ? (IDevice) targets.get((int) values[head]) : null;
+    }
+
+    /**
+     * Gets the sport equipment the next action refers to.
+     *
+     * @return The sport equipment, null if the value of the next action is not a sport equipment.
+     */
+    public SportEquipmentType peekSportEquipment() {
+        return headKind() == SPORT ? SPORT_EQUIPMENT[(int) values[head]] : null;
+    }
+
+    /**
+     * Decodes the next action.
+     *
+     * @return The next action with its value as it was added, null if the plan is empty.
+     */
+    public Action peekAction() {
+        if (!hasRun(0)) {
+            return null;
+        }
+        long value = values[head];
+        Object decoded = switch (headKind()) {
+            case INT -> Integer.valueOf((int) value);
+            case DOUBLE -> Double.valueOf(Double.longBitsToDouble(value));
+            case BOOLEAN -> Boolean.valueOf(value != 0);
+            case SPORT -> SPORT_EQUIPMENT[(int) value];
+            case ROOM, DEVICE, OBJECT -> targets.get((int) value);
+            default -> null;
+        };
+        return new Action(peekType(), decoded);
+    }
+
+    /**
+     * Removes the next action.
+     */
+    public void poll() {
+        drop(1);
+    }
+
+    /**
+     * Removes up to a number of the next actions, as long as they are repetitions of the next action.
+     *
+     * @param count The maximum number of actions to be removed.
+     * @return The number of actions removed.
+     */
+    public int drop(int count) {
+        if (count <= 0 || !hasRun(0)) {
+            return 0;
+        }
+        int length = getRunLength(0);
+        int dropped = Math.min(count, length);
+        size -= dropped;
+        if (dropped < length) {
+            codes[head] -= (long) dropped << 32;
+        } else {
+            head = (head + 1) & (codes.length - 1);
+            runs--;
+            if (runs == 0) {
+                // Nothing refers to the targets any more, do not keep the repaired devices of a long simulation
+                targets.clear();
+                targetIds.clear();
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Removes all actions from the plan, including the ones which have not been read from its source yet.
+     */
+    public void clear() {
+        source = null;
+        while (runs > 0) {
+            drop(Integer.MAX_VALUE);
+        }
+    }
+
+    private void addTarget(UserInputType type, int kind, Object target) {
+        append(type, kind, targetId(target), 1);
+    }
+
+    private int headKind() {
+        return !hasRun(0) ? NONE : (int) ((codes[head] >>> 8) & 0xFF);
+    }
+
+    private int slot(int run) {
+        if (run < 0 || run >= runs) {
+            throw new IndexOutOfBoundsException("Run " + run + " of " + runs);
+        }
+        return (head + run) & (codes.length - 1);
+    }
+
+    private int targetId(Object target) {
+        Integer id = targetIds.get(target);
+        if (id == null) {
+            id = targets.size();
+            targets.add(target);
+            targetIds.put(target, id);
+        }
+        return id;
+    }
+
+    /**
+     * Appends a run of actions, extending the last run if it consists of the same action.
+     */
+    private void append(UserInputType type, int kind, long value, int count) {
+        long code = type.ordinal() | (long) kind << 8;
+        size += count;
+        if (runs > 0) {
+            int last = (head + runs - 1) & (codes.length - 1);
+            long lastLength = codes[last] >>> 32;
+            if ((int) codes[last] == code && values[last] == value && lastLength + count <= Integer.MAX_VALUE) {
+                codes[last] += (long) count << 32;
+                return;
+            }
+        }
+        if (runs == codes.length) {
+            grow();
+        }
+        int slot = (head + runs) & (codes.length - 1);
+        codes[slot] = code | (long) count << 32;
+        values[slot] = value;
+        runs++;
+    }
+
+    private void grow() {
+        long[] grownCodes = new long[codes.length * 2];
+        long[] grownValues = new long[codes.length * 2];
+        for (int run = 0; run < runs; run++) {
+            int slot = (head + run) & (codes.length - 1);
+            grownCodes[run] = codes[slot];
+            grownValues[run] = values[slot];
+        }
+        codes = grownCodes;
+        values = grownValues;
+        head = 0;
+    }
+}
@@ -0,0 +1,16 @@
+package cz.cvut.fel.omo.semestral.entity.actions;
+
+/**
+ * Supplies the actions of an {@link ActionPlan} which have not been read yet, such as the rest of a scenario
+ * file or the actions generated by a {@link BehaviourModel}. The plan asks for further actions only when it runs
+ * out of them, so a source may be arbitrarily long, or even endless.
+ */
+public interface ActionSource {
+    /**
+     * Appends the next action, or the next stretch of idle actions, to the plan.
+     *
+     * @param plan The plan to be extended.
+     * @return False if the source is exhausted and nothing has been appended.
+     */
+    boolean appendTo(ActionPlan plan);
+}
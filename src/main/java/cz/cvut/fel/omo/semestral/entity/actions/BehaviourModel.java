@@ -0,0 +1,441 @@
+package cz.cvut.fel.omo.semestral.entity.actions;
+
+import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.SportEquipmentType;
+import cz.cvut.fel.omo.semestral.tick.SimulationClock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Markov chain generating the actions of beings as they are needed, instead of planning them up front.
+ * <p>
+ * Each state of the chain is one action, such as moving to a room, an input for a device system or a stretch of
+ * doing nothing. Every time a being needs its next action, the chain moves from the state of the being to a next
+ * state, drawn with the weights of the transitions in the current part of the day, and the action of that state is
+ * appended to the plan of the being. The day is split into equal periods, each with weights of its own, so the
+ * beings may for instance rest at night and use their devices in the evening.
+ * <p>
+ * The model is immutable and shared by any number of beings. The transitions of each state in each period are
+ * kept as an alias table in two flat primitive arrays, so drawing the next state takes constant time and one
+ * random number, and allocates nothing. What a being needs of its own is the {@link ActionSource} made by
+ * {@link #createSource(int, long, LongSupplier)}, which holds just the current state and the state of its random
+ * generator. The part of the day is taken from the clock of the simulation, so actions added to the plan, like
+ * repairs, do not shift the time of day the generated actions are drawn for. Equal seeds give equal sequences
+ * of actions.
+ */
+public class BehaviourModel {
+    private static final SportEquipmentType[] SPORT_EQUIPMENT = SportEquipmentType.values();
+    private static final Duration ONE_DAY = Duration.ofDays(1);
+
+    // Kinds of the value of the action of a state
+    private static final byte NONE = 0;
+    private static final byte INT = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte BOOLEAN = 3;
+    private static final byte SPORT = 4;
+    private static final byte ROOM = 5;
+    private static final byte IDLE = 6;
+
+    private final int stateCount;
+    private final int periodCount;
+    private final UserInputType[] types;
+    private final byte[] kinds;
+    /** Value of the action of each state: a number, a flag, an ordinal of a sport equipment or the idle ticks */
+    private final long[] values;
+    private final Room[] rooms;
+    /** Probability of keeping the drawn column, one row of {@link #stateCount} columns per period and state */
+    private final double[] probabilities;
+    /** State taken instead of the drawn column, laid out like {@link #probabilities} */
+    private final int[] aliases;
+
+    private BehaviourModel(Builder builder, double[] probabilities, int[] aliases) {
+        this.stateCount = builder.states.size();
+        this.periodCount = builder.periodCount;
+        this.types = new UserInputType[stateCount];
+        this.kinds = new byte[stateCount];
+        this.values = new long[stateCount];
+        this.rooms = new Room[stateCount];
+        for (int state = 0; state < stateCount; state++) {
+            State template = builder.states.get(state);
+            types[state] = template.type;
+            kinds[state] = template.kind;
+            values[state] = template.value;
+            rooms[state] = template.room;
+        }
+        this.probabilities = probabilities;
+        this.aliases = aliases;
+    }
+
+    /**
+     * Creates a builder of a model with the given number of periods of the day.
+     *
+     * @param periodCount The number of equal periods the day is split into, for instance 24 for hourly weights.
+     * @return The builder.
+     */
+    public static Builder builder(int periodCount) {
+        return new Builder(periodCount);
+    }
+
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    public int getPeriodCount() {
+        return periodCount;
+    }
+
+    /**
+     * Creates the source of the actions of one being. The source never runs out of actions and lets the actions
+     * added to the plan, like repairs, in right after the actions it has generated so far.
+     *
+     * @param initialState The state the being starts in, its action is not performed.
+     * @param seed         The seed of the random generator of the being.
+     * @param clock        The current tick of the simulation, tick 0 is midnight.
+     * @return The source of the actions, drawing for ticks of the reference duration.
+     */
+    public ActionSource createSource(int initialState, long seed, LongSupplier clock) {
+        return createSource(initialState, seed, clock, SimulationClock.REFERENCE);
+    }
+
+    /**
+     * Creates the source of the actions of one being in a simulation of the given tick duration.
+     *
+     * @param initialState    The state the being starts in, its action is not performed.
+     * @param seed            The seed of the random generator of the being.
+     * @param clock           The current tick of the simulation, tick 0 is midnight.
+     * @param simulationClock The clock of the house, giving the number of ticks of a day.
+     * @return The source of the actions.
+     */
+    public ActionSource createSource(int initialState, long seed, LongSupplier clock, SimulationClock simulationClock) {
+        if (initialState < 0 || initialState >= stateCount) {
+            throw new IllegalArgumentException("Unknown state " + initialState + " of " + stateCount);
+        }
+        return new Source(initialState, seed, clock, simulationClock.ticksIn(ONE_DAY));
+    }
+
+    /**
+     * Draws the state following a state, using the alias table of its row.
+     *
+     * @param period The period of the day.
+     * @param from   The current state.
+     * @param random A uniformly distributed random number.
+     * @return The next state.
+     */
+    private int next(int period, int from, long random) {
+        int row = (period * stateCount + from) * stateCount;
+        int column = (int) (((random >>> 32) * stateCount) >>> 32);
+        double coin = (random & 0xFFFFFFFFL) * 0x1.0p-32;
+        return coin < probabilities[row + column] ? column : aliases[row + column];
+    }
+
+    /**
+     * Appends the action of a state to a plan.
+     */
+    private void emit(int state, ActionPlan plan) {
+        UserInputType type = types[state];
+        long value = values[state];
+        switch (kinds[state]) {
+            case INT -> plan.add(type, (int) value);
+            case DOUBLE -> plan.add(type, Double.longBitsToDouble(value));
+            case BOOLEAN -> plan.add(type, value != 0);
+            case SPORT -> plan.add(type, SPORT_EQUIPMENT[(int) value]);
+            case ROOM -> plan.add(type, rooms[state]);
+            case IDLE -> plan.addIdle((int) value);
+            default -> plan.add(type);
+        }
+    }
+
+    /**
+     * Generates the actions of one being. Its random generator is a SplitMix64 sequence.
+     * An action is drawn for the tick it is performed in, the current tick followed by the actions left in the plan.
+     */
+    private final class Source implements ActionSource {
+        private final LongSupplier clock;
+        private final long ticksPerDay;
+        private int state;
+        private long random;
+
+        private Source(int state, long seed, LongSupplier clock, long ticksPerDay) {
+            this.state = state;
+            this.random = seed;
+            this.clock = clock;
+            this.ticksPerDay = ticksPerDay;
+        }
+
+        @Override
+        public boolean appendTo(ActionPlan plan) {
+            long tick = clock.getAsLong() + plan.size();
+            int period = (int) (Math.floorMod(tick, ticksPerDay) * periodCount / ticksPerDay);
+            state = next(period, state, nextRandom());
+            emit(state, plan);
+            return true;
+        }
+
+        private long nextRandom() {
+            random += 0x9E3779B97F4A7C15L;
+            long z = random;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+
+    /**
+     * Action of a state of the model being built.
+     */
+    private static final class State {
+        private final UserInputType type;
+        private final byte kind;
+        private final long value;
+        private final Room room;
+
+        private State(UserInputType type, byte kind, long value, Room room) {
+            this.type = type;
+            this.kind = kind;
+            this.value = value;
+            this.room = room;
+        }
+    }
+
+    /**
+     * Builder of a model. States are added first, each getting its number in the order they are added, then the
+     * weights of the transitions between them are set. A state without any weighted transition in a period stays
+     * in itself, repeating its action.
+     */
+    public static final class Builder {
+        private final int periodCount;
+        private final List<State> states = new ArrayList<>();
+        /** Transitions as they are set: period, or -1 for all periods, then the states and the weight */
+        private final List<double[]> weights = new ArrayList<>();
+
+        private Builder(int periodCount) {
+            if (periodCount <= 0) {
+                throw new IllegalArgumentException("Number of periods must be positive : " + periodCount);
+            }
+            this.periodCount = periodCount;
+        }
+
+        /**
+         * Adds a state of an action without a value, {@link UserInputType#B_NOTHING} is a single idle tick.
+         *
+         * @param type The type of the action.
+         * @return The number of the state.
+         */
+        public int addState(UserInputType type) {
+            if (type == UserInputType.B_NOTHING) {
+                return addIdleState(1);
+            }
+            return add(new State(type, NONE, 0, null));
+        }
+
+        public int addState(UserInputType type, int value) {
+            return add(new State(type, INT, value, null));
+        }
+
+        public int addState(UserInputType type, double value) {
+            return add(new State(type, DOUBLE, Double.doubleToRawLongBits(value), null));
+        }
+
+        public int addState(UserInputType type, boolean value) {
+            return add(new State(type, BOOLEAN, value ? 1 : 0, null));
+        }
+
+        public int addState(UserInputType type, SportEquipmentType sportEquipment) {
+            return add(new State(type, SPORT, sportEquipment.ordinal(), null));
+        }
+
+        public int addState(UserInputType type, Room room) {
+            return add(new State(type, ROOM, 0, room));
+        }
+
+        /**
+         * Adds a state of doing nothing for a number of ticks.
+         *
+         * @param ticks The number of idle ticks, at least 1.
+         * @return The number of the state.
+         */
+        public int addIdleState(int ticks) {
+            if (ticks <= 0) {
+                throw new IllegalArgumentException("Number of idle ticks must be positive : " + ticks);
+            }
+            return add(new State(UserInputType.B_NOTHING, IDLE, ticks, null));
+        }
+
+        /**
+         * Sets the weight of a transition in all periods of the day. A later weight of the same transition
+         * replaces this one.
+         *
+         * @param from   The state the transition leaves.
+         * @param to     The state the transition enters.
+         * @param weight The weight, not negative. The weights of the transitions leaving a state need not add up
+         *               to one.
+         * @return This builder.
+         */
+        public Builder weight(int from, int to, double weight) {
+            return setWeight(-1, from, to, weight);
+        }
+
+        /**
+         * Sets the weight of a transition in one period of the day. A later weight of the same transition
+         * replaces this one.
+         *
+         * @param period The period, 0 starts at midnight.
+         * @param from   The state the transition leaves.
+         * @param to     The state the transition enters.
+         * @param weight The weight, not negative.
+         * @return This builder.
+         */
+        public Builder weight(int period, int from, int to, double weight) {
+            if (period < 0 || period >= periodCount) {
+                throw new IllegalArgumentException("Unknown period " + period + " of " + periodCount);
+            }
+            return setWeight(period, from, to, weight);
+        }
+
+        /**
+         * Builds the alias tables of the model.
+         *
+         * @return The model.
+         * @throws IllegalStateException If the model has no state, or a being could end up doing nothing
+         *                               forever in some period of the day.
+         */
+        public BehaviourModel build() {
+            int stateCount = states.size();
+            if (stateCount == 0) {
+                throw new IllegalStateException("Behaviour model has no state");
+            }
+            int rowCount = periodCount * stateCount;
+            double[] table = new double[rowCount * stateCount];
+            for (double[] transition : weights) {
+                int from = (int) transition[1];
+                int to = (int) transition[2];
+                int firstPeriod = transition[0] < 0 ? 0 : (int) transition[0];
+                int lastPeriod = transition[0] < 0 ? periodCount - 1 : firstPeriod;
+                for (int period = firstPeriod; period <= lastPeriod; period++) {
+                    table[(period * stateCount + from) * stateCount + to] = transition[3];
+                }
+            }
+            for (int period = 0; period < periodCount; period++) {
+                checkProgress(table, period);
+            }
+            double[] probabilities = new double[table.length];
+            int[] aliases = new int[table.length];
+            int[] small = new int[stateCount];
+            int[] large = new int[stateCount];
+            for (int row = 0; row < rowCount; row++) {
+                buildAliasTable(table, row * stateCount, row % stateCount, probabilities, aliases, small, large);
+            }
+            return new BehaviourModel(this, probabilities, aliases);
+        }
+
+        private int add(State state) {
+            states.add(state);
+            return states.size() - 1;
+        }
+
+        private Builder setWeight(int period, int from, int to, double weight) {
+            checkState(from);
+            checkState(to);
+            if (!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Weight must be a non-negative number : " + weight);
+            }
+            weights.add(new double[]{period, from, to, weight});
+            return this;
+        }
+
+        private void checkState(int state) {
+            if (state < 0 || state >= states.size()) {
+                throw new IllegalArgumentException("Unknown state " + state + " of " + states.size());
+            }
+        }
+
+        /**
+         * Checks that from every state, the chain can get to a state which does something within the period.
+         * Otherwise a sleeping being would look ahead for its next action forever.
+         */
+        private void checkProgress(double[] table, int period) {
+            int stateCount = states.size();
+            boolean[] progressing = new boolean[stateCount];
+            for (int state = 0; state < stateCount; state++) {
+                progressing[state] = states.get(state).kind != IDLE;
+            }
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                for (int from = 0; from < stateCount; from++) {
+                    if (progressing[from]) {
+                        continue;
+                    }
+                    int row = (period * stateCount + from) * stateCount;
+                    for (int to = 0; to < stateCount; to++) {
+                        if (table[row + to] > 0 && progressing[to]) {
+                            progressing[from] = true;
+                            changed = true;
+                            break;
+                        }
+                    }
+                }
+            }
+            for (int state = 0; state < stateCount; state++) {
+                if (!progressing[state]) {
+                    throw new IllegalStateException("In period " + period + " state " + state
+                            + " only leads to doing nothing");
+                }
+            }
+        }
+
+        /**
+         * Builds the alias table of one row by Vose's method. A row without weights stays in its own state.
+         */
+        private static void buildAliasTable(double[] table, int offset, int self, double[] probabilities,
+                                            int[] aliases, int[] small, int[] large) {
+            int stateCount = small.length;
+            double total = 0;
+            for (int column = 0; column < stateCount; column++) {
+                total += table[offset + column];
+            }
+            if (total == 0) {
+                Arrays.fill(probabilities, offset, offset + stateCount, 0);
+                Arrays.fill(aliases, offset, offset + stateCount, self);
+                return;
+            }
+            int smallCount = 0;
+            int largeCount = 0;
+            for (int column = 0; column < stateCount; column++) {
+                // Scaled so that the average column is 1, kept in the probabilities while the table is built
+                double scaled = table[offset + column] * stateCount / total;
+                probabilities[offset + column] = scaled;
+                aliases[offset + column] = column;
+                if (scaled < 1) {
+                    small[smallCount++] = column;
+                } else {
+                    large[largeCount++] = column;
+                }
+            }
+            while (smallCount > 0 && largeCount > 0) {
+                int less = small[--smallCount];
+                int more = large[--largeCount];
+                aliases[offset + less] = more;
+                double remaining = probabilities[offset + more] + probabilities[offset + less] - 1;
+                probabilities[offset + more] = remaining;
+                if (remaining < 1) {
+                    small[smallCount++] = more;
+                } else {
+                    large[largeCount++] = more;
+                }
+            }
+            // What is left is 1 up to rounding errors
+            while (largeCount > 0) {
+                probabilities[offset + large[--largeCount]] = 1;
+            }
+            while (smallCount > 0) {
+                probabilities[offset + small[--smallCount]] = 1;
+            }
+        }
+    }
+}
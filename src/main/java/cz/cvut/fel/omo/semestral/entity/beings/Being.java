@@ -1,16 +1,22 @@
 package cz.cvut.fel.omo.semestral.entity.beings;
 
+import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
 import cz.cvut.fel.omo.semestral.entity.actions.Action;
+import cz.cvut.fel.omo.semestral.entity.actions.ActionPlan;
 import cz.cvut.fel.omo.semestral.entity.actions.ActionRecord;
 import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
 import cz.cvut.fel.omo.semestral.manual.ManualRepo;
+import cz.cvut.fel.omo.semestral.tick.TickWaker;
 import cz.cvut.fel.omo.semestral.tick.Tickable;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.Queue;
 
 /**
@@ -23,17 +29,32 @@ import java.util.Queue;
 @Setter
 @Slf4j
 public abstract class Being implements Tickable {
+    /** Maximum number of runs of idle actions looked through when looking for the next action which does something */
+    private static final int MAX_LOOKAHEAD_RUNS = 1024;
+    /** Maximum number of performed actions kept in the history of a being */
+    public static final int PERFORMED_ACTIONS_LIMIT = 1000;
+    private static final int ACTION_TYPE_COUNT = UserInputType.values().length;
+
     /** Unique ID of the being. */
     protected int beingID;
     /** Name of the being. */
     protected String name;
     /** Room where the being is located. */
     protected Room room;
-    /** Queue of actions that the being will perform. */
-    protected Queue<Action> actionPlan;
-    /** List of actions that have been performed by the being. */
-    protected List<ActionRecord> performedActions = new LinkedList<>();
+    /** Actions that the being will perform, one per tick. */
+    protected ActionPlan actionPlan;
+    /** The most recently performed actions, at most {@link #PERFORMED_ACTIONS_LIMIT} of them. */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Deque<ActionRecord> performedActions = new ArrayDeque<>();
+    /** Number of performed actions of each type, including the ones no longer kept in the history. */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final long[] performedActionCounts = new long[ACTION_TYPE_COUNT];
     protected int TickCounter = 0;
+    /** Waker of the tick publisher, used to wake the being up when a new action is planned. */
+    @Getter(AccessLevel.NONE)
+    protected TickWaker waker;
 
     /**
      * Constructs a new Being with the specified action plan, name, and initial
@@ -48,7 +69,7 @@ public abstract class Being implements Tickable {
         this.beingID = beingID;
         this.name = name;
         this.room = room;
-        this.actionPlan = actionPlan;
+        this.actionPlan = new ActionPlan(actionPlan);
     }
 
     /**
@@ -59,7 +80,10 @@ public abstract class Being implements Tickable {
      * @param room    The initial room where the being is located.
      */
     public Being(int beingID, String name, Room room) {
-        this(beingID, name, room, new LinkedList<>());
+        this.beingID = beingID;
+        this.name = name;
+        this.room = room;
+        this.actionPlan = new ActionPlan();
     }
 
     /**
@@ -68,9 +92,29 @@ public abstract class Being implements Tickable {
      * @param action The action to be added to the plan.
      */
     public void addActionToPlan(Action action) {
+        wake();
         actionPlan.add(action);
     }
 
+    /**
+     * Replaces the being's action plan.
+     *
+     * @param actionPlan The queue of actions that this being will perform.
+     */
+    public void setActionPlan(Queue<Action> actionPlan) {
+        setActionPlan(new ActionPlan(actionPlan));
+    }
+
+    /**
+     * Replaces the being's action plan.
+     *
+     * @param actionPlan The actions that this being will perform.
+     */
+    public void setActionPlan(ActionPlan actionPlan) {
+        wake();
+        this.actionPlan = actionPlan;
+    }
+
     /**
      * Abstract method for performing the next action in the action plan.
      * This method should be implemented by subclasses to define specific behaviors.
@@ -84,7 +128,7 @@ public abstract class Being implements Tickable {
      * @param room The room to move the being to.
      */
     public void goTo(Room room) {
-        log.info(this.name + " is moving to room " + room.getRoomName() + " from room " + this.room.getRoomName());
+        log.info("{} is moving to room {} from room {}", this.name, room.getRoomName(), this.room.getRoomName());
         if (this.room == room) {
             return;
         }
@@ -113,15 +157,103 @@ public abstract class Being implements Tickable {
     }
 
     /**
-     * Adds a performed action to the list of actions that have been executed.
-     * This method is used for tracking the actions that have been performed,
-     * allowing for a record of past actions. This can be useful for auditing,
-     * history tracking, or undo functionalities.
+     * Beings only have to be ticked when the next action in their plan does something.
+     * Leading idle actions are skipped, a being with nothing but idle actions sleeps until a new action is planned.
+     * Actions which have not been read from the source of the plan yet are read as far as needed.
+     *
+     * @return The number of ticks until the first action which is not idle, or {@link #SLEEP_UNTIL_WOKEN}.
+     */
+    @Override
+    public int getTicksUntilWake() {
+        long idleActions = 0;
+        for (int run = 0; actionPlan.hasRun(run); run++) {
+            if (!isIdleAction(actionPlan.getRunType(run))) {
+                return (int) Math.min(idleActions + 1, Integer.MAX_VALUE);
+            }
+            idleActions += actionPlan.getRunLength(run);
+            if (run == MAX_LOOKAHEAD_RUNS) {
+                // Do not read a whole scenario ahead, wake up within the idle actions and look again then
+                return (int) Math.min(idleActions, Integer.MAX_VALUE);
+            }
+        }
+        return SLEEP_UNTIL_WOKEN;
+    }
+
+    /**
+     * Consumes the idle actions the being would have performed during the skipped ticks.
+     *
+     * @param ticks The number of skipped ticks.
+     */
+    @Override
+    public void skipTicks(int ticks) {
+        int remaining = ticks;
+        while (remaining > 0 && !actionPlan.isEmpty() && isIdleAction(actionPlan.peekType())) {
+            remaining -= actionPlan.drop(remaining);
+        }
+    }
+
+    /**
+     * Sets the waker used to wake the being up when a new action is planned.
+     *
+     * @param waker The waker of the tick publisher.
+     */
+    @Override
+    public void setWaker(TickWaker waker) {
+        this.waker = waker;
+    }
+
+    /**
+     * Checks whether performing an action of a type has no effect at all.
+     *
+     * @param type The type of the action to be checked.
+     * @return True if the action does nothing.
+     */
+    protected boolean isIdleAction(UserInputType type) {
+        return type == UserInputType.B_NOTHING;
+    }
+
+    /**
+     * Asks the tick publisher to tick this being again.
+     * Called before the action plan changes, so that the being catches up on skipped ticks with its old plan.
+     */
+    protected void wake() {
+        if (waker != null) {
+            waker.wake(this);
+        }
+    }
+
+    /**
+     * Adds a performed action to the history of the being and counts it.
+     * Once the history holds {@link #PERFORMED_ACTIONS_LIMIT} actions, the oldest one is dropped from it,
+     * so a long simulation does not keep every action in memory. The counts include the dropped actions.
      *
      * @param action The action that has been performed and needs to be recorded.
      */
     public void addPerformedAction(Action action) {
-        performedActions.add(new ActionRecord(action, TickCounter));
+        performedActionCounts[action.getType().ordinal()]++;
+        if (performedActions.size() == PERFORMED_ACTIONS_LIMIT) {
+            performedActions.removeFirst();
+        }
+        performedActions.addLast(new ActionRecord(action, TickCounter));
+    }
+
+    /**
+     * Gets the most recently performed actions.
+     *
+     * @return Read-only view of at most {@link #PERFORMED_ACTIONS_LIMIT} actions, the oldest first.
+     */
+    public Collection<ActionRecord> getPerformedActions() {
+        return Collections.unmodifiableCollection(performedActions);
+    }
+
+    /**
+     * Gets the number of performed actions of a type, including the ones no longer kept in the history.
+     *
+     * @param type The type of the actions.
+     * @return The number of performed actions of the type.
+     */
+    public long getPerformedActionCount(UserInputType type) {
+        return performedActionCounts[type.ordinal()];
     }
 
 }
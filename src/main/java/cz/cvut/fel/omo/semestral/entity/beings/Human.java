@@ -63,7 +63,8 @@ public class Human extends Being implements Tickable {
      * @param action  The type of user action.
      */
     protected void sendUserInput(DeviceSystem deviceSystem, Action action) {
-        deviceSystem.getUserInputSensor().addtoActionPlan(action);
+        deviceSystem.wake();
+        deviceSystem.post(() -> deviceSystem.getUserInputSensor().addtoActionPlan(action));
     }
 
     /**
@@ -112,59 +113,91 @@ public class Human extends Being implements Tickable {
         performNextAction();
     }
 
+    /**
+     * Consumes the skipped idle actions and advances the tick counter as if the human had been ticked.
+     *
+     * @param ticks The number of skipped ticks.
+     */
+    @Override
+    public void skipTicks(int ticks) {
+        super.skipTicks(ticks);
+        setTickCounter(getTickCounter() + ticks);
+    }
+
     /**
      * Performs the next action in the action plan.
      * This method handles being-specific actions and delegates device interactions to the appropriate device systems.
+     * The action is read from the plan without decoding it, an {@link Action} is only made for the actions which are performed.
      */
     @Override
     public void performNextAction() {
         if (!actionPlan.isEmpty()) {
-            Action nextAction = actionPlan.poll();
-            switch (nextAction.getType()) {
+            UserInputType type = actionPlan.peekType();
+            switch (type) {
                 // Handling Being-specific actions
                 case B_CHANGEROOM:
-                    if(nextAction.getValue() instanceof Room) {
-                        goTo((Room) nextAction.getValue());
-                        addPerformedAction(nextAction);
+                    Room nextRoom = actionPlan.peekRoom();
+                    if (nextRoom != null) {
+                        addPerformedAction(actionPlan.peekAction());
+                        actionPlan.poll();
+                        goTo(nextRoom);
+                        return;
                     }
                     break;
                 case B_REPAIR:
-                    if(nextAction.getValue() instanceof IDevice device) {
-                        log.info("Repairing device {}", device.getClass().getSimpleName());
-                        Manual manual = manualRepo.getManual(device.getClass().getSimpleName());
-                        if( manual != null ) {
-                            log.info("Manual found, repairing device");
-                            device.repair(manual);
-                        } else {
-                            log.info("Manual not found, repairing device without manual");
-                            device.repair();
-                        }
-                        addPerformedAction(nextAction);
+                    IDevice device = actionPlan.peekDevice();
+                    if (device != null) {
+                        addPerformedAction(actionPlan.peekAction());
+                        actionPlan.poll();
+                        repair(device);
+                        return;
                     }
                     break;
                 case B_STARTSPORT:
-                    if(nextAction.getValue() instanceof SportEquipmentType) {
-                        doSport((SportEquipmentType) nextAction.getValue());
-                        addPerformedAction(nextAction);
-                    }
-                    break;
                 case B_STOPSPORT:
-                    if(nextAction.getValue() instanceof SportEquipmentType) {
-                        stopSport((SportEquipmentType) nextAction.getValue());
-                        addPerformedAction(nextAction);
+                    SportEquipmentType sportEquipment = actionPlan.peekSportEquipment();
+                    if (sportEquipment != null) {
+                        addPerformedAction(actionPlan.peekAction());
+                        actionPlan.poll();
+                        if (type == UserInputType.B_STARTSPORT) {
+                            doSport(sportEquipment);
+                        } else {
+                            stopSport(sportEquipment);
+                        }
+                        return;
                     }
                     break;
                 case B_NOTHING:
                     break;
                 default:
-                    DeviceSystem deviceSystem = findDeviceSystemInRoom(nextAction.getType());
-                    if (deviceSystem != null){
+                    DeviceSystem deviceSystem = findDeviceSystemInRoom(type);
+                    if (deviceSystem != null) {
+                        Action nextAction = actionPlan.peekAction();
+                        actionPlan.poll();
                         sendUserInput(deviceSystem, nextAction);
                         addPerformedAction(nextAction);
+                        return;
                     }
                     break;
             }
+            actionPlan.poll();
+        }
+    }
 
+    /**
+     * Repairs a device, following its manual if there is one.
+     *
+     * @param device The device to be repaired.
+     */
+    private void repair(IDevice device) {
+        log.info("Repairing device {}", device.getClass().getSimpleName());
+        Manual manual = manualRepo.getManual(device.getClass().getSimpleName());
+        if( manual != null ) {
+            log.info("Manual found, repairing device");
+            device.repair(manual);
+        } else {
+            log.info("Manual not found, repairing device without manual");
+            device.repair();
         }
     }
 
@@ -1,6 +1,7 @@
 package cz.cvut.fel.omo.semestral.entity.beings;
 
 
+import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
 import cz.cvut.fel.omo.semestral.entity.actions.Action;
 import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
 import cz.cvut.fel.omo.semestral.reporting.Report;
@@ -46,6 +47,17 @@ public class Pet extends Being implements Tickable {
     }
 
 
+    /**
+     * Pets only react to room changes, every other action is idle.
+     *
+     * @param type The type of the action to be checked.
+     * @return True if the action is not a room change.
+     */
+    @Override
+    protected boolean isIdleAction(UserInputType type) {
+        return type != UserInputType.B_CHANGEROOM;
+    }
+
     /**
      * Performs the next action in the action plan for this entity.
      * The method dequeues the next action from the action plan and executes it.
@@ -55,13 +67,15 @@ public class Pet extends Being implements Tickable {
     @Override
     public void performNextAction() {
         if (!actionPlan.isEmpty()) {
-            Action nextAction = actionPlan.poll();
+            UserInputType type = actionPlan.peekType();
+            Room nextRoom = actionPlan.peekRoom();
+            actionPlan.poll();
 
-            switch (nextAction.getType()) {
+            switch (type) {
                 // Handling Being-specific actions
                 case B_CHANGEROOM:
-                    if(nextAction.getValue() instanceof Room) {
-                        goTo((Room) nextAction.getValue());
+                    if (nextRoom != null) {
+                        goTo(nextRoom);
                     }
                     break;
                 default:
@@ -0,0 +1,401 @@
+package cz.cvut.fel.omo.semestral.entity.devices;
+
+import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.tick.SimulationClock;
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Common base of the appliances, sensors and controllers.
+ * <p>
+ * The state, wear, energy consumption and wear capacity of a device are kept in its slot of a
+ * {@link DeviceStateStore}, the one of the {@link DeviceStateIndex} of its house once the device is indexed.
+ * The device keeps the index and the {@link EnergyMeter} of its device system up to date whenever one of these
+ * values changes.
+ * <p>
+ * A tick of a device consists of accruing the wear and consumption of the state the device starts the tick in,
+ * the behaviour of the device in {@link #act()}, and checking whether the device has worn out. A device system
+ * accrues and checks all its devices at once in its store, see {@link DeviceSlots}, and only lets each device act.
+ */
+@Getter
+@Setter
+public abstract class Device implements IDevice {
+    /** The unique serial number of the device */
+    private UUID serialNumber;
+    /** The store keeping the state, wear, wear capacity and energy consumption of the device */
+    @Setter(AccessLevel.NONE)
+    private DeviceStateStore store;
+    /** The slot of the device in its store */
+    @Setter(AccessLevel.NONE)
+    private int slot;
+    /** The model of the device, shared with all devices of the same model */
+    @Setter(AccessLevel.NONE)
+    private final DeviceType type;
+    /** Meter of the device system the consumption of the device is added to, null if it is not metered */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private EnergyMeter energyMeter;
+    /** Index of the house the device is located in, null if it is not indexed */
+    @Getter(AccessLevel.NONE)
+    private DeviceStateIndex stateIndex;
+    /** List of observers that are notified when the device malfunctions */
+    private List<DeviceMalfunctionObserver> malfunctionObservers = new ArrayList<>();
+
+    /**
+     * Constructs a device.
+     *
+     * @param serialNumber          The unique serial number of the device.
+     * @param type                  The model of the device.
+     * @param state                 The initial state of the device.
+     * @param totalWear             The initial total wear of the device.
+     * @param totalPowerConsumption The initial power consumption of the device.
+     */
+    protected Device(UUID serialNumber, DeviceType type, DeviceState state, int totalWear, double totalPowerConsumption) {
+        this.serialNumber = serialNumber;
+        this.type = type;
+        this.store = new DeviceStateStore(1, SimulationClock.REFERENCE);
+        this.slot = store.moveIn(this, null, 0);
+        store.setState(slot, state);
+        store.setWear(slot, totalWear);
+        store.setWearCapacity(slot, type.drawWearCapacity());
+        store.addEnergy(slot, EnergyMeter.toMicroWh(totalPowerConsumption));
+    }
+
+    /**
+     * Moves the values of the device to a slot of another store and releases its current slot.
+     *
+     * @param target The store the device moves to.
+     */
+    void moveTo(DeviceStateStore target) {
+        if (target != store) {
+            slot = target.moveIn(this, store, slot);
+            store = target;
+        }
+    }
+
+    /**
+     * Sets the index the device reports its state changes to. The device moves to the store of the index,
+     * or to a store of its own keeping the clock of the index once it leaves the index.
+     *
+     * @param index The index of the house, null if the device is no longer indexed.
+     */
+    @Override
+    public void setStateIndex(DeviceStateIndex index) {
+        this.stateIndex = index;
+        moveTo(index != null ? index.getStore() : new DeviceStateStore(1, store.getClock()));
+    }
+
+    /**
+     * Retrieves the current state of the device.
+     *
+     * @return The state kept in the store.
+     */
+    @Override
+    public DeviceState getState() {
+        return store.getState(slot);
+    }
+
+    /**
+     * Sets the state of the device.
+     *
+     * @param state The new state of the device.
+     */
+    @Override
+    public void setState(DeviceState state) {
+        if (getState() != state) {
+            storeState(state);
+        }
+    }
+
+    /**
+     * Turns the device on, setting its state to ON.
+     */
+    @Override
+    public void turnOn() {
+        storeState(DeviceState.ON);
+    }
+
+    /**
+     * Turns the device off, setting its state to OFF.
+     */
+    @Override
+    public void turnOff() {
+        storeState(DeviceState.OFF);
+    }
+
+    /**
+     * Changes the state of the device and moves the device to the buckets of the state in its {@link DeviceStateIndex}.
+     *
+     * @param state The new state of the device.
+     */
+    protected void storeState(DeviceState state) {
+        if (getState() != state) {
+            store.setState(slot, state);
+            DeviceStateIndex index = stateIndex;
+            if (index != null) {
+                index.update(this, state);
+            }
+        }
+    }
+
+    /**
+     * Updates the total wear of the device.
+     *
+     * @param wear The amount of wear to add to the total.
+     */
+    @Override
+    public void updateWear(int wear) {
+        store.addWear(slot, wear);
+    }
+
+    @Override
+    public int getTotalWear() {
+        return store.getWear(slot);
+    }
+
+    public void setTotalWear(int totalWear) {
+        store.setWear(slot, totalWear);
+    }
+
+    /**
+     * Retrieves the maximum wear capacity of the device, the one of its model unless set otherwise.
+     *
+     * @return The wear capacity in reference ticks, see {@link SimulationClock}.
+     */
+    public int getWearCapacity() {
+        return store.getWearCapacity(slot);
+    }
+
+    /**
+     * Sets the maximum wear capacity of this device in place of the one of its model.
+     *
+     * @param wearCapacity The wear capacity in reference ticks.
+     */
+    public void setWearCapacity(int wearCapacity) {
+        store.setWearCapacity(slot, wearCapacity);
+    }
+
+    /**
+     * Retrieves the clock the device scales its rates and lifetime with, the one of its house.
+     *
+     * @return The clock of the store of the device.
+     */
+    public SimulationClock getClock() {
+        return store.getClock();
+    }
+
+    /**
+     * Retrieves the wear capacity of the device in ticks of the current tick duration.
+     *
+     * @return The wear at which the device breaks.
+     */
+    protected int getLifetime() {
+        return getClock().scaleLifetime(getWearCapacity());
+    }
+
+    /**
+     * Checks whether the device has reached its wear capacity.
+     *
+     * @return True if the total wear of the device is at least its wear capacity.
+     */
+    protected boolean isWornOut() {
+        return getTotalWear() >= getLifetime();
+    }
+
+    /**
+     * Calculates how many ticks the device can work before the tick in which it breaks.
+     *
+     * @param wearPerTick The wear added on each tick.
+     * @return The number of ticks before the breaking tick, see {@link IDevice#ticksUntilWornOut(int, int, int)}.
+     */
+    protected int ticksUntilWornOut(int wearPerTick) {
+        return IDevice.ticksUntilWornOut(getTotalWear(), getLifetime(), wearPerTick);
+    }
+
+    @Override
+    public double getTotalPowerConsumption() {
+        return EnergyMeter.toKWh(store.getEnergy(slot));
+    }
+
+    public void setTotalPowerConsumption(double totalPowerConsumption) {
+        addEnergy(EnergyMeter.toMicroWh(totalPowerConsumption) - store.getEnergy(slot));
+    }
+
+    /**
+     * Updates the total power consumption of the device.
+     *
+     * @param powerConsumption The amount of power consumption to add to the total.
+     */
+    @Override
+    public void updatePowerConsumption(double powerConsumption) {
+        addEnergy(EnergyMeter.toMicroWh(powerConsumption));
+    }
+
+    /**
+     * Adds consumed energy to the device and to the meter of its device system.
+     *
+     * @param microWh The energy in micro-watt-hours.
+     */
+    protected void addEnergy(long microWh) {
+        store.addEnergy(slot, microWh);
+        if (energyMeter != null) {
+            energyMeter.add(microWh);
+        }
+    }
+
+    /**
+     * Sets the meter of the device system the consumption of the device is added to. The consumption counted
+     * so far is moved over from the previous meter.
+     *
+     * @param meter The meter of the device system, null to stop metering the device.
+     */
+    @Override
+    public void setEnergyMeter(EnergyMeter meter) {
+        if (meter == energyMeter) {
+            return;
+        }
+        long counted = store.getEnergy(slot);
+        if (energyMeter != null) {
+            energyMeter.add(-counted);
+        }
+        energyMeter = meter;
+        if (meter != null) {
+            meter.add(counted);
+        }
+    }
+
+    /**
+     * Runs one tick of the device on its own: accrues the wear and consumption of its current state, lets it
+     * act and checks whether it has worn out.
+     */
+    public void onTick() {
+        addMetered(store.accrue(slot, 1));
+        act();
+        store.checkIfBroken(slot);
+    }
+
+    /**
+     * Performs the behaviour of the device on a tick, such as sampling, deciding or executing commands. The
+     * wear and consumption of the tick have already been accrued.
+     */
+    public abstract void act();
+
+    /**
+     * Adds the wear and power consumption of the given number of ticks in the current state, and catches up
+     * on the behaviour of the skipped ticks, see {@link #skipActs(int)}.
+     *
+     * @param ticks The number of ticks to be applied.
+     */
+    @Override
+    public void fastForward(int ticks) {
+        addMetered(store.accrue(slot, ticks));
+        store.checkIfBroken(slot);
+        skipActs(ticks);
+    }
+
+    /**
+     * Catches up on the behaviour of skipped ticks which is not wear and consumption, for example counting
+     * the ticks until the next sample. Does nothing by default.
+     *
+     * @param ticks The number of skipped ticks.
+     */
+    public void skipActs(int ticks) {}
+
+    /**
+     * Checks whether the device works on a tick it starts in the given state. Only working devices accrue wear
+     * and consumption and may break.
+     *
+     * @param state The state of the device at the start of the tick.
+     * @return True if the device works in the state.
+     */
+    protected abstract boolean isWorking(DeviceState state);
+
+    /**
+     * Retrieves the wear the device accrues on a tick it spends working in the given state.
+     *
+     * @param state The state of the device at the start of the tick.
+     * @return The wear per tick.
+     */
+    protected abstract int getWearPerTick(DeviceState state);
+
+    /**
+     * Retrieves the power the device consumes on a tick it spends working in the given state, by default the
+     * consumption of its model in that state.
+     *
+     * @param state The state of the device at the start of the tick.
+     * @return The power consumption per tick.
+     */
+    protected double getPowerConsumptionPerTick(DeviceState state) {
+        return type.getPowerConsumptionPerTick(state, getClock());
+    }
+
+    /**
+     * Marks the cached wear and consumption of the current state as outdated, for devices whose rates change
+     * without a change of state.
+     */
+    protected void invalidateRates() {
+        store.invalidateRates(slot);
+    }
+
+    /**
+     * Adds energy already counted by the store to the meter of the device.
+     *
+     * @param microWh The energy in micro-watt-hours.
+     */
+    private void addMetered(long microWh) {
+        if (microWh != 0 && energyMeter != null) {
+            energyMeter.add(microWh);
+        }
+    }
+
+    /**
+     * Saves the state, wear and power consumption of the device. Subclasses save their own fields on top of it.
+     *
+     * @return The snapshot of the state, wear and power consumption.
+     */
+    protected StateSnapshot saveDeviceState() {
+        DeviceState savedState = getState();
+        int savedWear = getTotalWear();
+        long savedEnergy = store.getEnergy(slot);
+        return () -> {
+            storeState(savedState);
+            setTotalWear(savedWear);
+            addEnergy(savedEnergy - store.getEnergy(slot));
+        };
+    }
+
+    /**
+     * Adds a malfunction observer to the device.
+     *
+     * @param observer The observer to add.
+     */
+    @Override
+    public void addMalfunctionObserver(DeviceMalfunctionObserver observer) {
+        malfunctionObservers.add(observer);
+    }
+
+    /**
+     * Notifies all malfunction observers that the device has malfunctioned.
+     */
+    @Override
+    public void notifyMalfunctionObservers() {
+        for (DeviceMalfunctionObserver observer : malfunctionObservers) {
+            observer.onDeviceMalfunction(this);
+        }
+    }
+
+    /**
+     * Notifies all registered malfunction observers that the device is about to be repaired.
+     */
+    protected void notifyRepairObservers() {
+        for (DeviceMalfunctionObserver observer : malfunctionObservers) {
+            observer.onDeviceRepair(this);
+        }
+    }
+}
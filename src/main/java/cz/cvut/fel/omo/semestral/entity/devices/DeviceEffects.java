@@ -0,0 +1,70 @@
+package cz.cvut.fel.omo.semestral.entity.devices;
+
+import org.slf4j.Logger;
+
+import java.util.function.Consumer;
+
+/**
+ * Sink of the effects of the devices which cannot be rolled back, such as log messages.
+ * <p>
+ * The effects run right away unless a tick engine has installed a sink of its own on the current thread, like
+ * the optimistic engine holding them back until its speculative ticks are committed. The devices log through
+ * the sink and never need to know which engine ticks them.
+ */
+public final class DeviceEffects {
+    private static final ThreadLocal<Consumer<Runnable>> SINK = new ThreadLocal<>();
+
+    private DeviceEffects() {}
+
+    /**
+     * Installs a sink receiving the effects of the devices ticked by the current thread.
+     *
+     * @param sink The sink, which decides when the effects run.
+     */
+    public static void install(Consumer<Runnable> sink) {
+        SINK.set(sink);
+    }
+
+    /**
+     * Removes the sink of the current thread, the effects run right away again.
+     */
+    public static void uninstall() {
+        SINK.remove();
+    }
+
+    /**
+     * Runs an effect of a device through the sink of the current thread.
+     *
+     * @param effect The effect to be run.
+     */
+    public static void run(Runnable effect) {
+        Consumer<Runnable> sink = SINK.get();
+        if (sink == null) {
+            effect.run();
+        } else {
+            sink.accept(effect);
+        }
+    }
+
+    /**
+     * Logs an info message of a device. The arguments are taken right away.
+     *
+     * @param log       The logger.
+     * @param format    The format of the message.
+     * @param arguments The arguments of the message.
+     */
+    public static void info(Logger log, String format, Object... arguments) {
+        run(() -> log.info(format, arguments));
+    }
+
+    /**
+     * Logs a warning of a device. The arguments are taken right away.
+     *
+     * @param log       The logger.
+     * @param format    The format of the message.
+     * @param arguments The arguments of the message.
+     */
+    public static void warn(Logger log, String format, Object... arguments) {
+        run(() -> log.warn(format, arguments));
+    }
+}
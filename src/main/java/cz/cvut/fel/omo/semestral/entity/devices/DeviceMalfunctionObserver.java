@@ -14,4 +14,11 @@ public interface DeviceMalfunctionObserver {
      * @param device The malfunctioning device represented as an {@link IDevice}.
      */
     void onDeviceMalfunction(IDevice device);
+
+    /**
+     * Called right before a device is repaired and starts working again.
+     *
+     * @param device The device being repaired represented as an {@link IDevice}.
+     */
+    default void onDeviceRepair(IDevice device) {}
 }
@@ -0,0 +1,88 @@
+package cz.cvut.fel.omo.semestral.entity.devices;
+
+import cz.cvut.fel.omo.semestral.tick.SimulationClock;
+
+import java.util.List;
+
+/**
+ * The slots of the devices of a device system in their {@link DeviceStateStore}, used to accrue the wear and
+ * consumption of all devices of the system and to check them for wear in one loop over the columns each.
+ * <p>
+ * The devices of a system placed in a room live in the store of its house. Devices which do not share a store
+ * yet are moved to a store of the system on first use. The slots are looked up again once a device of the
+ * store has left it.
+ */
+public class DeviceSlots {
+    private final List<? extends IDevice> devices;
+    private DeviceStateStore store;
+    private int version;
+    private int[] slots;
+
+    /**
+     * Creates the slots of a list of devices.
+     *
+     * @param devices The devices, all of them instances of {@link Device}.
+     */
+    public DeviceSlots(List<? extends IDevice> devices) {
+        this.devices = devices;
+    }
+
+    /**
+     * Adds the wear and consumption of one tick to the working devices.
+     *
+     * @param meter The meter all devices are connected to, the consumption is added to it at once.
+     */
+    public void accrueTick(EnergyMeter meter) {
+        fastForward(1, meter);
+    }
+
+    /**
+     * Adds the wear and consumption of the given number of ticks to the working devices.
+     *
+     * @param ticks The number of ticks.
+     * @param meter The meter all devices are connected to, the consumption is added to it at once.
+     */
+    public void fastForward(int ticks, EnergyMeter meter) {
+        update();
+        long added = store.accrue(slots, ticks);
+        if (added != 0) {
+            meter.add(added);
+        }
+    }
+
+    /**
+     * Lets the devices which have reached their wear capacity since the last check break.
+     */
+    public void checkIfBroken() {
+        update();
+        store.checkIfBroken(slots);
+    }
+
+    /**
+     * Looks the slots of the devices up again if one of them may have moved.
+     */
+    private void update() {
+        if (slots != null && store.getVersion() == version) {
+            return;
+        }
+        DeviceStateStore shared = devices.isEmpty()
+                ? new DeviceStateStore(1, SimulationClock.REFERENCE) : ((Device) devices.get(0)).getStore();
+        for (IDevice device : devices) {
+            if (((Device) device).getStore() != shared) {
+                shared = new DeviceStateStore(Math.min(devices.size(), DeviceStateStore.MAX_PAGE_SIZE), shared.getClock());
+                for (IDevice moved : devices) {
+                    ((Device) moved).moveTo(shared);
+                }
+                break;
+            }
+        }
+        int currentVersion = shared.getVersion();
+        int[] found = new int[devices.size()];
+        for (int i = 0; i < found.length; i++) {
+            found[i] = ((Device) devices.get(i)).getSlot();
+        }
+        store = shared;
+        version = currentVersion;
+        slots = found;
+    }
+}
@@ -0,0 +1,259 @@
+package cz.cvut.fel.omo.semestral.entity.devices;
+
+import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.tick.SimulationClock;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the devices by their current {@link DeviceState}, kept up to date as the states change.
+ * <p>
+ * Every device is kept in three buckets, one of all devices in its state, one of the devices of its class in
+ * its state and one of the devices of its room in its state. Each device remembers its position in its
+ * buckets, so moving it to the buckets of a new state takes constant time. Listing the devices in a state,
+ * optionally in a room, takes time proportional to the number of listed devices, listing the devices of a class
+ * takes time proportional to the number of devices of the class and its subclasses in the state.
+ * <p>
+ * An index is owned by a {@link cz.cvut.fel.omo.semestral.entity.livingSpace.House} and shared by its rooms,
+ * a room outside of a house keeps an index of its own. The devices are added by the {@link Room} they or
+ * their device system are placed in and removed once they leave it, and the index is updated by the state
+ * setter of {@link Device}. Devices may change their states concurrently.
+ * <p>
+ * The indexed devices keep their values in the {@link DeviceStateStore} of the index, so the devices of a house
+ * share one store and a device leaving the house releases its slot in it.
+ */
+public class DeviceStateIndex {
+    private static final int ALL = 0;
+    private static final int BY_CLASS = 1;
+    private static final int BY_ROOM = 2;
+
+    /** The store the indexed devices keep their values in */
+    private final DeviceStateStore store;
+    /** The entries of the indexed devices */
+    private final Map<IDevice, Entry> entries = new IdentityHashMap<>();
+    /** Devices by their state */
+    private final Map<DeviceState, Bucket> byState = new EnumMap<>(DeviceState.class);
+    /** Devices by their class and state */
+    private final Map<Class<?>, Map<DeviceState, Bucket>> byClass = new HashMap<>();
+    /** Devices by their room and state */
+    private final Map<Room, Map<DeviceState, Bucket>> byRoom = new IdentityHashMap<>();
+
+    /**
+     * Creates the index of the devices of a house.
+     *
+     * @param clock The clock of the house.
+     */
+    public DeviceStateIndex(SimulationClock clock) {
+        this(new DeviceStateStore(clock));
+    }
+
+    /**
+     * Creates an index keeping its devices in the given store.
+     *
+     * @param store The store of the indexed devices.
+     */
+    public DeviceStateIndex(DeviceStateStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Retrieves the store the indexed devices keep their values in.
+     *
+     * @return The store of the index.
+     */
+    public DeviceStateStore getStore() {
+        return store;
+    }
+
+    /**
+     * Adds a device located in a room to the index. The device moves to the store of the index and reports
+     * its state changes to the index from then on.
+     *
+     * @param device The device to be indexed.
+     * @param room   The room the device is located in.
+     */
+    public synchronized void add(IDevice device, Room room) {
+        Entry entry = entries.get(device);
+        if (entry != null) {
+            removeFromBuckets(entry);
+        } else {
+            entry = new Entry(device);
+            entries.put(device, entry);
+            device.setStateIndex(this);
+        }
+        entry.state = device.getState();
+        entry.room = room;
+        addToBuckets(entry);
+    }
+
+    /**
+     * Removes a device from the index, the device releases its slot in the store of the index and stops
+     * reporting its state changes to it.
+     *
+     * @param device The device to be removed.
+     */
+    public synchronized void remove(IDevice device) {
+        Entry entry = entries.remove(device);
+        if (entry != null) {
+            removeFromBuckets(entry);
+            device.setStateIndex(null);
+        }
+    }
+
+    /**
+     * Moves a device to the buckets of its new state.
+     *
+     * @param device The device whose state has changed.
+     * @param state  The new state of the device.
+     */
+    public synchronized void update(IDevice device, DeviceState state) {
+        Entry entry = entries.get(device);
+        if (entry == null || entry.state == state) {
+            return;
+        }
+        removeFromBuckets(entry);
+        entry.state = state;
+        addToBuckets(entry);
+    }
+
+    /**
+     * Lists all indexed devices in a state.
+     *
+     * @param state The state of the devices.
+     * @return The devices in the state.
+     */
+    public synchronized List<IDevice> getDevices(DeviceState state) {
+        return list(byState.get(state), IDevice.class);
+    }
+
+    /**
+     * Lists the indexed devices of a class in a state.
+     *
+     * @param state       The state of the devices.
+     * @param deviceClass The class of the devices, including its subclasses.
+     * @return The devices of the class in the state.
+     */
+    public synchronized <T extends IDevice> List<T> getDevices(DeviceState state, Class<T> deviceClass) {
+        return getDevices(state, deviceClass, null);
+    }
+
+    /**
+     * Lists the devices of a class in a room in a state.
+     *
+     * @param state       The state of the devices.
+     * @param deviceClass The class of the devices, including its subclasses.
+     * @param room        The room of the devices, null for all rooms.
+     * @return The devices of the class in the room in the state.
+     */
+    public synchronized <T extends IDevice> List<T> getDevices(DeviceState state, Class<T> deviceClass, Room room) {
+        List<T> devices = new ArrayList<>();
+        for (Map.Entry<Class<?>, Map<DeviceState, Bucket>> classBuckets : byClass.entrySet()) {
+            Bucket bucket = deviceClass.isAssignableFrom(classBuckets.getKey()) ? classBuckets.getValue().get(state) : null;
+            if (bucket != null) {
+                for (Entry entry : bucket.entries) {
+                    if (room == null || entry.room == room) {
+                        devices.add(deviceClass.cast(entry.device));
+                    }
+                }
+            }
+        }
+        return devices;
+    }
+
+    /**
+     * Lists the devices of a room in a state.
+     *
+     * @param state The state of the devices.
+     * @param room  The room of the devices.
+     * @return The devices of the room in the state.
+     */
+    public synchronized List<IDevice> getDevices(DeviceState state, Room room) {
+        Map<DeviceState, Bucket> buckets = byRoom.get(room);
+        return list(buckets == null ? null : buckets.get(state), IDevice.class);
+    }
+
+    /**
+     * Counts the indexed devices in a state.
+     *
+     * @param state The state of the devices.
+     * @return The number of devices in the state.
+     */
+    public synchronized int count(DeviceState state) {
+        Bucket bucket = byState.get(state);
+        return bucket == null ? 0 : bucket.entries.size();
+    }
+
+    private static <T> List<T> list(Bucket bucket, Class<T> type) {
+        if (bucket == null) {
+            return new ArrayList<>();
+        }
+        List<T> devices = new ArrayList<>(bucket.entries.size());
+        for (Entry entry : bucket.entries) {
+            devices.add(type.cast(entry.device));
+        }
+        return devices;
+    }
+
+    private void addToBuckets(Entry entry) {
+        byState.computeIfAbsent(entry.state, state -> new Bucket()).add(entry, ALL);
+        byClass.computeIfAbsent(entry.device.getClass(), deviceClass -> new EnumMap<>(DeviceState.class))
+                .computeIfAbsent(entry.state, state -> new Bucket()).add(entry, BY_CLASS);
+        if (entry.room != null) {
+            byRoom.computeIfAbsent(entry.room, room -> new EnumMap<>(DeviceState.class))
+                    .computeIfAbsent(entry.state, state -> new Bucket()).add(entry, BY_ROOM);
+        }
+    }
+
+    private void removeFromBuckets(Entry entry) {
+        for (int kind = ALL; kind <= BY_ROOM; kind++) {
+            if (entry.buckets[kind] != null) {
+                entry.buckets[kind].remove(entry, kind);
+            }
+        }
+    }
+
+    /**
+     * An indexed device together with its buckets and its positions in them.
+     */
+    private static final class Entry {
+        private final IDevice device;
+        private DeviceState state;
+        private Room room;
+        private final Bucket[] buckets = new Bucket[BY_ROOM + 1];
+        private final int[] positions = new int[BY_ROOM + 1];
+
+        private Entry(IDevice device) {
+            this.device = device;
+        }
+    }
+
+    /**
+     * Devices sharing a state, and possibly a class or a room.
+     * A removed device is replaced by the last device of the bucket.
+     */
+    private static final class Bucket {
+        private final List<Entry> entries = new ArrayList<>();
+
+        private void add(Entry entry, int kind) {
+            entry.buckets[kind] = this;
+            entry.positions[kind] = entries.size();
+            entries.add(entry);
+        }
+
+        private void remove(Entry entry, int kind) {
+            int position = entry.positions[kind];
+            Entry last = entries.remove(entries.size() - 1);
+            if (last != entry) {
+                entries.set(position, last);
+                last.positions[kind] = position;
+            }
+            entry.buckets[kind] = null;
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package cz.cvut.fel.omo.semestral.entity.devices;
+
+import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.tick.SimulationClock;
+
+import java.util.Arrays;
+
+/**
+ * Storage of the state, wear, wear capacity and energy consumption of a set of devices.
+ * <p>
+ * Instead of every device keeping these values in fields of its own, the store keeps them in primitive
+ * columns indexed by the slot of the device, and {@link Device} is a view over its slot. Next to the values the
+ * store caches the wear and consumption each device accrues on a tick in its current state, so the per-tick
+ * accrual of a device system, see {@link DeviceSlots}, runs as a loop over the columns without calling into
+ * the devices.
+ * <p>
+ * A store is owned by a {@link DeviceStateIndex}, so all devices of a house share one. A device which is not
+ * indexed lives in a store of its own, or in the one of its device system. A device moving to another store
+ * releases its slot, which is reused by the next device added to the store. The store carries the
+ * {@link SimulationClock} of its house, the devices in it scale their rates and lifetimes with it.
+ * <p>
+ * The columns are split into pages which never move once allocated. Adding a page publishes a new page table
+ * with all pages initialized, so a device may be added while other threads update the devices of the store.
+ * Distinct devices may be updated concurrently, a single device must only be updated by one thread at a time.
+ */
+public class DeviceStateStore {
+    /** The largest and default number of devices per page */
+    public static final int MAX_PAGE_SIZE = 1024;
+    private static final DeviceState[] STATES = DeviceState.values();
+
+    /** The rates of the slot have to be computed by its device before they are used */
+    private static final byte STALE = 0;
+    /** The device does not work in its current state, it neither accrues nor may break */
+    private static final byte IDLE = 1;
+    /** The device works in its current state and accrues the cached rates */
+    private static final byte WORKING = 2;
+    /** Set on the slots that have accrued on the current tick until they are checked for wear */
+    private static final byte ACCRUED = 4;
+
+    private final int pageBits;
+    private final int pageMask;
+    /** The clock the devices of the store scale their rates and lifetimes with */
+    private final SimulationClock clock;
+    /** The current page table, replaced as a whole when a page is added */
+    private volatile Pages pages;
+    /** The number of slots ever allocated */
+    private int size;
+    /** Released slots, reused before new ones are allocated */
+    private int[] freeSlots = new int[0];
+    private int freeCount;
+    /** Incremented whenever a slot is released, so views of the slots of a device system know to refresh */
+    private volatile int version;
+
+    /**
+     * Creates a store for the devices of a house, with pages of {@value #MAX_PAGE_SIZE} devices.
+     *
+     * @param clock The clock of the house.
+     */
+    public DeviceStateStore(SimulationClock clock) {
+        this(MAX_PAGE_SIZE, clock);
+    }
+
+    /**
+     * Creates a store for the given number of devices. The store still grows beyond it.
+     *
+     * @param pageSize The number of devices per page, rounded up to a power of two.
+     * @param clock    The clock the devices scale their rates and lifetimes with.
+     */
+    public DeviceStateStore(int pageSize, SimulationClock clock) {
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ": " + pageSize);
+        }
+        this.pageBits = 32 - Integer.numberOfLeadingZeros(pageSize - 1);
+        this.pageMask = (1 << pageBits) - 1;
+        this.clock = clock;
+        this.pages = new Pages(0, pageBits);
+    }
+
+    /**
+     * Moves a device to a slot of this store, copying its values over and releasing its slot in the store it
+     * was in.
+     *
+     * @param device The device to be moved.
+     * @param from   The store the device was in, null for a new device.
+     * @param slot   The slot of the device in its store.
+     * @return The slot of the device in this store.
+     */
+    int moveIn(Device device, DeviceStateStore from, int slot) {
+        int newSlot;
+        synchronized (this) {
+            newSlot = freeCount > 0 ? freeSlots[--freeCount] : allocate();
+        }
+        Pages target = pages;
+        int page = newSlot >> pageBits;
+        int offset = newSlot & pageMask;
+        target.devices[page][offset] = device;
+        target.flags[page][offset] = STALE;
+        if (from != null) {
+            target.states[page][offset] = (byte) from.getState(slot).ordinal();
+            target.wear[page][offset] = from.getWear(slot);
+            target.wearCapacity[page][offset] = from.getWearCapacity(slot);
+            target.energy[page][offset] = from.getEnergy(slot);
+            from.release(slot);
+        }
+        return newSlot;
+    }
+
+    /**
+     * Allocates a slot which has never been used, adding a page if the last one is full.
+     *
+     * @return The allocated slot.
+     */
+    private int allocate() {
+        int slot = size;
+        if ((slot >> pageBits) == pages.states.length) {
+            pages = pages.grow(pageBits);
+        }
+        size++;
+        return slot;
+    }
+
+    /**
+     * Releases the slot of a device which has left the store.
+     *
+     * @param slot The slot to be released.
+     */
+    private synchronized void release(int slot) {
+        pages.devices[slot >> pageBits][slot & pageMask] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(4, freeCount * 2));
+        }
+        freeSlots[freeCount++] = slot;
+        version++;
+    }
+
+    /**
+     * Retrieves the number of devices in the store.
+     *
+     * @return The number of occupied slots.
+     */
+    public synchronized int size() {
+        return size - freeCount;
+    }
+
+    public SimulationClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Retrieves the number of times a slot of the store has been released. A device system caching the slots
+     * of its devices checks it to find out whether some of its devices have moved.
+     *
+     * @return The release count.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public DeviceState getState(int slot) {
+        return STATES[pages.states[slot >> pageBits][slot & pageMask]];
+    }
+
+    /**
+     * Sets the state of a device. The cached rates of the device are computed again on its next tick.
+     *
+     * @param slot  The slot of the device.
+     * @param state The new state of the device.
+     */
+    public void setState(int slot, DeviceState state) {
+        Pages current = pages;
+        current.states[slot >> pageBits][slot & pageMask] = (byte) state.ordinal();
+        invalidateRates(current, slot);
+    }
+
+    /**
+     * Marks the cached rates of a device as stale, for example because it switched to a mode with other rates.
+     *
+     * @param slot The slot of the device.
+     */
+    public void invalidateRates(int slot) {
+        invalidateRates(pages, slot);
+    }
+
+    private void invalidateRates(Pages current, int slot) {
+        byte[] flags = current.flags[slot >> pageBits];
+        int offset = slot & pageMask;
+        flags[offset] = (byte) (flags[offset] & ACCRUED);
+    }
+
+    public int getWear(int slot) {
+        return pages.wear[slot >> pageBits][slot & pageMask];
+    }
+
+    public void setWear(int slot, int totalWear) {
+        pages.wear[slot >> pageBits][slot & pageMask] = totalWear;
+    }
+
+    public void addWear(int slot, int addedWear) {
+        pages.wear[slot >> pageBits][slot & pageMask] += addedWear;
+    }
+
+    /**
+     * Retrieves the wear capacity of a device.
+     *
+     * @param slot The slot of the device.
+     * @return The wear capacity in reference ticks, see {@link #getClock()}.
+     */
+    public int getWearCapacity(int slot) {
+        return pages.wearCapacity[slot >> pageBits][slot & pageMask];
+    }
+
+    public void setWearCapacity(int slot, int capacity) {
+        pages.wearCapacity[slot >> pageBits][slot & pageMask] = capacity;
+    }
+
+    /**
+     * Retrieves the total energy consumption of a device.
+     *
+     * @param slot The slot of the device.
+     * @return The energy in micro-watt-hours, see {@link EnergyMeter}.
+     */
+    public long getEnergy(int slot) {
+        return pages.energy[slot >> pageBits][slot & pageMask];
+    }
+
+    public void addEnergy(int slot, long microWh) {
+        pages.energy[slot >> pageBits][slot & pageMask] += microWh;
+    }
+
+    /**
+     * Adds the wear and consumption of the given number of ticks in their current state to the devices in the
+     * given slots which are working, and marks them to be checked for wear by {@link #checkIfBroken(int[])}.
+     *
+     * @param slots The slots of the devices.
+     * @param ticks The number of ticks.
+     * @return The energy added to all devices together in micro-watt-hours.
+     */
+    public long accrue(int[] slots, int ticks) {
+        Pages current = pages;
+        long added = 0;
+        for (int slot : slots) {
+            added += accrue(current, slot, ticks);
+        }
+        return added;
+    }
+
+    /**
+     * Adds the wear and consumption of the given number of ticks to a single device if it is working.
+     *
+     * @param slot  The slot of the device.
+     * @param ticks The number of ticks.
+     * @return The energy added to the device in micro-watt-hours.
+     */
+    public long accrue(int slot, int ticks) {
+        return accrue(pages, slot, ticks);
+    }
+
+    private long accrue(Pages current, int slot, int ticks) {
+        int page = slot >> pageBits;
+        int offset = slot & pageMask;
+        byte[] flags = current.flags[page];
+        if ((flags[offset] & (IDLE | WORKING)) == STALE) {
+            refreshRates(current, page, offset);
+        }
+        if ((flags[offset] & WORKING) == 0) {
+            return 0;
+        }
+        long energy = current.powerRate[page][offset] * ticks;
+        current.wear[page][offset] += current.wearRate[page][offset] * ticks;
+        current.energy[page][offset] += energy;
+        flags[offset] |= ACCRUED;
+        return energy;
+    }
+
+    /**
+     * Checks the devices which have accrued since the last check for wear, and lets those which have reached
+     * their wear capacity break.
+     *
+     * @param slots The slots of the devices.
+     */
+    public void checkIfBroken(int[] slots) {
+        Pages current = pages;
+        for (int slot : slots) {
+            checkIfBroken(current, slot);
+        }
+    }
+
+    /**
+     * Checks a single device for wear if it has accrued since the last check.
+     *
+     * @param slot The slot of the device.
+     */
+    public void checkIfBroken(int slot) {
+        checkIfBroken(pages, slot);
+    }
+
+    private void checkIfBroken(Pages current, int slot) {
+        int page = slot >> pageBits;
+        int offset = slot & pageMask;
+        byte[] flags = current.flags[page];
+        if ((flags[offset] & ACCRUED) == 0) {
+            return;
+        }
+        flags[offset] &= ~ACCRUED;
+        if (current.wear[page][offset] >= clock.scaleLifetime(current.wearCapacity[page][offset])
+                && current.states[page][offset] != DeviceState.MALFUNCTION.ordinal()) {
+            current.devices[page][offset].checkIfBroken();
+        }
+    }
+
+    /**
+     * Asks the device in a slot for the rates of its current state and caches them.
+     */
+    private void refreshRates(Pages current, int page, int offset) {
+        Device device = current.devices[page][offset];
+        DeviceState state = STATES[current.states[page][offset]];
+        boolean working = device.isWorking(state);
+        current.wearRate[page][offset] = working ? device.getWearPerTick(state) : 0;
+        current.powerRate[page][offset] = working ? EnergyMeter.toMicroWh(device.getPowerConsumptionPerTick(state)) : 0;
+        byte[] flags = current.flags[page];
+        flags[offset] = (byte) ((flags[offset] & ACCRUED) | (working ? WORKING : IDLE));
+    }
+
+    /**
+     * A page table of all columns. Published as a whole, so a thread sees either all columns of a new page
+     * or none of them.
+     */
+    private static final class Pages {
+        /** Ordinal of the {@link DeviceState} of every device */
+        private final byte[][] states;
+        /** Total wear of every device */
+        private final int[][] wear;
+        /** Maximum wear capacity of every device, in reference ticks */
+        private final int[][] wearCapacity;
+        /** Total energy consumption of every device in micro-watt-hours */
+        private final long[][] energy;
+        /** Wear added on each tick in the current state */
+        private final int[][] wearRate;
+        /** Energy consumed on each tick in the current state, in micro-watt-hours */
+        private final long[][] powerRate;
+        /** Whether the rates are up to date, the device is working and it has accrued since its last check */
+        private final byte[][] flags;
+        /** The device in every slot, used to compute its rates and to let it break */
+        private final Device[][] devices;
+
+        private Pages(int count, int pageBits) {
+            int pageSize = 1 << pageBits;
+            states = new byte[count][pageSize];
+            wear = new int[count][pageSize];
+            wearCapacity = new int[count][pageSize];
+            energy = new long[count][pageSize];
+            wearRate = new int[count][pageSize];
+            powerRate = new long[count][pageSize];
+            flags = new byte[count][pageSize];
+            devices = new Device[count][pageSize];
+        }
+
+        private Pages(Pages previous) {
+            int count = previous.states.length + 1;
+            states = Arrays.copyOf(previous.states, count);
+            wear = Arrays.copyOf(previous.wear, count);
+            wearCapacity = Arrays.copyOf(previous.wearCapacity, count);
+            energy = Arrays.copyOf(previous.energy, count);
+            wearRate = Arrays.copyOf(previous.wearRate, count);
+            powerRate = Arrays.copyOf(previous.powerRate, count);
+            flags = Arrays.copyOf(previous.flags, count);
+            devices = Arrays.copyOf(previous.devices, count);
+        }
+
+        /**
+         * Creates a page table with one more page. Existing pages are kept in place, only the tables are copied.
+         */
+        private Pages grow(int pageBits) {
+            Pages grown = new Pages(this);
+            int page = states.length;
+            int pageSize = 1 << pageBits;
+            grown.states[page] = new byte[pageSize];
+            grown.wear[page] = new int[pageSize];
+            grown.wearCapacity[page] = new int[pageSize];
+            grown.energy[page] = new long[pageSize];
+            grown.wearRate[page] = new int[pageSize];
+            grown.powerRate[page] = new long[pageSize];
+            grown.flags[page] = new byte[pageSize];
+            grown.devices[page] = new Device[pageSize];
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package cz.cvut.fel.omo.semestral.entity.devices;
+
+import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.tick.SimulationClock;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Shared description of a model of device.
+ * <p>
+ * The constants of a device model, such as its power consumption in the individual states and the range of its
+ * wear capacity, are the same for every device of the model, so they are kept in a single descriptor which all the devices
+ * refer to instead of every device keeping copies of them in fields of its own. A model is declared once in a
+ * static field of the device class, with the rates of a reference tick of ten minutes, see
+ * {@link SimulationClock#REFERENCE_TICK_DURATION}. The rates are scaled to the tick duration of the clock they are
+ * read with, so devices of one model may take part in simulations of different tick durations.
+ */
+public final class DeviceType {
+    private static final DeviceState[] STATES = DeviceState.values();
+
+    /** The name of the device model */
+    private final String name;
+    /** The smallest wear capacity of a device of the model, in reference ticks */
+    private final int minWearCapacity;
+    /** The largest wear capacity of a device of the model, in reference ticks */
+    private final int maxWearCapacity;
+    /** The power consumption per reference tick in every {@link DeviceState}, indexed by its ordinal */
+    private final double[] powerConsumption = new double[STATES.length];
+
+    private DeviceType(String name, int minWearCapacity, int maxWearCapacity) {
+        if (minWearCapacity <= 0 || maxWearCapacity < minWearCapacity) {
+            throw new IllegalArgumentException("Invalid wear capacity of " + name + ": " + minWearCapacity + "-" + maxWearCapacity);
+        }
+        this.name = name;
+        this.minWearCapacity = minWearCapacity;
+        this.maxWearCapacity = maxWearCapacity;
+    }
+
+    /**
+     * Starts the declaration of a device model whose devices all have the same wear capacity.
+     *
+     * @param name         The name of the device model.
+     * @param wearCapacity The wear capacity of a device of the model, in reference ticks.
+     * @return The model, consuming no power in any state until told otherwise.
+     */
+    public static DeviceType define(String name, int wearCapacity) {
+        return new DeviceType(name, wearCapacity, wearCapacity);
+    }
+
+    /**
+     * Starts the declaration of a device model whose devices each draw their wear capacity from a range,
+     * so devices of the model created together do not all wear out on the same tick.
+     *
+     * @param name            The name of the device model.
+     * @param minWearCapacity The smallest wear capacity of a device of the model, in reference ticks.
+     * @param maxWearCapacity The largest wear capacity of a device of the model, in reference ticks.
+     * @return The model, consuming no power in any state until told otherwise.
+     */
+    public static DeviceType define(String name, int minWearCapacity, int maxWearCapacity) {
+        return new DeviceType(name, minWearCapacity, maxWearCapacity);
+    }
+
+    /**
+     * Sets the power a device of the model consumes on a reference tick spent in the given state.
+     * Must not be called once devices of the model have been created.
+     *
+     * @param state            The state of the device.
+     * @param perReferenceTick The power consumption per reference tick.
+     * @return This model.
+     */
+    public DeviceType power(DeviceState state, double perReferenceTick) {
+        powerConsumption[state.ordinal()] = perReferenceTick;
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMinWearCapacity() {
+        return minWearCapacity;
+    }
+
+    public int getMaxWearCapacity() {
+        return maxWearCapacity;
+    }
+
+    /**
+     * Draws the wear capacity of a new device of the model from the range of the model.
+     *
+     * @return The wear capacity in reference ticks.
+     */
+    public int drawWearCapacity() {
+        if (minWearCapacity == maxWearCapacity) {
+            return minWearCapacity;
+        }
+        return ThreadLocalRandom.current().nextInt(minWearCapacity, maxWearCapacity + 1);
+    }
+
+    /**
+     * Retrieves the power a device of the model consumes on a tick spent in the given state.
+     *
+     * @param state The state of the device.
+     * @param clock The clock of the simulation the device takes part in.
+     * @return The power consumption per tick of the tick duration of the clock.
+     */
+    public double getPowerConsumptionPerTick(DeviceState state, SimulationClock clock) {
+        return clock.scale(powerConsumption[state.ordinal()]);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
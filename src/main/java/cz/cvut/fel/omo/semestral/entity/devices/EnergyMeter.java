@@ -0,0 +1,88 @@
+package cz.cvut.fel.omo.semestral.entity.devices;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-point counter of consumed energy.
+ * <p>
+ * Energy is counted in whole micro-watt-hours, so sums do not drift no matter how many tiny per-tick amounts
+ * are added, and the result does not depend on the order of the additions. Meters form a tree mirroring the
+ * house: the consumption of a device is added to the meter of its device system, which passes it on to the
+ * meter of its room, which passes it on to the meter of the house. Every level therefore holds the exact sum
+ * of the levels below it without summing them up on reading. The counter is a {@link LongAdder}, so devices
+ * ticked on different threads may add to the same meter without contending for it.
+ */
+public class EnergyMeter {
+    /** The number of micro-watt-hours in one kilowatt-hour */
+    public static final long MICRO_WH_PER_KWH = 1_000_000_000L;
+
+    private final LongAdder microWh = new LongAdder();
+    /** The meter the consumption is passed on to, null for the root */
+    private EnergyMeter parent;
+
+    /**
+     * Adds consumed energy to the meter and all meters above it.
+     *
+     * @param microWh The energy in micro-watt-hours, negative to take energy back.
+     */
+    public void add(long microWh) {
+        for (EnergyMeter meter = this; meter != null; meter = meter.parent) {
+            meter.microWh.add(microWh);
+        }
+    }
+
+    /**
+     * Retrieves the energy counted by the meter.
+     *
+     * @return The energy in micro-watt-hours.
+     */
+    public long getMicroWh() {
+        return microWh.sum();
+    }
+
+    /**
+     * Retrieves the energy counted by the meter.
+     *
+     * @return The energy in kilowatt-hours.
+     */
+    public double getKWh() {
+        return toKWh(getMicroWh());
+    }
+
+    /**
+     * Makes the meter pass its consumption on to another meter. The energy counted so far is moved from the
+     * previous parent to the new one. Meters are connected while the house is being set up, not while ticks run.
+     *
+     * @param parent The meter to pass the consumption on to, null to detach the meter.
+     */
+    public void attachTo(EnergyMeter parent) {
+        long counted = getMicroWh();
+        if (this.parent != null) {
+            this.parent.add(-counted);
+        }
+        this.parent = parent;
+        if (parent != null) {
+            parent.add(counted);
+        }
+    }
+
+    /**
+     * Converts energy to micro-watt-hours, rounding to the nearest one.
+     *
+     * @param kWh The energy in kilowatt-hours.
+     * @return The energy in micro-watt-hours.
+     */
+    public static long toMicroWh(double kWh) {
+        return Math.round(kWh * MICRO_WH_PER_KWH);
+    }
+
+    /**
+     * Converts energy to kilowatt-hours.
+     *
+     * @param microWh The energy in micro-watt-hours.
+     * @return The energy in kilowatt-hours.
+     */
+    public static double toKWh(long microWh) {
+        return (double) microWh / MICRO_WH_PER_KWH;
+    }
+}
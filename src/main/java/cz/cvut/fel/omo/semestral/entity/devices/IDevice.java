@@ -34,6 +34,21 @@ public interface IDevice{
      */
     double getTotalPowerConsumption();
 
+    /**
+     * Sets the meter the consumption of the device is added to, see {@link EnergyMeter}.
+     *
+     * @param meter The meter, null to stop metering the device.
+     */
+    void setEnergyMeter(EnergyMeter meter);
+
+    /**
+     * Sets the index the device reports its state changes to, see {@link DeviceStateIndex}.
+     * Called by the index when the device is added to or removed from it.
+     *
+     * @param index The index, null once the device is removed from it.
+     */
+    void setStateIndex(DeviceStateIndex index);
+
     /**
      * Sets the state of the device.
      *
@@ -103,4 +118,39 @@ public interface IDevice{
      */
     void repair(Manual manual);
 
+    /**
+     * Retrieves the number of upcoming ticks during which the device only accrues wear and power consumption
+     * at a constant rate. During these ticks the device neither changes its state nor notifies anyone, so they
+     * can be applied at once by {@link #fastForward(int)}.
+     *
+     * @return The number of steady ticks, {@link Integer#MAX_VALUE} if the device does nothing on its own.
+     */
+    int getSteadyTicks();
+
+    /**
+     * Applies the given number of steady ticks in closed form.
+     * The caller is responsible for not exceeding {@link #getSteadyTicks()}.
+     *
+     * @param ticks The number of ticks to be applied.
+     */
+    void fastForward(int ticks);
+
+    /**
+     * Calculates how many ticks a device can work before the tick in which it breaks.
+     *
+     * @param totalWear    The current wear of the device.
+     * @param wearCapacity The wear at which the device breaks.
+     * @param wearPerTick  The wear added on each tick.
+     * @return The number of ticks before the breaking tick, {@link Integer#MAX_VALUE} if the device does not wear.
+     */
+    static int ticksUntilWornOut(int totalWear, int wearCapacity, int wearPerTick) {
+        if (wearPerTick <= 0) {
+            return Integer.MAX_VALUE;
+        }
+        int remainingWear = wearCapacity - totalWear;
+        if (remainingWear <= 0) {
+            return 0;
+        }
+        return (remainingWear + wearPerTick - 1) / wearPerTick - 1;
+    }
 }
@@ -14,4 +14,15 @@ public interface IDeviceCommand {
      * @param command The command to be executed, as defined in {@link DeviceCommand}.
      */
     void executeCommand(DeviceCommand command);
+
+    /**
+     * Executes a given command carrying a value on the device, such as setting the volume to the value.
+     * Devices without setpoint commands ignore the value.
+     *
+     * @param command The command to be executed, as defined in {@link DeviceCommand}.
+     * @param value   The value of the command, ignored unless {@link DeviceCommand#hasValue()}.
+     */
+    default void executeCommand(DeviceCommand command, double value) {
+        executeCommand(command);
+    }
 }
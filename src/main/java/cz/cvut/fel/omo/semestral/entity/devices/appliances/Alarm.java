@@ -2,6 +2,8 @@ package cz.cvut.fel.omo.semestral.entity.devices.appliances;
 
 import cz.cvut.fel.omo.semestral.common.enums.DeviceCommand;
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
 import lombok.Getter;
 
 import java.util.UUID;
@@ -12,12 +14,13 @@ import java.util.UUID;
  */
 @Getter
 public class Alarm extends Appliance {
+    /** The model of the alarm */
+    private static final DeviceType TYPE = DeviceType.define("Alarm", 100)
+            .power(DeviceState.IDLE, (double) 5 / 600)
+            .power(DeviceState.ON, (double) 5 / 600)
+            .power(DeviceState.ACTIVE, (double) 15 / 600);
     /** Indicates whether the alarm is armed or not */
     private boolean isArmed;
-    /** The power consumption of the alarm system per tick when idle */
-    private final double powerConsumptionPerTick_IDLE = (double) 5 / 600;
-    /** The power consumption of the alarm system per tick when active */
-    private final double powerConsumptionPerTick_ACTIVE = (double) 15 / 600;
 
     /**
      * Constructs a new Alarm with the specified serial number.
@@ -26,11 +29,10 @@ public class Alarm extends Appliance {
      * @param serialNumber The unique identifier for this alarm device.
      */
     public Alarm(UUID serialNumber) {
-        super(serialNumber, 100);
+        super(serialNumber, TYPE);
         this.isArmed = false; // Alarm is disarmed by default
     }
 
-
     /**
      * Executes a specific command on the alarm device.
      * This method allows the alarm to be armed or disarmed based on the provided command.
@@ -54,24 +56,39 @@ public class Alarm extends Appliance {
 
     /**
      * Performs actions on each tick based on the current state of the alarm.
-     * This method updates the power consumption and wear of the alarm, and checks if it's broken.
+     * The power consumption and wear of the tick are accrued by the store of the alarm.
      */
     @Override
-    public void onTick() {
-        DeviceState currentState = this.getState();
-        if(currentState != DeviceState.OFF && currentState!= DeviceState.MALFUNCTION) {
+    public void act() {
+        if (isWorking(getState())) {
             performAllActions();
-            if (currentState == DeviceState.IDLE || currentState == DeviceState.ON) {
-                updatePowerConsumption(powerConsumptionPerTick_IDLE);
-                updateWear(1);
-            } else if ( currentState == DeviceState.ACTIVE) {
-                updatePowerConsumption(powerConsumptionPerTick_ACTIVE);
-                updateWear(5);
-            }
-            checkIfBroken();
         }
     }
 
+    /**
+     * Saves the state of the appliance together with whether the alarm is armed.
+     *
+     * @return The snapshot of the current state.
+     */
+    @Override
+    public StateSnapshot saveState() {
+        StateSnapshot applianceState = super.saveState();
+        boolean savedArmed = isArmed;
+        return () -> {
+            applianceState.restore();
+            isArmed = savedArmed;
+        };
+    }
+
+    @Override
+    protected int getWearPerTick(DeviceState state) {
+        return switch (state) {
+            case IDLE, ON -> 1;
+            case ACTIVE -> 5;
+            default -> 0;
+        };
+    }
+
     /**
      * Arms the alarm system, setting its state to ACTIVE.
      * This method changes the state of the alarm to active if it is not already armed.
@@ -93,5 +110,22 @@ public class Alarm extends Appliance {
             this.setState(DeviceState.IDLE);
         }
     }
-}
 
+    /**
+     * Retrieves the power consumption of the alarm system per tick when idle.
+     *
+     * @return The power consumption per tick.
+     */
+    public double getPowerConsumptionPerTick_IDLE() {
+        return getType().getPowerConsumptionPerTick(DeviceState.IDLE, getClock());
+    }
+
+    /**
+     * Retrieves the power consumption of the alarm system per tick when active.
+     *
+     * @return The power consumption per tick.
+     */
+    public double getPowerConsumptionPerTick_ACTIVE() {
+        return getType().getPowerConsumptionPerTick(DeviceState.ACTIVE, getClock());
+    }
+}
@@ -2,16 +2,19 @@ package cz.cvut.fel.omo.semestral.entity.devices.appliances;
 
 import cz.cvut.fel.omo.semestral.common.enums.DeviceCommand;
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
-import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
+import cz.cvut.fel.omo.semestral.entity.devices.Device;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceEffects;
 import cz.cvut.fel.omo.semestral.entity.devices.IDeviceCommand;
-import cz.cvut.fel.omo.semestral.entity.devices.DeviceMalfunctionObserver;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
 import cz.cvut.fel.omo.semestral.manual.Manual;
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
 import cz.cvut.fel.omo.semestral.tick.Tickable;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.*;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Abstract base class for appliances in the smart home system. This class
@@ -24,37 +27,21 @@ import java.util.*;
 @Getter
 @Setter
 @Slf4j
-public abstract class Appliance implements IDevice, IDeviceCommand, Tickable {
-    /** The unique serial number of the appliance */
-    private UUID serialNumber;
-    /** The current state of the appliance */
-    protected DeviceState state;
-    /** The total wear of the appliance */
-    private int totalWear;
-    /** The total power consumption of the appliance */
-    private double totalPowerConsumption;
-    /** The maximum wear capacity of the appliance */
-    private int wearCapacity;
-    /** List of observers that are notified when the appliance malfunctions */
-    private List<DeviceMalfunctionObserver> malfunctionObservers = new ArrayList<>();
-
-    protected Queue<DeviceCommand> actionPlan;
+public abstract class Appliance extends Device implements IDeviceCommand, Tickable {
+    /** The commands waiting to be executed on the next tick, its depth and high-water mark are kept by the queue */
+    protected CommandQueue actionPlan;
 
     /**
-     * Constructs a new Appliance with the specified serial number and wear capacity.
+     * Constructs a new Appliance of the specified model with the specified serial number.
      * The appliance is initialized with a default state of OFF, total wear of 0,
-     * and total power consumption of 0.
+     * total power consumption of 0 and the wear capacity of its model.
      *
      * @param serialNumber The unique identifier for this appliance.
-     * @param wearCapacity The maximum wear capacity of this appliance.
+     * @param type         The model of this appliance.
      */
-    public Appliance(UUID serialNumber, int wearCapacity) {
-        this.serialNumber = serialNumber;
-        this.state = DeviceState.OFF;
-        this.totalWear = 0;
-        this.totalPowerConsumption = 0;
-        this.wearCapacity = wearCapacity;
-        this.actionPlan = new java.util.LinkedList<>();
+    public Appliance(UUID serialNumber, DeviceType type) {
+        super(serialNumber, type, DeviceState.OFF, 0, 0);
+        this.actionPlan = new CommandQueue();
     }
 
     /**
@@ -65,15 +52,11 @@ public abstract class Appliance implements IDevice, IDeviceCommand, Tickable {
      * @param state                The current state of this appliance.
      * @param totalWear            The total wear of this appliance.
      * @param totalPowerConsumption The total power consumption of this appliance.
-     * @param wearCapacity         The maximum wear capacity of this appliance.
+     * @param type                 The model of this appliance.
      */
-    public Appliance(UUID serialNumber, DeviceState state, int totalWear, double totalPowerConsumption, int wearCapacity) {
-        this.serialNumber = serialNumber;
-        this.state = state;
-        this.totalWear = totalWear;
-        this.totalPowerConsumption = totalPowerConsumption;
-        this.wearCapacity = wearCapacity;
-        this.actionPlan = new java.util.LinkedList<>();
+    public Appliance(UUID serialNumber, DeviceState state, int totalWear, double totalPowerConsumption, DeviceType type) {
+        super(serialNumber, type, state, totalWear, totalPowerConsumption);
+        this.actionPlan = new CommandQueue();
     }
 
     /**
@@ -84,101 +67,68 @@ public abstract class Appliance implements IDevice, IDeviceCommand, Tickable {
      */
     public abstract void executeCommand(DeviceCommand command);
 
-    /**
-     * Sets the state of the appliance to the specified state.
-     * If the new state is different from the current state, the appliance
-     * state is updated and the appliance is notified of the change.
-     *
-     * @param state The new state of the appliance.
-     */
-    public void setState(DeviceState state) {
-        if (this.state != state) {
-            this.state = state;
-        }
-    }
-
-    /**
-     * Turns the appliance on.
-     * This method changes the state of the appliance to ON.
-     */
-    public void turnOn() {
-        this.state = DeviceState.ON;
-    }
-
-    /**
-     * Turns the appliance off.
-     * This method changes the state of the appliance to OFF.
-     */
-    public void turnOff() {
-        this.state = DeviceState.OFF;
-    }
-
     /**
      * This method changes the state of the appliance to IDLE.
      */
-    public void setIdle() {this.state = DeviceState.IDLE;}
+    public void setIdle() {storeState(DeviceState.IDLE);}
 
     /**
-     * Updates the total power consumption of the device.
-     * This method increments the existing power consumption value by the specified amount.
-     *
-     * @param powerConsumption the amount of power to add to the total consumption.
+     * Checks if the device is broken based on its wear.
+     * If the total wear exceeds the wear capacity, the device state is set to MALFUNCTION.
      */
-    public void updatePowerConsumption(double powerConsumption){
-        this.totalPowerConsumption += powerConsumption;
-    };
+    public void checkIfBroken() {
+        if (this.getState() != DeviceState.MALFUNCTION) {
+            if (isWornOut()) {
+                this.setState(DeviceState.MALFUNCTION);
+                DeviceEffects.info(log, "{} {} has broken.", this.getClass().getSimpleName(), this.getSerialNumber());
+                notifyMalfunctionObservers();
 
-    /**
-     * Updates the wear of the device.
-     * This method increments the total wear of the device by the specified amount.
-     *
-     * @param wear the amount of wear to add to the total wear.
-     */
-    public void updateWear(int wear){
-        this.totalWear += wear;
-    };
+            }
+        }
+    }
 
     /**
-     * Adds a malfunction observer to this device.
-     * The observer will be notified when the device malfunctions.
+     * An appliance works in every state but OFF and MALFUNCTION.
      *
-     * @param observer the observer to be added.
+     * @param state The state of the appliance at the start of the tick.
+     * @return True if the appliance works in the state.
      */
     @Override
-    public void addMalfunctionObserver(DeviceMalfunctionObserver observer) {
-        malfunctionObservers.add(observer);
+    protected boolean isWorking(DeviceState state) {
+        return state != DeviceState.OFF && state != DeviceState.MALFUNCTION;
     }
 
     /**
-     * Notifies all registered malfunction observers about a malfunction.
-     * This method is called when the device state changes to MALFUNCTION.
+     * An appliance is steady while it has no commands to execute, until the tick in which it wears out.
+     *
+     * @return The number of steady ticks.
      */
     @Override
-    public void notifyMalfunctionObservers() {
-        for (DeviceMalfunctionObserver observer : malfunctionObservers) {
-            observer.onDeviceMalfunction(this);
+    public int getSteadyTicks() {
+        DeviceState state = getState();
+        if (state == DeviceState.OFF || state == DeviceState.MALFUNCTION) {
+            return Integer.MAX_VALUE;
         }
-    }
-
-    /**
-     * Checks if the device is broken based on its wear.
-     * If the total wear exceeds the wear capacity, the device state is set to MALFUNCTION.
-     */
-    public void checkIfBroken() {
-        if (this.getState() != DeviceState.MALFUNCTION) {
-            if (this.totalWear >= wearCapacity) {
-                this.setState(DeviceState.MALFUNCTION);
-                log.info(this.getClass().getSimpleName() + " " + this.getSerialNumber() + " has broken.");
-                notifyMalfunctionObservers();
-
-            }
+        if (!actionPlan.isEmpty()) {
+            return 0;
         }
+        return ticksUntilWornOut(getWearPerTick(state));
     }
 
     /**
-     * Abstract method to be implemented by subclasses to define actions on each tick.
+     * Saves the state, wear, power consumption and pending commands of the appliance.
+     *
+     * @return The snapshot of the current state.
      */
-    public abstract void onTick();
+    @Override
+    public StateSnapshot saveState() {
+        StateSnapshot deviceState = saveDeviceState();
+        CommandQueue savedActionPlan = actionPlan.copy();
+        return () -> {
+            deviceState.restore();
+            actionPlan.restore(savedActionPlan);
+        };
+    }
 
     /**
      * Adds a device command to the action plan queue.
@@ -187,28 +137,30 @@ public abstract class Appliance implements IDevice, IDeviceCommand, Tickable {
      * @param command the device command to be added to the action plan.
      */
     public void addtoActionPlan(DeviceCommand command) {
-        actionPlan.add(command);
+        if (!actionPlan.add(command)) {
+            DeviceEffects.warn(log, "{} {}: command queue full, {} rejected.", this.getClass().getSimpleName(), this.getSerialNumber(), command);
+        }
     }
 
     /**
-     * Executes all actions in the action plan.
-     * This method processes and executes each command in the action plan queue.
+     * Adds a device command carrying a value, such as a setpoint, to the action plan queue.
+     * The command will be executed when performAllActions() is called.
+     *
+     * @param command the device command to be added to the action plan.
+     * @param value   the value of the command.
      */
-    public void performAllActions() {
-        while (!actionPlan.isEmpty()) {
-            DeviceCommand command = actionPlan.poll();
-            executeCommand(command);
+    public void addtoActionPlan(DeviceCommand command, double value) {
+        if (!actionPlan.add(command, value)) {
+            DeviceEffects.warn(log, "{} {}: command queue full, {} {} rejected.", this.getClass().getSimpleName(), this.getSerialNumber(), command, value);
         }
     }
 
     /**
-     * Returns the serial number of the device.
-     *
-     * @return the UUID representing the serial number of the device.
+     * Executes all actions in the action plan.
+     * This method processes and executes each command in the action plan queue.
      */
-    @Override
-    public UUID getSerialNumber() {
-        return serialNumber;
+    public void performAllActions() {
+        actionPlan.executeAll(this);
     }
 
     /**
@@ -219,9 +171,10 @@ public abstract class Appliance implements IDevice, IDeviceCommand, Tickable {
      */
     @Override
     public void repair(Manual manual){
+        notifyRepairObservers();
         this.setState(DeviceState.ON);
-        this.totalWear = 0;
-        log.info(this.getClass().getSimpleName() + " " + this.getSerialNumber() + " has been repaired with manual.");
+        setTotalWear(0);
+        log.info("{} {} has been repaired with manual.", this.getClass().getSimpleName(), this.getSerialNumber());
     }
 
     /**
@@ -230,11 +183,9 @@ public abstract class Appliance implements IDevice, IDeviceCommand, Tickable {
      */
     @Override
     public void repair(){
+        notifyRepairObservers();
         this.setState(DeviceState.ON);
-        this.totalWear = new Random().nextInt(wearCapacity/2);
-        log.info(this.getClass().getSimpleName() + " " + this.getSerialNumber() + " has been repaired without manual.");
+        setTotalWear(ThreadLocalRandom.current().nextInt(getLifetime()/2));
+        log.info("{} {} has been repaired without manual.", this.getClass().getSimpleName(), this.getSerialNumber());
     }
-
-
-
 }
@@ -0,0 +1,136 @@
+package cz.cvut.fel.omo.semestral.entity.devices.appliances;
+
+import cz.cvut.fel.omo.semestral.common.enums.DeviceCommand;
+import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceEffects;
+import cz.cvut.fel.omo.semestral.entity.devices.IDeviceCommand;
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A group of appliances commanded together, such as all lights of a room.
+ * <p>
+ * A command for the group is queued once in the {@link CommandQueue} of the group instead of once per
+ * appliance, and {@link #performAllActions()} broadcasts it to all members in a single pass. Commands for the
+ * group coalesce like the commands of a single appliance, so a controller switching the lights of a large
+ * installation on and off within one tick costs one queued command, not one per fixture. A member which is
+ * turned off or broken when a command is broadcast gets the command queued in its own action plan instead, so
+ * it executes the command once it works again, just as it would have if it had been commanded on its own.
+ *
+ * @param <T> The type of the grouped appliances.
+ */
+@Slf4j
+public class ApplianceGroup<T extends Appliance> implements IDeviceCommand {
+    /** The grouped appliances */
+    private final List<T> members;
+    /** The commands waiting to be broadcast to the members */
+    private final CommandQueue actionPlan;
+
+    /**
+     * Creates a group of appliances with a command queue of the default capacity.
+     *
+     * @param members The appliances of the group.
+     */
+    public ApplianceGroup(List<T> members) {
+        this(members, new CommandQueue());
+    }
+
+    /**
+     * Creates a group of appliances.
+     *
+     * @param members    The appliances of the group.
+     * @param actionPlan The queue of the commands waiting to be broadcast to the members.
+     */
+    public ApplianceGroup(List<T> members, CommandQueue actionPlan) {
+        // An array list view, so iterating the members does not allocate an iterator
+        this.members = Collections.unmodifiableList(new ArrayList<>(members));
+        this.actionPlan = actionPlan;
+    }
+
+    public List<T> getMembers() {
+        return members;
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    /**
+     * Queues a command for all members of the group.
+     *
+     * @param command The command to be broadcast.
+     */
+    public void addtoActionPlan(DeviceCommand command) {
+        if (!actionPlan.add(command)) {
+            DeviceEffects.warn(log, "Group of {} appliances: command queue full, {} rejected.", members.size(), command);
+        }
+    }
+
+    /**
+     * Queues a command carrying a value for all members of the group.
+     *
+     * @param command The command to be broadcast.
+     * @param value   The value of the command.
+     */
+    public void addtoActionPlan(DeviceCommand command, double value) {
+        if (!actionPlan.add(command, value)) {
+            DeviceEffects.warn(log, "Group of {} appliances: command queue full, {} {} rejected.", members.size(), command, value);
+        }
+    }
+
+    /**
+     * Broadcasts the queued commands to the members of the group.
+     * Called by the device system once its appliances have been ticked.
+     */
+    public void performAllActions() {
+        actionPlan.executeAll(this);
+    }
+
+    public boolean hasPendingCommands() {
+        return !actionPlan.isEmpty();
+    }
+
+    /**
+     * Executes a command on every member which is working and queues it for the others.
+     *
+     * @param command The command to be executed.
+     */
+    @Override
+    public void executeCommand(DeviceCommand command) {
+        executeCommand(command, 0);
+    }
+
+    /**
+     * Executes a command carrying a value on every member which is working and queues it in the action plan
+     * of every member which is turned off or broken.
+     *
+     * @param command The command to be executed.
+     * @param value   The value of the command.
+     */
+    @Override
+    public void executeCommand(DeviceCommand command, double value) {
+        for (int i = 0; i < members.size(); i++) {
+            T member = members.get(i);
+            DeviceState state = member.getState();
+            if (state != DeviceState.OFF && state != DeviceState.MALFUNCTION) {
+                member.executeCommand(command, value);
+            } else {
+                member.addtoActionPlan(command, value);
+            }
+        }
+    }
+
+    /**
+     * Saves the commands waiting to be broadcast. The members save their own state.
+     *
+     * @return The snapshot of the queued commands.
+     */
+    public StateSnapshot saveState() {
+        CommandQueue savedActionPlan = actionPlan.copy();
+        return () -> actionPlan.restore(savedActionPlan);
+    }
+}
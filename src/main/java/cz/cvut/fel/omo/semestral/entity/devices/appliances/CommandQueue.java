@@ -0,0 +1,290 @@
+package cz.cvut.fel.omo.semestral.entity.devices.appliances;
+
+import cz.cvut.fel.omo.semestral.common.enums.DeviceCommand;
+import cz.cvut.fel.omo.semestral.entity.devices.IDeviceCommand;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Bounded queue of the commands waiting to be executed by an appliance.
+ * <p>
+ * The commands are kept in a ring buffer of command ordinals and their values, so queueing and executing
+ * commands does not allocate. What happens when a command is added to a full queue is given by the
+ * {@link OverflowPolicy} of the queue. Under {@link OverflowPolicy#COALESCE} a command which
+ * {@link DeviceCommand#supersedes(DeviceCommand) supersedes} the last queued command replaces it instead of
+ * being queued behind it, so a burst of commands changing the same setting, such as several HVAC mode
+ * switches within one tick, is executed once.
+ * <p>
+ * An exclusive queue is used by the thread ticking its appliance only. A concurrent queue may be filled by
+ * one thread, such as the thread of a controller, while another thread executes the commands, without
+ * locking. The producer publishes a command by a release store of the tail, which the consumer reads with
+ * acquire semantics before reading the command, and the consumer frees a slot the same way through the head.
+ * The last queued command may already be executing then, so a concurrent queue does not replace it;
+ * superseded commands are skipped when the commands are executed instead. The statistics are each updated by
+ * one side only and may lag behind when read by the other.
+ */
+public class CommandQueue {
+    /** The capacity of a queue unless configured otherwise, far above the depth the scenarios reach */
+    public static final int DEFAULT_CAPACITY = 64;
+    private static final DeviceCommand[] COMMANDS = DeviceCommand.values();
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(CommandQueue.class, "head", long.class);
+            TAIL = lookup.findVarHandle(CommandQueue.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** Ordinals of the queued commands */
+    private final byte[] commands;
+    /** Values of the queued commands */
+    private final double[] values;
+    private final int mask;
+    private final OverflowPolicy overflowPolicy;
+    private final boolean concurrent;
+    /** Sequence number of the next command to be executed, advanced by the consumer and by dropping commands */
+    @SuppressWarnings("unused")
+    private volatile long head;
+    /** Sequence number of the next free slot, only advanced by the producer */
+    @SuppressWarnings("unused")
+    private volatile long tail;
+
+    // Statistics, each updated by one side only
+    private long highWaterMark;
+    private long coalescedCount;
+    private long skippedCount;
+    private long droppedCount;
+    private long rejectedCount;
+
+    /**
+     * Creates an exclusive queue of the default capacity coalescing superseded commands.
+     */
+    public CommandQueue() {
+        this(DEFAULT_CAPACITY, OverflowPolicy.COALESCE);
+    }
+
+    /**
+     * Creates an exclusive queue.
+     *
+     * @param capacity       The maximum number of queued commands, rounded up to a power of two.
+     * @param overflowPolicy What happens to commands added to a full queue.
+     */
+    public CommandQueue(int capacity, OverflowPolicy overflowPolicy) {
+        this(capacity, overflowPolicy, false);
+    }
+
+    /**
+     * Creates a queue.
+     *
+     * @param capacity       The maximum number of queued commands, rounded up to a power of two.
+     * @param overflowPolicy What happens to commands added to a full queue.
+     * @param concurrent     Whether commands may be added and executed by two different threads.
+     */
+    public CommandQueue(int capacity, OverflowPolicy overflowPolicy, boolean concurrent) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Command queue capacity must be positive: " + capacity);
+        }
+        int size = Math.max(Integer.highestOneBit(capacity - 1) << 1, 1);
+        this.commands = new byte[size];
+        this.values = new double[size];
+        this.mask = size - 1;
+        this.overflowPolicy = overflowPolicy;
+        this.concurrent = concurrent;
+    }
+
+    /**
+     * Queues a command without a value.
+     *
+     * @param command The command to be queued.
+     * @return False if the command was rejected because the queue is full.
+     */
+    public boolean add(DeviceCommand command) {
+        return add(command, 0);
+    }
+
+    /**
+     * Queues a command. Must only be called by one thread at a time.
+     *
+     * @param command The command to be queued.
+     * @param value   The value of the command, ignored unless {@link DeviceCommand#hasValue()}.
+     * @return False if the command was rejected because the queue is full.
+     */
+    public boolean add(DeviceCommand command, double value) {
+        long t = (long) TAIL.getOpaque(this);
+        long h = (long) HEAD.getAcquire(this);
+        if (overflowPolicy == OverflowPolicy.COALESCE && !concurrent && t > h
+                && command.supersedes(COMMANDS[commands[(int) (t - 1) & mask]])) {
+            int slot = (int) (t - 1) & mask;
+            commands[slot] = (byte) command.ordinal();
+            values[slot] = value;
+            coalescedCount++;
+            return true;
+        }
+        if (t - h > mask) {
+            if (overflowPolicy != OverflowPolicy.DROP_OLDEST) {
+                rejectedCount++;
+                return false;
+            }
+            // The consumer taking the oldest command in the meantime frees the slot just as well
+            if (HEAD.compareAndSet(this, h, h + 1)) {
+                droppedCount++;
+            }
+        }
+        int slot = (int) t & mask;
+        commands[slot] = (byte) command.ordinal();
+        values[slot] = value;
+        TAIL.setRelease(this, t + 1);
+        highWaterMark = Math.max(highWaterMark, t + 1 - (long) HEAD.getAcquire(this));
+        return true;
+    }
+
+    /**
+     * Removes the queued commands and executes them in order on the given device. Commands queued while
+     * executing are executed as well. Must only be called by one thread at a time.
+     *
+     * @param device The device to execute the commands.
+     */
+    public void executeAll(IDeviceCommand device) {
+        long h = (long) HEAD.getAcquire(this);
+        while (h < (long) TAIL.getAcquire(this)) {
+            int slot = (int) h & mask;
+            DeviceCommand command = COMMANDS[commands[slot]];
+            double value = values[slot];
+            if (concurrent) {
+                if (!HEAD.compareAndSet(this, h, h + 1)) {
+                    // The command has been dropped by the producer
+                    h = (long) HEAD.getAcquire(this);
+                    continue;
+                }
+                if (overflowPolicy == OverflowPolicy.COALESCE && h + 1 < (long) TAIL.getAcquire(this)
+                        && COMMANDS[commands[(int) (h + 1) & mask]].supersedes(command)) {
+                    skippedCount++;
+                    h++;
+                    continue;
+                }
+            } else {
+                HEAD.setRelease(this, h + 1);
+            }
+            device.executeCommand(command, value);
+            h = (long) HEAD.getAcquire(this);
+        }
+    }
+
+    public boolean isEmpty() {
+        return (long) HEAD.getAcquire(this) >= (long) TAIL.getAcquire(this);
+    }
+
+    /**
+     * Retrieves the number of queued commands.
+     *
+     * @return The queue depth.
+     */
+    public int size() {
+        long h = (long) HEAD.getAcquire(this);
+        return (int) Math.max(0, (long) TAIL.getAcquire(this) - h);
+    }
+
+    /**
+     * Retrieves the maximum number of queued commands.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    /**
+     * Retrieves the largest number of commands that have been queued at once.
+     *
+     * @return The high-water mark of the queue depth.
+     */
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Retrieves the number of commands which have not been executed because a later command superseded them.
+     *
+     * @return The number of coalesced commands.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount + skippedCount;
+    }
+
+    /**
+     * Retrieves the number of queued commands dropped to make room under {@link OverflowPolicy#DROP_OLDEST}.
+     *
+     * @return The number of dropped commands.
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Retrieves the number of commands not queued because the queue was full.
+     *
+     * @return The number of rejected commands.
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Creates a copy of the queued commands and statistics, used to save the state of the appliance.
+     *
+     * @return The copy.
+     */
+    public CommandQueue copy() {
+        CommandQueue copy = new CommandQueue(getCapacity(), overflowPolicy, concurrent);
+        copy.restore(this);
+        return copy;
+    }
+
+    /**
+     * Replaces the queued commands and statistics by those of another queue of the same capacity, used to
+     * restore a saved state while no commands are being added or executed.
+     *
+     * @param other The queue to take the commands from.
+     */
+    public void restore(CommandQueue other) {
+        long otherHead = (long) HEAD.getAcquire(other);
+        int count = (int) ((long) TAIL.getAcquire(other) - otherHead);
+        for (int i = 0; i < count; i++) {
+            commands[i] = other.commands[(int) (otherHead + i) & other.mask];
+            values[i] = other.values[(int) (otherHead + i) & other.mask];
+        }
+        HEAD.setRelease(this, 0L);
+        TAIL.setRelease(this, (long) count);
+        highWaterMark = other.highWaterMark;
+        coalescedCount = other.coalescedCount;
+        skippedCount = other.skippedCount;
+        droppedCount = other.droppedCount;
+        rejectedCount = other.rejectedCount;
+    }
+
+    /**
+     * What happens to a command added to a full queue.
+     */
+    public enum OverflowPolicy {
+        /** The oldest queued command is dropped to make room for the new one */
+        DROP_OLDEST,
+        /** The new command is rejected */
+        REJECT,
+        /** Superseded commands are replaced as they are added, a new command which supersedes none is rejected */
+        COALESCE
+    }
+}
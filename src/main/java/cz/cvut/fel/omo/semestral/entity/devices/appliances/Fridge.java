@@ -2,6 +2,9 @@ package cz.cvut.fel.omo.semestral.entity.devices.appliances;
 
 import cz.cvut.fel.omo.semestral.common.enums.DeviceCommand;
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceEffects;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -14,10 +17,11 @@ import java.util.UUID;
 @Getter
 @Slf4j
 public class Fridge extends Appliance {
+    /** The model of the fridge */
+    private static final DeviceType TYPE = DeviceType.define("Fridge", 500)
+            .power(DeviceState.ON, (double) 30 / 600);
     /** The internal temperature of the fridge in Celsius */
     private double internalTemperature;
-    /** The power consumption of the fridge per tick */
-    private final double powerConsumptionPerTick = (double) 30 / 600;
 
     /**
      * Constructs a new Fridge with the specified serial number.
@@ -26,7 +30,7 @@ public class Fridge extends Appliance {
      * @param serialNumber The unique identifier for this fridge appliance.
      */
     public Fridge(UUID serialNumber) {
-        super(serialNumber, 500);
+        super(serialNumber, TYPE);
         this.internalTemperature = 4.0; // Default temperature in Celsius
     }
 
@@ -52,25 +56,61 @@ public class Fridge extends Appliance {
                 adjustTemperature(internalTemperature - 1);
                 break;
             default:
-                System.out.println("Command not recognized for Fridge.");
+                DeviceEffects.warn(log, "Command not recognized for Fridge.");
                 break;
         }
     }
 
+    /**
+     * Executes a command carrying a value on the fridge, setting its internal temperature to the value.
+     *
+     * @param command The device command to be executed.
+     * @param value   The temperature to set, in Celsius.
+     */
+    @Override
+    public void executeCommand(DeviceCommand command, double value) {
+        if (command == DeviceCommand.SET_TEMPERATURE) {
+            adjustTemperature(value);
+        } else {
+            executeCommand(command);
+        }
+    }
+
     /**
      * Performs actions on each tick based on the current state of the fridge.
-     * This method updates the wear and power consumption of the fridge, and checks if it's broken.
+     * The wear and power consumption of the tick are accrued by the store of the fridge.
      */
     @Override
-    public void onTick() {
-        DeviceState currentState = this.getState();
-        if (currentState != DeviceState.OFF && currentState != DeviceState.MALFUNCTION) {
+    public void act() {
+        if (isWorking(getState())) {
             performAllActions();
-            updateWear(5);
-            updatePowerConsumption(powerConsumptionPerTick);
-            checkIfBroken();
         }
     }
+
+    /**
+     * Saves the state of the appliance together with the internal temperature.
+     *
+     * @return The snapshot of the current state.
+     */
+    @Override
+    public StateSnapshot saveState() {
+        StateSnapshot applianceState = super.saveState();
+        double savedTemperature = internalTemperature;
+        return () -> {
+            applianceState.restore();
+            internalTemperature = savedTemperature;
+        };
+    }
+
+    @Override
+    protected int getWearPerTick(DeviceState state) {
+        return 5;
+    }
+
+    @Override
+    protected double getPowerConsumptionPerTick(DeviceState state) {
+        return getPowerConsumptionPerTick();
+    }
     /**
      * Adjusts the internal temperature of the fridge.
      * This method sets the temperature within a safe range between 1°C and
@@ -94,7 +134,7 @@ public class Fridge extends Appliance {
             this.internalTemperature = newTemperature;
         }
 
-        System.out.println("Fridge temperature set to " + this.internalTemperature + "°C");
+        DeviceEffects.info(log, "Fridge temperature set to {}°C", this.internalTemperature);
     }
 
     /**
@@ -106,6 +146,12 @@ public class Fridge extends Appliance {
         this.setState(DeviceState.ON);
     }
 
-
+    /**
+     * Retrieves the power consumption of the fridge per tick.
+     *
+     * @return The power consumption per tick.
+     */
+    public double getPowerConsumptionPerTick() {
+        return getType().getPowerConsumptionPerTick(DeviceState.ON, getClock());
+    }
 }
-
@@ -2,6 +2,9 @@ package cz.cvut.fel.omo.semestral.entity.devices.appliances;
 
 import cz.cvut.fel.omo.semestral.common.enums.DeviceCommand;
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceEffects;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -16,14 +19,12 @@ import java.util.UUID;
 @Getter
 @Slf4j
 public class Gate extends Appliance {
+    /** The model of the gate */
+    private static final DeviceType TYPE = DeviceType.define("Gate", 100)
+            .power(DeviceState.IDLE, (double) 5 / 600)
+            .power(DeviceState.ACTIVE, (double) 15 / 600);
     /** Indicates whether the gate is open or closed */
     public boolean isOpen;
-    /** The maximum wear capacity of the gate */
-    private final int wearCapacity = 100;
-    /** The power consumption of the gate per tick when idle */
-    private final double powerConsumptionPerTick_IDLE = (double) 5 / 600;
-    /** The power consumption of the gate per tick when active */
-    private final double powerConsumptionPerTick_ACTIVE = (double) 15 / 600;
 
     /**
      * Constructs a new Gate instance with the specified serial number.
@@ -31,7 +32,7 @@ public class Gate extends Appliance {
      * @param serialNumber The unique identifier for the gate.
      */
     public Gate(UUID serialNumber) {
-        super(serialNumber, 100);
+        super(serialNumber, TYPE);
         this.isOpen = false; // Gates are closed by default
     }
 
@@ -56,23 +57,50 @@ public class Gate extends Appliance {
      * Performs actions on the gate during each tick.
      */
     @Override
-    public void onTick() {
-        DeviceState currentState = this.getState();
-        if (currentState != DeviceState.OFF && currentState != DeviceState.MALFUNCTION) {
+    public void act() {
+        if (isWorking(getState())) {
             performAllActions();
-            updateWear(1);
-            updatePowerConsumption(powerConsumptionPerTick_IDLE);
-            checkIfBroken();
         }
     }
 
+    /**
+     * Saves the state of the appliance together with whether the gate is open.
+     *
+     * @return The snapshot of the current state.
+     */
+    @Override
+    public StateSnapshot saveState() {
+        StateSnapshot applianceState = super.saveState();
+        boolean savedOpen = isOpen;
+        return () -> {
+            applianceState.restore();
+            isOpen = savedOpen;
+        };
+    }
+
+    /**
+     * The gate wears at the idle rate on every tick, opening and closing adds its own wear.
+     *
+     * @param state The state of the gate at the start of the tick.
+     * @return The wear per tick.
+     */
+    @Override
+    protected int getWearPerTick(DeviceState state) {
+        return 1;
+    }
+
+    @Override
+    protected double getPowerConsumptionPerTick(DeviceState state) {
+        return getPowerConsumptionPerTick_IDLE();
+    }
+
     private void openGate() {
         if (!isOpen) {
             this.isOpen = true;
             this.setState(DeviceState.ACTIVE);
             updateWear(10);
-            updatePowerConsumption(powerConsumptionPerTick_ACTIVE);
-            log.info("Gate: Opened.");
+            updatePowerConsumption(getPowerConsumptionPerTick_ACTIVE());
+            DeviceEffects.info(log, "Gate: Opened.");
         }
     }
 
@@ -80,9 +108,9 @@ public class Gate extends Appliance {
         if (isOpen) {
             this.isOpen = false;
             this.setState(DeviceState.IDLE);
-            updatePowerConsumption(powerConsumptionPerTick_ACTIVE);
+            updatePowerConsumption(getPowerConsumptionPerTick_ACTIVE());
             updateWear(10);
-            log.info("Gate: Closed.");
+            DeviceEffects.info(log, "Gate: Closed.");
         }
     }
 
@@ -96,5 +124,22 @@ public class Gate extends Appliance {
             openGate();
         }
     }
-}
 
+    /**
+     * Retrieves the power consumption of the gate per tick when idle.
+     *
+     * @return The power consumption per tick.
+     */
+    public double getPowerConsumptionPerTick_IDLE() {
+        return getType().getPowerConsumptionPerTick(DeviceState.IDLE, getClock());
+    }
+
+    /**
+     * Retrieves the power consumption of the gate per tick when active.
+     *
+     * @return The power consumption per tick.
+     */
+    public double getPowerConsumptionPerTick_ACTIVE() {
+        return getType().getPowerConsumptionPerTick(DeviceState.ACTIVE, getClock());
+    }
+}
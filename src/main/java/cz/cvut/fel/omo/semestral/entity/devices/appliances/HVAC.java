@@ -2,8 +2,10 @@ package cz.cvut.fel.omo.semestral.entity.devices.appliances;
 
 import cz.cvut.fel.omo.semestral.common.enums.DeviceCommand;
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
 import cz.cvut.fel.omo.semestral.entity.livingSpace.Temperature;
 import cz.cvut.fel.omo.semestral.entity.devices.appliances.states.*;
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
 import lombok.Getter;
 
 import java.util.UUID;
@@ -17,10 +19,19 @@ import java.util.UUID;
  * and transitions to other states based on received commands.
  */
 @Getter
-
 public class HVAC extends Appliance {
+    /** The model of the HVAC, its power consumption is given by its {@link HVACState} */
+    private static final DeviceType TYPE = DeviceType.define("HVAC", 5000);
     /** The current state of the HVAC system */
     private HVACState currentState;
+    /** The heating state, reused by every switch to heating */
+    private final HVACState heatingState = new HeatingState();
+    /** The cooling state, reused by every switch to cooling */
+    private final HVACState coolingState = new CoolingState();
+    /** The ventilation state, reused by every switch to ventilation */
+    private final HVACState ventilationState = new VentilationState();
+    /** The off state, reused by every switch off */
+    private final HVACState offState = new OffState();
     /** The internal temperature of the HVAC system */
     private final Temperature internalTemperature;
 
@@ -31,8 +42,8 @@ public class HVAC extends Appliance {
      * @param internalTemperature The initial internal temperature of the HVAC system.
      */
     public HVAC(UUID serialNumber, Temperature internalTemperature) {
-        super(serialNumber, 5000);
-        this.currentState = new OffState(); // Default state is off
+        super(serialNumber, TYPE);
+        this.currentState = offState; // Default state is off
         this.internalTemperature = internalTemperature;
     }
 
@@ -44,6 +55,7 @@ public class HVAC extends Appliance {
     public void setState(HVACState newState) {
 
         this.currentState = newState;
+        invalidateRates();
     }
 
     /**
@@ -55,16 +67,16 @@ public class HVAC extends Appliance {
     public void executeCommand(DeviceCommand command) {
         switch (command) {
             case SWITCH_TO_HEATING:
-                setState(new HeatingState());
+                setState(heatingState);
                 break;
             case SWITCH_TO_COOLING:
-                setState(new CoolingState());
+                setState(coolingState);
                 break;
             case SWITCH_TO_VENTILATION:
-                setState(new VentilationState());
+                setState(ventilationState);
                 break;
             case TURN_OFF:
-                setState(new OffState());
+                setState(offState);
                 break;
             default:
                 System.out.println("Command not recognized for HVAC.");
@@ -76,14 +88,103 @@ public class HVAC extends Appliance {
      * Performs actions on the HVAC system during each tick.
      */
     @Override
-    public void onTick() {
-        DeviceState currentState = this.getState();
-        if (currentState != DeviceState.OFF && currentState != DeviceState.MALFUNCTION) {
+    public void act() {
+        if (isWorking(getState())) {
             performAllActions();
             adjustTemperature();
-            updateWear(this.currentState.getWearPerTick());
-            updatePowerConsumption(this.currentState.getPowerConsumptionPerTick());
-            checkIfBroken();
+        }
+    }
+
+    /**
+     * Saves the state of the appliance together with the HVAC state and the internal temperature it adjusts.
+     *
+     * @return The snapshot of the current state.
+     */
+    @Override
+    public StateSnapshot saveState() {
+        StateSnapshot applianceState = super.saveState();
+        HVACState savedHVACState = currentState;
+        double savedTemperature = internalTemperature.getTemperature();
+        return () -> {
+            applianceState.restore();
+            currentState = savedHVACState;
+            invalidateRates();
+            internalTemperature.setTemperature(savedTemperature);
+        };
+    }
+
+    /**
+     * The wear of the HVAC depends on its current {@link HVACState}, not on the device state.
+     *
+     * @param state The device state of the HVAC.
+     * @return The wear per tick of the current HVAC state.
+     */
+    @Override
+    protected int getWearPerTick(DeviceState state) {
+        return this.currentState.getWearPerTick();
+    }
+
+    /**
+     * The power consumption of the HVAC depends on its current {@link HVACState}, not on the device state.
+     *
+     * @param state The device state of the HVAC.
+     * @return The power consumption per tick of the current HVAC state.
+     */
+    @Override
+    protected double getPowerConsumptionPerTick(DeviceState state) {
+        return this.currentState.getPowerConsumptionPerTick(getClock());
+    }
+
+    /**
+     * Retrieves the change of the internal temperature made by the HVAC on each tick.
+     *
+     * @return The change per tick, 0 if the HVAC is turned off or broken.
+     */
+    public double getTempChangePerTick() {
+        if (getState() == DeviceState.OFF || getState() == DeviceState.MALFUNCTION) {
+            return 0;
+        }
+        return this.currentState.getTempChangePerTick(getClock());
+    }
+
+    /**
+     * Retrieves the number of ticks the HVAC keeps changing the temperature at the same rate,
+     * until it has a command to execute or wears out.
+     *
+     * @return The number of ticks, 0 if the HVAC does not change the temperature.
+     */
+    public int getRampTicks() {
+        if (getTempChangePerTick() == 0) {
+            return 0;
+        }
+        return super.getSteadyTicks();
+    }
+
+    /**
+     * The HVAC is only steady while it does not change the temperature, as every change is picked up
+     * by the temperature sensors. The device system lets it ramp the temperature over several ticks at once,
+     * see {@link #getRampTicks()}.
+     *
+     * @return The number of steady ticks.
+     */
+    @Override
+    public int getSteadyTicks() {
+        if (getTempChangePerTick() != 0) {
+            return 0;
+        }
+        return super.getSteadyTicks();
+    }
+
+    /**
+     * Applies the temperature change of the given number of skipped ticks.
+     *
+     * @param ticks The number of skipped ticks.
+     */
+    @Override
+    public void skipActs(int ticks) {
+        double change = getTempChangePerTick() * ticks;
+        if (change != 0) {
+            internalTemperature.adjustTemperature(change);
         }
     }
 
@@ -96,7 +197,7 @@ public class HVAC extends Appliance {
      * Adjusts the internal temperature of the HVAC system based on its current state.
      */
     protected void adjustTemperature(){
-        internalTemperature.adjustTemperature(this.currentState.getTempChangePerTick());
+        internalTemperature.adjustTemperature(this.currentState.getTempChangePerTick(getClock()));
     }
 }
 
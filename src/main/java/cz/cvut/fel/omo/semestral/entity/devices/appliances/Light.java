@@ -2,6 +2,7 @@ package cz.cvut.fel.omo.semestral.entity.devices.appliances;
 
 import cz.cvut.fel.omo.semestral.common.enums.DeviceCommand;
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -17,10 +18,10 @@ import java.util.UUID;
 @Getter
 @Slf4j
 public class Light extends Appliance {
-    /** The power consumption of the light per tick when turned off */
-    private final double powerConsumptionPerTick_IDLE = 0.5 / 600;
-    /** The power consumption of the light per tick when turned on */
-    private final double powerConsumptionPerTick_ON = (double) 10 / 600;
+    /** The model of the light */
+    private static final DeviceType TYPE = DeviceType.define("Light", 500)
+            .power(DeviceState.IDLE, 0.5 / 600)
+            .power(DeviceState.ON, (double) 10 / 600);
 
     /**
      * Constructs a new Light instance with the specified serial number.
@@ -28,7 +29,7 @@ public class Light extends Appliance {
      * @param serialNumber The unique identifier for the light.
      */
     public Light(UUID serialNumber) {
-        super(serialNumber, 500);
+        super(serialNumber, TYPE);
     }
 
     /**
@@ -55,20 +56,36 @@ public class Light extends Appliance {
      * Performs actions on the light during each tick.
      */
     @Override
-    public void onTick() {
-        DeviceState currentState = this.getState();
-        if(currentState != DeviceState.OFF && currentState!= DeviceState.MALFUNCTION) {
+    public void act() {
+        if (isWorking(getState())) {
             performAllActions();
-            if (currentState == DeviceState.IDLE) {
-                updatePowerConsumption(powerConsumptionPerTick_IDLE);
-                updateWear(1);
-            } else if (currentState == DeviceState.ON) {
-                updatePowerConsumption(powerConsumptionPerTick_ON);
-                updateWear(5);
-            }
-            checkIfBroken();
         }
     }
 
-}
+    @Override
+    protected int getWearPerTick(DeviceState state) {
+        return switch (state) {
+            case IDLE -> 1;
+            case ON -> 5;
+            default -> 0;
+        };
+    }
 
+    /**
+     * Retrieves the power consumption of the light per tick when turned off.
+     *
+     * @return The power consumption per tick.
+     */
+    public double getPowerConsumptionPerTick_IDLE() {
+        return getType().getPowerConsumptionPerTick(DeviceState.IDLE, getClock());
+    }
+
+    /**
+     * Retrieves the power consumption of the light per tick when turned on.
+     *
+     * @return The power consumption per tick.
+     */
+    public double getPowerConsumptionPerTick_ON() {
+        return getType().getPowerConsumptionPerTick(DeviceState.ON, getClock());
+    }
+}
@@ -2,6 +2,9 @@ package cz.cvut.fel.omo.semestral.entity.devices.appliances;
 
 import cz.cvut.fel.omo.semestral.common.enums.DeviceCommand;
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceEffects;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -18,14 +21,14 @@ import java.util.UUID;
 @Getter
 @Slf4j
 public class TV extends Appliance {
+    /** The model of the TV */
+    private static final DeviceType TYPE = DeviceType.define("TV", 500)
+            .power(DeviceState.IDLE, (double) 4 / 600)
+            .power(DeviceState.ON, (double) 35 / 600);
     /** The current channel of the TV */
     private int currentChannel;
     /** The current volume level of the TV */
     private int volumeLevel;
-    /** The power consumption of the TV per tick when turned off */
-    private final double powerConsumptionPerTick_IDLE = (double) 4 / 600;
-    /** The power consumption of the TV per tick when turned on */
-    private final double powerConsumptionPerTick_ON = (double) 35 / 600;
 
     /**
      * Constructs a new TV instance with the specified serial number.
@@ -33,7 +36,7 @@ public class TV extends Appliance {
      * @param serialNumber The unique identifier for the TV.
      */
     public TV(UUID serialNumber) {
-        super(serialNumber, 500);
+        super(serialNumber, TYPE);
         this.currentChannel = 1; // Default channel
         this.volumeLevel = 5;   // Default volume level
     }
@@ -49,11 +52,11 @@ public class TV extends Appliance {
         switch (command) {
             case TURN_ON:
                 turnOn();
-                log.info("TV: Turned on.");
+                DeviceEffects.info(log, "TV: Turned on.");
                 break;
             case TURN_OFF:
                 setIdle();
-                log.info("TV: Turned set to Idle.");
+                DeviceEffects.info(log, "TV: Turned set to Idle.");
                 break;
             case INCREASE_VOLUME:
                 adjustVolume(volumeLevel + 1);
@@ -68,7 +71,28 @@ public class TV extends Appliance {
                 changeChannel(currentChannel - 1);
                 break;
             default:
-                log.warn("TV: Invalid command.");
+                DeviceEffects.warn(log, "TV: Invalid command.");
+                break;
+        }
+    }
+
+    /**
+     * Executes a command carrying a value on the TV, setting the volume or the channel to the value.
+     *
+     * @param command The command to execute on the TV.
+     * @param value   The volume level or channel to set.
+     */
+    @Override
+    public void executeCommand(DeviceCommand command, double value) {
+        switch (command) {
+            case SET_VOLUME:
+                adjustVolume((int) value);
+                break;
+            case SET_CHANNEL:
+                changeChannel((int) value);
+                break;
+            default:
+                executeCommand(command);
                 break;
         }
     }
@@ -77,21 +101,38 @@ public class TV extends Appliance {
      * Performs actions on the TV during each tick.
      */
     @Override
-    public void onTick() {
-        DeviceState currentState = this.getState();
-        if(currentState != DeviceState.OFF && currentState!= DeviceState.MALFUNCTION) {
+    public void act() {
+        if (isWorking(getState())) {
             performAllActions();
-            if (currentState == DeviceState.IDLE) {
-                updatePowerConsumption(powerConsumptionPerTick_IDLE);
-                updateWear(1);
-            } else if (currentState == DeviceState.ON) {
-                updatePowerConsumption(powerConsumptionPerTick_ON);
-                updateWear(10);
-            }
-            checkIfBroken();
         }
     }
 
+    /**
+     * Saves the state of the appliance together with the channel and volume.
+     *
+     * @return The snapshot of the current state.
+     */
+    @Override
+    public StateSnapshot saveState() {
+        StateSnapshot applianceState = super.saveState();
+        int savedChannel = currentChannel;
+        int savedVolume = volumeLevel;
+        return () -> {
+            applianceState.restore();
+            currentChannel = savedChannel;
+            volumeLevel = savedVolume;
+        };
+    }
+
+    @Override
+    protected int getWearPerTick(DeviceState state) {
+        return switch (state) {
+            case IDLE -> 1;
+            case ON -> 10;
+            default -> 0;
+        };
+    }
+
     /**
      * Adjusts the volume of the TV to the specified new volume level.
      *
@@ -116,5 +157,22 @@ public class TV extends Appliance {
     private void changeChannel(int channel) {
         currentChannel = channel;
     }
-}
 
+    /**
+     * Retrieves the power consumption of the TV per tick when turned off.
+     *
+     * @return The power consumption per tick.
+     */
+    public double getPowerConsumptionPerTick_IDLE() {
+        return getType().getPowerConsumptionPerTick(DeviceState.IDLE, getClock());
+    }
+
+    /**
+     * Retrieves the power consumption of the TV per tick when turned on.
+     *
+     * @return The power consumption per tick.
+     */
+    public double getPowerConsumptionPerTick_ON() {
+        return getType().getPowerConsumptionPerTick(DeviceState.ON, getClock());
+    }
+}
@@ -1,6 +1,8 @@
 package cz.cvut.fel.omo.semestral.entity.devices.appliances.states;
 
 import cz.cvut.fel.omo.semestral.entity.devices.appliances.HVAC;
+import cz.cvut.fel.omo.semestral.tick.SimulationClock;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 /**
@@ -9,12 +11,24 @@ import lombok.Getter;
  */
 @Getter
 public class CoolingState implements HVACState {
-    /** The power consumption of the HVAC system per tick */
-    private final double powerConsumptionPerTick = (double) 40 / 600;
+    /** The power consumption of the HVAC system per reference tick */
+    @Getter(AccessLevel.NONE)
+    private final double powerConsumptionPerReferenceTick = (double) 40 / 600;
     /** The wear of the HVAC system per tick */
     private final int wearPerTick = 10;
-    /** The temperature change of the environment per tick */
-    private final double tempChangePerTick = -0.5;
+    /** The temperature change of the environment per reference tick */
+    @Getter(AccessLevel.NONE)
+    private final double tempChangePerReferenceTick = -0.5;
+
+    @Override
+    public double getPowerConsumptionPerTick(SimulationClock clock) {
+        return clock.scale(powerConsumptionPerReferenceTick);
+    }
+
+    @Override
+    public double getTempChangePerTick(SimulationClock clock) {
+        return clock.scale(tempChangePerReferenceTick);
+    }
 
     /**
      * Maintains the current state when the HVAC is already in cooling mode.
@@ -36,7 +50,7 @@ public class CoolingState implements HVACState {
      */
     @Override
     public void turnOff(HVAC heater) {
-        heater.setState(new OffState());
+        heater.setState(heater.getOffState());
         System.out.println("HVAC is now OFF.");
     }
 
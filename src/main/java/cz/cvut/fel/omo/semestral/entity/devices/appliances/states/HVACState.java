@@ -1,6 +1,7 @@
 package cz.cvut.fel.omo.semestral.entity.devices.appliances.states;
 
 import cz.cvut.fel.omo.semestral.entity.devices.appliances.HVAC;
+import cz.cvut.fel.omo.semestral.tick.SimulationClock;
 
 /**
  * Interface representing the state of an HVAC (Heating, Ventilation, and Air Conditioning) system.
@@ -28,9 +29,10 @@ public interface HVACState {
     /**
      * Returns the power consumption of the HVAC system per tick.
      *
+     * @param clock The clock of the house of the HVAC system.
      * @return The power consumption of the HVAC system per tick.
      */
-    double getPowerConsumptionPerTick();
+    double getPowerConsumptionPerTick(SimulationClock clock);
 
     /**
      * Returns the wear of the HVAC system per tick.
@@ -42,9 +44,10 @@ public interface HVACState {
     /**
      * Returns the temperature change of the environment per tick.
      *
+     * @param clock The clock of the house of the HVAC system.
      * @return The temperature change of the environment per tick.
      */
-    double getTempChangePerTick();
+    double getTempChangePerTick(SimulationClock clock);
 
 }
 
@@ -1,6 +1,8 @@
 package cz.cvut.fel.omo.semestral.entity.devices.appliances.states;
 
 import cz.cvut.fel.omo.semestral.entity.devices.appliances.HVAC;
+import cz.cvut.fel.omo.semestral.tick.SimulationClock;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 /**
@@ -9,13 +11,25 @@ import lombok.Getter;
  */
 @Getter
 public class OffState implements HVACState {
-    /** The power consumption of the HVAC system per tick */
-    private final double powerConsumptionPerTick = (double) 3 / 600;
+    /** The power consumption of the HVAC system per reference tick */
+    @Getter(AccessLevel.NONE)
+    private final double powerConsumptionPerReferenceTick = (double) 3 / 600;
     /** The wear of the HVAC system per tick */
     private final int wearPerTick = 1;
     /** The temperature change of the environment per tick */
+    @Getter(AccessLevel.NONE)
     private final double tempChangePerTick = 0;
 
+    @Override
+    public double getPowerConsumptionPerTick(SimulationClock clock) {
+        return clock.scale(powerConsumptionPerReferenceTick);
+    }
+
+    @Override
+    public double getTempChangePerTick(SimulationClock clock) {
+        return tempChangePerTick;
+    }
+
     /**
      * Transitions the HVAC system from the off state to a default operating state.
      * This implementation sets the HVAC system to the HeatingState when turned on.
@@ -25,7 +39,7 @@ public class OffState implements HVACState {
     @Override
     public void turnOn(HVAC hvac) {
         // Optionally set a default state when turned on
-        hvac.setState(new HeatingState());
+        hvac.setState(hvac.getHeatingState());
     }
 
     /**
@@ -2,22 +2,29 @@ package cz.cvut.fel.omo.semestral.entity.devices.controllers;
 
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
 import cz.cvut.fel.omo.semestral.entity.actions.ControllerRecord;
-import cz.cvut.fel.omo.semestral.entity.devices.DeviceMalfunctionObserver;
+import cz.cvut.fel.omo.semestral.entity.devices.Device;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceEffects;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
 import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
 import cz.cvut.fel.omo.semestral.entity.devices.IDeviceObserver;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.Sensor;
+import cz.cvut.fel.omo.semestral.entity.devices.sensors.SensorReading;
+import cz.cvut.fel.omo.semestral.entity.devices.sensors.SensorSubscription;
 import cz.cvut.fel.omo.semestral.manual.Manual;
 import cz.cvut.fel.omo.semestral.reporting.Report;
 import cz.cvut.fel.omo.semestral.reporting.ReportVisitor;
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
 import cz.cvut.fel.omo.semestral.tick.Tickable;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Represents an abstract base class for controllers in the smart home system.
@@ -25,38 +32,35 @@ import java.util.UUID;
  * Each specific controller implementation focuses on a particular aspect of the home environment,
  * such as temperature control, lighting, or security, reacting to changes detected by sensors and
  * making decisions to maintain desired environmental conditions.
- * The Controller class implements both IDevice and IDeviceObserver interfaces,
+ * The Controller class is a Device implementing the IDeviceObserver interface,
  * indicating its dual role in responding to sensor updates and managing device states.
+ * Controllers subscribe to the readings of their sensors and may limit how many readings they process
+ * per tick, the sensors then hold the rest back until the controller requests them.
  */
 @Getter
 @Setter
 @Slf4j
-public abstract class Controller implements IDevice, IDeviceObserver, Tickable {
-    /** The unique serial number of the controller */
-    private UUID serialNumber;
-    /** The current state of the controller */
-    private DeviceState state;
-    /** The total wear of the controller */
-    private int totalWear;
-    /** The total power consumption of the controller */
-    private double totalPowerConsumption;
-    /** The maximum wear capacity of the controller */
-    private int wearCapacity;
-    /** List of observers that are notified when the controller malfunctions */
-    private List<DeviceMalfunctionObserver> malfunctionObservers = new ArrayList<>();
-
+public abstract class Controller extends Device implements IDeviceObserver, Tickable, Flow.Subscriber<SensorReading> {
+    /** Value of {@link #getReadingsPerTick()} for a controller processing all readings as they come */
+    public static final int UNBOUNDED = 0;
+    /** The range every controller draws its wear capacity from, in reference ticks */
+    public static final int MIN_WEAR_CAPACITY = 100;
+    public static final int MAX_WEAR_CAPACITY = 349;
     protected List<ControllerRecord> records = new ArrayList<>();
     private int tickCounter = 0;
+    /** The number of sensor readings processed per tick, {@link #UNBOUNDED} to process them as they come */
+    @Setter(AccessLevel.NONE)
+    private int readingsPerTick = UNBOUNDED;
+    /** Subscriptions to the readings of the sensors of the controller */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final List<SensorSubscription> sensorSubscriptions = new ArrayList<>();
 
     /**
      * Constructs a Controller with default settings.
      */
-    public Controller(UUID serialNumber, int wearCapacity) {
-        this.serialNumber = serialNumber;
-        this.state = DeviceState.OFF;
-        this.totalWear = 0;
-        this.totalPowerConsumption = 0;
-        this.wearCapacity = wearCapacity;
+    public Controller(UUID serialNumber, DeviceType type) {
+        super(serialNumber, type, DeviceState.OFF, 0, 0);
     }
 
     /**
@@ -65,13 +69,10 @@ public abstract class Controller implements IDevice, IDeviceObserver, Tickable {
      * @param state            The initial state of the controller.
      * @param totalWear        The initial total wear of the controller.
      * @param totalPowerConsumption The initial power consumption of the controller.
+     * @param type             The model of the controller, giving its wear capacity.
      */
-    public Controller(UUID serialNumber, DeviceState state, int totalWear, double totalPowerConsumption, int wearCapacity) {
-        this.serialNumber = serialNumber;
-        this.state = state;
-        this.totalWear = totalWear;
-        this.totalPowerConsumption = totalPowerConsumption;
-        this.wearCapacity = wearCapacity;
+    public Controller(UUID serialNumber, DeviceState state, int totalWear, double totalPowerConsumption, DeviceType type) {
+        super(serialNumber, type, state, totalWear, totalPowerConsumption);
     }
 
     /**
@@ -96,65 +97,91 @@ public abstract class Controller implements IDevice, IDeviceObserver, Tickable {
     }
 
     /**
-     * Sets the state of the controller.
+     * Starts receiving the readings of a sensor, requesting as many as the controller processes per tick.
      *
-     * @param state The new state to set for the controller.
+     * @param subscription The subscription to the readings.
      */
-    public void setState(DeviceState state) {
-        if (this.state != state) {
-            this.state = state;
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (readingsPerTick == UNBOUNDED || !(subscription instanceof SensorSubscription)) {
+            subscription.request(Long.MAX_VALUE);
+        } else {
+            subscription.request(readingsPerTick);
+        }
+        if (subscription instanceof SensorSubscription) {
+            sensorSubscriptions.add((SensorSubscription) subscription);
         }
     }
 
     /**
-     * Turns the controller on, setting its state to ON.
+     * Responds to a reading of one of the sensors as to any other update of the sensor.
+     *
+     * @param reading The reading of the sensor.
      */
-    public void turnOn() {
-        this.state = DeviceState.ON;
+    @Override
+    public void onNext(SensorReading reading) {
+        update(reading.getSensor());
     }
 
     /**
-     * Turns the controller off, setting its state to OFF.
+     * Logs an error signalled by a sensor subscription.
+     *
+     * @param throwable The signalled error.
      */
-    public void turnOff() {
-        this.state = DeviceState.OFF;
+    @Override
+    public void onError(Throwable throwable) {
+        log.error("{} {} lost a sensor subscription.", this.getClass().getSimpleName(), this.getSerialNumber(), throwable);
     }
 
     /**
-     * Updates the total power consumption of the controller.
-     *
-     * @param powerConsumption The amount of power consumption to add to the total.
+     * Sensors publish readings for as long as they exist, there is nothing to be done on completion.
      */
-    public void updatePowerConsumption(double powerConsumption){
-        this.totalPowerConsumption += powerConsumption;
-    };
+    @Override
+    public void onComplete() {}
 
     /**
-     * Updates the total wear of the controller.
+     * Sets the number of sensor readings the controller processes per tick. As demand that has already been
+     * signalled cannot be taken back, the subscriptions to the sensors are renewed.
      *
-     * @param wear The amount of wear to add to the total.
+     * @param readingsPerTick The number of readings per tick, {@link #UNBOUNDED} to process them as they come.
      */
-    public void updateWear(int wear){
-        this.totalWear += wear;
-    };
+    public void setReadingsPerTick(int readingsPerTick) {
+        if (readingsPerTick < 0) {
+            throw new IllegalArgumentException("Readings per tick must not be negative: " + readingsPerTick);
+        }
+        this.readingsPerTick = readingsPerTick;
+        List<SensorSubscription> renewed = new ArrayList<>(sensorSubscriptions);
+        sensorSubscriptions.clear();
+        for (SensorSubscription subscription : renewed) {
+            subscription.cancel();
+            subscribeTo(subscription.getSensor());
+        }
+    }
 
     /**
-     * Adds a malfunction observer to the list of observers.
+     * Subscribes the controller to the readings of a sensor. Controllers respond to the current state of
+     * the sensor rather than to the values of past readings, so only the latest reading is kept while the
+     * controller has no demand.
      *
-     * @param observer The observer to add.
+     * @param sensor The sensor to subscribe to.
      */
-    @Override
-    public void addMalfunctionObserver(DeviceMalfunctionObserver observer) {
-        malfunctionObservers.add(observer);
+    protected void subscribeTo(Sensor sensor) {
+        sensor.subscribe(this, 1);
     }
 
     /**
-     * Notifies all malfunction observers that the controller has malfunctioned.
+     * Tops up the demand of every sensor subscription to the number of readings processed per tick.
+     * Called by the controllers at the start of every tick.
      */
-    @Override
-    public void notifyMalfunctionObservers() {
-        for (DeviceMalfunctionObserver observer : malfunctionObservers) {
-            observer.onDeviceMalfunction(this);
+    protected void requestReadings() {
+        if (readingsPerTick == UNBOUNDED) {
+            return;
+        }
+        for (SensorSubscription subscription : sensorSubscriptions) {
+            long missing = readingsPerTick - subscription.getDemand();
+            if (missing > 0) {
+                subscription.request(missing);
+            }
         }
     }
 
@@ -164,9 +191,9 @@ public abstract class Controller implements IDevice, IDeviceObserver, Tickable {
      */
     public void checkIfBroken() {
         if (this.getState() != DeviceState.MALFUNCTION) {
-            if (this.totalWear >= wearCapacity) {
+            if (isWornOut()) {
                 this.setState(DeviceState.MALFUNCTION);
-                log.info(this.getClass().getSimpleName() + " " + this.getSerialNumber() + " has broken.");
+                DeviceEffects.info(log, "{} {} has broken.", this.getClass().getSimpleName(), this.getSerialNumber());
                 this.records.add(new ControllerRecord(this.getTickCounter(),this, "has broken."));
                 notifyMalfunctionObservers();
 
@@ -175,18 +202,81 @@ public abstract class Controller implements IDevice, IDeviceObserver, Tickable {
     }
 
     /**
-     * Abstract method to be implemented by subclasses to perform actions during each tick.
+     * A controller only works while it is turned on, although it keeps counting ticks and requesting
+     * readings otherwise.
+     *
+     * @param state The state of the controller at the start of the tick.
+     * @return True if the controller is on.
+     */
+    @Override
+    protected boolean isWorking(DeviceState state) {
+        return state == DeviceState.ON;
+    }
+
+    /**
+     * A working controller wears by one on every tick.
+     *
+     * @param state The state of the controller at the start of the tick.
+     * @return The wear per tick.
      */
-    public abstract void onTick();
+    @Override
+    protected int getWearPerTick(DeviceState state) {
+        return 1;
+    }
+
+    /**
+     * Retrieves the power the controller consumes on each tick it is turned on.
+     *
+     * @return The power consumption per tick.
+     */
+    public double getPowerConsumptionPerTick() {
+        return getType().getPowerConsumptionPerTick(DeviceState.ON, getClock());
+    }
+
+    /**
+     * A controller only reacts to its sensors, so it is steady until the tick in which it wears out,
+     * unless there are sensor readings waiting for it to request them.
+     *
+     * @return The number of steady ticks.
+     */
+    @Override
+    public int getSteadyTicks() {
+        for (SensorSubscription subscription : sensorSubscriptions) {
+            if (subscription.getBufferedCount() > 0) {
+                return 0;
+            }
+        }
+        if (getState() != DeviceState.ON) {
+            return Integer.MAX_VALUE;
+        }
+        return ticksUntilWornOut(1);
+    }
+
+    /**
+     * Advances the tick counter by the skipped ticks.
+     *
+     * @param ticks The number of skipped ticks.
+     */
+    @Override
+    public void skipActs(int ticks) {
+        tickCounter += ticks;
+    }
 
     /**
-     * Gets the serial number of the controller.
+     * Saves the state, wear, power consumption, tick counter and records of the controller.
      *
-     * @return The serial number of the controller.
+     * @return The snapshot of the current state.
      */
     @Override
-    public UUID getSerialNumber() {
-        return serialNumber;
+    public StateSnapshot saveState() {
+        StateSnapshot deviceState = saveDeviceState();
+        int savedTickCounter = tickCounter;
+        int savedRecordCount = records.size();
+        return () -> {
+            deviceState.restore();
+            tickCounter = savedTickCounter;
+            records.subList(savedRecordCount, records.size()).clear();
+        };
     }
 
     /**
@@ -196,16 +286,18 @@ public abstract class Controller implements IDevice, IDeviceObserver, Tickable {
      */
     @Override
     public void repair(Manual manual){
+        notifyRepairObservers();
         this.setState(DeviceState.ON);
-        this.totalWear = 0;
-        log.info(this.getClass().getSimpleName() + " " + this.getSerialNumber() + " has been repaired with manual.");
+        setTotalWear(0);
+        log.info("{} {} has been repaired with manual.", this.getClass().getSimpleName(), this.getSerialNumber());
         this.records.add(new ControllerRecord(this.getTickCounter(),this, "has been repaired with manual."));
     }
     @Override
     public void repair(){
+        notifyRepairObservers();
         this.setState(DeviceState.ON);
-        this.totalWear = new Random().nextInt(wearCapacity/2);
-        log.info(this.getClass().getSimpleName() + " " + this.getSerialNumber() + " has been repaired without manual.");
+        setTotalWear(ThreadLocalRandom.current().nextInt(getLifetime()/2));
+        log.info("{} {} has been repaired without manual.", this.getClass().getSimpleName(), this.getSerialNumber());
         this.records.add(new ControllerRecord(this.getTickCounter(),this, "has been repaired without manual."));
     }
 }
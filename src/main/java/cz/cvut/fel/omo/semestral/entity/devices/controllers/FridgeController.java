@@ -4,13 +4,14 @@ import cz.cvut.fel.omo.semestral.common.enums.DeviceCommand;
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
 import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
 import cz.cvut.fel.omo.semestral.entity.actions.ControllerRecord;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceEffects;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
 import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
 import cz.cvut.fel.omo.semestral.entity.devices.appliances.Fridge;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.Sensor;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.UserInputSensor;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Random;
 import java.util.UUID;
 
 /**
@@ -22,14 +23,14 @@ import java.util.UUID;
  */
 @Slf4j
 public class FridgeController extends Controller {
+    /** The model of the fridge controller */
+    private static final DeviceType TYPE = DeviceType.define("FridgeController", MIN_WEAR_CAPACITY, MAX_WEAR_CAPACITY)
+            .power(DeviceState.ON, 1.75 / 600);
     /** The fridge appliance that this controller manages */
     private final Fridge fridge;
     /** The sensor that detects user inputs for the fridge */
     private final UserInputSensor userInputSensor;
 
-
-    private final double powerConsumptionPerTick = 1.75 / 600; //Consumption in mWh every 10 mins.
-
     /**
      * Constructs a FridgeController with a specific fridge and user input sensor.
      *
@@ -37,10 +38,10 @@ public class FridgeController extends Controller {
      * @param userInputSensor The sensor that detects user inputs for the fridge.
      */
     public FridgeController(UUID serialNumber, Fridge fridge, UserInputSensor userInputSensor) {
-        super(serialNumber, new Random().nextInt(250)+100);
+        super(serialNumber, TYPE);
         this.fridge = fridge;
         this.userInputSensor = userInputSensor;
-        this.userInputSensor.addObserver(this);
+        subscribeTo(this.userInputSensor);
     }
 
     /**
@@ -59,16 +60,12 @@ public class FridgeController extends Controller {
 
     /**
      * Performs actions during each tick.
-     * Updates wear, power consumption, and checks for malfunctions.
+     * Wear and power consumption are accrued by the store of the controller.
      */
     @Override
-    public void onTick() {
+    public void act() {
         setTickCounter(getTickCounter() + 1);
-        if (this.getState() == DeviceState.ON) {
-            updateWear(1);
-            updatePowerConsumption(powerConsumptionPerTick);
-            checkIfBroken();
-        }
+        requestReadings();
     }
 
     /**
@@ -88,24 +85,13 @@ public class FridgeController extends Controller {
     }
 
     /**
-     * Adjusts the fridge's internal temperature to the target temperature.
-     * This method incrementally changes the temperature until the target is reached.
+     * Sets the fridge's internal temperature to the target temperature with a single setpoint command.
      *
      * @param targetTemperature The target temperature to set the fridge to.
      */
     private void setFridgeTemperature(double targetTemperature) {
-        double currentTemperature = fridge.getInternalTemperature();
-
-        // Calculate the difference and send appropriate commands to adjust temperature
-        while (currentTemperature < targetTemperature) {
-            fridge.addtoActionPlan(DeviceCommand.INCREASE_TEMPERATURE);
-            currentTemperature++;
-        }
-        while (currentTemperature > targetTemperature) {
-            fridge.addtoActionPlan(DeviceCommand.DECREASE_TEMPERATURE);
-            currentTemperature--;
-        }
-        log.info("Controller: Fridge temperature set to {}.", targetTemperature);
+        fridge.addtoActionPlan(DeviceCommand.SET_TEMPERATURE, targetTemperature);
+        DeviceEffects.info(log, "Controller: Fridge temperature set to {}.", targetTemperature);
         this.records.add(new ControllerRecord(this.getTickCounter(),this, "Fridge temperature set to " + targetTemperature + "°C"));
     }
 }
@@ -3,13 +3,14 @@ package cz.cvut.fel.omo.semestral.entity.devices.controllers;
 import cz.cvut.fel.omo.semestral.common.enums.DeviceCommand;
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
 import cz.cvut.fel.omo.semestral.entity.actions.ControllerRecord;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
 import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
 import cz.cvut.fel.omo.semestral.entity.devices.appliances.Gate;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.Sensor;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.UserInputSensor;
 import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
+import lombok.Getter;
 
-import java.util.Random;
 import java.util.UUID;
 
 /**
@@ -19,14 +20,14 @@ import java.util.UUID;
  * effectively toggling its open or closed state based on user inputs.
  */
 public class GateController extends Controller {
+    /** The model of the gate controller */
+    private static final DeviceType TYPE = DeviceType.define("GateController", MIN_WEAR_CAPACITY, MAX_WEAR_CAPACITY)
+            .power(DeviceState.ON, 1.75 / 600);
     /** The gate appliance that this controller manages */
     private final Gate gate;
     /** The sensor that detects user inputs for the gate */
     private final UserInputSensor userInputSensor;
 
-
-    private final double powerConsumptionPerTick = 1.75 / 600; //Consumption in mWh every 10 mins.
-
     /**
      * Constructs a GateController with the specified gate and user input sensor.
      *
@@ -34,10 +35,10 @@ public class GateController extends Controller {
      * @param userInputSensor The sensor that detects user inputs for the gate.
      */
     public GateController(UUID serialNumber, Gate gate, UserInputSensor userInputSensor) {
-        super(serialNumber,new Random().nextInt(250)+100);
+        super(serialNumber, TYPE);
         this.gate = gate;
         this.userInputSensor = userInputSensor;
-        this.userInputSensor.addObserver(this);
+        subscribeTo(this.userInputSensor);
     }
 
     /**
@@ -55,16 +56,12 @@ public class GateController extends Controller {
 
     /**
      * Performs actions during each tick.
-     * Updates wear, power consumption, and checks for malfunctions.
+     * Wear and power consumption are accrued by the store of the controller.
      */
     @Override
-    public void onTick() {
+    public void act() {
         setTickCounter(getTickCounter() + 1);
-        if (this.getState() == DeviceState.ON) {
-            updateWear(1);
-            updatePowerConsumption(powerConsumptionPerTick);
-            checkIfBroken();
-        }
+        requestReadings();
     }
 
     /**
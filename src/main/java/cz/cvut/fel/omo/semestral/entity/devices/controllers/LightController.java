@@ -4,7 +4,10 @@ import cz.cvut.fel.omo.semestral.common.enums.DeviceCommand;
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
 import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
 import cz.cvut.fel.omo.semestral.entity.actions.ControllerRecord;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceEffects;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
 import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.ApplianceGroup;
 import cz.cvut.fel.omo.semestral.entity.devices.appliances.Light;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.MotionSensor;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.Sensor;
@@ -13,7 +16,6 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
-import java.util.Random;
 import java.util.UUID;
 
 /**
@@ -22,38 +24,39 @@ import java.util.UUID;
  * When a connected MotionSensor detects movement, it can trigger the lights to turn on automatically.
  * Additionally, user commands through a UserInputSensor allow for manual control of the lights,
  * enabling users to turn them on or off as desired.
+ * The lights are commanded as one {@link ApplianceGroup}, so every decision of the controller is a single
+ * group command and a single record, however many lights the room has.
  */
 @Getter
 @Slf4j
 public class LightController extends Controller {
-    /** The list of Light appliances that this controller manages */
-    private final List<Light> lights;
+    /** The model of the light controller */
+    private static final DeviceType TYPE = DeviceType.define("LightController", MIN_WEAR_CAPACITY, MAX_WEAR_CAPACITY)
+            .power(DeviceState.ON, 1.75 / 600);
+    /** The group of Light appliances that this controller manages */
+    private final ApplianceGroup<Light> lightGroup;
     /** The sensor that detects motion for the lights */
     private final MotionSensor motionSensor;
     /** The sensor that detects user inputs for the lights */
     private final UserInputSensor userInputSensor;
 
-
-    private final double powerConsumptionPerTick = 1.75 / 600; //Consumption in mWh every 10 mins.
-    private final int wearCapacity = 100;
-
     /**
      * Constructs a LightController with the specified lights, motion sensor, and user input sensor.
      *
-     * @param lights          The list of Light appliances to be controlled.
+     * @param lightGroup      The group of Light appliances to be controlled.
      * @param motionSensor    The MotionSensor that can trigger the lights.
      * @param userInputSensor The UserInputSensor for receiving user commands related to the lights.
      */
-    public LightController(UUID serialNumber,List<Light> lights, MotionSensor motionSensor, UserInputSensor userInputSensor) {
-        super(serialNumber,new Random().nextInt(250)+100);
-        this.lights = lights;
+    public LightController(UUID serialNumber, ApplianceGroup<Light> lightGroup, MotionSensor motionSensor, UserInputSensor userInputSensor) {
+        super(serialNumber, TYPE);
+        this.lightGroup = lightGroup;
         this.motionSensor = motionSensor;
         this.userInputSensor = userInputSensor;
         if (motionSensor != null) {
-            this.motionSensor.addObserver(this);
+            subscribeTo(this.motionSensor);
         }
         if (userInputSensor != null) {
-            this.userInputSensor.addObserver(this);
+            subscribeTo(this.userInputSensor);
         }
     }
 
@@ -72,16 +75,12 @@ public class LightController extends Controller {
 
     /**
      * Performs actions during each tick.
-     * Updates wear, power consumption, and checks for malfunctions.
+     * Wear and power consumption are accrued by the store of the controller.
      */
     @Override
-    public void onTick() {
+    public void act() {
         setTickCounter(getTickCounter() + 1);
-        if (this.getState() == DeviceState.ON) {
-            updateWear(1);
-            updatePowerConsumption(powerConsumptionPerTick);
-            checkIfBroken();
-        }
+        requestReadings();
     }
 
     /**
@@ -110,15 +109,24 @@ public class LightController extends Controller {
         }
     }
 
+    /**
+     * Retrieves the lights managed by this controller.
+     *
+     * @return The lights of the group.
+     */
+    public List<Light> getLights() {
+        return lightGroup.getMembers();
+    }
+
     private void turnOnAllLights() {
-        lights.forEach(light -> light.addtoActionPlan(DeviceCommand.TURN_ON));
-        log.info("Controller: Lights turned on.");
+        lightGroup.addtoActionPlan(DeviceCommand.TURN_ON);
+        DeviceEffects.info(log, "Controller: Lights turned on.");
         this.records.add(new ControllerRecord(this.getTickCounter(),this, "Light have been turned on."));
     }
 
     private void turnOffAllLights() {
-        lights.forEach(light -> light.addtoActionPlan(DeviceCommand.TURN_OFF));
-        log.info("Controller: Lights turned off.");
+        lightGroup.addtoActionPlan(DeviceCommand.TURN_OFF);
+        DeviceEffects.info(log, "Controller: Lights turned off.");
         this.records.add(new ControllerRecord(this.getTickCounter(),this, "Light have been turned off."));
     }
 }
@@ -4,6 +4,8 @@ import cz.cvut.fel.omo.semestral.common.enums.DeviceCommand;
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
 import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
 import cz.cvut.fel.omo.semestral.entity.actions.ControllerRecord;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceEffects;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
 import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
 import cz.cvut.fel.omo.semestral.entity.devices.appliances.Alarm;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.SecuritySensor;
@@ -11,7 +13,6 @@ import cz.cvut.fel.omo.semestral.entity.devices.sensors.Sensor;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.UserInputSensor;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Random;
 import java.util.UUID;
 
 /**
@@ -23,6 +24,9 @@ import java.util.UUID;
  */
 @Slf4j
 public class SecurityController extends Controller {
+    /** The model of the security controller */
+    private static final DeviceType TYPE = DeviceType.define("SecurityController", MIN_WEAR_CAPACITY, MAX_WEAR_CAPACITY)
+            .power(DeviceState.ON, 1.75 / 600.00);
     /** The sensor that detects security threats */
     private final SecuritySensor securitySensor;
     /** The sensor that detects user inputs for the alarm */
@@ -30,8 +34,6 @@ public class SecurityController extends Controller {
     /** The alarm system that this controller manages */
     private final Alarm alarm;
 
-    private final double powerConsumptionPerTick = 1.75 / 600.00; //Consumption in mWh every 10 mins.
-
     /**
      * Constructs a SecurityController with a security sensor, user input sensor, and an alarm.
      *
@@ -40,12 +42,12 @@ public class SecurityController extends Controller {
      * @param alarm            The Alarm system to be controlled.
      */
     public SecurityController(UUID serialNumber, SecuritySensor securitySensor, UserInputSensor userInputSensor, Alarm alarm) {
-        super(serialNumber, new Random().nextInt(250)+100);
+        super(serialNumber, TYPE);
         this.securitySensor = securitySensor;
         this.userInputSensor = userInputSensor;
         this.alarm = alarm;
-        this.securitySensor.addObserver(this);
-        this.userInputSensor.addObserver(this);
+        subscribeTo(this.securitySensor);
+        subscribeTo(this.userInputSensor);
     }
 
     /**
@@ -63,16 +65,12 @@ public class SecurityController extends Controller {
 
     /**
      * Performs actions during each tick.
-     * Updates wear, power consumption, and checks for malfunctions.
+     * Wear and power consumption are accrued by the store of the controller.
      */
     @Override
-    public void onTick() {
+    public void act() {
         setTickCounter(getTickCounter() + 1);
-        if (this.getState() == DeviceState.ON) {
-            updateWear(1);
-            updatePowerConsumption(powerConsumptionPerTick);
-            checkIfBroken();
-        }
+        requestReadings();
     }
 
     /**
@@ -93,14 +91,14 @@ public class SecurityController extends Controller {
     private void handleSecuritySensor() {
         if (securitySensor.isBreachDetected()) {
             alarm.addtoActionPlan(DeviceCommand.TURN_ON); // Activate the alarm
-            log.info("Controller: Security breach detected. Activating alarm.");
+            DeviceEffects.info(log, "Controller: Security breach detected. Activating alarm.");
             this.records.add(new ControllerRecord(this.getTickCounter(),this, "Security breach detected. Activating alarm."));
         }
     }
 
     private void disarmAlarm() {
         alarm.addtoActionPlan(DeviceCommand.TURN_OFF);
-        log.info("Controller: Alarm disarmed.");
+        DeviceEffects.info(log, "Controller: Alarm disarmed.");
         this.records.add(new ControllerRecord(this.getTickCounter(),this, "Alarm disarmed."));
     }
 }
@@ -4,13 +4,15 @@ import cz.cvut.fel.omo.semestral.common.enums.DeviceCommand;
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
 import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
 import cz.cvut.fel.omo.semestral.entity.actions.ControllerRecord;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceEffects;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
 import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
 import cz.cvut.fel.omo.semestral.entity.devices.appliances.TV;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.Sensor;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.UserInputSensor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Random;
 import java.util.UUID;
 
 /**
@@ -22,11 +24,13 @@ import java.util.UUID;
  */
 @Slf4j
 public class TVController extends Controller {
+    /** The model of the TV controller */
+    private static final DeviceType TYPE = DeviceType.define("TVController", MIN_WEAR_CAPACITY, MAX_WEAR_CAPACITY)
+            .power(DeviceState.ON, 1.75 / 600.00);
     /** The TV appliance that this controller manages */
     private final TV tv;
     /** The sensor that detects user inputs for the TV */
     private final UserInputSensor userInputSensor;
-    private final double powerConsumptionPerTick = 1.75 / 600.00; //Consumption in mWh every 10 mins.
 
     /**
      * Constructs a TVController with a specific TV appliance and user input sensor.
@@ -35,10 +39,10 @@ public class TVController extends Controller {
      * @param userInputSensor The sensor that captures user inputs for the TV.
      */
     public TVController(UUID serialNumber, TV tv, UserInputSensor userInputSensor) {
-        super(serialNumber, new Random().nextInt(250)+100);
+        super(serialNumber, TYPE);
         this.tv = tv;
         this.userInputSensor = userInputSensor;
-        this.userInputSensor.addObserver(this);
+        subscribeTo(this.userInputSensor);
     }
 
     /**
@@ -56,16 +60,12 @@ public class TVController extends Controller {
 
     /**
      * Performs actions during each tick.
-     * Updates wear, power consumption, and checks for malfunctions.
+     * Wear and power consumption are accrued by the store of the controller.
      */
     @Override
-    public void onTick() {
+    public void act() {
         setTickCounter(getTickCounter() + 1);
-        if (this.getState() == DeviceState.ON) {
-            updateWear(1);
-            updatePowerConsumption(powerConsumptionPerTick);
-            checkIfBroken();
-        }
+        requestReadings();
     }
 
     /**
@@ -104,55 +104,33 @@ public class TVController extends Controller {
                 changeTVChannel((Integer) inputValue);
                 break;
             default:
-                log.warn("Controller: Invalid user input type for TV: " + inputType);
+                DeviceEffects.warn(log, "Controller: Invalid user input type for TV: {}", inputType);
                 break;
         }
     }
 
     /**
-     * Adjusts the TV's volume to a specified level.
-     * The method incrementally changes the volume until it reaches the desired level.
+     * Adjusts the TV's volume to a specified level with a single setpoint command.
      *
      * @param newVolume The target volume level.
      */
     private void adjustTVVolume(int newVolume) {
-        // Assuming the newVolume is the desired volume level
-        int currentVolume = tv.getVolumeLevel();
         if(newVolume> 10){newVolume = 10;}
         else if(newVolume < 0){newVolume = 0;}
 
-        while (currentVolume != newVolume) {
-            if (currentVolume < newVolume) {
-                tv.addtoActionPlan(DeviceCommand.INCREASE_VOLUME);
-                currentVolume++;
-            } else {
-                tv.addtoActionPlan(DeviceCommand.DECREASE_VOLUME);
-                currentVolume--;
-            }
-        }
-        log.info("Controller: TV volume set to " + newVolume);
+        tv.addtoActionPlan(DeviceCommand.SET_VOLUME, newVolume);
+        DeviceEffects.info(log, "Controller: TV volume set to {}", newVolume);
         records.add(new ControllerRecord(this.getTickCounter(),this, "TV volume set to " + newVolume));
     }
 
     /**
-     * Changes the TV channel to a specified channel number.
-     * The method switches channels one at a time until it reaches the target channel.
+     * Changes the TV channel to a specified channel number with a single setpoint command.
      *
      * @param newChannel The target channel number.
      */
     private void changeTVChannel(int newChannel) {
-        // Assuming the newChannel is the desired channel
-        int currentChannel = tv.getCurrentChannel();
-        while (currentChannel != newChannel) {
-            if (currentChannel < newChannel) {
-                tv.addtoActionPlan(DeviceCommand.NEXT_CHANNEL);
-                currentChannel++;
-            } else {
-                tv.addtoActionPlan(DeviceCommand.PREVIOUS_CHANNEL);
-                currentChannel--;
-            }
-        }
-        log.info("Controller: TV channel set to " + newChannel);
+        tv.addtoActionPlan(DeviceCommand.SET_CHANNEL, newChannel);
+        DeviceEffects.info(log, "Controller: TV channel set to {}", newChannel);
         records.add(new ControllerRecord(this.getTickCounter(),this, "TV channel set to " + newChannel));
     }
 }
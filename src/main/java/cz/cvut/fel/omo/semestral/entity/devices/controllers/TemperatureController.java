@@ -4,6 +4,8 @@ import cz.cvut.fel.omo.semestral.common.enums.DeviceCommand;
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
 import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
 import cz.cvut.fel.omo.semestral.entity.actions.ControllerRecord;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceEffects;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
 import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
 import cz.cvut.fel.omo.semestral.entity.devices.appliances.HVAC;
 import cz.cvut.fel.omo.semestral.entity.devices.appliances.states.CoolingState;
@@ -13,9 +15,9 @@ import cz.cvut.fel.omo.semestral.entity.devices.appliances.states.VentilationSta
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.Sensor;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.TemperatureSensor;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.UserInputSensor;
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Random;
 import java.util.UUID;
 
 /**
@@ -28,6 +30,9 @@ import java.util.UUID;
  */
 @Slf4j
 public class TemperatureController extends Controller {
+    /** The model of the temperature controller */
+    private static final DeviceType TYPE = DeviceType.define("TemperatureController", MIN_WEAR_CAPACITY, MAX_WEAR_CAPACITY)
+            .power(DeviceState.ON, 1.75 / 600.00);
     /** The sensor that monitors indoor temperature */
     private final TemperatureSensor internalSensor;
     /** The sensor that monitors outdoor temperature */
@@ -43,8 +48,6 @@ public class TemperatureController extends Controller {
     /** The current outdoor temperature */
     private double outdoorTemp;
 
-    private final double powerConsumptionPerTick = 1.75 / 600.00; //Consumption in mWh every 10 mins.
-
     /**
      * Constructs a TemperatureController with specific temperature sensors and HVAC system.
      *
@@ -54,14 +57,14 @@ public class TemperatureController extends Controller {
      * @param userInputSensor The sensor for receiving user inputs regarding target temperature.
      */
     public TemperatureController(UUID serialNumber, TemperatureSensor internalSensor, TemperatureSensor externalSensor, HVAC hvac, UserInputSensor userInputSensor) {
-        super(serialNumber, new Random().nextInt(250)+100);
+        super(serialNumber, TYPE);
         this.internalSensor = internalSensor;
         this.externalSensor = externalSensor;
         this.hvac = hvac;
         this.userInputSensor = userInputSensor;
-        this.internalSensor.addObserver(this);
-        this.externalSensor.addObserver(this);
-        this.userInputSensor.addObserver(this);
+        subscribeTo(this.internalSensor);
+        subscribeTo(this.externalSensor);
+        subscribeTo(this.userInputSensor);
         this.targetTemperature = internalSensor.getCurrentTemperature();
         this.indoorTemp = internalSensor.getCurrentTemperature();
         this.outdoorTemp = externalSensor.getCurrentTemperature();
@@ -87,16 +90,31 @@ public class TemperatureController extends Controller {
 
     /**
      * Performs actions during each tick.
-     * Updates wear, power consumption, and checks for malfunctions.
+     * Wear and power consumption are accrued by the store of the controller.
      */
     @Override
-    public void onTick() {
+    public void act() {
         setTickCounter(getTickCounter() + 1);
-        if (this.getState() == DeviceState.ON) {
-            updateWear(1);
-            updatePowerConsumption(powerConsumptionPerTick);
-            checkIfBroken();
-        }
+        requestReadings();
+    }
+
+    /**
+     * Saves the state of the controller together with the target and last read temperatures.
+     *
+     * @return The snapshot of the current state.
+     */
+    @Override
+    public StateSnapshot saveState() {
+        StateSnapshot controllerState = super.saveState();
+        double savedTargetTemperature = targetTemperature;
+        double savedIndoorTemp = indoorTemp;
+        double savedOutdoorTemp = outdoorTemp;
+        return () -> {
+            controllerState.restore();
+            targetTemperature = savedTargetTemperature;
+            indoorTemp = savedIndoorTemp;
+            outdoorTemp = savedOutdoorTemp;
+        };
     }
 
     /**
@@ -124,6 +142,35 @@ public class TemperatureController extends Controller {
         }
     }
 
+    /**
+     * Retrieves the number of ticks in which readings of a temperature changing by the same amount on every tick
+     * do not make the controller switch the HVAC, as the temperature stays on the side of the target the current
+     * mode of the HVAC is meant for. The last tick before the target is reached is left out, so a switch is
+     * not missed due to rounding.
+     *
+     * @param temperature   The current temperature.
+     * @param changePerTick The change of the temperature on each tick.
+     * @return The number of ticks, 0 if a reading of the current temperature could switch the HVAC.
+     */
+    public int getTicksUntilSwitch(double temperature, double changePerTick) {
+        HVACState mode = hvac.getCurrentState();
+        boolean towardsTarget;
+        if (mode instanceof HeatingState) {
+            towardsTarget = changePerTick > 0;
+        } else if (mode instanceof CoolingState) {
+            towardsTarget = changePerTick < 0 && outdoorTemp > targetTemperature;
+        } else if (mode instanceof VentilationState) {
+            towardsTarget = changePerTick < 0 && outdoorTemp <= targetTemperature;
+        } else {
+            towardsTarget = false;
+        }
+        if (!towardsTarget) {
+            return 0;
+        }
+        double ticks = Math.ceil((targetTemperature - temperature) / changePerTick) - 1;
+        return ticks <= 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, ticks);
+    }
+
     /**
      * Handles the logic for adjusting the HVAC system based on the current and target temperatures.
      * This involves deciding whether to heat, cool, or ventilate the home to achieve the target temperature.
@@ -133,29 +180,27 @@ public class TemperatureController extends Controller {
         if (Math.abs(indoorTemp - targetTemperature) > 0.0) {
             if (indoorTemp < targetTemperature && !(hvac.getCurrentState() instanceof HeatingState)) {
                 hvac.addtoActionPlan(DeviceCommand.SWITCH_TO_HEATING);
-                log.info("Controller: Switching to heating, target: " + targetTemperature + ", current: " + indoorTemp + ", outdoor: " + outdoorTemp);
+                DeviceEffects.info(log, "Controller: Switching to heating, target: {}, current: {}, outdoor: {}", targetTemperature, indoorTemp, outdoorTemp);
                 this.records.add(new ControllerRecord(this.getTickCounter(),this, "Switching to heating, target: " + targetTemperature + ", current: " + indoorTemp + ", outdoor: " + outdoorTemp));
             } else if (indoorTemp > targetTemperature) {
                 if (outdoorTemp > targetTemperature) {
                     if (!(hvac.getCurrentState() instanceof CoolingState)){
                         hvac.addtoActionPlan(DeviceCommand.SWITCH_TO_COOLING);
-                        log.info("Controller: Switching to cooling, target: " + targetTemperature + ", current: " + indoorTemp + ", outdoor: " + outdoorTemp);
+                        DeviceEffects.info(log, "Controller: Switching to cooling, target: {}, current: {}, outdoor: {}", targetTemperature, indoorTemp, outdoorTemp);
                         records.add(new ControllerRecord(this.getTickCounter(),this, "Switching to cooling, target: " + targetTemperature + ", current: " + indoorTemp + ", outdoor: " + outdoorTemp));
                     }
                 } else if (!(hvac.getCurrentState() instanceof VentilationState)) {
                     hvac.addtoActionPlan(DeviceCommand.SWITCH_TO_VENTILATION);
-                    log.info("Controller: Switching to ventilation, target: " + targetTemperature + ", current: " + indoorTemp + ", outdoor: " + outdoorTemp);
+                    DeviceEffects.info(log, "Controller: Switching to ventilation, target: {}, current: {}, outdoor: {}", targetTemperature, indoorTemp, outdoorTemp);
                     records.add(new ControllerRecord(this.getTickCounter(),this, "Switching to ventilation, target: " + targetTemperature + ", current: " + indoorTemp + ", outdoor: " + outdoorTemp));
                 }
             }
         } else {
             hvac.addtoActionPlan(DeviceCommand.TURN_OFF);
-            log.info("Controller: HVAC turned off, target: " + targetTemperature + ", current: " + indoorTemp + ", outdoor: " + outdoorTemp);
+            DeviceEffects.info(log, "Controller: HVAC turned off, target: {}, current: {}, outdoor: {}", targetTemperature, indoorTemp, outdoorTemp);
             records.add(new ControllerRecord(this.getTickCounter(),this, "HVAC turned off, target: " + targetTemperature + ", current: " + indoorTemp + ", outdoor: " + outdoorTemp));
         }
     }
 
 }
 
-
-
@@ -1,49 +1,84 @@
 package cz.cvut.fel.omo.semestral.entity.devices.sensors;
 
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
 import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.RoomOccupancy;
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
 import lombok.Getter;
-import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Random;
 import java.util.UUID;
 
 
 /**
  * Represents a motion sensor in the smart home system, capable of detecting movement within its vicinity.
  * The sensor is designed to trigger automated responses or alerts in the system upon motion detection.
+ * The sensor subscribes to the occupancy of its room, so it learns about beings entering and leaving the room
+ * as they move instead of checking the room on every tick.
  */
 @Getter
 @Slf4j
-public class MotionSensor extends Sensor {
+public class MotionSensor extends Sensor implements RoomOccupancy.Listener {
+    /** The model of the motion sensor */
+    public static final DeviceType TYPE = DeviceType.define("MotionSensor", MIN_WEAR_CAPACITY, MAX_WEAR_CAPACITY)
+            .power(DeviceState.ON, 1.75 / 600.00);
     /** Indicates whether motion has been detected by the sensor */
     private boolean motionDetected;
-    private final double powerConsumptionPerTick = 1.75 / 600.00; //Consumption in mWh every 10 mins.
-    /** The maximum wear that this sensor can sustain before breaking */
-    private final int wearCapacity = 100;
     /** The room in which this sensor is located */
-    @Setter
     private Room room;
+    /** Whether the room is occupied, as last pushed by the occupancy of the room */
+    private boolean roomOccupied;
 
     /**
      * Constructs a MotionSensor with default settings.
      */
     public MotionSensor(UUID serialNumber, Room room) {
-        super(serialNumber, new Random().nextInt(250)+100);
+        super(serialNumber, TYPE);
+        setRoom(room);
+    }
+
+    /**
+     * Moves the sensor to another room, subscribing it to the occupancy of the room instead of the previous one.
+     *
+     * @param room The room in which the sensor is located, null to unsubscribe the sensor from any room.
+     */
+    public void setRoom(Room room) {
+        if (room == this.room) {
+            return;
+        }
+        if (this.room != null) {
+            this.room.getOccupancy().unsubscribe(this);
+        }
         this.room = room;
+        this.roomOccupied = room != null && room.isOccupied();
+        if (room != null) {
+            room.getOccupancy().subscribe(this);
+        }
+    }
+
+    /**
+     * Takes note of a being entering or leaving the room of the sensor.
+     * The motion is detected on the next sample.
+     *
+     * @param room   The room whose occupancy has changed.
+     * @param people The number of people in the room.
+     * @param pets   The number of pets in the room.
+     */
+    @Override
+    public void onOccupancyChanged(Room room, int people, int pets) {
+        roomOccupied = people + pets > 0;
     }
     /**
      * Performs actions during each tick.
-     * Updates wear, power consumption, and checks for malfunctions.
+     * Wear and power consumption are accrued by the store of the sensor.
      */
     @Override
-    public void onTick() {
+    public void act() {
         if (this.getState() == DeviceState.ON) {
-            detectMotion();
-            updateWear(1);
-            updatePowerConsumption(powerConsumptionPerTick);
-            checkIfBroken();
+            if (isSampleDue()) {
+                detectMotion();
+            }
         }
     }
 
@@ -54,12 +89,46 @@ public class MotionSensor extends Sensor {
      */
     public void detectMotion() {
         // This method simulates the detection of motion.
-        boolean isMotion = !room.getInhabitants().isEmpty();
-        if (isMotion != motionDetected) {
-            motionDetected = isMotion;
+        if (roomOccupied != motionDetected) {
+            motionDetected = roomOccupied;
             notifyObservers();
         }
     }
 
+    /**
+     * Saves the state of the sensor together with the detected motion.
+     *
+     * @return The snapshot of the current state.
+     */
+    @Override
+    public StateSnapshot saveState() {
+        StateSnapshot sensorState = super.saveState();
+        boolean savedMotionDetected = motionDetected;
+        return () -> {
+            sensorState.restore();
+            motionDetected = savedMotionDetected;
+        };
+    }
+
+    /**
+     * The reading is steady while the occupancy of the room matches the detected motion.
+     *
+     * @return True if the reading is steady, false otherwise.
+     */
+    @Override
+    protected boolean isReadingSteady() {
+        return motionDetected == roomOccupied;
+    }
+
+    /**
+     * The value of a motion sensor reading is whether motion is detected.
+     *
+     * @return True if motion is detected.
+     */
+    @Override
+    protected Object getReadingValue() {
+        return motionDetected;
+    }
+
 }
 
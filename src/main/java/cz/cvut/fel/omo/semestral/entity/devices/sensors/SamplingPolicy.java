@@ -0,0 +1,81 @@
+package cz.cvut.fel.omo.semestral.entity.devices.sensors;
+
+/**
+ * Describes how often a sensor samples what it measures and which changes it reports.
+ * <p>
+ * A sensor takes a sample once every {@link #getSamplingInterval()} ticks. A measured value is only reported
+ * once it differs from the last reported value by at least the {@link #getDeadband() deadband}, and a change
+ * reversing the direction of the last reported change has to exceed the deadband by the
+ * {@link #getHysteresis() hysteresis} as well, so a value wavering around a point is not reported back and
+ * forth. The deadband and hysteresis only apply to sensors measuring a continuous value.
+ * <p>
+ * The policies are configured per sensor model, named as in {@link cz.cvut.fel.omo.semestral.entity.devices.DeviceType},
+ * and assigned to the sensors by the {@link cz.cvut.fel.omo.semestral.entity.systems.DeviceSystemFactory} creating them.
+ */
+public final class SamplingPolicy {
+    /** Samples on every tick and reports every change */
+    public static final SamplingPolicy DEFAULT = new SamplingPolicy(1, 0, 0);
+
+    /** The number of ticks between two samples */
+    private final int samplingInterval;
+    /** The smallest change of the measured value which is reported */
+    private final double deadband;
+    /** The additional change needed to report a change in the opposite direction */
+    private final double hysteresis;
+
+    /**
+     * Creates a sampling policy.
+     *
+     * @param samplingInterval The number of ticks between two samples, at least 1.
+     * @param deadband         The smallest change of the measured value which is reported, not negative.
+     * @param hysteresis       The additional change needed to report a change in the opposite direction, not negative.
+     */
+    public SamplingPolicy(int samplingInterval, double deadband, double hysteresis) {
+        if (samplingInterval < 1) {
+            throw new IllegalArgumentException("Sampling interval must be at least 1 tick: " + samplingInterval);
+        }
+        if (deadband < 0 || hysteresis < 0) {
+            throw new IllegalArgumentException("Deadband and hysteresis must not be negative: " + deadband + ", " + hysteresis);
+        }
+        this.samplingInterval = samplingInterval;
+        this.deadband = deadband;
+        this.hysteresis = hysteresis;
+    }
+
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    public double getDeadband() {
+        return deadband;
+    }
+
+    public double getHysteresis() {
+        return hysteresis;
+    }
+
+    /**
+     * Checks whether a measured value is to be reported.
+     *
+     * @param reported      The last reported value.
+     * @param measured      The measured value.
+     * @param lastDirection The sign of the last reported change, 0 if there was none.
+     * @return True if the change is to be reported.
+     */
+    public boolean isSignificant(double reported, double measured, int lastDirection) {
+        double change = measured - reported;
+        if (change == 0) {
+            return false;
+        }
+        double threshold = deadband;
+        if (lastDirection != 0 && Math.signum(change) != lastDirection) {
+            threshold += hysteresis;
+        }
+        return Math.abs(change) >= threshold;
+    }
+
+    @Override
+    public String toString() {
+        return "every " + samplingInterval + " ticks, deadband " + deadband + ", hysteresis " + hysteresis;
+    }
+}
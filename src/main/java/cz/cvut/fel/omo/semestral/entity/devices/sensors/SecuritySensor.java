@@ -1,9 +1,10 @@
 package cz.cvut.fel.omo.semestral.entity.devices.sensors;
 
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
 import lombok.Getter;
 
-import java.util.Random;
 import java.util.UUID;
 
 
@@ -13,30 +14,29 @@ import java.util.UUID;
  */
 @Getter
 public class SecuritySensor extends Sensor {
+    /** The model of the security sensor */
+    public static final DeviceType TYPE = DeviceType.define("SecuritySensor", MIN_WEAR_CAPACITY, MAX_WEAR_CAPACITY)
+            .power(DeviceState.ON, 1.25 / 600.00);
     /** Indicates whether a security breach has been detected by the sensor */
     private boolean breachDetected;
-    private final double powerConsumptionPerTick = 1.25 / 600.00; //Consumption in mWh every 10 mins.
-    /** The maximum wear that this sensor can sustain before breaking */
-    private final int wearCapacity = 100;
 
     /**
      * Constructs a SecuritySensor with default settings.
      */
     public SecuritySensor(UUID serialNumber) {
-        super(serialNumber, new Random().nextInt(250)+100);
+        super(serialNumber, TYPE);
     }
 
     /**
      * Performs actions during each tick.
-     * Updates wear, power consumption, and checks for malfunctions.
+     * Wear and power consumption are accrued by the store of the sensor.
      */
     @Override
-    public void onTick() {
+    public void act() {
         if (this.getState() == DeviceState.ON) {
-            detectBreach(true);
-            updateWear(1);
-            updatePowerConsumption(powerConsumptionPerTick);
-            checkIfBroken();
+            if (isSampleDue()) {
+                detectBreach(true);
+            }
         }
     }
 
@@ -53,5 +53,40 @@ public class SecuritySensor extends Sensor {
             notifyObservers();
         }
     }
+
+    /**
+     * Saves the state of the sensor together with the detected breach.
+     *
+     * @return The snapshot of the current state.
+     */
+    @Override
+    public StateSnapshot saveState() {
+        StateSnapshot sensorState = super.saveState();
+        boolean savedBreachDetected = breachDetected;
+        return () -> {
+            sensorState.restore();
+            breachDetected = savedBreachDetected;
+        };
+    }
+
+    /**
+     * The sensor reports a breach on every tick, so the reading is steady once the breach is detected.
+     *
+     * @return True if the reading is steady, false otherwise.
+     */
+    @Override
+    protected boolean isReadingSteady() {
+        return breachDetected;
+    }
+
+    /**
+     * The value of a security sensor reading is whether a breach is detected.
+     *
+     * @return True if a breach is detected.
+     */
+    @Override
+    protected Object getReadingValue() {
+        return breachDetected;
+    }
 }
 
@@ -1,54 +1,65 @@
 package cz.cvut.fel.omo.semestral.entity.devices.sensors;
 
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
-import cz.cvut.fel.omo.semestral.entity.devices.DeviceMalfunctionObserver;
-import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
+import cz.cvut.fel.omo.semestral.entity.devices.Device;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceEffects;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
 import cz.cvut.fel.omo.semestral.entity.devices.IDeviceObserver;
 import cz.cvut.fel.omo.semestral.manual.Manual;
 import cz.cvut.fel.omo.semestral.reporting.Report;
 import cz.cvut.fel.omo.semestral.reporting.ReportVisitor;
+import cz.cvut.fel.omo.semestral.tick.Mailbox;
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
 import cz.cvut.fel.omo.semestral.tick.Tickable;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Abstract base class for sensors in the smart home simulation.
- * This class implements the {@link IDevice} interface, providing common functionalities for different types of sensors.
+ * This class extends the {@link Device} base, providing common functionalities for different types of sensors.
  */
 @Getter
 @Setter
 @Slf4j
-public abstract class Sensor implements IDevice, Tickable {
-    /** The unique serial number of the sensor */
-    private UUID serialNumber;
-    /** The current state of the sensor */
-    private DeviceState state;
-    /** The total wear of the sensor */
-    private int totalWear;
-    /** The total power consumption of the sensor */
-    private double totalPowerConsumption;
-    /** The maximum wear capacity of the sensor */
-    private int wearCapacity;
-    /** List of observers that are notified when the sensor malfunctions */
-    private List<DeviceMalfunctionObserver> malfunctionObservers = new ArrayList<>();
+public abstract class Sensor extends Device implements Tickable, Flow.Publisher<SensorReading> {
+    /** The number of readings buffered for a subscriber unless specified otherwise */
+    public static final int DEFAULT_BUFFER_CAPACITY = 16;
+    /** The range every sensor draws its wear capacity from, in reference ticks */
+    public static final int MIN_WEAR_CAPACITY = 100;
+    public static final int MAX_WEAR_CAPACITY = 349;
     /** List of observers that are notified when the sensor state changes */
     private final List<IDeviceObserver> observers = new ArrayList<>();
+    /** Subscriptions to the readings of the sensor */
+    @Getter(AccessLevel.NONE)
+    private final List<SensorSubscription> subscriptions = new ArrayList<>();
+    /** Whether notifications are held back until {@link #flushNotifications()} is called */
+    private boolean notificationsDeferred;
+    /** Whether a held back notification is waiting to be delivered */
+    @Setter(AccessLevel.NONE)
+    private boolean notificationPending;
+    /** Mailbox through which notifications are delivered, null if they are delivered synchronously */
+    private Mailbox notificationMailbox;
+    /** How often the sensor samples and which changes it reports, {@link SamplingPolicy#DEFAULT} unless set otherwise */
+    private SamplingPolicy samplingPolicy;
+    /** The number of ticks since the last sample */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int ticksSinceSample;
 
     /**
      * Constructs a Sensor with default settings.
      */
-    public Sensor(UUID serialNumber, int wearCapacity) {
-        this.serialNumber = serialNumber;
-        this.state = DeviceState.OFF;
-        this.totalWear = 0;
-        this.totalPowerConsumption = 0;
-        this.wearCapacity = wearCapacity;
+    public Sensor(UUID serialNumber, DeviceType type) {
+        super(serialNumber, type, DeviceState.OFF, 0, 0);
+        this.samplingPolicy = SamplingPolicy.DEFAULT;
     }
 
     /**
@@ -57,13 +68,11 @@ public abstract class Sensor implements IDevice, Tickable {
      * @param state The initial state of the sensor.
      * @param totalWear The initial total wear of the sensor.
      * @param totalPowerConsumption The initial power consumption of the sensor.
+     * @param type The model of the sensor, giving its wear capacity.
      */
-    public Sensor(UUID serialNumber, DeviceState state, int totalWear, double totalPowerConsumption, int wearCapacity) {
-        this.serialNumber = serialNumber;
-        this.state = state;
-        this.totalWear = totalWear;
-        this.totalPowerConsumption = totalPowerConsumption;
-        this.wearCapacity = wearCapacity;
+    public Sensor(UUID serialNumber, DeviceState state, int totalWear, double totalPowerConsumption, DeviceType type) {
+        super(serialNumber, type, state, totalWear, totalPowerConsumption);
+        this.samplingPolicy = SamplingPolicy.DEFAULT;
     }
 
     /**
@@ -84,13 +93,99 @@ public abstract class Sensor implements IDevice, Tickable {
         observers.remove(observer);
     }
 
+    /**
+     * Subscribes to the readings of the sensor, buffering up to {@link #DEFAULT_BUFFER_CAPACITY} readings
+     * which the subscriber has not requested yet.
+     *
+     * @param subscriber The subscriber to receive the readings.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super SensorReading> subscriber) {
+        subscribe(subscriber, DEFAULT_BUFFER_CAPACITY);
+    }
+
+    /**
+     * Subscribes to the readings of the sensor.
+     * A reading is published on every change the observers are notified about.
+     *
+     * @param subscriber     The subscriber to receive the readings.
+     * @param bufferCapacity The maximum number of readings buffered until the subscriber requests them.
+     */
+    public void subscribe(Flow.Subscriber<? super SensorReading> subscriber, int bufferCapacity) {
+        SensorSubscription subscription = new SensorSubscription(this, subscriber, bufferCapacity);
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Checks whether every subscriber has requested at least one more reading, so publishing a new one would
+     * not have to be buffered. Sensors reading from a queue of their own only take the next item from it
+     * while this holds.
+     *
+     * @return True if all subscribers have outstanding demand, or there are none.
+     */
+    public boolean hasDemand() {
+        for (SensorSubscription subscription : subscriptions) {
+            if (!subscription.isCancelled() && subscription.getDemand() == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the value currently measured by the sensor, published as part of its readings.
+     *
+     * @return The measured value.
+     */
+    protected abstract Object getReadingValue();
+
     /**
      * Notifies all observers about the state change of the sensor.
+     * If notifications are deferred, the notification is only marked as pending and several notifications
+     * within one tick are coalesced into one. If the sensor has a notification mailbox and the change does not
+     * come from the actor owning it, the notification is posted to the mailbox instead, and notifications
+     * arriving before it is processed are coalesced as well.
      */
     public void notifyObservers() {
+        if (notificationsDeferred) {
+            notificationPending = true;
+            return;
+        }
+        if (notificationMailbox != null && !notificationMailbox.isProcessedByCurrentThread()) {
+            if (!notificationPending) {
+                notificationPending = true;
+                notificationMailbox.post(this::flushNotifications);
+            }
+            return;
+        }
+        deliverNotification();
+    }
+
+    /**
+     * Delivers the pending notification to all observers, if there is one.
+     */
+    public void flushNotifications() {
+        if (notificationPending) {
+            notificationPending = false;
+            deliverNotification();
+        }
+    }
+
+    /**
+     * Updates all observers and publishes the current reading to all subscribers.
+     */
+    private void deliverNotification() {
         for (IDeviceObserver observer : observers) {
             observer.update(this);
         }
+        if (!subscriptions.isEmpty()) {
+            subscriptions.removeIf(SensorSubscription::isCancelled);
+            SensorReading reading = new SensorReading(this, getState(), getReadingValue());
+            for (SensorSubscription subscription : subscriptions) {
+                subscription.offer(reading);
+            }
+        }
     }
 
     /**
@@ -98,93 +193,147 @@ public abstract class Sensor implements IDevice, Tickable {
      *
      * @param state The new state to set for the sensor.
      */
+    @Override
     public void setState(DeviceState state) {
-        if (this.state != state) {
-            this.state = state;
+        if (getState() != state) {
+            storeState(state);
             notifyObservers();
         }
     }
 
     /**
-     * Turns the sensor on.
+     * Checks if the sensor has broken down.
+     * If the sensor has broken down, its state is set to MALFUNCTION and all observers are notified.
      */
-    public void turnOn() {
-        this.state = DeviceState.ON;
+    public void checkIfBroken() {
+        if (this.getState() != DeviceState.MALFUNCTION) {
+            if (isWornOut()) {
+                this.setState(DeviceState.MALFUNCTION);
+                DeviceEffects.info(log, "{} {} has broken.", this.getClass().getSimpleName(), this.getSerialNumber());
+                notifyMalfunctionObservers();
+            }
+        }
     }
 
     /**
-     * Turns the sensor off.
+     * A sensor only works while it is turned on.
+     *
+     * @param state The state of the sensor at the start of the tick.
+     * @return True if the sensor is on.
      */
-    public void turnOff() {
-        this.state = DeviceState.OFF;
+    @Override
+    protected boolean isWorking(DeviceState state) {
+        return state == DeviceState.ON;
     }
 
     /**
-     * Updates the power consumption of the sensor.
+     * A working sensor wears by one on every tick.
      *
-     * @param powerConsumption The amount of power consumption to update.
+     * @param state The state of the sensor at the start of the tick.
+     * @return The wear per tick.
      */
-    public void updatePowerConsumption(double powerConsumption){
-        this.totalPowerConsumption += powerConsumption;
-    };
+    @Override
+    protected int getWearPerTick(DeviceState state) {
+        return 1;
+    }
 
     /**
-     * Updates the total wear of the sensor.
+     * Retrieves the power the sensor consumes on each tick it is turned on.
      *
-     * @param wear The amount of wear to update.
+     * @return The power consumption per tick.
      */
-    public void updateWear(int wear){
-        this.totalWear += wear;
-    };
+    public double getPowerConsumptionPerTick() {
+        return getType().getPowerConsumptionPerTick(DeviceState.ON, getClock());
+    }
 
     /**
-     * Adds a malfunction observer to the sensor.
+     * Checks whether the next reading of the sensor would match the last one, so it would not notify anyone.
      *
-     * @param observer The observer to be added.
+     * @return True if the reading is steady, false otherwise.
      */
-    @Override
-    public void addMalfunctionObserver(DeviceMalfunctionObserver observer) {
-        malfunctionObservers.add(observer);
+    protected abstract boolean isReadingSteady();
+
+    /**
+     * Counts a tick towards the next sample. Sensors sampling what they measure call this once per tick
+     * and only take a sample if it returns true.
+     *
+     * @return True if the sensor takes a sample on this tick.
+     */
+    protected boolean isSampleDue() {
+        if (++ticksSinceSample < samplingPolicy.getSamplingInterval()) {
+            return false;
+        }
+        ticksSinceSample = 0;
+        return true;
+    }
+
+    /**
+     * Retrieves the number of ticks until the sensor takes its next sample.
+     *
+     * @return The number of ticks, 1 if the sensor samples on the next tick.
+     */
+    protected int getTicksUntilSample() {
+        return samplingPolicy.getSamplingInterval() - ticksSinceSample;
     }
 
     /**
-     * Notifies all malfunction observers about the sensor malfunctioning.
+     * Retrieves the number of ticks the sensor keeps working regardless of what it measures.
+     *
+     * @return The number of ticks before the tick in which the sensor wears out,
+     *         {@link Integer#MAX_VALUE} if it is not turned on.
      */
-    @Override
-    public void notifyMalfunctionObservers() {
-        for (DeviceMalfunctionObserver observer : malfunctionObservers) {
-            observer.onDeviceMalfunction(this);
+    public int getTicksUntilWornOut() {
+        if (getState() != DeviceState.ON) {
+            return Integer.MAX_VALUE;
         }
+        return ticksUntilWornOut(1);
     }
 
     /**
-     * Checks if the sensor has broken down.
-     * If the sensor has broken down, its state is set to MALFUNCTION and all observers are notified.
+     * A sensor is steady while its reading does not change, until the tick in which it wears out.
+     *
+     * @return The number of steady ticks.
      */
-    public void checkIfBroken() {
-        if (this.getState() != DeviceState.MALFUNCTION) {
-            if (this.totalWear >= wearCapacity) {
-                this.setState(DeviceState.MALFUNCTION);
-                log.info(this.getClass().getSimpleName() + " " + this.getSerialNumber() + " has broken.");
-                notifyMalfunctionObservers();
-            }
+    @Override
+    public int getSteadyTicks() {
+        int ticksUntilWornOut = getTicksUntilWornOut();
+        if (ticksUntilWornOut != Integer.MAX_VALUE && !isReadingSteady()) {
+            // The change is only noticed on the next sample
+            return Math.min(getTicksUntilSample() - 1, ticksUntilWornOut);
         }
+        return ticksUntilWornOut;
     }
 
     /**
-     * Performs actions during each tick.
-     * Subclasses should implement this method for specific sensor behaviors.
+     * Counts the skipped ticks towards the next sample.
+     *
+     * @param ticks The number of skipped ticks.
      */
-    public abstract void onTick();
+    @Override
+    public void skipActs(int ticks) {
+        if (getState() == DeviceState.ON) {
+            ticksSinceSample = (int) ((ticksSinceSample + (long) ticks) % samplingPolicy.getSamplingInterval());
+        }
+    }
 
     /**
-     * Gets the serial number of the sensor.
+     * Saves the state, wear, power consumption, pending notification and subscriptions of the sensor.
      *
-     * @return The serial number of the sensor.
+     * @return The snapshot of the current state.
      */
     @Override
-    public UUID getSerialNumber() {
-        return serialNumber;
+    public StateSnapshot saveState() {
+        StateSnapshot deviceState = saveDeviceState();
+        boolean savedNotificationPending = notificationPending;
+        int savedTicksSinceSample = ticksSinceSample;
+        List<StateSnapshot> savedSubscriptions = new ArrayList<>();
+        subscriptions.forEach(subscription -> savedSubscriptions.add(subscription.saveState()));
+        return () -> {
+            deviceState.restore();
+            notificationPending = savedNotificationPending;
+            ticksSinceSample = savedTicksSinceSample;
+            savedSubscriptions.forEach(StateSnapshot::restore);
+        };
     }
 
     /**
@@ -194,9 +343,10 @@ public abstract class Sensor implements IDevice, Tickable {
      */
     @Override
     public void repair(Manual manual){
+        notifyRepairObservers();
         this.setState(DeviceState.ON);
-        this.totalWear = 0;
-        log.info(this.getClass().getSimpleName() + " " + this.getSerialNumber() + " has been repaired with manual.");
+        setTotalWear(0);
+        log.info("{} {} has been repaired with manual.", this.getClass().getSimpleName(), this.getSerialNumber());
     }
 
     /**
@@ -204,8 +354,9 @@ public abstract class Sensor implements IDevice, Tickable {
      */
     @Override
     public void repair(){
+        notifyRepairObservers();
         this.setState(DeviceState.ON);
-        this.totalWear = new Random().nextInt(wearCapacity/2);
-        log.info(this.getClass().getSimpleName() + " " + this.getSerialNumber() + " has been repaired without manual.");
+        setTotalWear(ThreadLocalRandom.current().nextInt(getLifetime()/2));
+        log.info("{} {} has been repaired without manual.", this.getClass().getSimpleName(), this.getSerialNumber());
     }
 }
@@ -0,0 +1,21 @@
+package cz.cvut.fel.omo.semestral.entity.devices.sensors;
+
+import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A single reading published by a {@link Sensor} to its subscribers.
+ * The reading captures the state and the value measured by the sensor at the moment it was published,
+ * so it can be buffered, sampled or compared by whatever sits between the sensor and its subscribers.
+ */
+@Getter
+@AllArgsConstructor
+public class SensorReading {
+    /** The sensor which published the reading */
+    private final Sensor sensor;
+    /** The state of the sensor at the time of the reading */
+    private final DeviceState state;
+    /** The value measured by the sensor, its type depends on the sensor */
+    private final Object value;
+}
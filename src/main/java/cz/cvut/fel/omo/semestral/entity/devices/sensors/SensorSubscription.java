@@ -0,0 +1,174 @@
+package cz.cvut.fel.omo.semestral.entity.devices.sensors;
+
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+/**
+ * Subscription of a single subscriber to the readings of a {@link Sensor}.
+ * <p>
+ * Readings are handed to the subscriber only as far as it has signalled demand through {@link #request(long)},
+ * the rest waits in a bounded buffer. When the buffer is full the oldest reading is dropped, as sensors
+ * report their current state and a newer reading supersedes an older one. A subscriber requesting
+ * {@link Long#MAX_VALUE} readings receives all of them as soon as they are published.
+ */
+public class SensorSubscription implements Flow.Subscription {
+    private final Sensor sensor;
+    private final Flow.Subscriber<? super SensorReading> subscriber;
+    private final int bufferCapacity;
+    private final Deque<SensorReading> buffer = new ArrayDeque<>();
+    private long demand;
+    private boolean cancelled;
+    private boolean delivering;
+    private long droppedCount;
+
+    /**
+     * Creates a subscription with an empty buffer and no demand.
+     *
+     * @param sensor         The sensor publishing the readings.
+     * @param subscriber     The subscriber receiving the readings.
+     * @param bufferCapacity The maximum number of readings waiting for demand.
+     */
+    SensorSubscription(Sensor sensor, Flow.Subscriber<? super SensorReading> subscriber, int bufferCapacity) {
+        if (bufferCapacity <= 0) {
+            throw new IllegalArgumentException("Buffer capacity must be positive: " + bufferCapacity);
+        }
+        this.sensor = sensor;
+        this.subscriber = subscriber;
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    /**
+     * Requests the given number of further readings.
+     *
+     * @param n The number of readings, must be positive.
+     */
+    @Override
+    public void request(long n) {
+        if (cancelled) {
+            return;
+        }
+        if (n <= 0) {
+            cancel();
+            subscriber.onError(new IllegalArgumentException("Requested number of readings must be positive: " + n));
+            return;
+        }
+        demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+        deliver();
+    }
+
+    /**
+     * Cancels the subscription, no further readings are delivered and buffered readings are discarded.
+     */
+    @Override
+    public void cancel() {
+        cancelled = true;
+        buffer.clear();
+    }
+
+    /**
+     * Checks whether the subscription has been cancelled.
+     *
+     * @return True if cancelled.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Retrieves the number of readings the subscriber may still receive.
+     *
+     * @return The outstanding demand, {@link Long#MAX_VALUE} if unbounded.
+     */
+    public long getDemand() {
+        return demand;
+    }
+
+    /**
+     * Retrieves the number of readings waiting for demand.
+     *
+     * @return The number of buffered readings.
+     */
+    public int getBufferedCount() {
+        return buffer.size();
+    }
+
+    /**
+     * Retrieves the number of readings dropped because the buffer was full.
+     *
+     * @return The number of dropped readings.
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Retrieves the sensor publishing the readings.
+     *
+     * @return The sensor.
+     */
+    public Sensor getSensor() {
+        return sensor;
+    }
+
+    /**
+     * Offers a new reading to the subscriber. The reading is delivered right away if there is demand,
+     * otherwise it is buffered.
+     *
+     * @param reading The published reading.
+     */
+    void offer(SensorReading reading) {
+        if (cancelled) {
+            return;
+        }
+        if (buffer.size() == bufferCapacity) {
+            buffer.poll();
+            droppedCount++;
+        }
+        buffer.add(reading);
+        deliver();
+    }
+
+    /**
+     * Delivers buffered readings while there is demand. Readings requested by the subscriber from within
+     * {@link Flow.Subscriber#onNext(Object)} are delivered by the outer call, not recursively.
+     */
+    private void deliver() {
+        if (delivering) {
+            return;
+        }
+        delivering = true;
+        try {
+            while (demand > 0 && !buffer.isEmpty() && !cancelled) {
+                SensorReading reading = buffer.poll();
+                if (demand != Long.MAX_VALUE) {
+                    demand--;
+                }
+                subscriber.onNext(reading);
+            }
+        } finally {
+            delivering = false;
+        }
+    }
+
+    /**
+     * Saves the buffered readings and the demand of the subscription.
+     *
+     * @return The snapshot of the current state.
+     */
+    StateSnapshot saveState() {
+        List<SensorReading> savedBuffer = new ArrayList<>(buffer);
+        long savedDemand = demand;
+        long savedDroppedCount = droppedCount;
+        return () -> {
+            buffer.clear();
+            buffer.addAll(savedBuffer);
+            demand = savedDemand;
+            droppedCount = savedDroppedCount;
+        };
+    }
+}
@@ -1,10 +1,11 @@
 package cz.cvut.fel.omo.semestral.entity.devices.sensors;
 
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
 import cz.cvut.fel.omo.semestral.entity.livingSpace.Temperature;
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
 import lombok.Getter;
 
-import java.util.Random;
 import java.util.UUID;
 
 /**
@@ -13,50 +14,140 @@ import java.util.UUID;
  */
 @Getter
 public class TemperatureSensor extends Sensor {
-    /** The current temperature measured by the sensor */
+    /** The model of the temperature sensor */
+    public static final DeviceType TYPE = DeviceType.define("TemperatureSensor", MIN_WEAR_CAPACITY, MAX_WEAR_CAPACITY)
+            .power(DeviceState.ON, 0.75 / 600.00);
+    /** The temperature last reported by the sensor */
     private double currentTemperature;
-    private final double powerConsumptionPerTick = 0.75 / 600.00; //Consumption in mWh every 10 mins.
-    /** The maximum wear that this sensor can sustain before breaking */
-    private final int wearCapacity = 100;
+    /** The sign of the last reported change of the temperature, 0 if there was none */
+    private int lastChangeDirection;
     /** The temperature object that this sensor is associated with */
     private final Temperature temperature;
 
-
     /**
      * Constructs a TemperatureSensor with default settings.
      */
     public TemperatureSensor(UUID serialNumber, Temperature temperature) {
-        super(serialNumber, new Random().nextInt(250)+100);
+        super(serialNumber, TYPE);
         this.currentTemperature = temperature.getTemperature();
         this.temperature = temperature;
     }
 
     /**
      * Performs actions during each tick.
-     * Updates wear, power consumption, and checks for malfunctions.
+     * Wear and power consumption are accrued by the store of the sensor.
      */
     @Override
-    public void onTick() {
+    public void act() {
         if (this.getState() == DeviceState.ON) {
-            readTemperature();
-            updateWear(1);
-            updatePowerConsumption(powerConsumptionPerTick);
-            checkIfBroken();
+            if (isSampleDue()) {
+                readTemperature();
+            }
         }
     }
 
     /**
-     * Reads and updates the current temperature.
-     * Notifies observers if there is a change in the temperature.
+     * Reads the temperature and updates the current temperature.
+     * Notifies observers if the temperature has changed significantly according to the sampling policy.
      *
      */
     public void readTemperature() {
         double temperature = this.temperature.getTemperature();
         // This method simulates reading the temperature.
-        if (this.currentTemperature != temperature) {
+        if (getSamplingPolicy().isSignificant(this.currentTemperature, temperature, lastChangeDirection)) {
+            this.lastChangeDirection = (int) Math.signum(temperature - this.currentTemperature);
             this.currentTemperature = temperature;
             notifyObservers();
         }
     }
+
+    /**
+     * Takes the samples of the given number of ticks at once, while the temperature changes by the same amount
+     * on every tick, as it does while an HVAC heats or cools. The reported samples are found in closed form and
+     * only the last of them is published, as the ones before it would have been superseded by it.
+     * Has to be called before the temperature is changed and before the ticks are fast-forwarded.
+     *
+     * @param ticks         The number of ticks.
+     * @param changePerTick The change of the temperature on each tick, made after the sensor has read it.
+     */
+    public void readRamp(int ticks, double changePerTick) {
+        int ticksUntilSample = getTicksUntilSample();
+        if (getState() != DeviceState.ON || changePerTick == 0 || ticksUntilSample > ticks) {
+            return;
+        }
+        SamplingPolicy policy = getSamplingPolicy();
+        int interval = policy.getSamplingInterval();
+        long sampleCount = (ticks - ticksUntilSample) / interval + 1;
+        double firstSample = this.temperature.getTemperature() + (ticksUntilSample - 1) * changePerTick;
+        double samplingStep = Math.abs(changePerTick) * interval;
+        int direction = (int) Math.signum(changePerTick);
+        double reported = this.currentTemperature;
+        int reportedDirection = this.lastChangeDirection;
+        long nextSample = 0;
+        // Only the first sample can be reported while it is still behind the last reading, the others are closer to it
+        if (Math.signum(firstSample - reported) == -direction && policy.isSignificant(reported, firstSample, reportedDirection)) {
+            reported = firstSample;
+            reportedDirection = -direction;
+            nextSample = 1;
+        }
+        double threshold = policy.getDeadband();
+        if (reportedDirection != 0 && reportedDirection != direction) {
+            threshold += policy.getHysteresis();
+        }
+        double behind = direction * (reported - firstSample);
+        long firstAhead = threshold == 0
+                ? (long) Math.floor(behind / samplingStep) + 1
+                : (long) Math.ceil((threshold + behind) / samplingStep);
+        firstAhead = Math.max(firstAhead, nextSample);
+        if (firstAhead < sampleCount) {
+            // Once the readings follow the ramp, one is reported every time the deadband is crossed
+            long period = Math.max(1, (long) Math.ceil(policy.getDeadband() / samplingStep));
+            long lastReported = firstAhead + (sampleCount - 1 - firstAhead) / period * period;
+            reported = firstSample + lastReported * interval * changePerTick;
+            reportedDirection = direction;
+        }
+        if (reported != this.currentTemperature || reportedDirection != this.lastChangeDirection) {
+            this.currentTemperature = reported;
+            this.lastChangeDirection = reportedDirection;
+            notifyObservers();
+        }
+    }
+
+    /**
+     * Saves the state of the sensor together with the last read temperature.
+     *
+     * @return The snapshot of the current state.
+     */
+    @Override
+    public StateSnapshot saveState() {
+        StateSnapshot sensorState = super.saveState();
+        double savedTemperature = currentTemperature;
+        int savedLastChangeDirection = lastChangeDirection;
+        return () -> {
+            sensorState.restore();
+            currentTemperature = savedTemperature;
+            lastChangeDirection = savedLastChangeDirection;
+        };
+    }
+
+    /**
+     * The reading is steady while the observed temperature does not differ significantly from the last reading.
+     *
+     * @return True if the reading is steady, false otherwise.
+     */
+    @Override
+    protected boolean isReadingSteady() {
+        return !getSamplingPolicy().isSignificant(this.currentTemperature, this.temperature.getTemperature(), lastChangeDirection);
+    }
+
+    /**
+     * The value of a temperature sensor reading is the measured temperature.
+     *
+     * @return The current temperature.
+     */
+    @Override
+    protected Object getReadingValue() {
+        return currentTemperature;
+    }
 }
 
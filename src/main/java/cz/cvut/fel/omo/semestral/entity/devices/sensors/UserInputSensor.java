@@ -1,12 +1,15 @@
 package cz.cvut.fel.omo.semestral.entity.devices.sensors;
 
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
 import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
 import cz.cvut.fel.omo.semestral.entity.actions.Action;
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
 import lombok.Getter;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
-import java.util.Random;
 import java.util.UUID;
 
 /**
@@ -15,34 +18,33 @@ import java.util.UUID;
  */
 @Getter
 public class UserInputSensor extends Sensor {
+    /** The model of the user input sensor */
+    public static final DeviceType TYPE = DeviceType.define("UserInputSensor", MIN_WEAR_CAPACITY, MAX_WEAR_CAPACITY)
+            .power(DeviceState.ON, 0.35 / 600.00);
     /** The type of input detected by the sensor, as defined in {@link UserInputType} */
     private UserInputType inputType;
     /** The value associated with the input, which can vary based on the input type */
     private Object inputValue; // Could be boolean, integer, double, etc., based on input type
     /** The action plan for this sensor, which is a queue of actions to be performed */
     protected Queue<Action> actionPlan;
-    private final double powerConsumptionPerTick = 0.35 / 600.00; //Consumption in mWh every 10 mins.
 
     /**
      * Constructs a UserInputSensor with default settings.
      */
     public UserInputSensor(UUID serialNumber) {
 
-        super(serialNumber, new Random().nextInt(250)+100);
+        super(serialNumber, TYPE);
         this.actionPlan = new java.util.LinkedList<>();
     }
 
     /**
      * Performs actions during each tick.
-     * Updates wear, power consumption, and checks for malfunctions.
+     * Wear and power consumption are accrued by the store of the sensor.
      */
     @Override
-    public void onTick() {
+    public void act() {
         if (this.getState() == DeviceState.ON) {
             performNextAction();
-            updateWear(1);
-            updatePowerConsumption(powerConsumptionPerTick);
-            checkIfBroken();
         }
     }
 
@@ -69,13 +71,54 @@ public class UserInputSensor extends Sensor {
     }
 
     /**
-     * Performs the next action in the action plan.
+     * Performs the next action in the action plan. The action is only taken from the plan once all subscribers
+     * have requested another reading, the rest of the plan waits instead of flooding them.
      */
     public void performNextAction() {
-        if (!actionPlan.isEmpty()) {
+        if (!actionPlan.isEmpty() && hasDemand()) {
             Action nextAction = actionPlan.poll();
             detectInput(nextAction.getType(), nextAction.getValue());
         }
     }
+
+    /**
+     * Saves the state of the sensor together with the last detected input and the pending inputs.
+     *
+     * @return The snapshot of the current state.
+     */
+    @Override
+    public StateSnapshot saveState() {
+        StateSnapshot sensorState = super.saveState();
+        UserInputType savedInputType = inputType;
+        Object savedInputValue = inputValue;
+        List<Action> savedActionPlan = new ArrayList<>(actionPlan);
+        return () -> {
+            sensorState.restore();
+            inputType = savedInputType;
+            inputValue = savedInputValue;
+            actionPlan.clear();
+            actionPlan.addAll(savedActionPlan);
+        };
+    }
+
+    /**
+     * The reading is steady while there is no user input waiting to be detected.
+     *
+     * @return True if the reading is steady, false otherwise.
+     */
+    @Override
+    protected boolean isReadingSteady() {
+        return actionPlan.isEmpty();
+    }
+
+    /**
+     * The value of a user input reading is the detected input together with its value.
+     *
+     * @return The last detected input as an action.
+     */
+    @Override
+    protected Object getReadingValue() {
+        return new Action(inputType, inputValue);
+    }
 }
 
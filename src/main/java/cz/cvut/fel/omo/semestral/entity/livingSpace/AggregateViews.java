@@ -0,0 +1,146 @@
+package cz.cvut.fel.omo.semestral.entity.livingSpace;
+
+import cz.cvut.fel.omo.semestral.entity.beings.Being;
+import cz.cvut.fel.omo.semestral.entity.beings.Human;
+import cz.cvut.fel.omo.semestral.entity.beings.Pet;
+import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
+import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cached read-only views of the devices, device systems and beings of a composite living space,
+ * a {@link Floor} made of rooms or a {@link House} made of floors.
+ * <p>
+ * A view is collected from the parts of the living space the first time it is asked for and then returned
+ * as it is until a part reports a change. {@link Room#enterRoom(Being)} and {@link Room#leaveRoom(Being)}
+ * invalidate the views of the beings, {@link Room#addDeviceSystem(DeviceSystem)} the views of the devices, and
+ * the views of the enclosing living space are invalidated along with them. Between the changes a view costs
+ * a field read and allocates nothing. A view is a snapshot, a change makes a new one instead of modifying
+ * the view returned before, so the callers may keep iterating it while the beings move around.
+ */
+final class AggregateViews {
+    /** The rooms of a floor or the floors of a house */
+    private final List<? extends ILivingSpace> parts;
+    /** The views of the enclosing living space, null if there is none */
+    private AggregateViews parent;
+    private List<IDevice> devices;
+    private List<DeviceSystem> deviceSystems;
+    private List<Human> people;
+    private List<Pet> pets;
+    private List<Being> beings;
+
+    /**
+     * Creates the views of a living space.
+     *
+     * @param parts The parts of the living space, in the order their content is listed.
+     */
+    AggregateViews(List<? extends ILivingSpace> parts) {
+        this.parts = parts;
+    }
+
+    /**
+     * Attaches the views to the views of the enclosing living space, which are invalidated.
+     *
+     * @param parent The views of the enclosing living space.
+     */
+    void attachTo(AggregateViews parent) {
+        this.parent = parent;
+        parent.invalidateDevices();
+        parent.invalidateBeings();
+    }
+
+    /**
+     * Detaches the views from the views of the enclosing living space, which are invalidated.
+     */
+    void detach() {
+        if (parent != null) {
+            AggregateViews formerParent = parent;
+            parent = null;
+            formerParent.invalidateDevices();
+            formerParent.invalidateBeings();
+        }
+    }
+
+    /**
+     * Invalidates the views of the devices and device systems, here and in the enclosing living spaces.
+     */
+    void invalidateDevices() {
+        // A view is only collected after the views of the parts, so a stale view has stale enclosing views
+        if (devices == null && deviceSystems == null) {
+            return;
+        }
+        devices = null;
+        deviceSystems = null;
+        if (parent != null) {
+            parent.invalidateDevices();
+        }
+    }
+
+    /**
+     * Invalidates the views of the people, pets and beings, here and in the enclosing living spaces.
+     */
+    void invalidateBeings() {
+        if (people == null && pets == null && beings == null) {
+            return;
+        }
+        people = null;
+        pets = null;
+        beings = null;
+        if (parent != null) {
+            parent.invalidateBeings();
+        }
+    }
+
+    List<IDevice> getDevices() {
+        if (devices == null) {
+            devices = collect(ILivingSpace::getAllDevices);
+        }
+        return devices;
+    }
+
+    List<DeviceSystem> getDeviceSystems() {
+        if (deviceSystems == null) {
+            deviceSystems = collect(ILivingSpace::getAllDeviceSystems);
+        }
+        return deviceSystems;
+    }
+
+    List<Human> getPeople() {
+        if (people == null) {
+            people = collect(ILivingSpace::getAllPeople);
+        }
+        return people;
+    }
+
+    List<Pet> getPets() {
+        if (pets == null) {
+            pets = collect(ILivingSpace::getAllPets);
+        }
+        return pets;
+    }
+
+    List<Being> getBeings() {
+        if (beings == null) {
+            beings = collect(ILivingSpace::getAllBeings);
+        }
+        return beings;
+    }
+
+    /**
+     * Concatenates the lists of the parts of the living space.
+     *
+     * @param getter Gets the list of a part.
+     * @return Read-only concatenation of the lists.
+     */
+    private <T> List<T> collect(Function<ILivingSpace, List<? extends T>> getter) {
+        List<T> all = new ArrayList<>();
+        for (int i = 0; i < parts.size(); i++) {
+            all.addAll(getter.apply(parts.get(i)));
+        }
+        return Collections.unmodifiableList(all);
+    }
+}
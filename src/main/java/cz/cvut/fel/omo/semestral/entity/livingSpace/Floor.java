@@ -1,11 +1,14 @@
 package cz.cvut.fel.omo.semestral.entity.livingSpace;
 
 
+import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
 import cz.cvut.fel.omo.semestral.entity.beings.Being;
 import cz.cvut.fel.omo.semestral.entity.beings.Human;
 import cz.cvut.fel.omo.semestral.entity.beings.Pet;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceStateIndex;
 import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
 import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystem;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -15,7 +18,6 @@ import java.util.List;
 /**
  * Represents a floor in a house.
  */
-@Builder
 @Getter
 public class Floor implements ILivingSpace {
     /** Unique ID of the floor */
@@ -26,6 +28,12 @@ public class Floor implements ILivingSpace {
     private final int floorLevel;
     /** List of rooms on the floor */
     private final List<Room> rooms;
+    /** Cached views of the content of the rooms */
+    @Getter(AccessLevel.NONE)
+    private final AggregateViews views;
+    /** The house the floor is in, null if it is not in a house */
+    @Getter(AccessLevel.NONE)
+    private House house;
 
     /**
      * Creates a new floor.
@@ -34,55 +42,126 @@ public class Floor implements ILivingSpace {
      * @param floorLevel Floor level number in the house.
      * @param rooms List of rooms on the floor.
      */
+    @Builder
     public Floor(int floorID, String floorName, int floorLevel, List<Room> rooms) {
         this.floorID = floorID;
         this.floorName = floorName;
         this.floorLevel = floorLevel;
-        this.rooms = rooms;
+        this.rooms = rooms == null ? null : new ArrayList<>(rooms);
+        this.views = new AggregateViews(this.rooms == null ? List.of() : this.rooms);
+        if (rooms != null) {
+            rooms.forEach(room -> room.setViews(views));
+        }
+    }
+
+    /**
+     * Removes a room from the floor. If the floor is in a house, the room is removed from the house as well,
+     * its devices leave the index of the house and its consumption is no longer counted by the house.
+     * @param room Room to remove.
+     * @return True if the room was on the floor.
+     */
+    public boolean removeRoom(Room room) {
+        if (rooms == null || !rooms.remove(room)) {
+            return false;
+        }
+        room.setViews(null);
+        views.invalidateDevices();
+        views.invalidateBeings();
+        if (house != null) {
+            house.releaseRoom(room);
+        }
+        return true;
     }
 
     /**
      * Returns all devices on the floor.
-     * @return List of devices.
+     * @return Read-only list of devices, cached until a device system is added to a room.
      */
     @Override
     public List<IDevice> getAllDevices() {
-        return rooms.stream().flatMap(room -> room.getAllDevices().stream()).toList();
+        return views.getDevices();
+    }
+
+    /**
+     * Returns the devices on the floor which are in a state.
+     * @param state State of the devices.
+     * @return List of devices in the state.
+     */
+    @Override
+    public List<IDevice> getDevicesInState(DeviceState state) {
+        return rooms.stream().flatMap(room -> room.getDevicesInState(state).stream()).toList();
+    }
+
+    /**
+     * Returns the devices of a class on the floor which are in a state.
+     * @param state State of the devices.
+     * @param deviceClass Class of the devices.
+     * @return List of devices of the class in the state.
+     */
+    @Override
+    public <T extends IDevice> List<T> getDevicesInState(DeviceState state, Class<T> deviceClass) {
+        return rooms.stream().flatMap(room -> room.getDevicesInState(state, deviceClass).stream()).toList();
+    }
+
+    /**
+     * Places the floor in a house, attaching its views to the views of the house.
+     *
+     * @param house      The house the floor is in, null once the floor is removed from it.
+     * @param houseViews The views of the house, ignored if the house is null.
+     */
+    void setHouse(House house, AggregateViews houseViews) {
+        this.house = house;
+        if (house != null) {
+            views.attachTo(houseViews);
+        } else {
+            views.detach();
+        }
+    }
+
+    /**
+     * Sets the index of the house the floor is in to all rooms of the floor.
+     *
+     * @param stateIndex The index of the devices of the house.
+     */
+    void setStateIndex(DeviceStateIndex stateIndex) {
+        if (rooms != null) {
+            rooms.forEach(room -> room.setStateIndex(stateIndex));
+        }
     }
 
     /**
      * Returns all device systems on the floor.
-     * @return List of device systems.
+     * @return Read-only list of device systems, cached until a device system is added to a room.
      */
     @Override
     public List<DeviceSystem> getAllDeviceSystems() {
-        return rooms.stream().flatMap(room -> room.getAllDeviceSystems().stream()).toList();
+        return views.getDeviceSystems();
     }
 
     /**
      * Returns all people on the floor.
-     * @return List of people.
+     * @return Read-only list of people, cached until a being enters or leaves a room.
      */
     @Override
     public List<Human> getAllPeople() {
-        return rooms.stream().flatMap(room -> room.getAllPeople().stream()).toList();
+        return views.getPeople();
     }
 
     /**
      * Returns all pets on the floor.
-     * @return List of pets.
+     * @return Read-only list of pets, cached until a being enters or leaves a room.
      */
     @Override
     public List<Pet> getAllPets() {
-        return rooms.stream().flatMap(room -> room.getAllPets().stream()).toList();
+        return views.getPets();
     }
 
     /**
      * Returns all beings on the floor.
-     * @return List of beings.
+     * @return Read-only list of beings, cached until a being enters or leaves a room.
      */
     @Override
     public List<Being> getAllBeings() {
-        return rooms.stream().flatMap(room -> room.getAllBeings().stream()).toList();
+        return views.getBeings();
     }
 }
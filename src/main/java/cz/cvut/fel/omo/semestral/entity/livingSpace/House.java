@@ -1,12 +1,17 @@
 package cz.cvut.fel.omo.semestral.entity.livingSpace;
 
+import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
 import cz.cvut.fel.omo.semestral.entity.beings.Being;
 import cz.cvut.fel.omo.semestral.entity.beings.Human;
 import cz.cvut.fel.omo.semestral.entity.beings.Pet;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceStateIndex;
+import cz.cvut.fel.omo.semestral.entity.devices.EnergyMeter;
 import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
 import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystem;
 import cz.cvut.fel.omo.semestral.reporting.Report;
 import cz.cvut.fel.omo.semestral.reporting.ReportVisitor;
+import cz.cvut.fel.omo.semestral.tick.SimulationClock;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -31,10 +36,22 @@ public class House implements ILivingSpace {
     private final Temperature internalTemperature;
     /** External temperature of the house. */
     private final Temperature externalTemperature;
+    /** Clock of the simulation of the house, giving the duration of one tick. */
+    private final SimulationClock clock;
+    /** Meter summing up the consumption of all rooms of the house. */
+    private final EnergyMeter energyMeter = new EnergyMeter();
+    /** Indices of the floors, rooms, beings, device systems and devices of the house. */
+    private final HouseRegistry registry = new HouseRegistry();
+    /** Index of the devices of the house by their state, shared by all rooms of the house. */
+    @Getter(AccessLevel.NONE)
+    private final DeviceStateIndex stateIndex;
+    /** Cached views of the content of the floors. */
+    @Getter(AccessLevel.NONE)
+    private final AggregateViews views;
 
 
     /**
-     * Constructs a new {@code House} object with the specified parameters and a list of floors.
+     * Constructs a new {@code House} object with the specified parameters, simulated with the reference tick duration.
      *
      * @param houseID The unique ID of the house.
      * @param houseNumber The number of the house.
@@ -43,16 +60,34 @@ public class House implements ILivingSpace {
      * @param externalTemperature The external temperature of the house.
      */
     public House(int houseID, int houseNumber, String address, Temperature internalTemperature, Temperature externalTemperature) {
+        this(houseID, houseNumber, address, internalTemperature, externalTemperature, SimulationClock.REFERENCE);
+    }
+
+    /**
+     * Constructs a new {@code House} object with the specified parameters.
+     *
+     * @param houseID The unique ID of the house.
+     * @param houseNumber The number of the house.
+     * @param address The address of the house.
+     * @param internalTemperature The internal temperature of the house.
+     * @param externalTemperature The external temperature of the house.
+     * @param clock The clock of the simulation of the house.
+     */
+    public House(int houseID, int houseNumber, String address, Temperature internalTemperature, Temperature externalTemperature, SimulationClock clock) {
         this.houseID = houseID;
         this.houseNumber = houseNumber;
         this.address = address;
         this.internalTemperature = internalTemperature;
         this.externalTemperature = externalTemperature;
+        this.clock = clock;
+        this.stateIndex = new DeviceStateIndex(clock);
         this.floors = new ArrayList<>();
+        this.views = new AggregateViews(floors);
     }
 
     /**
-     * Constructs a new {@code House} object with the specified parameters and a list of floors.
+     * Constructs a new {@code House} object with the specified parameters and a list of floors, simulated with
+     * the reference tick duration.
      *
      * @param houseID The unique ID of the house.
      * @param houseNumber The number of the house.
@@ -62,7 +97,22 @@ public class House implements ILivingSpace {
      * @param floors A list of floors within the house.
      */
     public House(int houseID, int houseNumber, String address, Temperature internalTemperature, Temperature externalTemperature, List<Floor> floors) {
-        this(houseID, houseNumber, address, internalTemperature, externalTemperature);
+        this(houseID, houseNumber, address, internalTemperature, externalTemperature, floors, SimulationClock.REFERENCE);
+    }
+
+    /**
+     * Constructs a new {@code House} object with the specified parameters and a list of floors.
+     *
+     * @param houseID The unique ID of the house.
+     * @param houseNumber The number of the house.
+     * @param address The address of the house.
+     * @param internalTemperature The internal temperature of the house.
+     * @param externalTemperature The external temperature of the house.
+     * @param floors A list of floors within the house.
+     * @param clock The clock of the simulation of the house.
+     */
+    public House(int houseID, int houseNumber, String address, Temperature internalTemperature, Temperature externalTemperature, List<Floor> floors, SimulationClock clock) {
+        this(houseID, houseNumber, address, internalTemperature, externalTemperature, clock);
         for (Floor floor : floors) {
             this.addFloor(floor);
         }
@@ -73,11 +123,56 @@ public class House implements ILivingSpace {
      * @throws IllegalArgumentException If a floor with the same number already exists.
      */
     public void addFloor(Floor floor) throws IllegalArgumentException {
-        boolean exists = floors.stream().anyMatch(f -> f.getFloorLevel() == floor.getFloorLevel());
-        if (exists) {
+        if (registry.getFloor(floor.getFloorLevel()) != null) {
             throw new IllegalArgumentException("Floor with this number already exists.");
         }
         floors.add(floor);
+        floor.setHouse(this, views);
+        floor.setStateIndex(stateIndex);
+        registry.addFloor(floor);
+        if (floor.getRooms() != null) {
+            for (Room room : floor.getRooms()) {
+                room.getEnergyMeter().attachTo(energyMeter);
+            }
+        }
+    }
+
+    /**
+     * Removes a floor from the house together with its rooms. The devices of the rooms leave the index of
+     * the house and their consumption is no longer counted by the house.
+     * @param floor Floor to remove.
+     * @return True if the floor was in the house.
+     */
+    public boolean removeFloor(Floor floor) {
+        if (!floors.remove(floor)) {
+            return false;
+        }
+        floor.setHouse(null, null);
+        registry.removeFloor(floor);
+        if (floor.getRooms() != null) {
+            for (Room room : floor.getRooms()) {
+                detachRoom(room);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes a room which has been removed from a floor of the house from the house.
+     * @param room Room removed from its floor.
+     */
+    void releaseRoom(Room room) {
+        registry.removeRoom(room);
+        detachRoom(room);
+    }
+
+    /**
+     * Stops counting the consumption of a room removed from the house and gives the room an index of its own.
+     * @param room Room removed from the house.
+     */
+    private void detachRoom(Room room) {
+        room.getEnergyMeter().attachTo(null);
+        room.setStateIndex(Room.createOwnIndex(clock));
     }
 
     /**
@@ -86,64 +181,72 @@ public class House implements ILivingSpace {
      * @return Floor with the given level.
      */
     public Floor getFLoor(int level) {
-        return floors.stream()
-                .filter(floor -> floor.getFloorLevel() == level)
-                .findFirst()
-                .orElse(null);
+        return registry.getFloor(level);
     }
     /**
      * Gets all devices in the house.
-     * @return List of devices.
+     * @return Read-only list of devices, cached until a device system is added to a room.
      */
     @Override
     public List<IDevice> getAllDevices() {
-        return floors.stream()
-                .flatMap(floor -> floor.getAllDevices().stream())
-                .toList();
+        return views.getDevices();
+    }
+
+    /**
+     * Gets the devices in the house which are in a state.
+     * @param state State of the devices.
+     * @return List of devices in the state.
+     */
+    @Override
+    public List<IDevice> getDevicesInState(DeviceState state) {
+        return stateIndex.getDevices(state);
+    }
+
+    /**
+     * Gets the devices of a class in the house which are in a state.
+     * @param state State of the devices.
+     * @param deviceClass Class of the devices.
+     * @return List of devices of the class in the state.
+     */
+    @Override
+    public <T extends IDevice> List<T> getDevicesInState(DeviceState state, Class<T> deviceClass) {
+        return stateIndex.getDevices(state, deviceClass);
     }
 
     /**
      * Gets all device systems in the house.
-     * @return List of device systems.
+     * @return Read-only list of device systems, cached until a device system is added to a room.
      */
     @Override
     public List<DeviceSystem> getAllDeviceSystems() {
-        return floors.stream()
-                .flatMap(floor -> floor.getAllDeviceSystems().stream())
-                .toList();
+        return views.getDeviceSystems();
     }
 
     /**
      * Gets all people in the house.
-     * @return List of people.
+     * @return Read-only list of people, cached until a being enters or leaves a room.
      */
     @Override
     public List<Human> getAllPeople() {
-        return floors.stream()
-                .flatMap(floor -> floor.getAllPeople().stream())
-                .toList();
+        return views.getPeople();
     }
 
     /**
      * Gets all pets in the house.
-     * @return List of pets.
+     * @return Read-only list of pets, cached until a being enters or leaves a room.
      */
     @Override
     public List<Pet> getAllPets() {
-        return floors.stream()
-                .flatMap(floor -> floor.getAllPets().stream())
-                .toList();
+        return views.getPets();
     }
 
     /**
      * Gets all beings in the house.
-     * @return List of beings.
+     * @return Read-only list of beings, cached until a being enters or leaves a room.
      */
     @Override
     public List<Being> getAllBeings() {
-        return floors.stream()
-                .flatMap(floor -> floor.getAllBeings().stream())
-                .toList();
+        return views.getBeings();
     }
 
     /**
@@ -151,11 +254,7 @@ public class House implements ILivingSpace {
      * @return Garage
      */
     public Garage getGarage() {
-        return floors.stream().flatMap(floor -> floor.getRooms().stream())
-                .filter(room -> room instanceof Garage)
-                .map(room -> (Garage) room)
-                .findFirst()
-                .orElse(null);
+        return registry.getGarage();
     }
 
     @Override
@@ -0,0 +1,254 @@
+package cz.cvut.fel.omo.semestral.entity.livingSpace;
+
+import cz.cvut.fel.omo.semestral.entity.beings.Being;
+import cz.cvut.fel.omo.semestral.entity.beings.Human;
+import cz.cvut.fel.omo.semestral.entity.beings.Pet;
+import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
+import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Hash indices of the floors, rooms, beings, device systems and devices of a house.
+ * <p>
+ * The registry is filled as the house is assembled, floors are registered by {@link House#addFloor(Floor)}
+ * together with their rooms, and device systems added to a registered room later are registered by
+ * {@link Room#addDeviceSystem(DeviceSystem)}. Every lookup by name, id, serial number or level takes constant
+ * time, listing the devices of a class takes time proportional to their number. Floors and rooms are removed
+ * by {@link House#removeFloor(Floor)} and {@link Floor#removeRoom(Room)}, device systems by
+ * {@link Room#removeDeviceSystem(DeviceSystem)}. Names are not required to be unique, a name refers to the
+ * first registered entity of that name which is still registered.
+ */
+public class HouseRegistry {
+    private final Map<Integer, Floor> floorsByLevel = new HashMap<>();
+    private final Map<String, List<Floor>> floorsByName = new HashMap<>();
+    private final Map<Integer, Room> roomsById = new HashMap<>();
+    private final Map<String, List<Room>> roomsByName = new HashMap<>();
+    private final Map<String, List<Human>> humansByName = new HashMap<>();
+    private final Map<String, List<Pet>> petsByName = new HashMap<>();
+    private final Map<Integer, DeviceSystem> deviceSystemsById = new HashMap<>();
+    private final Map<UUID, IDevice> devicesBySerialNumber = new HashMap<>();
+    private final Map<Class<?>, Set<IDevice>> devicesByClass = new HashMap<>();
+    /** The garage of the house, null if it has none */
+    private Garage garage;
+
+    /**
+     * Registers a floor together with its rooms.
+     *
+     * @param floor The floor to be registered.
+     */
+    void addFloor(Floor floor) {
+        floorsByLevel.put(floor.getFloorLevel(), floor);
+        register(floorsByName, floor.getFloorName(), floor);
+        if (floor.getRooms() != null) {
+            floor.getRooms().forEach(this::addRoom);
+        }
+    }
+
+    /**
+     * Removes a floor together with its rooms.
+     *
+     * @param floor The floor to be removed.
+     */
+    void removeFloor(Floor floor) {
+        floorsByLevel.remove(floor.getFloorLevel(), floor);
+        unregister(floorsByName, floor.getFloorName(), floor);
+        if (floor.getRooms() != null) {
+            floor.getRooms().forEach(this::removeRoom);
+        }
+    }
+
+    /**
+     * Registers a room together with its beings, device systems and devices. The room keeps the registry up
+     * to date with the device systems added to it afterwards.
+     *
+     * @param room The room to be registered.
+     */
+    void addRoom(Room room) {
+        roomsById.put(room.getRoomID(), room);
+        register(roomsByName, room.getRoomName(), room);
+        if (room instanceof Garage registeredGarage && garage == null) {
+            garage = registeredGarage;
+        }
+        room.getAllPeople().forEach(this::addBeing);
+        room.getAllPets().forEach(this::addBeing);
+        room.getAllDeviceSystems().forEach(this::addDeviceSystem);
+        room.getAllDevices().forEach(this::addDevice);
+        room.setRegistry(this);
+    }
+
+    /**
+     * Removes a room together with its beings, device systems and devices.
+     *
+     * @param room The room to be removed.
+     */
+    void removeRoom(Room room) {
+        room.setRegistry(null);
+        roomsById.remove(room.getRoomID(), room);
+        unregister(roomsByName, room.getRoomName(), room);
+        if (garage == room) {
+            garage = null;
+            for (Room registeredRoom : roomsById.values()) {
+                if (registeredRoom instanceof Garage registeredGarage) {
+                    garage = registeredGarage;
+                    break;
+                }
+            }
+        }
+        room.getAllPeople().forEach(this::removeBeing);
+        room.getAllPets().forEach(this::removeBeing);
+        room.getAllDeviceSystems().forEach(this::removeDeviceSystem);
+        room.getAllDevices().forEach(this::removeDevice);
+    }
+
+    /**
+     * Registers a human or a pet.
+     *
+     * @param being The being to be registered.
+     */
+    void addBeing(Being being) {
+        if (being instanceof Pet pet) {
+            register(petsByName, pet.getName(), pet);
+        } else if (being instanceof Human human) {
+            register(humansByName, human.getName(), human);
+        }
+    }
+
+    /**
+     * Removes a human or a pet.
+     *
+     * @param being The being to be removed.
+     */
+    void removeBeing(Being being) {
+        if (being instanceof Pet pet) {
+            unregister(petsByName, pet.getName(), pet);
+        } else if (being instanceof Human human) {
+            unregister(humansByName, human.getName(), human);
+        }
+    }
+
+    /**
+     * Registers a device system together with its devices.
+     *
+     * @param deviceSystem The device system to be registered.
+     */
+    void addDeviceSystem(DeviceSystem deviceSystem) {
+        deviceSystemsById.put(deviceSystem.getDeviceSystemID(), deviceSystem);
+        deviceSystem.getDevices().forEach(this::addDevice);
+    }
+
+    /**
+     * Removes a device system together with its devices.
+     *
+     * @param deviceSystem The device system to be removed.
+     */
+    void removeDeviceSystem(DeviceSystem deviceSystem) {
+        deviceSystemsById.remove(deviceSystem.getDeviceSystemID(), deviceSystem);
+        deviceSystem.getDevices().forEach(this::removeDevice);
+    }
+
+    /**
+     * Registers a device.
+     *
+     * @param device The device to be registered.
+     */
+    void addDevice(IDevice device) {
+        devicesBySerialNumber.put(device.getSerialNumber(), device);
+        devicesByClass.computeIfAbsent(device.getClass(), deviceClass -> new LinkedHashSet<>()).add(device);
+    }
+
+    /**
+     * Removes a device.
+     *
+     * @param device The device to be removed.
+     */
+    void removeDevice(IDevice device) {
+        devicesBySerialNumber.remove(device.getSerialNumber(), device);
+        Set<IDevice> devices = devicesByClass.get(device.getClass());
+        if (devices != null) {
+            devices.remove(device);
+        }
+    }
+
+    public Floor getFloor(int level) {
+        return floorsByLevel.get(level);
+    }
+
+    public Floor getFloor(String name) {
+        return first(floorsByName, name);
+    }
+
+    public Room getRoom(int roomID) {
+        return roomsById.get(roomID);
+    }
+
+    public Room getRoom(String name) {
+        return first(roomsByName, name);
+    }
+
+    public Garage getGarage() {
+        return garage;
+    }
+
+    public Human getHuman(String name) {
+        return first(humansByName, name);
+    }
+
+    public Pet getPet(String name) {
+        return first(petsByName, name);
+    }
+
+    public DeviceSystem getDeviceSystem(int deviceSystemID) {
+        return deviceSystemsById.get(deviceSystemID);
+    }
+
+    public IDevice getDevice(UUID serialNumber) {
+        return devicesBySerialNumber.get(serialNumber);
+    }
+
+    /**
+     * Lists the registered devices of a class.
+     *
+     * @param deviceClass The class of the devices, subclasses are not listed.
+     * @return The devices of the class in the order they were registered.
+     */
+    public <T extends IDevice> List<T> getDevices(Class<T> deviceClass) {
+        Set<IDevice> devices = devicesByClass.get(deviceClass);
+        List<T> result = new ArrayList<>(devices == null ? 0 : devices.size());
+        if (devices != null) {
+            devices.forEach(device -> result.add(deviceClass.cast(device)));
+        }
+        return result;
+    }
+
+    private static <T> void register(Map<String, List<T>> byName, String name, T entity) {
+        byName.computeIfAbsent(name, key -> new ArrayList<>(1)).add(entity);
+    }
+
+    private static <T> void unregister(Map<String, List<T>> byName, String name, T entity) {
+        List<T> entities = byName.get(name);
+        if (entities == null) {
+            return;
+        }
+        for (int i = 0; i < entities.size(); i++) {
+            if (entities.get(i) == entity) {
+                entities.remove(i);
+                break;
+            }
+        }
+        if (entities.isEmpty()) {
+            byName.remove(name);
+        }
+    }
+
+    private static <T> T first(Map<String, List<T>> byName, String name) {
+        List<T> entities = byName.get(name);
+        return entities == null ? null : entities.get(0);
+    }
+}
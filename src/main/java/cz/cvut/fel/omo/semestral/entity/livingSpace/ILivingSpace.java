@@ -1,5 +1,6 @@
 package cz.cvut.fel.omo.semestral.entity.livingSpace;
 
+import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
 import cz.cvut.fel.omo.semestral.entity.beings.Being;
 import cz.cvut.fel.omo.semestral.entity.beings.Human;
 import cz.cvut.fel.omo.semestral.entity.beings.Pet;
@@ -20,6 +21,25 @@ public interface ILivingSpace {
      */
     List<IDevice> getAllDevices();
 
+    /**
+     * Gets the devices in the living space implementation which are in a state, such as the broken devices.
+     * Answered from the {@link cz.cvut.fel.omo.semestral.entity.devices.DeviceStateIndex} without going through all devices.
+     *
+     * @param state State of the devices.
+     * @return List of devices in the state.
+     */
+    List<IDevice> getDevicesInState(DeviceState state);
+
+    /**
+     * Gets the devices of a class in the living space implementation which are in a state.
+     * Answered from the buckets of the classes in the {@link cz.cvut.fel.omo.semestral.entity.devices.DeviceStateIndex}.
+     *
+     * @param state State of the devices.
+     * @param deviceClass Class of the devices.
+     * @return List of devices of the class in the state.
+     */
+    <T extends IDevice> List<T> getDevicesInState(DeviceState state, Class<T> deviceClass);
+
     /**
      * Gets all device systems in the living space implementation.
      * 
@@ -1,19 +1,32 @@
 package cz.cvut.fel.omo.semestral.entity.livingSpace;
 
+import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
 import cz.cvut.fel.omo.semestral.entity.beings.Being;
 import cz.cvut.fel.omo.semestral.entity.beings.Human;
 import cz.cvut.fel.omo.semestral.entity.beings.Pet;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceStateIndex;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceStateStore;
+import cz.cvut.fel.omo.semestral.entity.devices.EnergyMeter;
 import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
+import cz.cvut.fel.omo.semestral.entity.devices.sensors.MotionSensor;
 import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystem;
+import cz.cvut.fel.omo.semestral.tick.Occupiable;
+import cz.cvut.fel.omo.semestral.tick.SimulationClock;
+import lombok.AccessLevel;
 import lombok.Getter;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Represents a room in a house.
  */
 @Getter
-public class Room implements ILivingSpace {
+public class Room implements ILivingSpace, Occupiable {
+    /** The number of devices per page of the store of a room outside of a house */
+    private static final int OWN_STORE_PAGE_SIZE = 16;
+
     /** Unique ID of the room */
     private final int roomID;
     /** Name of the room */
@@ -22,8 +35,26 @@ public class Room implements ILivingSpace {
     private List<IDevice> deviceList;
     /** List of device systems in the room */
     private List<DeviceSystem> deviceSystems;
-    /** List of people in the room */
-    private List<Being> inhabitants;
+    /** Beings present in the room */
+    private final RoomOccupancy occupancy = new RoomOccupancy(this);
+    /** Meter summing up the consumption of the devices and device systems in the room */
+    private final EnergyMeter energyMeter = new EnergyMeter();
+    /** Registry of the house the room belongs to, kept up to date with the device systems added to the room */
+    @Getter(AccessLevel.NONE)
+    private HouseRegistry registry;
+    /** Index of the devices by their state, the one of the house once the room is in a house */
+    @Getter(AccessLevel.NONE)
+    private DeviceStateIndex stateIndex = createOwnIndex(SimulationClock.REFERENCE);
+    /** Cached views of the floor the room is on, invalidated by the changes of the room */
+    @Getter(AccessLevel.NONE)
+    private AggregateViews views;
+    @Getter(AccessLevel.NONE)
+    private final List<IDevice> devicesView;
+    @Getter(AccessLevel.NONE)
+    private final List<DeviceSystem> deviceSystemsView;
+    /** Cached list of the beings in the room, null once a being enters or leaves */
+    @Getter(AccessLevel.NONE)
+    private List<Being> beings;
 
     /**
      * Creates a new room.
@@ -34,32 +65,161 @@ public class Room implements ILivingSpace {
         this.roomName = builder.roomName;
         this.deviceList = builder.deviceList;
         this.deviceSystems = builder.deviceSystems;
-        this.inhabitants = builder.inhabitants;
+        this.devicesView = Collections.unmodifiableList(deviceList);
+        this.deviceSystemsView = Collections.unmodifiableList(deviceSystems);
+        builder.inhabitants.forEach(occupancy::enter);
+        for (IDevice device : deviceList) {
+            device.setEnergyMeter(energyMeter);
+            stateIndex.add(device, this);
+        }
+        deviceSystems.forEach(this::placeDeviceSystem);
     }
 
     public Room addDeviceSystem(DeviceSystem deviceSystem) {
         deviceSystems.add(deviceSystem);
+        placeDeviceSystem(deviceSystem);
+        if (registry != null) {
+            registry.addDeviceSystem(deviceSystem);
+        }
+        if (views != null) {
+            views.invalidateDevices();
+        }
+        return this;
+    }
+
+    /**
+     * Connects the devices of a device system placed in the room to the meter of the system and the meter
+     * of the system to the meter of the room, and assigns the devices to the room. Motion sensors of the
+     * system are subscribed to the occupancy of the room.
+     *
+     * @param deviceSystem The device system placed in the room.
+     */
+    private void placeDeviceSystem(DeviceSystem deviceSystem) {
+        deviceSystem.meterDevices();
+        deviceSystem.getEnergyMeter().attachTo(energyMeter);
+        for (IDevice device : deviceSystem.getDevices()) {
+            stateIndex.add(device, this);
+            if (device instanceof MotionSensor motionSensor) {
+                motionSensor.setRoom(this);
+            }
+        }
+    }
+
+    /**
+     * Removes a device system from the room. Its devices are removed from the index of the room, its motion
+     * sensors are unsubscribed from the occupancy of the room and its consumption is no longer counted by the room.
+     *
+     * @param deviceSystem The device system to be removed.
+     * @return This room.
+     */
+    public Room removeDeviceSystem(DeviceSystem deviceSystem) {
+        if (!deviceSystems.remove(deviceSystem)) {
+            return this;
+        }
+        deviceSystem.getEnergyMeter().attachTo(null);
+        for (IDevice device : deviceSystem.getDevices()) {
+            stateIndex.remove(device);
+            if (device instanceof MotionSensor motionSensor && motionSensor.getRoom() == this) {
+                motionSensor.setRoom(null);
+            }
+        }
+        if (registry != null) {
+            registry.removeDeviceSystem(deviceSystem);
+        }
+        if (views != null) {
+            views.invalidateDevices();
+        }
         return this;
     }
 
+    /**
+     * Moves the devices of the room to the index of the house the room is placed in.
+     *
+     * @param stateIndex The index of the devices of the house.
+     */
+    void setStateIndex(DeviceStateIndex stateIndex) {
+        if (stateIndex == this.stateIndex) {
+            return;
+        }
+        List<IDevice> devices = new ArrayList<>(deviceList);
+        deviceSystems.forEach(deviceSystem -> devices.addAll(deviceSystem.getDevices()));
+        for (IDevice device : devices) {
+            this.stateIndex.remove(device);
+            stateIndex.add(device, this);
+        }
+        this.stateIndex = stateIndex;
+    }
+
+    /**
+     * Creates the index of a room outside of a house. Its store starts with small pages, as it only keeps
+     * the devices of the room.
+     *
+     * @param clock The clock the devices of the room keep using.
+     * @return The new index.
+     */
+    static DeviceStateIndex createOwnIndex(SimulationClock clock) {
+        return new DeviceStateIndex(new DeviceStateStore(OWN_STORE_PAGE_SIZE, clock));
+    }
+
+    /**
+     * Sets the cached views of the floor the room is on.
+     *
+     * @param views The views invalidated by the changes of the room.
+     */
+    void setViews(AggregateViews views) {
+        this.views = views;
+    }
+
+    /**
+     * Sets the registry of the house the room belongs to.
+     *
+     * @param registry The registry, null once the room is removed from the house.
+     */
+    void setRegistry(HouseRegistry registry) {
+        this.registry = registry;
+    }
+
     /**
      * Gets all devices in the room implementation.
      *
-     * @return List of devices.
+     * @return Read-only view of the devices.
      */
     @Override
     public List<IDevice> getAllDevices() {
-        return deviceList;
+        return devicesView;
+    }
+
+    /**
+     * Gets the devices of the room and its device systems which are in a state.
+     *
+     * @param state State of the devices.
+     * @return List of devices in the state.
+     */
+    @Override
+    public List<IDevice> getDevicesInState(DeviceState state) {
+        return stateIndex.getDevices(state, this);
+    }
+
+    /**
+     * Gets the devices of a class in the room and its device systems which are in a state.
+     *
+     * @param state State of the devices.
+     * @param deviceClass Class of the devices.
+     * @return List of devices of the class in the state.
+     */
+    @Override
+    public <T extends IDevice> List<T> getDevicesInState(DeviceState state, Class<T> deviceClass) {
+        return stateIndex.getDevices(state, deviceClass, this);
     }
 
     /**
      * Gets all device systems in the room implementation.
      *
-     * @return List of device systems.
+     * @return Read-only view of the device systems.
      */
     @Override
     public List<DeviceSystem> getAllDeviceSystems() {
-        return deviceSystems;
+        return deviceSystemsView;
     }
 
     /**
@@ -68,10 +228,7 @@ public class Room implements ILivingSpace {
      * @return List of people.
      */
     public List<Human> getAllPeople() {
-        return inhabitants.stream()
-                .filter(Human.class::isInstance)
-                .map(Human.class::cast)
-                .toList();
+        return occupancy.getPeople();
     }
 
     /**
@@ -80,20 +237,23 @@ public class Room implements ILivingSpace {
      * @return List of pets.
      */
     public List<Pet> getAllPets() {
-        return inhabitants.stream()
-                .filter(Pet.class::isInstance)
-                .map(Pet.class::cast)
-                .toList();
+        return occupancy.getPets();
     }
 
     /**
      * Gets all beings in the room implementation.
      *
-     * @return List of beings.
+     * @return Read-only list of beings, cached until a being enters or leaves the room.
      */
     @Override
     public List<Being> getAllBeings() {
-        return inhabitants;
+        if (beings == null) {
+            List<Being> all = new ArrayList<>(occupancy.getPeopleCount() + occupancy.getPetCount());
+            all.addAll(occupancy.getPeople());
+            all.addAll(occupancy.getPets());
+            beings = Collections.unmodifiableList(all);
+        }
+        return beings;
     }
 
     /**
@@ -105,17 +265,51 @@ public class Room implements ILivingSpace {
 
     /**
      * Removes a being from the room.
+     * The device systems of the room are woken up once the room is left empty, as their motion sensors may have to react.
      * @param being Being to remove.
      */
     public void leaveRoom(Being being) {
-        inhabitants.remove(being);
+        if (!occupancy.leave(being)) {
+            return;
+        }
+        invalidateBeings();
+        if (!occupancy.isOccupied()) {
+            deviceSystems.forEach(DeviceSystem::wake);
+        }
+    }
+
+    /**
+     * Checks whether there is anybody in the room.
+     *
+     * @return True if the room has inhabitants.
+     */
+    @Override
+    public boolean isOccupied() {
+        return occupancy.isOccupied();
     }
 
     /**
      * Adds a being to the room.
+     * The device systems of the room are woken up once the room gets occupied, as their motion sensors may have to react.
      * @param being Being to add.
      */
     public void enterRoom(Being being) {
-        inhabitants.add(being);
+        if (!occupancy.enter(being)) {
+            return;
+        }
+        invalidateBeings();
+        if (occupancy.getPeopleCount() + occupancy.getPetCount() == 1) {
+            deviceSystems.forEach(DeviceSystem::wake);
+        }
+    }
+
+    /**
+     * Invalidates the cached lists of beings of the room and of the floor and house it is in.
+     */
+    private void invalidateBeings() {
+        beings = null;
+        if (views != null) {
+            views.invalidateBeings();
+        }
     }
 }
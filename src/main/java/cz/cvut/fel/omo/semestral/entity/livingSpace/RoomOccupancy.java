@@ -0,0 +1,175 @@
+package cz.cvut.fel.omo.semestral.entity.livingSpace;
+
+import cz.cvut.fel.omo.semestral.entity.beings.Being;
+import cz.cvut.fel.omo.semestral.entity.beings.Human;
+import cz.cvut.fel.omo.semestral.entity.beings.Pet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps track of the beings present in a room.
+ * <p>
+ * The people and pets are kept in separate lists together with the position of each being in its list, so
+ * entering, leaving and checking the presence of a being take constant time, and the number of people and
+ * pets is known without going through the beings. The occupancy is only changed by
+ * {@link Room#enterRoom(Being)} and {@link Room#leaveRoom(Being)}, which push every change to the subscribed
+ * {@link Listener listeners}, such as the motion sensors of the room, so nobody has to poll the room.
+ */
+public class RoomOccupancy {
+    /** The room whose occupancy is tracked */
+    private final Room room;
+    /** People in the room */
+    private final List<Human> people = new ArrayList<>();
+    /** Pets in the room */
+    private final List<Pet> pets = new ArrayList<>();
+    private final List<Human> peopleView = Collections.unmodifiableList(people);
+    private final List<Pet> petsView = Collections.unmodifiableList(pets);
+    /** Position of each being in the list of people or pets */
+    private final Map<Being, Integer> positions = new IdentityHashMap<>();
+    /** Listeners notified about every change of the occupancy */
+    private final List<Listener> listeners = new ArrayList<>();
+
+    /**
+     * Creates the occupancy of an empty room.
+     *
+     * @param room The room whose occupancy is tracked.
+     */
+    RoomOccupancy(Room room) {
+        this.room = room;
+    }
+
+    /**
+     * Subscribes a listener to the changes of the occupancy.
+     *
+     * @param listener The listener to be notified.
+     */
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unsubscribes a listener from the changes of the occupancy.
+     *
+     * @param listener The listener to be removed.
+     */
+    public void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Adds a being to the room, unless it is already present.
+     *
+     * @param being The being entering the room.
+     * @return True if the being has been added.
+     */
+    boolean enter(Being being) {
+        if (positions.containsKey(being)) {
+            return false;
+        }
+        if (being instanceof Pet pet) {
+            positions.put(being, pets.size());
+            pets.add(pet);
+        } else {
+            positions.put(being, people.size());
+            people.add((Human) being);
+        }
+        notifyListeners();
+        return true;
+    }
+
+    /**
+     * Removes a being from the room, unless it is not present.
+     * The last being of the same kind takes the place of the removed one.
+     *
+     * @param being The being leaving the room.
+     * @return True if the being has been removed.
+     */
+    boolean leave(Being being) {
+        Integer position = positions.remove(being);
+        if (position == null) {
+            return false;
+        }
+        List<? extends Being> beings = being instanceof Pet ? pets : people;
+        Being last = beings.remove(beings.size() - 1);
+        if (last != being) {
+            moveTo(last, position);
+        }
+        notifyListeners();
+        return true;
+    }
+
+    private void moveTo(Being being, int position) {
+        if (being instanceof Pet pet) {
+            pets.set(position, pet);
+        } else {
+            people.set(position, (Human) being);
+        }
+        positions.put(being, position);
+    }
+
+    private void notifyListeners() {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onOccupancyChanged(room, people.size(), pets.size());
+        }
+    }
+
+    /**
+     * Checks whether a being is present in the room.
+     *
+     * @param being The being to be checked.
+     * @return True if the being is in the room.
+     */
+    public boolean contains(Being being) {
+        return positions.containsKey(being);
+    }
+
+    public boolean isOccupied() {
+        return !positions.isEmpty();
+    }
+
+    public int getPeopleCount() {
+        return people.size();
+    }
+
+    public int getPetCount() {
+        return pets.size();
+    }
+
+    /**
+     * Retrieves the people in the room.
+     *
+     * @return Unmodifiable view of the people, in no particular order.
+     */
+    public List<Human> getPeople() {
+        return peopleView;
+    }
+
+    /**
+     * Retrieves the pets in the room.
+     *
+     * @return Unmodifiable view of the pets, in no particular order.
+     */
+    public List<Pet> getPets() {
+        return petsView;
+    }
+
+    /**
+     * Listener of the changes of the occupancy of a room.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Called after a being has entered or left the room.
+         *
+         * @param room   The room whose occupancy has changed.
+         * @param people The number of people in the room.
+         * @param pets   The number of pets in the room.
+         */
+        void onOccupancyChanged(Room room, int people, int pets);
+    }
+}
@@ -1,23 +1,56 @@
 package cz.cvut.fel.omo.semestral.entity.livingSpace;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Represents a temperature.
  */
 @Getter
-@Setter
-@AllArgsConstructor
 public class Temperature {
     /** Temperature in the room */
     private double temperature;
+    /** Listeners notified whenever the temperature is about to change */
+    private final List<Runnable> changeListeners = new ArrayList<>();
+
+    /**
+     * Creates a new temperature.
+     * @param temperature Initial temperature.
+     */
+    public Temperature(double temperature) {
+        this.temperature = temperature;
+    }
+
+    /**
+     * Sets the temperature in the room.
+     * @param temperature New temperature.
+     */
+    public void setTemperature(double temperature) {
+        if (this.temperature != temperature) {
+            changeListeners.forEach(Runnable::run);
+            this.temperature = temperature;
+        }
+    }
+
     /**
      * Adjusts the temperature in the room.
      * @param adjustment Temperature adjustment. Positive value increases the temperature, negative decreases it.
      */
     public void adjustTemperature(double adjustment) {
-        temperature += adjustment;
+        if (adjustment != 0) {
+            // The listeners may adjust the temperature themselves while catching up, so it is only read afterwards
+            changeListeners.forEach(Runnable::run);
+            this.temperature += adjustment;
+        }
+    }
+
+    /**
+     * Adds a listener notified whenever the temperature is about to change.
+     * @param listener Listener to add.
+     */
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
     }
 }
@@ -1,19 +1,29 @@
 package cz.cvut.fel.omo.semestral.entity.systems;
 
 import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceMalfunctionObserver;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceSlots;
+import cz.cvut.fel.omo.semestral.entity.devices.EnergyMeter;
 import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
 import cz.cvut.fel.omo.semestral.entity.devices.appliances.Appliance;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.ApplianceGroup;
 import cz.cvut.fel.omo.semestral.entity.devices.appliances.TV;
 import cz.cvut.fel.omo.semestral.entity.devices.controllers.Controller;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.MotionSensor;
+import cz.cvut.fel.omo.semestral.entity.devices.sensors.Sensor;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.UserInputSensor;
 import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
 import cz.cvut.fel.omo.semestral.reporting.Report;
 import cz.cvut.fel.omo.semestral.reporting.ReportVisitor;
+import cz.cvut.fel.omo.semestral.tick.Mailbox;
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
+import cz.cvut.fel.omo.semestral.tick.TickWaker;
 import cz.cvut.fel.omo.semestral.tick.Tickable;
 import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import lombok.AccessLevel;
 import lombok.Getter;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -22,7 +32,7 @@ import java.util.List;
  * The purpose of device system is to aggregate devices and sensors that are related to each other.
  */
 @Getter
-public abstract class DeviceSystem implements Tickable {
+public abstract class DeviceSystem implements Tickable, DeviceMalfunctionObserver {
 
     /** The list of allowed user input types for this device system. */
     private List<UserInputType> allowedUserInputTypes;
@@ -30,12 +40,39 @@ public abstract class DeviceSystem implements Tickable {
     /** The ID of the device system. */
     private int deviceSystemID;
 
+    /** Waker of the tick publisher, used to wake the system up when one of its devices starts working. */
+    @Getter(AccessLevel.NONE)
+    private TickWaker waker;
+
+    /** Mailbox of the actor running the system in {@link cz.cvut.fel.omo.semestral.tick.TickMode#ACTOR}. */
+    private Mailbox mailbox;
+
+    /** The sensors of this system, filtered from its devices on first use. */
+    @Getter(AccessLevel.NONE)
+    private List<Sensor> sensors;
+
+    /** The controllers of this system, filtered from its devices on first use. */
+    @Getter(AccessLevel.NONE)
+    private List<Controller> controllers;
+
+    /** The appliances of this system, filtered from its devices on first use. */
+    @Getter(AccessLevel.NONE)
+    private List<Appliance> appliances;
+
+    /** The slots of the devices of this system in their store, looked up on first use. */
+    @Getter(AccessLevel.NONE)
+    private DeviceSlots deviceSlots;
+
+    /** Meter summing up the consumption of all devices of this system, created on first use. */
+    @Getter(AccessLevel.NONE)
+    private EnergyMeter energyMeter;
 
     /**
      * Turns on the devices associated with this system.
      * This method should be overridden to provide specific turn-on behavior.
      */
     public void turnOn() {
+        wake();
         for(IDevice device : getDevices()) {
             if(device instanceof TV){
                 ((TV) device).setIdle();
@@ -50,6 +87,7 @@ public abstract class DeviceSystem implements Tickable {
      * This method should be overridden to provide specific turn-off behavior.
      */
     public void turnOff() {
+        wake();
         for(IDevice device : getDevices()) {
             device.turnOff();
         }
@@ -94,6 +132,16 @@ public abstract class DeviceSystem implements Tickable {
         return null;
     }
 
+    /**
+     * Retrieves the state this system shares with device systems in other rooms.
+     * Systems sharing the same object must never be ticked concurrently.
+     *
+     * @return The shared state, or null if the system only affects its own devices.
+     */
+    public Object getSharedState() {
+        return null;
+    }
+
     /**
      * Accepts a visitor and returns a report generated by the visitor.
      *
@@ -105,19 +153,225 @@ public abstract class DeviceSystem implements Tickable {
     }
 
     /**
-     * Method called on each tick of the simulation.
+     * Method called on each tick of the simulation. Accrues the wear and power consumption of all devices,
+     * lets the devices act and lets the worn out ones break.
+     */
+    @Override
+    public void onTick() {
+        accrueTick();
+        act();
+        checkForWornOutDevices();
+    }
+
+    /**
+     * Lets the devices of the system act on a tick, see {@link cz.cvut.fel.omo.semestral.entity.devices.Device#act()}.
      * Subclasses should override this method to define behavior that occurs on each tick.
      */
+    protected void act() {}
+
+    /**
+     * Adds the wear and power consumption of one tick to all working devices of the system, in one loop over
+     * the columns of their store.
+     */
+    public void accrueTick() {
+        getDeviceSlots().accrueTick(getEnergyMeter());
+    }
+
+    /**
+     * Lets the devices of the system which have worn out on this tick break, in one loop over the columns of
+     * their store.
+     */
+    public void checkForWornOutDevices() {
+        getDeviceSlots().checkIfBroken();
+    }
+
+    /**
+     * Retrieves the slots of the devices of this system in their store.
+     *
+     * @return The slots of the devices.
+     */
+    private DeviceSlots getDeviceSlots() {
+        if (deviceSlots == null) {
+            deviceSlots = new DeviceSlots(getDevices());
+        }
+        return deviceSlots;
+    }
+
+    /**
+     * A device system only has to be ticked when one of its devices stops being steady, see
+     * {@link IDevice#getSteadyTicks()}. Until then all its devices only accrue wear and power consumption,
+     * which is applied at once in {@link #skipTicks(int)}. A system whose devices are all off or broken
+     * sleeps until a device is turned on or repaired, a user input arrives or its surroundings change.
+     *
+     * @return The number of ticks until the next tick of a device that is not steady,
+     *         {@link #SLEEP_UNTIL_WOKEN} if there is none.
+     */
+    @Override
+    public int getTicksUntilWake() {
+        int steadyTicks = Math.min(getSteadyTicks(getSensors()),
+                Math.min(getSteadyTicks(getControllers()), getSteadyTicks(getAppliances())));
+        if (steadyTicks == Integer.MAX_VALUE) {
+            return SLEEP_UNTIL_WOKEN;
+        }
+        return steadyTicks + 1;
+    }
+
+    /**
+     * Fast-forwards all devices of the system over the skipped ticks.
+     *
+     * @param ticks The number of skipped ticks.
+     */
+    @Override
+    public void skipTicks(int ticks) {
+        getDeviceSlots().fastForward(ticks, getEnergyMeter());
+        checkForWornOutDevices();
+        for (Sensor device : getSensors()) {
+            device.skipActs(ticks);
+        }
+        for (Controller device : getControllers()) {
+            device.skipActs(ticks);
+        }
+        for (Appliance device : getAppliances()) {
+            device.skipActs(ticks);
+        }
+    }
+
+    /**
+     * Saves the state of all devices of the system.
+     *
+     * @return The snapshot of the current state.
+     */
     @Override
-    public void onTick() {}
+    public StateSnapshot saveState() {
+        List<StateSnapshot> snapshots = new ArrayList<>();
+        getSensors().forEach(device -> snapshots.add(device.saveState()));
+        getControllers().forEach(device -> snapshots.add(device.saveState()));
+        getAppliances().forEach(device -> snapshots.add(device.saveState()));
+        return () -> snapshots.forEach(StateSnapshot::restore);
+    }
 
     /**
-     * Retrieves the total consumption of all devices in this system.
+     * Sets the waker used to wake the system up and starts observing its devices and surroundings.
      *
-     * @return The total consumption of all devices in this system.
+     * @param waker The waker of the tick publisher.
+     */
+    @Override
+    public void setWaker(TickWaker waker) {
+        if (this.waker == null && waker != null) {
+            observeDevices();
+        }
+        this.waker = waker;
+    }
+
+    /**
+     * Sets the mailbox of the actor running the system, sensor notifications are then delivered through it.
+     *
+     * @param mailbox The mailbox of the actor, or null when messages are delivered directly.
+     */
+    @Override
+    public void setMailbox(Mailbox mailbox) {
+        this.mailbox = mailbox;
+        getSensors().forEach(sensor -> sensor.setNotificationMailbox(mailbox));
+    }
+
+    /**
+     * Delivers a message to the system. The message is processed by the actor running the system if there is
+     * one, otherwise it is processed right away.
+     *
+     * @param message The message to be processed.
+     */
+    public void post(Runnable message) {
+        if (mailbox == null) {
+            message.run();
+        } else {
+            mailbox.post(message);
+        }
+    }
+
+    /**
+     * Starts observing everything that may wake the system up. Called once, when the system is first
+     * subscribed to a tick publisher. By default the system observes its devices for repairs.
+     */
+    protected void observeDevices() {
+        getSensors().forEach(device -> device.addMalfunctionObserver(this));
+        getControllers().forEach(device -> device.addMalfunctionObserver(this));
+        getAppliances().forEach(device -> device.addMalfunctionObserver(this));
+    }
+
+    /**
+     * Malfunctions are handled by the inhabitants of the house, the system itself does nothing.
+     *
+     * @param device The malfunctioning device.
+     */
+    @Override
+    public void onDeviceMalfunction(IDevice device) {}
+
+    /**
+     * Wakes the system up, the repaired device has to be ticked again.
+     *
+     * @param device The device being repaired.
+     */
+    @Override
+    public void onDeviceRepair(IDevice device) {
+        wake();
+    }
+
+    /**
+     * Asks the tick publisher to tick this system on the next tick, for example because a user input
+     * arrives or somebody enters its room. Must be called before the change, as a sleeping system first
+     * catches up on the ticks it has skipped in its old state.
+     */
+    public void wake() {
+        if (waker != null) {
+            waker.wake(this);
+        }
+    }
+
+    /**
+     * Retrieves the lowest number of steady ticks of the given devices.
+     *
+     * @param devices The devices to be checked.
+     * @return The lowest number of steady ticks, {@link Integer#MAX_VALUE} if no device does anything.
+     */
+    private static int getSteadyTicks(List<? extends IDevice> devices) {
+        int steadyTicks = Integer.MAX_VALUE;
+        for (IDevice device : devices) {
+            steadyTicks = Math.min(steadyTicks, device.getSteadyTicks());
+        }
+        return steadyTicks;
+    }
+
+    /**
+     * Retrieves the meter summing up the consumption of all devices of this system. The devices are connected
+     * to the meter when it is first retrieved, at the latest when the system is placed in a room.
+     *
+     * @return The energy meter of this system.
+     */
+    public synchronized EnergyMeter getEnergyMeter() {
+        if (energyMeter == null) {
+            energyMeter = new EnergyMeter();
+            meterDevices();
+        }
+        return energyMeter;
+    }
+
+    /**
+     * Connects the devices of this system to its energy meter. Devices which are already connected to it
+     * are left as they are, so the consumption of devices the system got since the meter was created is
+     * counted as well.
+     */
+    public synchronized void meterDevices() {
+        EnergyMeter meter = getEnergyMeter();
+        getDevices().forEach(device -> device.setEnergyMeter(meter));
+    }
+
+    /**
+     * Retrieves the total consumption of all devices in this system, read from its {@link EnergyMeter}.
+     *
+     * @return The total consumption of all devices in this system in kWh.
      */
     public double getTotalConsumption() {
-        return 0;
+        return getEnergyMeter().getKWh();
     }
 
     /**
@@ -129,6 +383,65 @@ public abstract class DeviceSystem implements Tickable {
         return null;
     }
 
+    /**
+     * Retrieves all sensors of this system.
+     *
+     * @return The sensors of this system.
+     */
+    public List<Sensor> getSensors() {
+        if (sensors == null) {
+            sensors = getDevicesOfType(Sensor.class);
+        }
+        return sensors;
+    }
+
+    /**
+     * Retrieves all controllers of this system.
+     *
+     * @return The controllers of this system.
+     */
+    public List<Controller> getControllers() {
+        if (controllers == null) {
+            controllers = getDevicesOfType(Controller.class);
+        }
+        return controllers;
+    }
+
+    /**
+     * Retrieves all appliances of this system.
+     *
+     * @return The appliances of this system.
+     */
+    public List<Appliance> getAppliances() {
+        if (appliances == null) {
+            appliances = getDevicesOfType(Appliance.class);
+        }
+        return appliances;
+    }
+
+    /**
+     * Retrieves the groups of appliances of this system which are commanded together. Their commands are
+     * broadcast to the members once all appliances have been ticked.
+     *
+     * @return The groups of appliances, empty if the system commands its appliances one by one.
+     */
+    public List<ApplianceGroup<?>> getApplianceGroups() {
+        return List.of();
+    }
+
+    /**
+     * Retrieves the devices of this system of the given type.
+     *
+     * @param type The type of the devices.
+     * @return The devices of the given type.
+     */
+    private <T> List<T> getDevicesOfType(Class<T> type) {
+        return getDevices().stream()
+                .filter(type::isInstance)
+                .map(type::cast)
+                .toList();
+    }
+
     /**
      * Retrieves the total consumption of all devices in this system that are currently turned on.
      *
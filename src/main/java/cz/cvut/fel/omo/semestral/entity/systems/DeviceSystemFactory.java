@@ -2,8 +2,11 @@ package cz.cvut.fel.omo.semestral.entity.systems;
 
 import cz.cvut.fel.omo.semestral.entity.devices.appliances.*;
 import cz.cvut.fel.omo.semestral.entity.devices.controllers.*;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.MotionSensor;
+import cz.cvut.fel.omo.semestral.entity.devices.sensors.SamplingPolicy;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.SecuritySensor;
+import cz.cvut.fel.omo.semestral.entity.devices.sensors.Sensor;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.TemperatureSensor;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.UserInputSensor;
 import cz.cvut.fel.omo.semestral.entity.livingSpace.House;
@@ -12,6 +15,7 @@ import cz.cvut.fel.omo.semestral.entity.livingSpace.Temperature;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -20,6 +24,57 @@ import java.util.UUID;
  * LightingSystem, HVACSystem, and TVSystem with all their necessary components.
  */
 public class DeviceSystemFactory {
+    /** The models of the sensors the factory creates, the only models sampling policies can be set for */
+    public static final List<DeviceType> SENSOR_TYPES = List.of(
+            MotionSensor.TYPE, SecuritySensor.TYPE, TemperatureSensor.TYPE, UserInputSensor.TYPE);
+
+    /** The capacity of the command queues of the created appliances */
+    private final int commandQueueCapacity;
+    /** What happens to commands added to a full command queue of a created appliance */
+    private final CommandQueue.OverflowPolicy commandOverflowPolicy;
+    /** The sampling policies of the created sensors by the name of their model */
+    private final Map<String, SamplingPolicy> samplingPolicies;
+
+    /**
+     * Creates a factory whose appliances have command queues of the default capacity and whose sensors use the
+     * default sampling policy.
+     */
+    public DeviceSystemFactory() {
+        this(CommandQueue.DEFAULT_CAPACITY, CommandQueue.OverflowPolicy.COALESCE);
+    }
+
+    /**
+     * Creates a factory whose appliances have command queues of the given capacity and overflow policy
+     * and whose sensors use the default sampling policy.
+     *
+     * @param commandQueueCapacity  The capacity of the command queues.
+     * @param commandOverflowPolicy What happens to commands added to a full command queue.
+     */
+    public DeviceSystemFactory(int commandQueueCapacity, CommandQueue.OverflowPolicy commandOverflowPolicy) {
+        this(commandQueueCapacity, commandOverflowPolicy, Map.of());
+    }
+
+    /**
+     * Creates a factory whose appliances have command queues of the given capacity and overflow policy
+     * and whose sensors use the given sampling policies.
+     *
+     * @param commandQueueCapacity  The capacity of the command queues.
+     * @param commandOverflowPolicy What happens to commands added to a full command queue.
+     * @param samplingPolicies      The sampling policies by the name of the sensor model, models without one
+     *                              use {@link SamplingPolicy#DEFAULT}.
+     * @throws IllegalArgumentException If a policy is given for a model which is not one of {@link #SENSOR_TYPES}.
+     */
+    public DeviceSystemFactory(int commandQueueCapacity, CommandQueue.OverflowPolicy commandOverflowPolicy,
+                               Map<String, SamplingPolicy> samplingPolicies) {
+        for (String modelName : samplingPolicies.keySet()) {
+            if (SENSOR_TYPES.stream().noneMatch(type -> type.getName().equals(modelName))) {
+                throw new IllegalArgumentException("Unknown sensor model: " + modelName);
+            }
+        }
+        this.commandQueueCapacity = commandQueueCapacity;
+        this.commandOverflowPolicy = commandOverflowPolicy;
+        this.samplingPolicies = Map.copyOf(samplingPolicies);
+    }
 
     /**
      * Creates and configures a FridgeSystem.
@@ -29,7 +84,8 @@ public class DeviceSystemFactory {
     public FridgeSystem createFridgeSystem(int deviceSystemID) {
         // Create the components of the FridgeSystem
         Fridge fridge = new Fridge(generateUUID());
-        UserInputSensor userInputSensor = new UserInputSensor(generateUUID());
+        fridge.setActionPlan(createCommandQueue());
+        UserInputSensor userInputSensor = withSampling(new UserInputSensor(generateUUID()));
         FridgeController controller = new FridgeController(generateUUID(),fridge, userInputSensor);
 
         return new FridgeSystem(deviceSystemID,fridge, controller, userInputSensor);
@@ -43,7 +99,8 @@ public class DeviceSystemFactory {
     public GateControlSystem createGateControlSystem(int deviceSystemID) {
         // Create the components of the GateControlSystem
         Gate gate = new Gate(generateUUID());
-        UserInputSensor userInputSensor = new UserInputSensor(generateUUID());
+        gate.setActionPlan(createCommandQueue());
+        UserInputSensor userInputSensor = withSampling(new UserInputSensor(generateUUID()));
         GateController controller = new GateController(generateUUID(),gate, userInputSensor);
 
         return new GateControlSystem(deviceSystemID,gate, controller, userInputSensor);
@@ -57,29 +114,43 @@ public class DeviceSystemFactory {
     public SecuritySystem createSecuritySystem(int deviceSystemID) {
         // Create the components of the SecuritySystem
         Alarm alarm = new Alarm(generateUUID());
-        SecuritySensor securitySensor = new SecuritySensor(generateUUID());
-        UserInputSensor userInputSensor = new UserInputSensor(generateUUID());
+        alarm.setActionPlan(createCommandQueue());
+        SecuritySensor securitySensor = withSampling(new SecuritySensor(generateUUID()));
+        UserInputSensor userInputSensor = withSampling(new UserInputSensor(generateUUID()));
         SecurityController controller = new SecurityController(generateUUID(),securitySensor, userInputSensor, alarm);
 
         return new SecuritySystem(deviceSystemID,alarm, securitySensor, controller, userInputSensor);
     }
 
     /**
-     * Creates and configures a LightingSystem with a specified number of lights.
+     * Creates and configures a LightingSystem with the default number of lights.
      *
      * @return The assembled LightingSystem.
      */
     public LightingSystem createLightingSystem(int deviceSystemID, Room room) {
-        List<Light> lights = new ArrayList<>();
-        for (int i = 0; i < 3; i++) {
-            lights.add(new Light(generateUUID()));
+        return createLightingSystem(deviceSystemID, room, LightingSystem.DEFAULT_LIGHT_COUNT);
+    }
+
+    /**
+     * Creates and configures a LightingSystem with a specified number of lights.
+     *
+     * @param lightCount The number of lights, at least 1.
+     * @return The assembled LightingSystem.
+     */
+    public LightingSystem createLightingSystem(int deviceSystemID, Room room, int lightCount) {
+        List<Light> lights = new ArrayList<>(lightCount);
+        for (int i = 0; i < lightCount; i++) {
+            Light light = new Light(generateUUID());
+            light.setActionPlan(createCommandQueue());
+            lights.add(light);
         }
+        ApplianceGroup<Light> lightGroup = new ApplianceGroup<>(lights, createCommandQueue());
 
-        MotionSensor motionSensor = new MotionSensor(generateUUID(),room);
-        UserInputSensor userInputSensor = new UserInputSensor(generateUUID());
-        LightController lightController = new LightController(generateUUID(),lights, motionSensor, userInputSensor);
+        MotionSensor motionSensor = withSampling(new MotionSensor(generateUUID(),room));
+        UserInputSensor userInputSensor = withSampling(new UserInputSensor(generateUUID()));
+        LightController lightController = new LightController(generateUUID(),lightGroup, motionSensor, userInputSensor);
 
-        return new LightingSystem(deviceSystemID,lights, lightController, motionSensor, userInputSensor);
+        return new LightingSystem(deviceSystemID,lightGroup, lightController, motionSensor, userInputSensor);
     }
 
     /**
@@ -89,9 +160,10 @@ public class DeviceSystemFactory {
      */
     public HVACSystem createHVACSystem(int deviceSystemID, Temperature internalTemp, Temperature externalTemp) {
         HVAC hvac = new HVAC(generateUUID(), internalTemp);
-        TemperatureSensor internalSensor = new TemperatureSensor(generateUUID(), internalTemp);
-        TemperatureSensor externalSensor = new TemperatureSensor(generateUUID(), externalTemp);
-        UserInputSensor userInputSensor = new UserInputSensor(generateUUID());
+        hvac.setActionPlan(createCommandQueue());
+        TemperatureSensor internalSensor = withSampling(new TemperatureSensor(generateUUID(), internalTemp));
+        TemperatureSensor externalSensor = withSampling(new TemperatureSensor(generateUUID(), externalTemp));
+        UserInputSensor userInputSensor = withSampling(new UserInputSensor(generateUUID()));
         TemperatureController temperatureController = new TemperatureController(generateUUID(), internalSensor, externalSensor, hvac, userInputSensor);
 
         return new HVACSystem(deviceSystemID,hvac, temperatureController, internalSensor, externalSensor, userInputSensor);
@@ -105,12 +177,33 @@ public class DeviceSystemFactory {
      */
     public TVSystem createEntertainmentSystem(int deviceSystemID) {
         TV tv = new TV(generateUUID());
-        UserInputSensor userInputSensor = new UserInputSensor(generateUUID());
+        tv.setActionPlan(createCommandQueue());
+        UserInputSensor userInputSensor = withSampling(new UserInputSensor(generateUUID()));
         TVController tvController = new TVController(generateUUID(),tv, userInputSensor);
 
         return new TVSystem(deviceSystemID,tv, tvController, userInputSensor);
     }
 
+    /**
+     * Creates a command queue of an appliance with the capacity and overflow policy of the factory.
+     *
+     * @return The command queue.
+     */
+    private CommandQueue createCommandQueue() {
+        return new CommandQueue(commandQueueCapacity, commandOverflowPolicy);
+    }
+
+    /**
+     * Sets the sampling policy of the model of a created sensor.
+     *
+     * @param sensor The created sensor.
+     * @return The sensor.
+     */
+    private <T extends Sensor> T withSampling(T sensor) {
+        sensor.setSamplingPolicy(samplingPolicies.getOrDefault(sensor.getType().getName(), SamplingPolicy.DEFAULT));
+        return sensor;
+    }
+
     /**
      * Generates a unique UUID.
      *
@@ -119,6 +212,4 @@ public class DeviceSystemFactory {
     private UUID generateUUID() {
         return UUID.randomUUID();
     }
-
-
 }
@@ -20,6 +20,8 @@ public class FridgeSystem extends DeviceSystem {
     public final UserInputSensor userInputSensor;
     private final List<UserInputType> allowedUserInputTypes = List.of(UserInputType.FRIDGE_TEMPERATURE);
     private final int deviceSystemID;
+    /** The devices of this system */
+    private final List<IDevice> devices;
 
     /**
      * Creates a new FridgeSystem.
@@ -34,6 +36,7 @@ public class FridgeSystem extends DeviceSystem {
         this.fridge = fridge;
         this.controller = controller;
         this.userInputSensor = userInputSensor;
+        this.devices = List.of(fridge, controller, userInputSensor);
         turnOn();
     }
 
@@ -67,16 +70,6 @@ public class FridgeSystem extends DeviceSystem {
         return userInputSensor;
     }
 
-    /**
-     * Calculates and retrieves the total power consumption of the FridgeSystem.
-     *
-     * @return The total power consumption of the FridgeSystem.
-     */
-    @Override
-    public double getTotalConsumption() {
-        return fridge.getTotalPowerConsumption() + controller.getTotalPowerConsumption() + userInputSensor.getTotalPowerConsumption();
-    }
-
     /**
      * Retrieves the list of devices associated with this FridgeSystem.
      *
@@ -84,17 +77,17 @@ public class FridgeSystem extends DeviceSystem {
      */
     @Override
     public List<IDevice> getDevices() {
-        return List.of(fridge, controller, userInputSensor);
+        return devices;
     }
 
     /**
      * Performs actions during each tick, including processing user input, updating the controller, and managing the fridge.
      */
     @Override
-    public void onTick() {
-        userInputSensor.onTick();
-        controller.onTick();
-        fridge.onTick();
+    protected void act() {
+        userInputSensor.act();
+        controller.act();
+        fridge.act();
     }
     /**
      * Returns a string representation of the FridgeSystem, including its deviceSystemID.
@@ -24,6 +24,8 @@ public class GateControlSystem extends DeviceSystem {
     public final UserInputSensor userInputSensor;
     private final List<UserInputType> allowedUserInputTypes = List.of(UserInputType.GATE_CONTROL);
     private final int deviceSystemID;
+    /** The devices of this system */
+    private final List<IDevice> devices;
 
     /**
      * Creates a new GateControlSystem with the specified components.
@@ -38,6 +40,7 @@ public class GateControlSystem extends DeviceSystem {
         this.gate = gate;
         this.controller = controller;
         this.userInputSensor = userInputSensor;
+        this.devices = List.of(gate, controller, userInputSensor);
         turnOn();
     }
 
@@ -71,16 +74,6 @@ public class GateControlSystem extends DeviceSystem {
         return userInputSensor;
     }
 
-    /**
-     * Calculates and retrieves the total power consumption of the GateControlSystem.
-     *
-     * @return The total power consumption of the GateControlSystem.
-     */
-    @Override
-    public double getTotalConsumption() {
-        return gate.getTotalPowerConsumption() + controller.getTotalPowerConsumption() + userInputSensor.getTotalPowerConsumption();
-    }
-
     /**
      * Retrieves the list of devices associated with this GateControlSystem.
      *
@@ -88,17 +81,17 @@ public class GateControlSystem extends DeviceSystem {
      */
     @Override
     public List<IDevice> getDevices() {
-        return List.of(gate, controller, userInputSensor);
+        return devices;
     }
 
     /**
      * Performs actions during each tick, including processing user input, updating the controller, and managing the gate.
      */
     @Override
-    public void onTick() {
-        userInputSensor.onTick();
-        controller.onTick();
-        gate.onTick();
+    protected void act() {
+        userInputSensor.act();
+        controller.act();
+        gate.act();
     }
 
     /**
@@ -1,5 +1,6 @@
 package cz.cvut.fel.omo.semestral.entity.systems;
 
+import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
 import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
 import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
 import cz.cvut.fel.omo.semestral.entity.devices.appliances.HVAC;
@@ -8,6 +9,7 @@ import cz.cvut.fel.omo.semestral.entity.devices.controllers.TemperatureControlle
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.TemperatureSensor;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.UserInputSensor;
 import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.util.List;
@@ -26,6 +28,11 @@ public class HVACSystem extends DeviceSystem {
     public final UserInputSensor userInputSensor;
     private final List<UserInputType> allowedUserInputTypes = List.of(UserInputType.HVAC_TEMPERATURE);
     private final int deviceSystemID;
+    /** The devices of this system */
+    private final List<IDevice> devices;
+    /** Whether the system is catching up on skipped ticks */
+    @Getter(AccessLevel.NONE)
+    private boolean skippingTicks;
 
     /**
      * Creates a new HVACSystem with the specified components.
@@ -44,6 +51,7 @@ public class HVACSystem extends DeviceSystem {
         this.internalSensor = internalSensor;
         this.externalSensor = externalSensor;
         this.userInputSensor = userInputSensor;
+        this.devices = List.of(hvac, controller, userInputSensor, internalSensor, externalSensor);
         turnOn();
     }
 
@@ -78,13 +86,83 @@ public class HVACSystem extends DeviceSystem {
     }
 
     /**
-     * Calculates and retrieves the total power consumption of the HVACSystem, including all its components.
+     * Retrieves the internal temperature of the house, which is adjusted by every HVAC in the house.
      *
-     * @return The total power consumption of the HVACSystem.
+     * @return The internal temperature controlled by this system.
      */
     @Override
-    public double getTotalConsumption() {
-        return hvac.getTotalPowerConsumption() + controller.getTotalPowerConsumption() + userInputSensor.getTotalPowerConsumption() + internalSensor.getTotalPowerConsumption() + externalSensor.getTotalPowerConsumption();
+    public Object getSharedState() {
+        return hvac.getInternalTemperature();
+    }
+
+    /**
+     * Also observes the temperatures read by the sensors, which are changed by every HVAC in the house.
+     * The changes the system makes itself while catching up on skipped ticks do not wake it.
+     */
+    @Override
+    protected void observeDevices() {
+        super.observeDevices();
+        internalSensor.getTemperature().addChangeListener(this::wakeUnlessSkipping);
+        externalSensor.getTemperature().addChangeListener(this::wakeUnlessSkipping);
+    }
+
+    private void wakeUnlessSkipping() {
+        if (!skippingTicks) {
+            wake();
+        }
+    }
+
+    /**
+     * While the HVAC heats or cools, the readings of the internal sensor only tell the controller the new indoor
+     * temperature until the target is reached, so the system can ramp the temperature over all ticks before that
+     * at once, as long as its other devices are steady.
+     *
+     * @return The number of ticks until the next tick of a device that is not steady.
+     */
+    @Override
+    public int getTicksUntilWake() {
+        int ticksUntilWake = super.getTicksUntilWake();
+        if (ticksUntilWake != 1) {
+            return ticksUntilWake;
+        }
+        int rampTicks = getRampTicks();
+        return rampTicks > 0 ? rampTicks + 1 : ticksUntilWake;
+    }
+
+    /**
+     * Fast-forwards all devices of the system over the skipped ticks, letting the internal sensor read the
+     * temperature ramp of the HVAC on the way.
+     *
+     * @param ticks The number of skipped ticks.
+     */
+    @Override
+    public void skipTicks(int ticks) {
+        skippingTicks = true;
+        try {
+            internalSensor.readRamp(ticks, hvac.getTempChangePerTick());
+            super.skipTicks(ticks);
+        } finally {
+            skippingTicks = false;
+        }
+    }
+
+    /**
+     * Retrieves the number of ticks over which the HVAC can ramp the temperature at once.
+     *
+     * @return The number of ticks, 0 if the HVAC does not change the temperature or a device is not steady.
+     */
+    private int getRampTicks() {
+        double changePerTick = hvac.getTempChangePerTick();
+        if (changePerTick == 0) {
+            return 0;
+        }
+        int rampTicks = Math.min(hvac.getRampTicks(), controller.getSteadyTicks());
+        rampTicks = Math.min(rampTicks, Math.min(externalSensor.getSteadyTicks(), userInputSensor.getSteadyTicks()));
+        rampTicks = Math.min(rampTicks, internalSensor.getTicksUntilWornOut());
+        if (internalSensor.getState() == DeviceState.ON) {
+            rampTicks = Math.min(rampTicks, controller.getTicksUntilSwitch(hvac.getInternalTemperature().getTemperature(), changePerTick));
+        }
+        return rampTicks;
     }
 
     /**
@@ -94,19 +172,19 @@ public class HVACSystem extends DeviceSystem {
      */
     @Override
     public List<IDevice> getDevices() {
-        return List.of(hvac, controller, userInputSensor, internalSensor, externalSensor);
+        return devices;
     }
 
     /**
      * Performs actions during each tick, including reading temperature sensors, processing user input, updating the controller, and managing the HVAC system.
      */
     @Override
-    public void onTick() {
-        internalSensor.onTick();
-        externalSensor.onTick();
-        userInputSensor.onTick();
-        controller.onTick();
-        hvac.onTick();
+    protected void act() {
+        internalSensor.act();
+        externalSensor.act();
+        userInputSensor.act();
+        controller.act();
+        hvac.act();
     }
 
     /**
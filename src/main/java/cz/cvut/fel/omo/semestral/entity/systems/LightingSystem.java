@@ -2,12 +2,14 @@ package cz.cvut.fel.omo.semestral.entity.systems;
 
 import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
 import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.ApplianceGroup;
 import cz.cvut.fel.omo.semestral.entity.devices.appliances.Light;
 import cz.cvut.fel.omo.semestral.entity.devices.controllers.Controller;
 import cz.cvut.fel.omo.semestral.entity.devices.controllers.LightController;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.MotionSensor;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.UserInputSensor;
 import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
 import lombok.Getter;
 
 import java.util.ArrayList;
@@ -16,32 +18,45 @@ import java.util.List;
 @Getter
 /**
  * The {@code LightingSystem} class represents a specific device system for managing lighting within a room in the smart home simulation.
- * It includes a list of lights, a light controller, a motion sensor, and a user input sensor to control and monitor the lighting system.
+ * It includes a group of lights, a light controller, a motion sensor, and a user input sensor to control and monitor the lighting system.
+ * The controller commands the lights as a group, the commands of the group are broadcast to the lights at the end of the tick,
+ * so the lights account for the tick in the state they started it in.
  * This class extends the abstract {@link DeviceSystem} class and provides specific implementations for its methods.
  */
 public class LightingSystem extends DeviceSystem {
+    /** The number of lights of a lighting system unless configured otherwise */
+    public static final int DEFAULT_LIGHT_COUNT = 3;
     public final List<Light> lights;
+    public final ApplianceGroup<Light> lightGroup;
     public final LightController controller;
     public final MotionSensor motionSensor;
     public final UserInputSensor userInputSensor;
     private final List<UserInputType> allowedUserInputTypes = List.of(UserInputType.LIGHT_SWITCH);
     private final int deviceSystemID;
+    /** The devices of this system */
+    private final List<IDevice> devices;
 
     /**
      * Creates a new LightingSystem with the specified components.
      *
      * @param deviceSystemID  The unique ID of the device system.
-     * @param lights          The list of lights associated with this system.
+     * @param lightGroup      The group of lights associated with this system.
      * @param controller      The light controller associated with this system.
      * @param motionSensor    The motion sensor associated with this system.
      * @param userInputSensor The user input sensor associated with this system.
      */
-    public LightingSystem(int deviceSystemID,List<Light> lights, LightController controller, MotionSensor motionSensor, UserInputSensor userInputSensor) {
+    public LightingSystem(int deviceSystemID, ApplianceGroup<Light> lightGroup, LightController controller, MotionSensor motionSensor, UserInputSensor userInputSensor) {
         this.deviceSystemID = deviceSystemID;
-        this.lights = lights;
+        this.lights = lightGroup.getMembers();
+        this.lightGroup = lightGroup;
         this.controller = controller;
         this.motionSensor = motionSensor;
         this.userInputSensor = userInputSensor;
+        List<IDevice> devices = new ArrayList<>(lights);
+        devices.add(controller);
+        devices.add(userInputSensor);
+        devices.add(motionSensor);
+        this.devices = List.copyOf(devices);
         turnOn();
     }
 
@@ -85,16 +100,6 @@ public class LightingSystem extends DeviceSystem {
             return motionSensor;
         }
 
-    /**
-    * Calculates and retrieves the total power consumption of the LightingSystem, including all its lights, controller, and user input sensor.
-    *
-    * @return The total power consumption of the LightingSystem.
-    */
-    @Override
-    public double getTotalConsumption() {
-        return lights.stream().mapToDouble(Light::getTotalPowerConsumption).sum() + controller.getTotalPowerConsumption() + userInputSensor.getTotalPowerConsumption();
-    }
-
     /**
     * Retrieves the list of devices associated with this LightingSystem, including the lights, controller, motion sensor, and user input sensor.
     *
@@ -102,10 +107,6 @@ public class LightingSystem extends DeviceSystem {
     */
     @Override
     public List<IDevice> getDevices() {
-        List<IDevice> devices = new ArrayList<>(lights);
-        devices.add(controller);
-        devices.add(userInputSensor);
-        devices.add(motionSensor);
         return devices;
     }
 
@@ -113,11 +114,50 @@ public class LightingSystem extends DeviceSystem {
     * Performs actions during each tick, including reading the motion sensor, processing user input, updating the controller, and managing the lights.
     */
     @Override
-    public void onTick() {
-        motionSensor.onTick();
-        userInputSensor.onTick();
-        controller.onTick();
-        lights.forEach(Light::onTick);
+    protected void act() {
+        motionSensor.act();
+        userInputSensor.act();
+        controller.act();
+        lights.forEach(Light::act);
+        lightGroup.performAllActions();
+    }
+
+    /**
+     * Retrieves the group of the lights of this system.
+     *
+     * @return The group of lights.
+     */
+    @Override
+    public List<ApplianceGroup<?>> getApplianceGroups() {
+        return List.of(lightGroup);
+    }
+
+    /**
+     * The system has to be ticked right away while the group of lights has commands to broadcast.
+     *
+     * @return The number of ticks until the next tick of a device that is not steady.
+     */
+    @Override
+    public int getTicksUntilWake() {
+        if (lightGroup.hasPendingCommands()) {
+            return 1;
+        }
+        return super.getTicksUntilWake();
+    }
+
+    /**
+     * Saves the state of all devices of the system and the commands of the group of lights.
+     *
+     * @return The snapshot of the current state.
+     */
+    @Override
+    public StateSnapshot saveState() {
+        StateSnapshot devicesState = super.saveState();
+        StateSnapshot groupState = lightGroup.saveState();
+        return () -> {
+            devicesState.restore();
+            groupState.restore();
+        };
     }
 
     /**
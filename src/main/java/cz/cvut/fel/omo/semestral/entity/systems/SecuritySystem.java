@@ -7,6 +7,7 @@ import cz.cvut.fel.omo.semestral.entity.devices.controllers.Controller;
 import cz.cvut.fel.omo.semestral.entity.devices.controllers.SecurityController;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.MotionSensor;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.SecuritySensor;
+import cz.cvut.fel.omo.semestral.entity.devices.sensors.Sensor;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.UserInputSensor;
 import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
 import lombok.Getter;
@@ -31,6 +32,10 @@ public class SecuritySystem extends DeviceSystem {
     /** The list of UserInputTypes that this system can process */
     private final List<UserInputType> allowedUserInputTypes = List.of(UserInputType.ALARM_DISARM);
     private final int deviceSystemID;
+    /** The devices of this system */
+    private final List<IDevice> devices;
+    /** The sensors of this system */
+    private final List<Sensor> sensors;
 
     /**
      * Creates a new SecuritySystem with the specified components.
@@ -47,6 +52,8 @@ public class SecuritySystem extends DeviceSystem {
         this.securitySensor = securitySensor;
         this.controller = controller;
         this.userInputSensor = userInputSensor;
+        this.devices = List.of(alarm, controller, userInputSensor);
+        this.sensors = List.of(userInputSensor, securitySensor);
         turnOn();
     }
 
@@ -81,34 +88,34 @@ public class SecuritySystem extends DeviceSystem {
     }
 
     /**
-     * Calculates and retrieves the total power consumption of the SecuritySystem, including the alarm, controller, and user input sensor.
+     * Retrieves the list of devices associated with this SecuritySystem, including the alarm, controller, and user input sensor.
      *
-     * @return The total power consumption of the SecuritySystem.
+     * @return A list of devices associated with this system.
      */
     @Override
-    public double getTotalConsumption() {
-        return alarm.getTotalPowerConsumption() + controller.getTotalPowerConsumption() + userInputSensor.getTotalPowerConsumption();
+    public List<IDevice> getDevices() {
+        return devices;
     }
 
     /**
-     * Retrieves the list of devices associated with this SecuritySystem, including the alarm, controller, and user input sensor.
+     * Retrieves the sensors of this SecuritySystem, including the security sensor.
      *
-     * @return A list of devices associated with this system.
+     * @return A list of sensors associated with this system.
      */
     @Override
-    public List<IDevice> getDevices() {
-        return List.of(alarm, controller, userInputSensor);
+    public List<Sensor> getSensors() {
+        return sensors;
     }
 
     /**
      * Performs actions during each tick, including reading the user input sensor, processing security sensor data, updating the controller, and managing the alarm.
      */
     @Override
-    public void onTick() {
-        userInputSensor.onTick();
-        securitySensor.onTick();
-        controller.onTick();
-        alarm.onTick();
+    protected void act() {
+        userInputSensor.act();
+        securitySensor.act();
+        controller.act();
+        alarm.act();
     }
 
     /**
@@ -27,6 +27,8 @@ public class TVSystem extends DeviceSystem {
     /** The list of UserInputTypes that this system can process */
     private final List<UserInputType> allowedUserInputTypes = List.of(UserInputType.TV_VOLUME, UserInputType.TV_CHANNEL, UserInputType.TV_POWER);
     private final int deviceSystemID;
+    /** The devices of this system */
+    private final List<IDevice> devices;
 
     /**
      * Creates a new TVSystem with the specified components.
@@ -41,6 +43,7 @@ public class TVSystem extends DeviceSystem {
         this.tv = tv;
         this.controller = controller;
         this.userInputSensor = userInputSensor;
+        this.devices = List.of(tv, controller, userInputSensor);
         turnOn();
     }
 
@@ -72,16 +75,6 @@ public class TVSystem extends DeviceSystem {
         return userInputSensor;
     }
 
-    /**
-     * Calculates and retrieves the total power consumption of the TVSystem, including the TV, controller, and user input sensor.
-     *
-     * @return The total power consumption of the TVSystem.
-     */
-    @Override
-    public double getTotalConsumption() {
-        return tv.getTotalPowerConsumption() + controller.getTotalPowerConsumption() + userInputSensor.getTotalPowerConsumption();
-    }
-
     /**
      * Retrieves the list of devices associated with this TVSystem, including the TV, controller, and user input sensor.
      *
@@ -89,17 +82,17 @@ public class TVSystem extends DeviceSystem {
      */
     @Override
     public List<IDevice> getDevices() {
-        return List.of(tv, controller, userInputSensor);
+        return devices;
     }
 
     /**
      * Performs actions during each tick, including reading the user input sensor, updating the controller, and managing the TV.
      */
     @Override
-    public void onTick() {
-        userInputSensor.onTick();
-        controller.onTick();
-        tv.onTick();
+    protected void act() {
+        userInputSensor.act();
+        controller.act();
+        tv.act();
     }
 
     /**
@@ -112,7 +105,6 @@ public class TVSystem extends DeviceSystem {
         return "TVSystem{" + "deviceSystemID=" + deviceSystemID + '}';
     }
 
-
     @Override
     public void setRoom(Room room) {
         return;
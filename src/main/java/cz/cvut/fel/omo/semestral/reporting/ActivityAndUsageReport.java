@@ -1,7 +1,8 @@
 package cz.cvut.fel.omo.semestral.reporting;
 
-import cz.cvut.fel.omo.semestral.entity.actions.Action;
+import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
 import cz.cvut.fel.omo.semestral.entity.actions.ActionRecord;
+import cz.cvut.fel.omo.semestral.entity.beings.Being;
 import cz.cvut.fel.omo.semestral.entity.beings.Human;
 import cz.cvut.fel.omo.semestral.entity.beings.Pet;
 import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
@@ -12,13 +13,20 @@ import cz.cvut.fel.omo.semestral.simulation.HouseFacade;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * The {@code ActivityAndUsageReport} class is responsible for reporting events and usage of the house. It implements the {@link ReportVisitor} interface to visit various entities within the smart home simulation and collect relevant data for reporting.
  */
 public class ActivityAndUsageReport implements ReportVisitor{
+    /** The action types reported as activities of a human, the other ones are reported as usages */
+    private static final Set<UserInputType> HUMAN_ACTIVITIES = EnumSet.of(
+            UserInputType.B_CHANGEROOM, UserInputType.B_REPAIR, UserInputType.B_STARTSPORT, UserInputType.B_STOPSPORT);
+    /** The action types reported as activities of a pet */
+    private static final Set<UserInputType> PET_ACTIVITIES = EnumSet.of(UserInputType.B_CHANGEROOM);
 
     /**
      * Visits a device system and generates a report. Not implemented in this class.
@@ -47,17 +55,17 @@ public class ActivityAndUsageReport implements ReportVisitor{
         List<ActionRecord> activities = new ArrayList<>();
         List<ActionRecord> usages = new ArrayList<>();
         for(ActionRecord action : human.getPerformedActions()){
-            switch (action.getAction().getType()) {
-                case B_CHANGEROOM, B_REPAIR, B_STARTSPORT,B_STOPSPORT:
-                    activities.add(action);
-                    break;
-                default:
-                    usages.add(action);
-                    break;
+            if (HUMAN_ACTIVITIES.contains(action.getAction().getType())) {
+                activities.add(action);
+            } else {
+                usages.add(action);
             }
         }
-        humanStringBuilder.append("Number of activities: ").append(activities.size()).append("\n");
-        humanStringBuilder.append("Number of usages: ").append(usages.size()).append("\n");
+        long activityCount = countActions(human, HUMAN_ACTIVITIES);
+        long usageCount = countActions(human, EnumSet.complementOf(EnumSet.copyOf(HUMAN_ACTIVITIES)));
+        humanStringBuilder.append("Number of activities: ").append(activityCount).append("\n");
+        humanStringBuilder.append("Number of usages: ").append(usageCount).append("\n");
+        appendHistoryNote(humanStringBuilder, activityCount + usageCount);
         humanStringBuilder.append("\nActivities: \n");
         for(ActionRecord action : activities){
             if(action.getAction().getValue() instanceof Room room){
@@ -95,15 +103,13 @@ public class ActivityAndUsageReport implements ReportVisitor{
         humanStringBuilder.append("\nPet with Name: ").append(pet.getName()).append("\n");
         List<ActionRecord> activities = new ArrayList<>();
         for(ActionRecord action : pet.getPerformedActions()){
-            switch (action.getAction().getType()) {
-                case B_CHANGEROOM:
-                    activities.add(action);
-                    break;
-                default:
-                    break;
+            if (PET_ACTIVITIES.contains(action.getAction().getType())) {
+                activities.add(action);
             }
         }
-        humanStringBuilder.append("Number of activities: ").append(activities.size()).append("\n");
+        long activityCount = countActions(pet, PET_ACTIVITIES);
+        humanStringBuilder.append("Number of activities: ").append(activityCount).append("\n");
+        appendHistoryNote(humanStringBuilder, countActions(pet, EnumSet.allOf(UserInputType.class)));
         humanStringBuilder.append("\nActivities: \n");
         for(ActionRecord action : activities){
             humanStringBuilder.append("[TICK: ").append(action.getTick()).append("] Action: ").append(action.getAction().getType()).append(" With value: ").append(action.getAction().getValue()).append("\n");
@@ -115,6 +121,34 @@ public class ActivityAndUsageReport implements ReportVisitor{
         return report;
     }
 
+    /**
+     * Counts the actions of the given types a being has performed, including the ones no longer kept in its history.
+     *
+     * @param being The being.
+     * @param types The types of the actions.
+     * @return The number of the actions.
+     */
+    private long countActions(Being being, Set<UserInputType> types) {
+        long count = 0;
+        for (UserInputType type : types) {
+            count += being.getPerformedActionCount(type);
+        }
+        return count;
+    }
+
+    /**
+     * Notes that only the most recent actions are listed if a being has performed more than its history keeps.
+     *
+     * @param builder        The builder of the report of the being.
+     * @param performedCount The number of actions the being has performed.
+     */
+    private void appendHistoryNote(StringBuilder builder, long performedCount) {
+        if (performedCount > Being.PERFORMED_ACTIONS_LIMIT) {
+            builder.append("Only the last ").append(Being.PERFORMED_ACTIONS_LIMIT).append(" of ")
+                    .append(performedCount).append(" actions are listed\n");
+        }
+    }
+
     @Override
     public Report visitHouse(House house) {
         return null;
@@ -7,6 +7,7 @@ import cz.cvut.fel.omo.semestral.entity.livingSpace.House;
 import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystem;
 import cz.cvut.fel.omo.semestral.simulation.HouseFacade;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -20,7 +21,8 @@ public class ConsumptionReport implements ReportVisitor {
     public final double kwhPrice = 7.35;
 
     /**
-     * Visits a device system, generates a report for its consumption, and updates the total consumption.
+     * Visits a device system and generates a report for its consumption, read from the energy meters of the
+     * system and its devices.
      *
      * @param deviceSystem The device system to visit.
      * @return A report for the device system's consumption.
@@ -40,10 +42,6 @@ public class ConsumptionReport implements ReportVisitor {
 
         report.setContent(deviceSystemStringBuilder.toString());
 
-
-        totalConsumption += deviceSystem.getTotalConsumption();
-
-
         return report;
     }
 
@@ -63,7 +61,7 @@ public class ConsumptionReport implements ReportVisitor {
     }
 
     /**
-     * Creates a comprehensive report by visiting all device systems in the house facade, calculating total consumption, and providing pricing information.
+     * Creates a comprehensive report by visiting all device systems in the house facade, reading the total consumption from the energy meter of the house, and providing pricing information.
      *
      * @param houseFacade The house facade containing device systems.
      * @return A comprehensive report summarizing energy consumption and costs.
@@ -87,6 +85,7 @@ public class ConsumptionReport implements ReportVisitor {
             reportContent.append(deviceSystemReport.getContent());
         }
 
+        totalConsumption = houseFacade.getHouse().getEnergyMeter().getKWh();
         reportContent.append("--------------------------\n");
         reportContent.append("Total consumption (kWh):\n");
         reportContent.append(String.format("%.2f", totalConsumption)).append(" kWh\n");
@@ -95,8 +94,9 @@ public class ConsumptionReport implements ReportVisitor {
         double total = kwhPrice * totalConsumption;
         reportContent.append("Total: ").append(String.format("%.2f", total)).append(" CZK\n");
 
-        int hours = numberOfTicks / 6;
-        int minutes = (numberOfTicks % 6) * 10;
+        Duration totalTime = houseFacade.getHouse().getClock().toDuration(numberOfTicks);
+        long hours = totalTime.toHours();
+        int minutes = totalTime.toMinutesPart();
         reportContent.append("Total time: ").append(hours).append(" hours and ").append(minutes).append(" minutes\n");
 
         finalReport.setContent(reportContent.toString());
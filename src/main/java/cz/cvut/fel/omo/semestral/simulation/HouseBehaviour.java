@@ -0,0 +1,176 @@
+package cz.cvut.fel.omo.semestral.simulation;
+
+import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
+import cz.cvut.fel.omo.semestral.entity.actions.ActionPlan;
+import cz.cvut.fel.omo.semestral.entity.actions.BehaviourModel;
+import cz.cvut.fel.omo.semestral.entity.beings.Being;
+import cz.cvut.fel.omo.semestral.entity.beings.Pet;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Floor;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.House;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystem;
+import cz.cvut.fel.omo.semestral.tick.SimulationClock;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Behaviour of the beings of a house which are not given a plan, generated from the rooms of the house and the
+ * device systems in them.
+ * <p>
+ * A human is always in one of the rooms, where it either does nothing for a while, gives an input to one of the
+ * device systems of the room, or moves to another room. During the day it does all of that, at night it mostly
+ * rests and seldom moves. A pet only rests and moves. Every being draws its actions with a seed of its own,
+ * derived from the seed of the simulation and the name of the being, so a simulation with the same seed plays
+ * out the same way.
+ */
+@Slf4j
+public class HouseBehaviour {
+    private static final int HOURS_PER_DAY = 24;
+    /** How long a being does nothing before it decides what to do next */
+    private static final Duration REST = Duration.ofMinutes(30);
+
+    // Weights of what a being does next, all devices or all other rooms together
+    private static final double DAY_REST_WEIGHT = 6;
+    private static final double DAY_INPUT_WEIGHT = 2;
+    private static final double DAY_MOVE_WEIGHT = 2;
+    private static final double NIGHT_REST_WEIGHT = 30;
+    private static final double NIGHT_MOVE_WEIGHT = 0.3;
+
+    private final long seed;
+    /** The clock of the house, giving the number of ticks of a day */
+    private final SimulationClock clock;
+    private final BehaviourModel humanModel;
+    private final BehaviourModel petModel;
+    /** State of each model in which the being has just come to a room */
+    private final Map<Room, Integer> humanRoomStates = new IdentityHashMap<>();
+    private final Map<Room, Integer> petRoomStates = new IdentityHashMap<>();
+
+    /**
+     * Generates the behaviour of the beings of a house.
+     *
+     * @param house          The house.
+     * @param seed           The seed of the simulation.
+     * @param dayStartHour   The hour the day starts at.
+     * @param nightStartHour The hour the night starts at.
+     * @throws IllegalArgumentException If the house has no room or an hour is not within a day.
+     */
+    public HouseBehaviour(House house, long seed, int dayStartHour, int nightStartHour) {
+        checkHour(dayStartHour);
+        checkHour(nightStartHour);
+        List<Room> rooms = new ArrayList<>();
+        for (Floor floor : house.getFloors()) {
+            if (floor.getRooms() != null) {
+                rooms.addAll(floor.getRooms());
+            }
+        }
+        if (rooms.isEmpty()) {
+            throw new IllegalArgumentException("House has no room to behave in");
+        }
+        this.seed = seed;
+        this.clock = house.getClock();
+        this.humanModel = buildModel(rooms, dayStartHour, nightStartHour, true, humanRoomStates, clock);
+        this.petModel = buildModel(rooms, dayStartHour, nightStartHour, false, petRoomStates, clock);
+        log.info("[BEHAVIOUR] Humans choose from " + humanModel.getStateCount() + " and pets from "
+                + petModel.getStateCount() + " actions, the day lasts from " + dayStartHour + " to " + nightStartHour + ".");
+    }
+
+    /**
+     * Gives a being the plan generated as it goes.
+     *
+     * @param being The being, located in one of the rooms of the house.
+     * @param clock The current tick of the simulation, tick 0 is midnight.
+     * @throws IllegalArgumentException If the being is not in a room of the house.
+     */
+    public void plan(Being being, LongSupplier clock) {
+        boolean isPet = being instanceof Pet;
+        BehaviourModel model = isPet ? petModel : humanModel;
+        Integer initialState = (isPet ? petRoomStates : humanRoomStates).get(being.getRoom());
+        if (initialState == null) {
+            throw new IllegalArgumentException("Being " + being.getName() + " is not in a room of the house");
+        }
+        long beingSeed = seed ^ being.getName().hashCode() * 0x9E3779B97F4A7C15L;
+        being.setActionPlan(new ActionPlan(model.createSource(initialState, beingSeed, clock, this.clock)));
+    }
+
+    private static BehaviourModel buildModel(List<Room> rooms, int dayStartHour, int nightStartHour,
+                                             boolean usesDevices, Map<Room, Integer> roomStates,
+                                             SimulationClock clock) {
+        BehaviourModel.Builder builder = BehaviourModel.builder(HOURS_PER_DAY);
+        int restTicks = (int) clock.ticksIn(REST);
+        // The states of each room: coming to the room, resting in it and the inputs of its device systems
+        List<List<Integer>> statesOfRooms = new ArrayList<>();
+        int[] restStates = new int[rooms.size()];
+        List<List<Integer>> inputStates = new ArrayList<>();
+        for (int i = 0; i < rooms.size(); i++) {
+            Room room = rooms.get(i);
+            int arrival = builder.addState(UserInputType.B_CHANGEROOM, room);
+            roomStates.put(room, arrival);
+            restStates[i] = builder.addIdleState(restTicks);
+            List<Integer> inputs = new ArrayList<>();
+            if (usesDevices && room.getDeviceSystems() != null) {
+                for (DeviceSystem deviceSystem : room.getDeviceSystems()) {
+                    for (UserInputType type : deviceSystem.getAllowedUserInputTypes()) {
+                        addInputStates(builder, type, inputs);
+                    }
+                }
+            }
+            List<Integer> states = new ArrayList<>(inputs);
+            states.add(arrival);
+            states.add(restStates[i]);
+            statesOfRooms.add(states);
+            inputStates.add(inputs);
+        }
+        for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+            boolean isDay = dayStartHour <= nightStartHour
+                    ? hour >= dayStartHour && hour < nightStartHour
+                    : hour >= dayStartHour || hour < nightStartHour;
+            double moveWeight = (isDay ? DAY_MOVE_WEIGHT : NIGHT_MOVE_WEIGHT) / Math.max(1, rooms.size() - 1);
+            for (int i = 0; i < rooms.size(); i++) {
+                List<Integer> inputs = inputStates.get(i);
+                double inputWeight = isDay && !inputs.isEmpty() ? DAY_INPUT_WEIGHT / inputs.size() : 0;
+                for (int from : statesOfRooms.get(i)) {
+                    builder.weight(hour, from, restStates[i], isDay ? DAY_REST_WEIGHT : NIGHT_REST_WEIGHT);
+                    for (int input : inputs) {
+                        builder.weight(hour, from, input, inputWeight);
+                    }
+                    for (int j = 0; j < rooms.size(); j++) {
+                        // In a house of one room, the being keeps coming back to it so that it does not only rest
+                        if (j != i || rooms.size() == 1) {
+                            builder.weight(hour, from, roomStates.get(rooms.get(j)), moveWeight);
+                        }
+                    }
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Adds the states of the inputs of one type, with values the device systems understand.
+     */
+    private static void addInputStates(BehaviourModel.Builder builder, UserInputType type, List<Integer> inputs) {
+        switch (type) {
+            case LIGHT_SWITCH -> {
+                inputs.add(builder.addState(type, true));
+                inputs.add(builder.addState(type, false));
+            }
+            case HVAC_TEMPERATURE -> inputs.add(builder.addState(type, 21.0));
+            case FRIDGE_TEMPERATURE -> inputs.add(builder.addState(type, 4.0));
+            case TV_VOLUME -> inputs.add(builder.addState(type, 5));
+            case TV_CHANNEL -> inputs.add(builder.addState(type, 1));
+            default -> inputs.add(builder.addState(type));
+        }
+    }
+
+    private static void checkHour(int hour) {
+        if (hour < 0 || hour >= HOURS_PER_DAY) {
+            throw new IllegalArgumentException("Hour must be from 0 to 23 : " + hour);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package cz.cvut.fel.omo.semestral.simulation;
 
+import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
 import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
 import cz.cvut.fel.omo.semestral.entity.actions.Action;
+import cz.cvut.fel.omo.semestral.entity.beings.Being;
 import cz.cvut.fel.omo.semestral.entity.beings.Human;
 import cz.cvut.fel.omo.semestral.entity.beings.Pet;
 import cz.cvut.fel.omo.semestral.entity.devices.DeviceMalfunctionObserver;
@@ -11,15 +13,17 @@ import cz.cvut.fel.omo.semestral.entity.systems.*;
 import cz.cvut.fel.omo.semestral.reporting.HouseConfigurationReport;
 import cz.cvut.fel.omo.semestral.reporting.ReportGenerator;
 import cz.cvut.fel.omo.semestral.reporting.ReportType;
+import cz.cvut.fel.omo.semestral.tick.Mailbox;
+import cz.cvut.fel.omo.semestral.tick.TickMode;
+import cz.cvut.fel.omo.semestral.tick.TickPhase;
 import cz.cvut.fel.omo.semestral.tick.TickPublisher;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.math.RoundingMode;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
 
 import static cz.cvut.fel.omo.semestral.reporting.ReportType.*;
 
@@ -43,6 +47,11 @@ public class HouseFacade implements DeviceMalfunctionObserver {
     @Getter
     int numberOfTicks = 200;
 
+    /** The mode used to deliver ticks during the simulation. */
+    @Getter
+    @Setter
+    private TickMode tickMode = TickMode.SERIAL;
+
     /**
      * Initializes the simulation and runs it.
      * @param configFilename Name of the configuration file.
@@ -54,13 +63,17 @@ public class HouseFacade implements DeviceMalfunctionObserver {
             initSimulation(configFilename);
             house = simulationConfig.getConfiguredHouse();
         }
-        simulate();
+        HouseBehaviour behaviour = simulationConfig != null ? simulationConfig.createBehaviour(house) : null;
+        ScenarioScript scenario = simulationConfig != null ? simulationConfig.loadScenario(house) : null;
+        simulate(scenario, behaviour);
     }
 
     /**
      * Run of the simulation
+     * @param scenario Scenario of the beings, null if they keep their plans.
+     * @param behaviour Behaviour of the beings without a section in the scenario, null if they keep their plans.
      */
-    private void simulate() {
+    private void simulate(ScenarioScript scenario, HouseBehaviour behaviour) {
 
         log.info("[SIMULATION] Simulation started");
 
@@ -68,11 +81,8 @@ public class HouseFacade implements DeviceMalfunctionObserver {
         // logHouseObject();
 
 
-        tickPublisher = new TickPublisher();
-        // Subscribe all devices, humans and pets to the tick publisher
-        getHumans().forEach(tickPublisher::subscribe);
-        getPets().forEach(tickPublisher::subscribe);
-        getDeviceSystems().forEach(tickPublisher::subscribe);
+        tickPublisher = new TickPublisher(tickMode, simulationConfig != null ? simulationConfig.getCoarseInterval() : TickPublisher.DEFAULT_COARSE_INTERVAL);
+        subscribeToTickPublisher();
 
         // Add the malfunction observer to all devices
         for(DeviceSystem devicesystem : getDeviceSystems()) {
@@ -81,307 +91,21 @@ public class HouseFacade implements DeviceMalfunctionObserver {
             }
         }
 
-        Human john_doe = getHumanByName("John Doe");
-        Human jane_doe = getHumanByName("Jane Doe");
-        Human james_doe = getHumanByName("James Doe");
-        Human michael_doe = getHumanByName("Michael Doe");
-        Human rupert_doe = getHumanByName("Rupert Doe");
-        Human phelony_doe = getHumanByName("Phelony Doe");
-
-        Room kitchen = getRoomByName("Kitchen");
-        Room livingRoom = getRoomByName("Living Room");
-        Room bedroom = getRoomByName("Bedroom");
-        Room masterBedroom = getRoomByName("Master Bedroom");
-        Room bathroom = getRoomByName("Bathroom");
-        Room garage = getRoomByName("Garage");
-        Room hall = getRoomByName("Hall");
-
-        Pet fido = getPetByName("Fido");
-        Pet angel = getPetByName("Angel");
-        Pet darling = getPetByName("Darling");
-
-        Queue<Action> johnActionList = new LinkedList<>();
-        johnActionList.add(new Action(UserInputType.B_CHANGEROOM, livingRoom));
-        johnActionList.add(new Action(UserInputType.B_NOTHING, null));
-        johnActionList.add(new Action(UserInputType.TV_POWER, null));
-        johnActionList.add(new Action(UserInputType.TV_VOLUME, 5));
-        johnActionList.add(new Action(UserInputType.TV_CHANNEL, 1));
-        johnActionList.add(new Action(UserInputType.TV_POWER, null));
-        johnActionList.add(new Action(UserInputType.B_NOTHING, null));
-        johnActionList.add(new Action(UserInputType.B_NOTHING, null));
-        johnActionList.add(new Action(UserInputType.HVAC_TEMPERATURE, 50.0));
-        johnActionList.add(new Action(UserInputType.B_CHANGEROOM, bedroom));
-        johnActionList.add(new Action(UserInputType.B_NOTHING, null));
-        johnActionList.add(new Action(UserInputType.B_NOTHING, null));
-        johnActionList.add(new Action(UserInputType.B_CHANGEROOM, hall));
-        johnActionList.add(new Action(UserInputType.B_CHANGEROOM, kitchen));
-        johnActionList.add(new Action(UserInputType.FRIDGE_TEMPERATURE, 6.0));
-        johnActionList.add(new Action(UserInputType.B_NOTHING, null));
-        johnActionList.add(new Action(UserInputType.B_NOTHING, null));
-        johnActionList.add(new Action(UserInputType.B_NOTHING, null));
-        johnActionList.add(new Action(UserInputType.B_CHANGEROOM, livingRoom));
-        johnActionList.add(new Action(UserInputType.HVAC_TEMPERATURE, 7.0));
-        john_doe.setActionPlan(johnActionList);
-
-        Queue<Action> janeActionList = new LinkedList<>();
-        janeActionList.add(new Action(UserInputType.B_CHANGEROOM, bathroom));
-        janeActionList.add(new Action(UserInputType.B_CHANGEROOM, kitchen));
-        janeActionList.add(new Action(UserInputType.FRIDGE_TEMPERATURE, 5.0));
-        janeActionList.add(new Action(UserInputType.B_CHANGEROOM, hall));
-        janeActionList.add(new Action(UserInputType.B_CHANGEROOM, livingRoom));
-        janeActionList.add(new Action(UserInputType.TV_POWER, true));
-        janeActionList.add(new Action(UserInputType.TV_VOLUME, 7));
-        janeActionList.add(new Action(UserInputType.TV_CHANNEL, 3));
-        janeActionList.add(new Action(UserInputType.TV_POWER, false));
-        janeActionList.add(new Action(UserInputType.HVAC_TEMPERATURE, 15.0));
-        janeActionList.add(new Action(UserInputType.B_CHANGEROOM, bedroom));
-        janeActionList.add(new Action(UserInputType.B_CHANGEROOM, bathroom));
-        janeActionList.add(new Action(UserInputType.B_CHANGEROOM, masterBedroom));
-        janeActionList.add(new Action(UserInputType.ALARM_DISARM, null));
-        janeActionList.add(new Action(UserInputType.B_CHANGEROOM, garage));
-        janeActionList.add(new Action(UserInputType.B_STARTSPORT, SportEquipmentType.BIKE));
-        janeActionList.add(new Action(UserInputType.GATE_CONTROL, null));
-        janeActionList.add(new Action(UserInputType.GATE_CONTROL, null));
-        janeActionList.add(new Action(UserInputType.B_NOTHING, null));
-        janeActionList.add(new Action(UserInputType.B_NOTHING, null));
-        janeActionList.add(new Action(UserInputType.GATE_CONTROL, null));
-        janeActionList.add(new Action(UserInputType.GATE_CONTROL, null));
-        janeActionList.add(new Action(UserInputType.B_STOPSPORT, SportEquipmentType.BIKE));
-        janeActionList.add(new Action(UserInputType.HVAC_TEMPERATURE, 25.0));
-
-        jane_doe.setActionPlan(janeActionList);
-
-        Queue<Action> jamesActionList = new LinkedList<>();
-        jamesActionList.add(new Action(UserInputType.B_CHANGEROOM, bedroom));
-        jamesActionList.add(new Action(UserInputType.B_CHANGEROOM, bathroom));
-        jamesActionList.add(new Action(UserInputType.B_CHANGEROOM, kitchen));
-        jamesActionList.add(new Action(UserInputType.FRIDGE_TEMPERATURE, 4.0));
-        jamesActionList.add(new Action(UserInputType.B_CHANGEROOM, livingRoom));
-        jamesActionList.add(new Action(UserInputType.B_NOTHING, null));
-        jamesActionList.add(new Action(UserInputType.B_NOTHING, null));
-        jamesActionList.add(new Action(UserInputType.B_NOTHING, null));
-        jamesActionList.add(new Action(UserInputType.B_NOTHING, null));
-        jamesActionList.add(new Action(UserInputType.B_NOTHING, null));
-        jamesActionList.add(new Action(UserInputType.B_NOTHING, null));
-        jamesActionList.add(new Action(UserInputType.B_NOTHING, null));
-        jamesActionList.add(new Action(UserInputType.B_NOTHING, null));
-        jamesActionList.add(new Action(UserInputType.B_NOTHING, null));
-        jamesActionList.add(new Action(UserInputType.B_NOTHING, null));
-        jamesActionList.add(new Action(UserInputType.B_NOTHING, null));
-        jamesActionList.add(new Action(UserInputType.B_NOTHING, null));
-        jamesActionList.add(new Action(UserInputType.B_NOTHING, null));
-        jamesActionList.add(new Action(UserInputType.B_NOTHING, null));
-        jamesActionList.add(new Action(UserInputType.HVAC_TEMPERATURE, 25.0));
-        jamesActionList.add(new Action(UserInputType.B_CHANGEROOM, hall));
-        jamesActionList.add(new Action(UserInputType.B_CHANGEROOM, garage));
-        jamesActionList.add(new Action(UserInputType.B_STARTSPORT, SportEquipmentType.SKIS));
-        jamesActionList.add(new Action(UserInputType.B_NOTHING, null));
-        jamesActionList.add(new Action(UserInputType.B_NOTHING, null));
-        jamesActionList.add(new Action(UserInputType.B_NOTHING, null));
-        jamesActionList.add(new Action(UserInputType.B_STOPSPORT, SportEquipmentType.SKIS));
-        jamesActionList.add(new Action(UserInputType.B_NOTHING, null));
-        jamesActionList.add(new Action(UserInputType.B_CHANGEROOM, livingRoom));
-        jamesActionList.add(new Action(UserInputType.HVAC_TEMPERATURE, 27.0));
-        james_doe.setActionPlan(jamesActionList);
-
-        Queue<Action> michaelActionList = new LinkedList<>();
-        michaelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        michaelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        michaelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        michaelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        michaelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        michaelActionList.add(new Action(UserInputType.B_CHANGEROOM, bedroom));
-        michaelActionList.add(new Action(UserInputType.B_CHANGEROOM, hall));
-        michaelActionList.add(new Action(UserInputType.B_CHANGEROOM, kitchen));
-        michaelActionList.add(new Action(UserInputType.FRIDGE_TEMPERATURE, 3.0));
-        michaelActionList.add(new Action(UserInputType.B_CHANGEROOM, livingRoom));
-        michaelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        michaelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        michaelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        michaelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        michaelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        michaelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        michaelActionList.add(new Action(UserInputType.HVAC_TEMPERATURE, 18));
-        michaelActionList.add(new Action(UserInputType.B_CHANGEROOM, hall));
-        michaelActionList.add(new Action(UserInputType.B_CHANGEROOM, garage));
-        michaelActionList.add(new Action(UserInputType.B_STARTSPORT, SportEquipmentType.BIKE));
-        michaelActionList.add(new Action(UserInputType.GATE_CONTROL, null));
-        michaelActionList.add(new Action(UserInputType.GATE_CONTROL, null));
-        michaelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        michaelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        michaelActionList.add(new Action(UserInputType.GATE_CONTROL, null));
-        michaelActionList.add(new Action(UserInputType.GATE_CONTROL, null));
-        michaelActionList.add(new Action(UserInputType.B_STOPSPORT, SportEquipmentType.BIKE));
-        michaelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        michael_doe.setActionPlan(michaelActionList);
-
-        Queue<Action> rupertActionList = new LinkedList<>();
-        rupertActionList.add(new Action(UserInputType.B_NOTHING, null));
-        rupertActionList.add(new Action(UserInputType.B_NOTHING, null));
-        rupertActionList.add(new Action(UserInputType.B_NOTHING, null));
-        rupertActionList.add(new Action(UserInputType.B_NOTHING, null));
-        rupertActionList.add(new Action(UserInputType.B_NOTHING, null));
-        rupertActionList.add(new Action(UserInputType.B_NOTHING, null));
-        rupertActionList.add(new Action(UserInputType.B_NOTHING, null));
-        rupertActionList.add(new Action(UserInputType.B_NOTHING, null));
-        rupertActionList.add(new Action(UserInputType.B_CHANGEROOM, garage));
-        rupertActionList.add(new Action(UserInputType.B_STARTSPORT, SportEquipmentType.SKATES));
-        rupertActionList.add(new Action(UserInputType.GATE_CONTROL, null));
-        rupertActionList.add(new Action(UserInputType.GATE_CONTROL, null));
-        rupertActionList.add(new Action(UserInputType.B_NOTHING, null));
-        rupertActionList.add(new Action(UserInputType.B_NOTHING, null));
-        rupertActionList.add(new Action(UserInputType.B_NOTHING, null));
-        rupertActionList.add(new Action(UserInputType.GATE_CONTROL, null));
-        rupertActionList.add(new Action(UserInputType.GATE_CONTROL, null));
-        rupertActionList.add(new Action(UserInputType.B_STOPSPORT, SportEquipmentType.SKATES));
-        rupertActionList.add(new Action(UserInputType.B_STARTSPORT, SportEquipmentType.BIKE));
-        rupertActionList.add(new Action(UserInputType.GATE_CONTROL, null));
-        rupertActionList.add(new Action(UserInputType.GATE_CONTROL, null));
-        rupertActionList.add(new Action(UserInputType.B_NOTHING, null));
-        rupertActionList.add(new Action(UserInputType.GATE_CONTROL, null));
-        rupertActionList.add(new Action(UserInputType.GATE_CONTROL, null));
-        rupertActionList.add(new Action(UserInputType.B_STOPSPORT, SportEquipmentType.BIKE));
-        rupertActionList.add(new Action(UserInputType.GATE_CONTROL, null));
-        rupertActionList.add(new Action(UserInputType.B_CHANGEROOM, masterBedroom));
-        rupertActionList.add(new Action(UserInputType.B_CHANGEROOM, bathroom));
-        rupertActionList.add(new Action(UserInputType.B_CHANGEROOM, kitchen));
-        rupertActionList.add(new Action(UserInputType.FRIDGE_TEMPERATURE, 5.0));
-        rupertActionList.add(new Action(UserInputType.B_CHANGEROOM, livingRoom));
-        rupertActionList.add(new Action(UserInputType.B_NOTHING, null));
-        rupert_doe.setActionPlan(rupertActionList);
-
-        Queue<Action> phelonyActionList = new LinkedList<>();
-        phelonyActionList.add(new Action(UserInputType.B_CHANGEROOM, masterBedroom));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.B_CHANGEROOM, hall));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.B_CHANGEROOM, kitchen));
-        phelonyActionList.add(new Action(UserInputType.FRIDGE_TEMPERATURE, 4));
-        phelonyActionList.add(new Action(UserInputType.B_CHANGEROOM, livingRoom));
-        phelonyActionList.add(new Action(UserInputType.TV_POWER, null));
-        phelonyActionList.add(new Action(UserInputType.TV_VOLUME, 12));
-        phelonyActionList.add(new Action(UserInputType.TV_CHANNEL, 5));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelonyActionList.add(new Action(UserInputType.TV_POWER, null));
-        phelonyActionList.add(new Action(UserInputType.B_NOTHING, null));
-        phelony_doe.setActionPlan(phelonyActionList);
-
-        Queue<Action> fidoActionList = new LinkedList<>();
-        fidoActionList.add(new Action(UserInputType.B_CHANGEROOM, livingRoom));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_CHANGEROOM, bedroom));
-        fidoActionList.add(new Action(UserInputType.B_CHANGEROOM, bathroom));
-        fidoActionList.add(new Action(UserInputType.B_CHANGEROOM, kitchen));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_NOTHING, null));
-        fidoActionList.add(new Action(UserInputType.B_CHANGEROOM, masterBedroom));
-        fido.setActionPlan(fidoActionList);
-
-        Queue<Action> angelActionList = new LinkedList<>();
-        angelActionList.add(new Action(UserInputType.B_CHANGEROOM, livingRoom));
-        angelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        angelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        angelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        angelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        angelActionList.add(new Action(UserInputType.B_CHANGEROOM, bedroom));
-        angelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        angelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        angelActionList.add(new Action(UserInputType.B_CHANGEROOM, bathroom));
-        angelActionList.add(new Action(UserInputType.B_CHANGEROOM, kitchen));
-        angelActionList.add(new Action(UserInputType.B_CHANGEROOM, bedroom));
-        angelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        angelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        angelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        angelActionList.add(new Action(UserInputType.B_NOTHING, null));
-        angelActionList.add(new Action(UserInputType.B_CHANGEROOM, masterBedroom));
-        angelActionList.add(new Action(UserInputType.B_CHANGEROOM, hall));
-        angelActionList.add(new Action(UserInputType.B_CHANGEROOM, kitchen));
-        angelActionList.add(new Action(UserInputType.B_CHANGEROOM, masterBedroom));
-        angel.setActionPlan(angelActionList);
-
-        Queue<Action> darlingActionList = new LinkedList<>();
-        darlingActionList.add(new Action(UserInputType.B_CHANGEROOM, livingRoom));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_CHANGEROOM, bedroom));
-        darlingActionList.add(new Action(UserInputType.B_CHANGEROOM, bathroom));
-        darlingActionList.add(new Action(UserInputType.B_CHANGEROOM, hall));
-        darlingActionList.add(new Action(UserInputType.B_CHANGEROOM, bedroom));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_CHANGEROOM, bathroom));
-        darlingActionList.add(new Action(UserInputType.B_CHANGEROOM, kitchen));
-        darlingActionList.add(new Action(UserInputType.B_CHANGEROOM, hall));
-        darlingActionList.add(new Action(UserInputType.B_CHANGEROOM, bathroom));
-        darlingActionList.add(new Action(UserInputType.B_CHANGEROOM, kitchen));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_CHANGEROOM, bedroom));
-        darlingActionList.add(new Action(UserInputType.B_CHANGEROOM, masterBedroom));
-        darlingActionList.add(new Action(UserInputType.B_CHANGEROOM, kitchen));
-        darlingActionList.add(new Action(UserInputType.B_CHANGEROOM, bedroom));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_NOTHING, null));
-        darlingActionList.add(new Action(UserInputType.B_CHANGEROOM, bathroom));
-        darlingActionList.add(new Action(UserInputType.B_CHANGEROOM, kitchen));
-        darlingActionList.add(new Action(UserInputType.B_CHANGEROOM, masterBedroom));
-        darling.setActionPlan(darlingActionList);
-
-        for (int i = 0; i < numberOfTicks; i++) {
-            log.info("[SIMULATION] Tick " + i);
-            tickPublisher.tick();
+        planScenario(scenario);
+        planBehaviour(behaviour, scenario);
+
+        try {
+            while (tickPublisher.getTickCount() < numberOfTicks) {
+                log.info("[SIMULATION] Tick " + tickPublisher.getTickCount());
+                tickPublisher.advance(numberOfTicks - tickPublisher.getTickCount());
+            }
+            tickPublisher.synchronize();
+        } finally {
+            tickPublisher.close();
         }
 
         log.info("[SIMULATION] Simulation ended");
+        logMailboxes();
 
         ReportGenerator reportGenerator = new ReportGenerator();
         reportGenerator.generateReportAndSaveToFile(ACTIVITY_USAGE, this, System.getProperty("user.dir") + "/reports/");
@@ -394,6 +118,60 @@ public class HouseFacade implements DeviceMalfunctionObserver {
 
 
 
+    /**
+     * Gives each being with a section in the scenario the plan read from its section.
+     * The plans are read as the simulation goes, not up front.
+     *
+     * @param scenario Scenario of the beings, null if they keep their plans.
+     */
+    private void planScenario(ScenarioScript scenario) {
+        if (scenario == null) {
+            return;
+        }
+        for (String beingName : scenario.getBeingNames()) {
+            Being being = getHumanByName(beingName);
+            if (being == null) {
+                being = getPetByName(beingName);
+            }
+            being.setActionPlan(scenario.createActionPlan(beingName));
+        }
+    }
+
+    /**
+     * Gives each being without a section in the scenario the plan generated by the behaviour as the simulation goes.
+     *
+     * @param behaviour Behaviour of the beings, null if they keep their plans.
+     * @param scenario  Scenario of the beings, null if there is none.
+     */
+    private void planBehaviour(HouseBehaviour behaviour, ScenarioScript scenario) {
+        if (behaviour == null) {
+            return;
+        }
+        for (Being being : house.getAllBeings()) {
+            if (scenario == null || !scenario.getBeingNames().contains(being.getName())) {
+                behaviour.plan(being, tickPublisher::getTickCount);
+            }
+        }
+    }
+
+    /**
+     * Subscribes all humans, pets and device systems to the tick publisher.
+     * Beings are ticked first, each device system is partitioned by its room unless it shares state
+     * with systems in other rooms.
+     */
+    private void subscribeToTickPublisher() {
+        getHumans().forEach(human -> tickPublisher.subscribe(human, TickPhase.BEINGS));
+        getPets().forEach(pet -> tickPublisher.subscribe(pet, TickPhase.BEINGS));
+        for (Floor floor : house.getFloors()) {
+            for (Room room : floor.getRooms()) {
+                for (DeviceSystem deviceSystem : room.getDeviceSystems()) {
+                    Object sharedState = deviceSystem.getSharedState();
+                    tickPublisher.subscribe(deviceSystem, TickPhase.DEVICE_SYSTEMS, sharedState != null ? sharedState : room);
+                }
+            }
+        }
+    }
+
     /**
      * Initializes the simulation.
      *
@@ -411,11 +189,7 @@ public class HouseFacade implements DeviceMalfunctionObserver {
      * @return Room with the given name.
      */
     private Room getRoomByName(String name) {
-        return house.getFloors().stream()
-                .flatMap(floor -> floor.getRooms().stream())
-                .filter(room -> room.getRoomName().equals(name))
-                .findFirst()
-                .orElse(null);
+        return house.getRegistry().getRoom(name);
     }
 
     /**
@@ -424,10 +198,7 @@ public class HouseFacade implements DeviceMalfunctionObserver {
      * @return Floor with the given name.
      */
     private Floor getFloorByName(String name) {
-        return house.getFloors().stream()
-                .filter(floor -> floor.getFloorName().equals(name))
-                .findFirst()
-                .orElse(null);
+        return house.getRegistry().getFloor(name);
     }
 
     /**
@@ -445,10 +216,7 @@ public class HouseFacade implements DeviceMalfunctionObserver {
      * @return Human with the given name.
      */
     private Human getHumanByName(String name) {
-        return house.getAllPeople().stream()
-                .filter(human -> human.getName().equals(name))
-                .findFirst()
-                .orElse(null);
+        return house.getRegistry().getHuman(name);
     }
 
     /**
@@ -457,10 +225,7 @@ public class HouseFacade implements DeviceMalfunctionObserver {
      * @return Pet with the given name.
      */
     private Pet getPetByName(String name) {
-        return house.getAllPets().stream()
-                .filter(pet -> pet.getName().equals(name))
-                .findFirst()
-                .orElse(null);
+        return house.getRegistry().getPet(name);
     }
 
     /**
@@ -469,14 +234,27 @@ public class HouseFacade implements DeviceMalfunctionObserver {
      * @return Device with the given id.
      */
     private DeviceSystem getDeviceSystemByID(int id) {
-        return house.getAllDeviceSystems().stream()
-                .filter(deviceSystem -> deviceSystem.getDeviceSystemID() == id)
-                .findFirst()
-                .orElse(null);
+        return house.getRegistry().getDeviceSystem(id);
+    }
+
+    /**
+     * Logs the depth and latency of the mailboxes of the device systems, if they are run as actors.
+     */
+    private void logMailboxes() {
+        for (DeviceSystem deviceSystem : getDeviceSystems()) {
+            Mailbox mailbox = deviceSystem.getMailbox();
+            if (mailbox != null) {
+                log.info("[SIMULATION] Device system " + deviceSystem.getDeviceSystemID() + " processed " + mailbox.getProcessedCount()
+                        + " messages, max depth " + mailbox.getMaxDepth()
+                        + ", average latency " + Math.round(mailbox.getAverageLatencyNanos() / 1000) + " us"
+                        + ", max latency " + mailbox.getMaxLatencyNanos() / 1000 + " us");
+            }
+        }
     }
 
     public List<DeviceSystem> getDeviceSystems() {return house.getAllDeviceSystems();}
     public List<IDevice> getDevices(){return house.getAllDevices();}
+    public List<IDevice> getBrokenDevices(){return house.getDevicesInState(DeviceState.MALFUNCTION);}
     public List<Human> getHumans(){return house.getAllPeople();}
     public List<Pet> getPets(){return house.getAllPets();}
 
@@ -512,7 +290,9 @@ public class HouseFacade implements DeviceMalfunctionObserver {
      */
     @Override
     public void onDeviceMalfunction(IDevice device) {
-        getHumans().get(0).getActionPlan().add(new Action(UserInputType.B_REPAIR, device));
-        log.info(getHumans().get(0).getName() + " has added repair action to the action plan.");
+        tickPublisher.defer(() -> {
+            getHumans().get(0).addActionToPlan(new Action(UserInputType.B_REPAIR, device));
+            log.info(getHumans().get(0).getName() + " has added repair action to the action plan.");
+        });
     }
 }
@@ -0,0 +1,365 @@
+package cz.cvut.fel.omo.semestral.simulation;
+
+import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
+import cz.cvut.fel.omo.semestral.entity.actions.Action;
+import cz.cvut.fel.omo.semestral.entity.actions.ActionPlan;
+import cz.cvut.fel.omo.semestral.entity.actions.ActionSource;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.HouseRegistry;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.SportEquipmentType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Scenario of the beings of a house, read from a text file next to the configuration.
+ * <p>
+ * The file consists of sections, one per being, headed by the name of the being in square brackets. Each
+ * further line of a section is one action of the being, the type of the action optionally followed by its value,
+ * for example {@code B_CHANGEROOM Living Room}, {@code TV_VOLUME 5} or {@code B_NOTHING 120} for 120 ticks of
+ * doing nothing. Everything from {@code #} to the end of a line is a comment.
+ * <p>
+ * Loading a scenario checks the whole file once, line by line, and remembers where the section of each being
+ starts. The actions themselves are only read when the simulation gets to them: each being gets an
+ * {@link ActionSource} which opens the file at the offset it got to, reads the next {@link #BATCH_LINES} lines
+ * of its section and closes the file again, so a scenario of any length runs in bounded memory and the file is
+ * not kept open for every being between the batches.
+ */
+@Slf4j
+public class ScenarioScript {
+    private static final String COMMENT = "#";
+    /** The number of lines a being reads from its section at once */
+    private static final int BATCH_LINES = 64;
+
+    /** The scenario file */
+    private final Path path;
+    /** Registry of the house, the rooms of the scenario are looked up by name */
+    private final HouseRegistry registry;
+    /** Offset of the first line after the header of the section of each being */
+    private final Map<String, Long> sectionOffsets = new LinkedHashMap<>();
+
+    private ScenarioScript(Path path, HouseRegistry registry) {
+        this.path = path;
+        this.registry = registry;
+    }
+
+    /**
+     * Loads a scenario, checking all of its actions.
+     *
+     * @param path     The scenario file.
+     * @param registry Registry of the house the scenario is played in.
+     * @return The loaded scenario.
+     * @throws ConfigurationException If the file cannot be read or an action is not valid.
+     */
+    public static ScenarioScript load(Path path, HouseRegistry registry) throws ConfigurationException {
+        ScenarioScript scenario = new ScenarioScript(path, registry);
+        scenario.index();
+        return scenario;
+    }
+
+    /**
+     * Gets the names of the beings which have a section in the scenario.
+     *
+     * @return The names in the order of the sections.
+     */
+    public Set<String> getBeingNames() {
+        return sectionOffsets.keySet();
+    }
+
+    /**
+     * Creates the plan of a being reading the section of the being as the being performs the actions.
+     *
+     * @param beingName The name of the being.
+     * @return The plan of the being, null if the scenario has no section for the being.
+     */
+    public ActionPlan createActionPlan(String beingName) {
+        Long offset = sectionOffsets.get(beingName);
+        return offset == null ? null : new ActionPlan(new SectionSource(beingName, offset));
+    }
+
+    /**
+     * Reads the whole file once, checks every line and remembers where the sections start.
+     */
+    private void index() throws ConfigurationException {
+        try (LineReader reader = new LineReader(path, 0)) {
+            String currentBeing = null;
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = stripComment(line);
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String beingName = parseHeader(line);
+                if (beingName != null) {
+                    if (registry.getHuman(beingName) == null && registry.getPet(beingName) == null) {
+                        throw new ConfigurationException("[SCENARIO] " + path.getFileName() + ":" + lineNumber + " Unknown being : " + beingName);
+                    }
+                    if (sectionOffsets.putIfAbsent(beingName, reader.getOffset()) != null) {
+                        throw new ConfigurationException("[SCENARIO] " + path.getFileName() + ":" + lineNumber + " Second section of : " + beingName);
+                    }
+                    currentBeing = beingName;
+                    continue;
+                }
+                if (currentBeing == null) {
+                    throw new ConfigurationException("[SCENARIO] " + path.getFileName() + ":" + lineNumber + " Action outside of a section : " + line);
+                }
+                try {
+                    appendAction(line, null);
+                } catch (IllegalArgumentException e) {
+                    throw new ConfigurationException("[SCENARIO] " + path.getFileName() + ":" + lineNumber + " " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new ConfigurationException("[SCENARIO] Scenario file " + path + " cannot be read : " + e.getMessage());
+        }
+        log.info("[SCENARIO] Scenario " + path.getFileName() + " has sections for " + sectionOffsets.keySet() + ".");
+    }
+
+    /**
+     * Removes the comment and the surrounding whitespace from a line.
+     *
+     * @param line The line as it is in the file.
+     * @return The content of the line, empty if there is none.
+     */
+    private static String stripComment(String line) {
+        int comment = line.indexOf(COMMENT);
+        return (comment < 0 ? line : line.substring(0, comment)).strip();
+    }
+
+    /**
+     * Parses a section header.
+     *
+     * @param line The stripped line.
+     * @return The name of the being, null if the line is not a header.
+     */
+    private static String parseHeader(String line) {
+        if (line.length() >= 2 && line.startsWith("[") && line.endsWith("]")) {
+            return line.substring(1, line.length() - 1).strip();
+        }
+        return null;
+    }
+
+    /**
+     * Parses an action and appends it to a plan.
+     *
+     * @param line The stripped line of the action.
+     * @param plan The plan, null to only check the action.
+     * @throws IllegalArgumentException If the action is not valid.
+     */
+    private void appendAction(String line, ActionPlan plan) {
+        int separator = line.indexOf(' ');
+        String typeName = separator < 0 ? line : line.substring(0, separator);
+        String value = separator < 0 ? "" : line.substring(separator + 1).strip();
+        UserInputType type;
+        try {
+            type = UserInputType.valueOf(typeName);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown action : " + typeName);
+        }
+        switch (type) {
+            case B_NOTHING:
+                int ticks = value.isEmpty() ? 1 : parseTicks(value);
+                if (plan != null) {
+                    plan.addIdle(ticks);
+                }
+                return;
+            case B_CHANGEROOM:
+                Room room = registry.getRoom(value);
+                if (room == null) {
+                    throw new IllegalArgumentException("Unknown room : " + value);
+                }
+                append(plan, type, room);
+                return;
+            case B_STARTSPORT:
+            case B_STOPSPORT:
+                try {
+                    append(plan, type, SportEquipmentType.valueOf(value));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown sport equipment : " + value);
+                }
+                return;
+            case B_REPAIR:
+                throw new IllegalArgumentException("Repairs are planned by the simulation when a device breaks");
+            default:
+                append(plan, type, parseValue(value));
+        }
+    }
+
+    private static void append(ActionPlan plan, UserInputType type, Object value) {
+        if (plan != null) {
+            plan.add(new Action(type, value));
+        }
+    }
+
+    private static int parseTicks(String value) {
+        try {
+            int ticks = Integer.parseInt(value);
+            if (ticks > 0) {
+                return ticks;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Number of idle ticks must be a positive integer : " + value);
+    }
+
+    /**
+     * Parses the value of a device input. The value is passed on as it is written, an integer stays an integer.
+     *
+     * @param value The written value.
+     * @return Null, a boolean, an integer or a double.
+     */
+    private static Object parseValue(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        if (value.equals("true") || value.equals("false")) {
+            return Boolean.valueOf(value);
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            // Not an integer, try a double
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Value must be true, false or a number : " + value);
+        }
+    }
+
+    /**
+     * Reads the section of one being in batches of lines, opening the file for each batch.
+     */
+    private final class SectionSource implements ActionSource {
+        private final String beingName;
+        /** Offset of the first line which has not been read yet */
+        private long offset;
+        /** The lines of the batch which have not been appended yet */
+        private final Queue<String> lines = new ArrayDeque<>();
+        /** Whether the end of the section has been read */
+        private boolean endOfSection;
+
+        private SectionSource(String beingName, long offset) {
+            this.beingName = beingName;
+            this.offset = offset;
+        }
+
+        @Override
+        public boolean appendTo(ActionPlan plan) {
+            try {
+                if (lines.isEmpty() && !endOfSection) {
+                    readBatch();
+                }
+                String line = lines.poll();
+                if (line != null) {
+                    appendAction(line, plan);
+                    return true;
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                // The file has been checked when loaded, so it has been changed or removed since
+                log.error("[SCENARIO] Reading the scenario of " + beingName + " failed: " + e.getMessage());
+            }
+            endOfSection = true;
+            lines.clear();
+            return false;
+        }
+
+        /**
+         * Reads the next lines with an action, up to {@link #BATCH_LINES} of them, and closes the file.
+         */
+        private void readBatch() throws IOException {
+            try (LineReader reader = new LineReader(path, offset)) {
+                while (lines.size() < BATCH_LINES) {
+                    String line = reader.readLine();
+                    if (line == null) {
+                        endOfSection = true;
+                        return;
+                    }
+                    line = stripComment(line);
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    if (parseHeader(line) != null) {
+                        endOfSection = true;
+                        return;
+                    }
+                    lines.add(line);
+                }
+                offset = reader.getOffset();
+            }
+        }
+    }
+
+    /**
+     * Buffered reader of UTF-8 lines which knows the byte offset of the next line, so a section can be read
+     * again starting from its offset.
+     */
+    private static final class LineReader implements Closeable {
+        private final InputStream in;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        private long offset;
+
+        /**
+         * Opens the file for reading from an offset.
+         *
+         * @param path   The file.
+         * @param offset The offset of the first line to be read.
+         */
+        private LineReader(Path path, long offset) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            channel.position(offset);
+            this.in = new BufferedInputStream(Channels.newInputStream(channel));
+            this.offset = offset;
+        }
+
+        /**
+         * Reads the next line without its line terminator.
+         *
+         * @return The line, null at the end of the file.
+         */
+        private String readLine() throws IOException {
+            line.reset();
+            int next = in.read();
+            if (next < 0) {
+                return null;
+            }
+            while (next >= 0) {
+                offset++;
+                if (next == '\n') {
+                    break;
+                }
+                if (next != '\r') {
+                    line.write(next);
+                }
+                next = in.read();
+            }
+            return line.toString(StandardCharsets.UTF_8);
+        }
+
+        private long getOffset() {
+            return offset;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -2,12 +2,16 @@ package cz.cvut.fel.omo.semestral.simulation;
 
 import cz.cvut.fel.omo.semestral.entity.beings.Human;
 import cz.cvut.fel.omo.semestral.entity.beings.Pet;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.CommandQueue;
+import cz.cvut.fel.omo.semestral.entity.devices.sensors.SamplingPolicy;
 import cz.cvut.fel.omo.semestral.entity.livingSpace.*;
 import cz.cvut.fel.omo.semestral.entity.systems.*;
 
 import cz.cvut.fel.omo.semestral.manual.ManualRepo;
 import cz.cvut.fel.omo.semestral.manual.ManualRepoProxy;
 import cz.cvut.fel.omo.semestral.manual.OfflineManualDatabase;
+import cz.cvut.fel.omo.semestral.tick.SimulationClock;
+import cz.cvut.fel.omo.semestral.tick.TickPublisher;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -16,6 +20,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 
 /**
@@ -40,6 +46,8 @@ public class SimulationConfig {
     private final Map<Integer, List<DeviceSystem>> _deviceSystemConfigMap;
     /** Map<deviceSystemID, deviceSystemName> */
     private final Map<Integer, String> deviceSystemNameByIdMap;
+    /** Map<deviceSystemID, lightCount>, only for lighting systems configured with a light count */
+    private final Map<Integer, Integer> lightCountByIdMap;
 
     /* Implementations of the ILivingSpace interface */
     /** Map<FloorID, List> */
@@ -47,7 +55,23 @@ public class SimulationConfig {
     private final List<Floor> _floorList;
     private House _house;
     private final OfflineManualDatabase _offlineManualDatabase;
+    /** Name of the scenario file in the config folder, null if the beings have no plans */
+    private String _scenarioFilename;
+    /** Seed of the generated behaviour, null if the beings without a plan stay idle */
+    private Long _behaviourSeed;
+    /** Hours the day and the night of the generated behaviour start at */
+    private int _dayStartHour, _nightStartHour;
+    /** Number of ticks between two visits of the device systems of an unoccupied room in the level of detail mode */
+    @Getter
+    private int coarseInterval = TickPublisher.DEFAULT_COARSE_INTERVAL;
+    /** Capacity and overflow policy of the command queues of the appliances */
+    private int commandQueueCapacity = CommandQueue.DEFAULT_CAPACITY;
+    private CommandQueue.OverflowPolicy commandOverflowPolicy = CommandQueue.OverflowPolicy.COALESCE;
+    /** Sampling policies of the sensors by the name of their model */
+    private Map<String, SamplingPolicy> samplingPolicies = new HashMap<>();
     private Temperature _internalTemperature, _externalTemperature;
+    /** The clock the configured house is simulated with */
+    private SimulationClock _clock = SimulationClock.REFERENCE;
 
     /**
      * Loads configuration from a json file in the ConfigsJSON folder.
@@ -61,6 +85,7 @@ public class SimulationConfig {
         this._roomMap = new HashMap<>();
         this._floorList = new ArrayList<>();
         this.deviceSystemNameByIdMap = new HashMap<>();
+        this.lightCountByIdMap = new HashMap<>();
         this._offlineManualDatabase = new OfflineManualDatabase();
     }
 
@@ -84,6 +109,45 @@ public class SimulationConfig {
         }
     }
 
+    /**
+     * Loads the scenario of the beings of a configured house from the config folder.
+     *
+     * @param house The configured house.
+     * @return The scenario, null if the configuration has none.
+     * @throws SimulationException If the scenario cannot be read or does not fit the house.
+     */
+    public ScenarioScript loadScenario(House house) throws SimulationException {
+        if (_scenarioFilename == null) {
+            log.info("[CONFIG][SCENARIO] No scenario configured, the beings have no plans.");
+            return null;
+        }
+        Path scenarioPath = Path.of(System.getProperty("user.dir"), "config", _scenarioFilename);
+        log.info("[CONFIG][SCENARIO] Loading scenario from file: " + scenarioPath);
+        try {
+            return ScenarioScript.load(scenarioPath, house.getRegistry());
+        } catch (ConfigurationException e) {
+            throw new SimulationException(e.getMessage());
+        }
+    }
+
+    /**
+     * Generates the behaviour of the beings of a configured house which have no plan from the scenario.
+     *
+     * @param house The configured house.
+     * @return The behaviour, null if the configuration has none.
+     * @throws SimulationException If the behaviour cannot be generated for the house.
+     */
+    public HouseBehaviour createBehaviour(House house) throws SimulationException {
+        if (_behaviourSeed == null) {
+            return null;
+        }
+        try {
+            return new HouseBehaviour(house, _behaviourSeed, _dayStartHour, _nightStartHour);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new SimulationException("[CONFIG][BEHAVIOUR] " + e.getMessage());
+        }
+    }
+
     /**
      * Create a configured house based on the loaded configuration data.
      *
@@ -131,6 +195,7 @@ public class SimulationConfig {
                             room.getRoomID(),
                             deviceSystem.getDeviceSystemID(),
                             deviceSystemNameByIdMap.get(deviceSystem.getDeviceSystemID()),
+                            lightCountByIdMap.getOrDefault(deviceSystem.getDeviceSystemID(), LightingSystem.DEFAULT_LIGHT_COUNT),
                             configuredRoom,
                             _internalTemperature,
                             _externalTemperature
@@ -144,7 +209,7 @@ public class SimulationConfig {
             configuredFloors.add(new Floor(floor.getFloorID(), floor.getFloorName(), floor.getFloorLevel(), configuredRooms.get(floor.getFloorID())));
         }
         log.info("[CONFIG][HOUSE] Configured house successfully created.");
-        return new House(_house.getHouseID(), _house.getHouseNumber(), _house.getAddress(), _house.getInternalTemperature(), _house.getExternalTemperature(), configuredFloors);
+        return new House(_house.getHouseID(), _house.getHouseNumber(), _house.getAddress(), _house.getInternalTemperature(), _house.getExternalTemperature(), configuredFloors, _house.getClock());
     }
 
     /**
@@ -173,6 +238,87 @@ public class SimulationConfig {
                 JsonNode jsonObject = mapper.readTree(new File(absoluteConfigPath));
                 log.info("[CONFIG][PARSING] Parsing JSON file...");
 
+                /* CONFIGURATION OF SIMULATION */
+                // Optional, defaults to the reference tick of 10 minutes
+                JsonNode simulation = jsonObject.get("Simulation");
+                Duration tickDuration = SimulationClock.REFERENCE_TICK_DURATION;
+                if (simulation != null && simulation.has("tickDurationMinutes")) {
+                    int tickDurationMinutes = simulation.get("tickDurationMinutes").asInt();
+                    if (tickDurationMinutes <= 0)
+                        throw new ConfigurationException("[SIMULATION] Tick duration must be positive : " + tickDurationMinutes);
+                    tickDuration = Duration.ofMinutes(tickDurationMinutes);
+                }
+                _clock = new SimulationClock(tickDuration);
+                log.info("[CONFIG][PARSING] Tick duration set to " + tickDuration.toMinutes() + " minutes.");
+
+                // Optional, only used in the level of detail mode
+                coarseInterval = TickPublisher.DEFAULT_COARSE_INTERVAL;
+                if (simulation != null && simulation.has("coarseIntervalTicks")) {
+                    coarseInterval = simulation.get("coarseIntervalTicks").asInt();
+                    if (coarseInterval <= 0)
+                        throw new ConfigurationException("[SIMULATION] Coarse interval must be positive : " + coarseInterval);
+                }
+
+                // Optional, the command queues of the appliances are created with the devices
+                commandQueueCapacity = CommandQueue.DEFAULT_CAPACITY;
+                commandOverflowPolicy = CommandQueue.OverflowPolicy.COALESCE;
+                if (simulation != null && simulation.has("commandQueueCapacity")) {
+                    commandQueueCapacity = simulation.get("commandQueueCapacity").asInt();
+                    if (commandQueueCapacity <= 0)
+                        throw new ConfigurationException("[SIMULATION] Command queue capacity must be positive : " + commandQueueCapacity);
+                }
+                if (simulation != null && simulation.has("commandOverflowPolicy")) {
+                    String policyName = simulation.get("commandOverflowPolicy").asText();
+                    try {
+                        commandOverflowPolicy = CommandQueue.OverflowPolicy.valueOf(policyName);
+                    } catch (IllegalArgumentException e) {
+                        throw new ConfigurationException("[SIMULATION] Unknown command overflow policy : " + policyName);
+                    }
+                }
+                log.info("[CONFIG][PARSING] Command queues hold " + commandQueueCapacity + " commands, overflow policy " + commandOverflowPolicy + ".");
+
+                // Optional, the sampling policies are assigned to the sensors when they are created
+                samplingPolicies = new HashMap<>();
+                if (simulation != null && simulation.has("sensorSampling")) {
+                    Iterator<Map.Entry<String, JsonNode>> sensorModels = simulation.get("sensorSampling").fields();
+                    while (sensorModels.hasNext()) {
+                        Map.Entry<String, JsonNode> sensorModel = sensorModels.next();
+                        if (DeviceSystemFactory.SENSOR_TYPES.stream().noneMatch(type -> type.getName().equals(sensorModel.getKey())))
+                            throw new ConfigurationException("[SIMULATION] Unknown sensor model : " + sensorModel.getKey());
+                        JsonNode sampling = sensorModel.getValue();
+                        int samplingInterval = sampling.has("samplingIntervalTicks") ? sampling.get("samplingIntervalTicks").asInt() : 1;
+                        double deadband = sampling.has("deadband") ? sampling.get("deadband").asDouble() : 0;
+                        double hysteresis = sampling.has("hysteresis") ? sampling.get("hysteresis").asDouble() : 0;
+                        try {
+                            samplingPolicies.put(sensorModel.getKey(), new SamplingPolicy(samplingInterval, deadband, hysteresis));
+                        } catch (IllegalArgumentException e) {
+                            throw new ConfigurationException("[SIMULATION] Invalid sampling of " + sensorModel.getKey() + " : " + e.getMessage());
+                        }
+                        log.info("[CONFIG][PARSING] " + sensorModel.getKey() + " samples " + samplingPolicies.get(sensorModel.getKey()) + ".");
+                    }
+                }
+
+                // Optional, the scenario is loaded once the house is configured
+                _scenarioFilename = null;
+                if (simulation != null && simulation.has("scenario")) {
+                    _scenarioFilename = simulation.get("scenario").asText();
+                    if (_scenarioFilename.isBlank())
+                        throw new ConfigurationException("[SIMULATION] Scenario file name must not be empty.");
+                    log.info("[CONFIG][PARSING] Scenario set to " + _scenarioFilename + ".");
+                }
+
+                // Optional, the behaviour is generated once the house is configured
+                _behaviourSeed = null;
+                if (simulation != null && simulation.has("behaviour")) {
+                    JsonNode behaviour = simulation.get("behaviour");
+                    _behaviourSeed = behaviour.has("seed") ? behaviour.get("seed").asLong() : 0;
+                    _dayStartHour = behaviour.has("dayStartHour") ? behaviour.get("dayStartHour").asInt() : 7;
+                    _nightStartHour = behaviour.has("nightStartHour") ? behaviour.get("nightStartHour").asInt() : 22;
+                    if (_dayStartHour < 0 || _dayStartHour > 23 || _nightStartHour < 0 || _nightStartHour > 23)
+                        throw new ConfigurationException("[SIMULATION] Hours of the behaviour must be from 0 to 23 : " + _dayStartHour + ", " + _nightStartHour);
+                    log.info("[CONFIG][PARSING] Behaviour generated with seed " + _behaviourSeed + ", day from " + _dayStartHour + " to " + _nightStartHour + ".");
+                }
+
                 /* CONFIGURATION OF HOUSE */
                 // Create house object
                 JsonNode house = jsonObject.get("House");
@@ -183,7 +329,7 @@ public class SimulationConfig {
                 int externalTemp = house.get("externalTemperature").asInt();
                 this._internalTemperature = new Temperature(internalTemp);
                 this._externalTemperature = new Temperature(externalTemp);
-                this._house = new House(houseID, houseNumber, address, this._internalTemperature, this._externalTemperature);
+                this._house = new House(houseID, houseNumber, address, this._internalTemperature, this._externalTemperature, _clock);
 
                 log.info("[CONFIG][PARSING] House successfully initialized.");
 
@@ -374,9 +520,18 @@ public class SimulationConfig {
                     if(deviceSystemRoomID != 0 && !roomIDSet.contains(deviceSystemRoomID))
                         throw new ConfigurationException("[DEVICESYSTEM] Room with ID " + deviceSystemRoomID + " does not exist.");
 
+                    // Optional number of lights of a lighting system
+                    int lightCount = LightingSystem.DEFAULT_LIGHT_COUNT;
+                    if (deviceSystem.has("lightCount")) {
+                        lightCount = deviceSystem.get("lightCount").asInt();
+                        if (lightCount < 1)
+                            throw new ConfigurationException("[DEVICESYSTEM] Light count must be at least 1 : " + deviceSystemID);
+                        lightCountByIdMap.put(deviceSystemID, lightCount);
+                    }
+
                     // Check if the room is found, then add the device system to the map
                     this._deviceSystemConfigMap.computeIfAbsent(deviceSystemRoomID, k -> new ArrayList<>())
-                            .add(this.createSystemByType(deviceSystemRoomID, deviceSystemID, deviceSystemName, null, _internalTemperature, _externalTemperature));
+                            .add(this.createSystemByType(deviceSystemRoomID, deviceSystemID, deviceSystemName, lightCount, null, _internalTemperature, _externalTemperature));
                     deviceSystemNameByIdMap.put(deviceSystemID, deviceSystemName);
                 }
 
@@ -446,22 +601,23 @@ public class SimulationConfig {
      * @param roomID roomId (used to check if were creating a gate control system in the garage and nowhere else)
      * @param deviceSystemID deviceSystemId
      * @param deviceSystemName deviceSystemName
+     * @param lightCount number of lights (used to create a lighting system)
      * @param room room (used to create a lighting system)
      * @param internalTemp internalTemp
      * @param externalTemp externalTemp
      * @return DeviceSystem
      * @throws ConfigurationException if the device system type is not recognized
      */
-     private DeviceSystem createSystemByType(int roomID, int deviceSystemID, String deviceSystemName, Room room, Temperature internalTemp, Temperature externalTemp) throws ConfigurationException {
+     private DeviceSystem createSystemByType(int roomID, int deviceSystemID, String deviceSystemName, int lightCount, Room room, Temperature internalTemp, Temperature externalTemp) throws ConfigurationException {
          if( roomID != 0 && deviceSystemName.equals("GateControlSystem"))
              throw new ConfigurationException("GateControlSystem can only be in the garage.");
 
-         DeviceSystemFactory factory = new DeviceSystemFactory();
+         DeviceSystemFactory factory = new DeviceSystemFactory(commandQueueCapacity, commandOverflowPolicy, samplingPolicies);
          return switch (deviceSystemName) {
              case "FridgeSystem" -> factory.createFridgeSystem(deviceSystemID);
              case "GateControlSystem" -> factory.createGateControlSystem(deviceSystemID);
              case "HVACSystem" -> factory.createHVACSystem(deviceSystemID, internalTemp, externalTemp);
-             case "LightingSystem" -> factory.createLightingSystem(deviceSystemID,room);
+             case "LightingSystem" -> factory.createLightingSystem(deviceSystemID, room, lightCount);
              case "SecuritySystem" -> factory.createSecuritySystem(deviceSystemID);
              case "TVSystem" -> factory.createEntertainmentSystem(deviceSystemID);
              default -> throw new ConfigurationException("Device system type not recognized.");
@@ -1,6 +1,7 @@
 package cz.cvut.fel.omo.semestral.simulation;
 
 import cz.cvut.fel.omo.semestral.reporting.ReportGenerator;
+import cz.cvut.fel.omo.semestral.tick.TickMode;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -16,9 +17,20 @@ public class SimulationManager {
      * Starts the simulation.
      */
     public void runSimulation(String configFilename){
+        runSimulation(configFilename, TickMode.SERIAL);
+    }
+
+    /**
+     * Starts the simulation using the given tick mode.
+     *
+     * @param configFilename Name of the configuration file.
+     * @param tickMode       The mode used to deliver ticks.
+     */
+    public void runSimulation(String configFilename, TickMode tickMode){
         if (houseFacade == null) {
             houseFacade = new HouseFacade();
         }
+        houseFacade.setTickMode(tickMode);
         try {
             houseFacade.runSimulation(configFilename);
         } catch (SimulationException e) {
@@ -0,0 +1,191 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs every partition of the device systems phase as an actor with its own {@link Mailbox}.
+ * <p>
+ * Tickables of other phases are ticked first, on the calling thread. Everything they address to an actor,
+ * such as user inputs or sensor notifications caused by somebody entering a room, is queued in its mailbox
+ * instead of being delivered through a synchronous call. Each tick is then posted to every actor as a
+ * message behind them, and the actors process their mailboxes concurrently on the workers; the tick ends
+ * once all mailboxes are empty. Within an actor the messages keep the order of the serial engine, and
+ * actions passed to {@link #defer(Runnable)}, such as malfunction reports, are replayed afterwards in serial
+ * tick order, so the results are identical to the serial engine.
+ */
+class ActorTickEngine implements TickEngine {
+    private static final Object DEFAULT_PARTITION = new Object();
+
+    private final Executor workers;
+    private final MessageTracker tracker = new MessageTracker();
+    private final List<TickSubscription> serialSubscriptions = new ArrayList<>();
+    private final Map<Object, Actor> actors = new LinkedHashMap<>();
+    private final ThreadLocal<Actor> currentActor = new ThreadLocal<>();
+
+    /**
+     * Creates a new actor engine.
+     *
+     * @param workers The workers processing the mailboxes.
+     */
+    ActorTickEngine(Executor workers) {
+        this.workers = workers;
+    }
+
+    /**
+     * Creates workers starting a virtual thread per message, when running on a JDK which has them.
+     * The caller has to shut them down.
+     *
+     * @return The workers, null if the JDK has no virtual threads.
+     */
+    static ExecutorService newVirtualThreadWorkers() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void subscribe(TickSubscription subscription) {
+        if (subscription.getPhase() != TickPhase.DEVICE_SYSTEMS) {
+            serialSubscriptions.add(subscription);
+            serialSubscriptions.sort(Comparator.comparing(TickSubscription::getPhase));
+            return;
+        }
+        Object key = subscription.getPartitionKey() != null ? subscription.getPartitionKey() : DEFAULT_PARTITION;
+        Actor actor = actors.computeIfAbsent(key, k -> new Actor(new Mailbox(workers, tracker)));
+        actor.subscriptions.add(subscription);
+        subscription.getTickable().setMailbox(actor.mailbox);
+    }
+
+    @Override
+    public void unsubscribe(Tickable tickable) {
+        serialSubscriptions.removeIf(subscription -> subscription.getTickable() == tickable);
+        for (Actor actor : actors.values()) {
+            if (actor.subscriptions.removeIf(subscription -> subscription.getTickable() == tickable)) {
+                tickable.setMailbox(null);
+            }
+        }
+        actors.values().removeIf(actor -> actor.subscriptions.isEmpty());
+    }
+
+    @Override
+    public void tick() {
+        for (TickSubscription subscription : serialSubscriptions) {
+            subscription.getTickable().onTick();
+        }
+        tracker.setRunning(true);
+        try {
+            for (Actor actor : actors.values()) {
+                actor.mailbox.post(actor::tick);
+            }
+            tracker.awaitQuiescence();
+        } finally {
+            tracker.setRunning(false);
+        }
+        List<DeferredActions> deferred = new ArrayList<>();
+        actors.values().forEach(actor -> deferred.add(actor.deferred));
+        DeferredActions.replay(deferred);
+    }
+
+    @Override
+    public void defer(Runnable action) {
+        Actor actor = currentActor.get();
+        if (actor == null) {
+            action.run();
+        } else {
+            actor.deferred.add(actor.currentOrder, action);
+        }
+    }
+
+    /**
+     * Group of subscriptions sharing one mailbox.
+     */
+    private class Actor {
+        private final Mailbox mailbox;
+        private final List<TickSubscription> subscriptions = new ArrayList<>();
+        private final DeferredActions deferred = new DeferredActions();
+        private long currentOrder;
+
+        Actor(Mailbox mailbox) {
+            this.mailbox = mailbox;
+        }
+
+        void tick() {
+            currentActor.set(this);
+            try {
+                for (TickSubscription subscription : subscriptions) {
+                    currentOrder = subscription.getOrder();
+                    subscription.getTickable().onTick();
+                }
+            } finally {
+                currentActor.remove();
+            }
+        }
+    }
+
+    /**
+     * Counts the messages posted to any mailbox of the engine which have not been processed yet.
+     * Mailboxes are only processed while the actors are running, messages posted by the tickables of other
+     * phases or between ticks wait for the next tick, so the actors never run concurrently with them.
+     */
+    static class MessageTracker {
+        private int count;
+        private RuntimeException failure;
+        @Getter
+        private volatile boolean running;
+
+        void setRunning(boolean running) {
+            this.running = running;
+        }
+
+        synchronized void increment() {
+            count++;
+        }
+
+        synchronized void decrement() {
+            if (--count == 0) {
+                notifyAll();
+            }
+        }
+
+        synchronized void fail(RuntimeException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+
+        /**
+         * Waits until all messages have been processed.
+         *
+         * @throws RuntimeException The first exception thrown by a message, if any.
+         */
+        synchronized void awaitQuiescence() {
+            boolean interrupted = false;
+            while (count > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                RuntimeException e = failure;
+                failure = null;
+                throw e;
+            }
+        }
+    }
+}
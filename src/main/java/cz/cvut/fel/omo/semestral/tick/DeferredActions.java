@@ -0,0 +1,55 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Actions a partition postpones until the concurrently running partitions have finished, because they touch
+ * state shared between partitions. The actions of all partitions are replayed together, in the order the
+ * serial engine would have run them.
+ */
+class DeferredActions {
+    private final List<DeferredAction> actions = new ArrayList<>();
+
+    /**
+     * Postpones an action.
+     *
+     * @param order  The subscription order of the tickable deferring the action.
+     * @param action The action to be run.
+     */
+    void add(long order, Runnable action) {
+        actions.add(new DeferredAction(order, actions.size(), action));
+    }
+
+    /**
+     * Runs the actions deferred by the given partitions in serial tick order and forgets them.
+     *
+     * @param partitions The deferred actions of the partitions.
+     */
+    static void replay(List<DeferredActions> partitions) {
+        List<DeferredAction> deferred = new ArrayList<>();
+        for (DeferredActions partition : partitions) {
+            deferred.addAll(partition.actions);
+            partition.actions.clear();
+        }
+        deferred.sort(Comparator.comparingLong(DeferredAction::getOrder).thenComparingInt(DeferredAction::getSequence));
+        for (DeferredAction action : deferred) {
+            action.getAction().run();
+        }
+    }
+
+    /**
+     * Action postponed by a partition, ordered by the subscription that produced it.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class DeferredAction {
+        private final long order;
+        private final int sequence;
+        private final Runnable action;
+    }
+}
@@ -0,0 +1,163 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Engine which simulates the device systems of unoccupied rooms at a coarser level of detail.
+ * <p>
+ * Tickables subscribed in the device systems phase with an {@link Occupiable} partition key, such as the
+ * systems of a room, are demoted while nobody occupies the partition: instead of every tick they are visited
+ * once every coarse interval and catch up on the ticks in between at once. The ticks in which the tickable
+ * is steady, as told by {@link Tickable#getTicksUntilWake()}, are fast-forwarded with
+ * {@link Tickable#skipTicks(int)}, the others are ticked one by one. A demoted tickable thus comes out
+ * exactly as in the serial engine, only the effects it has on others, such as the reports of its sensors,
+ * arrive up to a coarse interval late.
+ * <p>
+ * A demoted tickable is promoted back to full detail as soon as it is woken up, for example because
+ * somebody enters the room or sends a user input, and stays promoted until its partition is unoccupied and
+ * the tickable has nothing left to do. All other tickables are ticked every tick in subscription order.
+ */
+class LevelOfDetailTickEngine implements TickEngine {
+    /** Number of ticks between two visits of a demoted tickable. */
+    private final int coarseInterval;
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<Tickable, Entry> entriesByTickable = new IdentityHashMap<>();
+    private long currentTick;
+    private long currentOrder;
+    private boolean ticking;
+
+    /**
+     * Creates a level of detail engine starting at the given tick.
+     *
+     * @param currentTick    The tick count of the publisher.
+     * @param coarseInterval The number of ticks between two visits of a demoted tickable.
+     */
+    LevelOfDetailTickEngine(long currentTick, int coarseInterval) {
+        this.currentTick = currentTick;
+        this.coarseInterval = coarseInterval;
+    }
+
+    @Override
+    public void subscribe(TickSubscription subscription) {
+        Occupiable region = null;
+        if (subscription.getPhase() == TickPhase.DEVICE_SYSTEMS && subscription.getPartitionKey() instanceof Occupiable) {
+            region = (Occupiable) subscription.getPartitionKey();
+        }
+        Entry entry = new Entry(subscription.getTickable(), subscription.getOrder(), region, currentTick);
+        entries.add(entry);
+        entriesByTickable.put(entry.tickable, entry);
+    }
+
+    @Override
+    public void unsubscribe(Tickable tickable) {
+        Entry entry = entriesByTickable.remove(tickable);
+        if (entry != null) {
+            entries.remove(entry);
+        }
+    }
+
+    @Override
+    public void tick() {
+        currentTick++;
+        ticking = true;
+        try {
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                currentOrder = entry.order;
+                if (isDetailed(entry)) {
+                    tick(entry);
+                    if (entry.promoted && !entry.region.isOccupied() && entry.tickable.getTicksUntilWake() > 1) {
+                        entry.promoted = false;
+                    }
+                } else if (currentTick - entry.lastTick >= coarseInterval) {
+                    tick(entry);
+                }
+            }
+        } finally {
+            ticking = false;
+        }
+    }
+
+    @Override
+    public void wake(Tickable tickable) {
+        Entry entry = entriesByTickable.get(tickable);
+        if (entry == null || entry.region == null || (ticking && entry.order == currentOrder)) {
+            // Tickables which are never demoted do not need waking, the one being ticked is promoted already.
+            return;
+        }
+        if (ticking && entry.order > currentOrder) {
+            // Its turn has not come yet, it is ticked within the current tick.
+            catchUp(entry, currentTick - 1);
+        } else {
+            catchUp(entry, currentTick);
+        }
+        entry.promoted = true;
+    }
+
+    @Override
+    public void synchronize() {
+        for (Entry entry : entries) {
+            catchUp(entry, currentTick);
+        }
+    }
+
+    /**
+     * Checks whether the tickable is simulated at full detail.
+     *
+     * @param entry The entry of the tickable.
+     * @return True if the tickable is ticked every tick.
+     */
+    private boolean isDetailed(Entry entry) {
+        return entry.region == null || entry.promoted || entry.region.isOccupied();
+    }
+
+    private void tick(Entry entry) {
+        catchUp(entry, currentTick - 1);
+        entry.tickable.onTick();
+        entry.lastTick = currentTick;
+    }
+
+    /**
+     * Lets the tickable catch up on all ticks it has not been ticked in. The ticks in which it is steady are
+     * fast-forwarded, the others are ticked.
+     *
+     * @param entry    The entry of the tickable.
+     * @param upToTick The last tick the tickable has to catch up on.
+     */
+    private void catchUp(Entry entry, long upToTick) {
+        long missed = upToTick - entry.lastTick;
+        while (missed > 0) {
+            int steadyTicks = (int) Math.min(missed, entry.tickable.getTicksUntilWake() - 1L);
+            if (steadyTicks > 0) {
+                entry.tickable.skipTicks(steadyTicks);
+                missed -= steadyTicks;
+            } else {
+                entry.tickable.onTick();
+                missed--;
+            }
+        }
+        entry.lastTick = Math.max(entry.lastTick, upToTick);
+    }
+
+    /**
+     * Level of detail of one subscribed tickable.
+     */
+    private static class Entry {
+        private final Tickable tickable;
+        private final long order;
+        /** The partition the tickable is demoted with, null if it is never demoted. */
+        private final Occupiable region;
+        private long lastTick;
+        private boolean promoted;
+
+        Entry(Tickable tickable, long order, Occupiable region, long lastTick) {
+            this.tickable = tickable;
+            this.order = order;
+            this.region = region;
+            this.lastTick = lastTick;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mailbox of an actor used by {@link TickMode#ACTOR}.
+ * <p>
+ * Messages are processed one at a time, in the order they were posted, by whichever worker picks the
+ * mailbox up, so the state owned by the actor is never touched concurrently. The mailbox keeps track of its
+ * depth and of the time messages spend waiting, for monitoring.
+ */
+public class Mailbox {
+    private final Queue<Message> messages = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicInteger maxDepth = new AtomicInteger();
+    private final LongAdder processedCount = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final AtomicLong maxLatency = new AtomicLong();
+    private final Executor workers;
+    private final ActorTickEngine.MessageTracker tracker;
+    /** The thread processing the messages right now, null if the mailbox is idle. */
+    private volatile Thread owner;
+
+    /**
+     * Creates an empty mailbox.
+     *
+     * @param workers The workers processing the messages.
+     * @param tracker Tracker of messages not processed yet, shared by all mailboxes of the engine.
+     */
+    Mailbox(Executor workers, ActorTickEngine.MessageTracker tracker) {
+        this.workers = workers;
+        this.tracker = tracker;
+    }
+
+    /**
+     * Posts a message to the mailbox. The message is processed asynchronously, after all messages
+     * posted before it. Messages posted while the actors are not running wait for the next tick.
+     *
+     * @param message The message to be processed.
+     */
+    public void post(Runnable message) {
+        tracker.increment();
+        messages.add(new Message(message, System.nanoTime()));
+        maxDepth.accumulateAndGet(depth.incrementAndGet(), Math::max);
+        if (tracker.isRunning()) {
+            schedule();
+        }
+    }
+
+    /**
+     * Checks whether the calling thread is the one processing the messages of this mailbox, i.e. whether
+     * it is running on behalf of the actor.
+     *
+     * @return True if called from within a message of this mailbox.
+     */
+    public boolean isProcessedByCurrentThread() {
+        return owner == Thread.currentThread();
+    }
+
+    /**
+     * Retrieves the number of messages waiting in the mailbox.
+     *
+     * @return The current depth of the mailbox.
+     */
+    public int getDepth() {
+        return depth.get();
+    }
+
+    /**
+     * Retrieves the highest number of messages that were waiting in the mailbox at once.
+     *
+     * @return The maximum depth of the mailbox.
+     */
+    public int getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    /**
+     * Retrieves the number of processed messages.
+     *
+     * @return The number of processed messages.
+     */
+    public long getProcessedCount() {
+        return processedCount.sum();
+    }
+
+    /**
+     * Retrieves the average time between posting a message and the start of its processing.
+     *
+     * @return The average latency in nanoseconds, 0 if no message has been processed yet.
+     */
+    public double getAverageLatencyNanos() {
+        long processed = processedCount.sum();
+        return processed == 0 ? 0 : (double) totalLatency.sum() / processed;
+    }
+
+    /**
+     * Retrieves the longest time between posting a message and the start of its processing.
+     *
+     * @return The maximum latency in nanoseconds.
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatency.get();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            workers.execute(this::drain);
+        }
+    }
+
+    /**
+     * Processes all waiting messages, then reschedules the mailbox if a message arrived in the meantime.
+     */
+    private void drain() {
+        owner = Thread.currentThread();
+        try {
+            Message message;
+            while ((message = messages.poll()) != null) {
+                depth.decrementAndGet();
+                long latency = System.nanoTime() - message.postedAt;
+                totalLatency.add(latency);
+                maxLatency.accumulateAndGet(latency, Math::max);
+                try {
+                    message.body.run();
+                } catch (RuntimeException e) {
+                    tracker.fail(e);
+                } finally {
+                    processedCount.increment();
+                    tracker.decrement();
+                }
+            }
+        } finally {
+            owner = null;
+            scheduled.set(false);
+        }
+        if (tracker.isRunning() && !messages.isEmpty()) {
+            schedule();
+        }
+    }
+
+    /**
+     * Message waiting in the mailbox together with the time it was posted.
+     */
+    private static class Message {
+        private final Runnable body;
+        private final long postedAt;
+
+        Message(Runnable body, long postedAt) {
+            this.body = body;
+            this.postedAt = postedAt;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+/**
+ * A part of the house which may or may not be occupied, such as a room.
+ * Used as a partition key, it lets {@link TickMode#LEVEL_OF_DETAIL} simulate the tickables of unoccupied
+ * partitions coarsely.
+ */
+public interface Occupiable {
+
+    /**
+     * Checks whether anybody is present who could observe what happens here.
+     *
+     * @return True if occupied.
+     */
+    boolean isOccupied();
+}
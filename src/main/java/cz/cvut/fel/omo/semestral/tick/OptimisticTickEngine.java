@@ -0,0 +1,236 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceEffects;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Optimistic engine in the spirit of Time Warp, letting weakly coupled partitions run ahead of each other.
+ * <p>
+ * Beings interact with every partition, so the engine first looks at their action plans: as long as all
+ * beings only idle, the partitions of the device systems phase cannot be reached from outside. Up to that
+ * horizon every partition saves its state ({@link Tickable#saveState()}) and advances its own clock on its
+ * own thread, without waiting for the others. A partition reaching out of itself through
+ * {@link #defer(Runnable)}, such as a device reporting a malfunction to the house, is a message that the
+ * other partitions may already have passed. The earliest such tick ends the speculation: the partitions
+ * which went past it are rolled back to their saved state and coast forward to the tick before it, and the
+ * tick itself is delivered by a {@link ParallelTickEngine} in lock-step, which runs the deferred actions in
+ * serial order. The results are therefore identical to the serial engine.
+ * <p>
+ * Effects of the speculative ticks which cannot be rolled back are held back by {@link Speculation} until the
+ * ticks are committed, the devices hand theirs over through the {@link DeviceEffects} sink installed for that. While a partition holds a tickable which cannot save its state, nothing runs ahead and
+ * every tick is delivered in lock-step.
+ */
+@Slf4j
+class OptimisticTickEngine implements TickEngine {
+    /** Maximum number of ticks run speculatively at once. */
+    private static final int WINDOW_SIZE = 64;
+    private static final Object DEFAULT_PARTITION = new Object();
+
+    private final ForkJoinPool pool;
+    private final ParallelTickEngine lockstep;
+    private final List<Tickable> beings = new ArrayList<>();
+    private final Map<Object, SpeculativePartition> partitions = new LinkedHashMap<>();
+    private final ThreadLocal<SpeculativePartition> currentPartition = new ThreadLocal<>();
+    /** Tickables of the device systems phase which cannot be rolled back. */
+    private final List<Tickable> unsavedTickables = new ArrayList<>();
+
+    /** The number of speculatively executed ticks that were rolled back. */
+    private long rolledBackTicks;
+
+    /**
+     * Creates a new optimistic engine.
+     *
+     * @param pool The pool the partitions run on.
+     */
+    OptimisticTickEngine(ForkJoinPool pool) {
+        this.pool = pool;
+        this.lockstep = new ParallelTickEngine(pool);
+    }
+
+    @Override
+    public void subscribe(TickSubscription subscription) {
+        lockstep.subscribe(subscription);
+        if (subscription.getPhase() == TickPhase.BEINGS) {
+            beings.add(subscription.getTickable());
+        } else {
+            Object key = subscription.getPartitionKey() != null ? subscription.getPartitionKey() : DEFAULT_PARTITION;
+            partitions.computeIfAbsent(key, k -> new SpeculativePartition()).tickables.add(subscription.getTickable());
+            if (!canSaveState(subscription.getTickable())) {
+                log.warn("{} cannot save its state, ticks are delivered in lock-step.", subscription.getTickable().getClass().getSimpleName());
+                unsavedTickables.add(subscription.getTickable());
+            }
+        }
+    }
+
+    @Override
+    public void unsubscribe(Tickable tickable) {
+        lockstep.unsubscribe(tickable);
+        beings.remove(tickable);
+        unsavedTickables.remove(tickable);
+        partitions.values().forEach(partition -> partition.tickables.remove(tickable));
+        partitions.values().removeIf(partition -> partition.tickables.isEmpty());
+    }
+
+    @Override
+    public void tick() {
+        lockstep.tick();
+    }
+
+    @Override
+    public void defer(Runnable action) {
+        SpeculativePartition partition = currentPartition.get();
+        if (partition == null) {
+            lockstep.defer(action);
+        } else if (partition.messageTick == 0) {
+            // The action is dropped, the tick is rolled back and replayed in lock-step.
+            partition.messageTick = partition.currentTick;
+        }
+    }
+
+    /**
+     * Runs the partitions speculatively up to the next tick in which a being acts or a partition reaches
+     * out of itself.
+     *
+     * @param maxTicks The maximum number of ticks to advance through.
+     * @return The number of committed ticks.
+     */
+    @Override
+    public int fastForward(int maxTicks) {
+        if (!unsavedTickables.isEmpty()) {
+            return 0;
+        }
+        int window = Math.min(maxTicks, WINDOW_SIZE);
+        for (Tickable being : beings) {
+            window = Math.min(window, being.getTicksUntilWake() - 1);
+        }
+        if (window <= 0) {
+            return 0;
+        }
+
+        int horizon = window;
+        runPartitions(partition -> partition.speculate(horizon));
+        int committed = window;
+        for (SpeculativePartition partition : partitions.values()) {
+            if (partition.messageTick != 0) {
+                committed = Math.min(committed, partition.messageTick - 1);
+            }
+        }
+
+        int commit = committed;
+        runPartitions(partition -> partition.commit(commit));
+        if (committed > 0) {
+            beings.forEach(being -> being.skipTicks(commit));
+        }
+        return committed;
+    }
+
+    /**
+     * Retrieves the number of speculatively executed ticks that had to be rolled back so far.
+     *
+     * @return The number of rolled back ticks, summed over all partitions.
+     */
+    long getRolledBackTicks() {
+        return rolledBackTicks;
+    }
+
+    /**
+     * Checks whether the tickable can save its state, so that it can be ticked speculatively.
+     *
+     * @param tickable The tickable to be checked.
+     * @return True if {@link Tickable#saveState()} is supported.
+     */
+    private static boolean canSaveState(Tickable tickable) {
+        try {
+            tickable.saveState();
+            return true;
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Runs the given action for every partition concurrently and waits for all of them to finish.
+     *
+     * @param action The action to be run.
+     */
+    private void runPartitions(Consumer<SpeculativePartition> action) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (SpeculativePartition partition : partitions.values()) {
+            tasks.add(ForkJoinTask.adapt(() -> {
+                currentPartition.set(partition);
+                try {
+                    action.accept(partition);
+                } finally {
+                    currentPartition.remove();
+                }
+            }));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+    /**
+     * Tickables of one partition together with its local clock and saved state.
+     */
+    private class SpeculativePartition {
+        private final List<Tickable> tickables = new ArrayList<>();
+        private final List<StateSnapshot> snapshots = new ArrayList<>();
+        /** Effects of the speculative ticks held back until they are committed. */
+        private List<Runnable> heldBackEffects = List.of();
+        /** The local tick relative to the start of the speculation. */
+        private int currentTick;
+        /** The first local tick in which the partition reached out of itself, 0 if it has not. */
+        private int messageTick;
+
+        /**
+         * Saves the state and runs ahead until the horizon or until the partition reaches out of itself.
+         *
+         * @param horizon The number of ticks to run.
+         */
+        void speculate(int horizon) {
+            snapshots.clear();
+            tickables.forEach(tickable -> snapshots.add(tickable.saveState()));
+            messageTick = 0;
+            Speculation.begin();
+            DeviceEffects.install(Speculation::runWhenCommitted);
+            try {
+                for (currentTick = 1; currentTick <= horizon && messageTick == 0; currentTick++) {
+                    tickables.forEach(Tickable::onTick);
+                }
+            } finally {
+                DeviceEffects.uninstall();
+                heldBackEffects = Speculation.end();
+            }
+            currentTick--;
+        }
+
+        /**
+         * Rolls the partition back if it has run past the committed ticks and coasts forward to them.
+         *
+         * @param committed The number of ticks that are kept.
+         */
+        void commit(int committed) {
+            List<Runnable> effects = heldBackEffects;
+            heldBackEffects = List.of();
+            if (currentTick == committed && messageTick == 0) {
+                effects.forEach(Runnable::run);
+                return;
+            }
+            // The held back effects are dropped, the committed ticks produce them again as they are replayed
+            synchronized (OptimisticTickEngine.this) {
+                rolledBackTicks += currentTick;
+            }
+            snapshots.forEach(StateSnapshot::restore);
+            for (currentTick = 1; currentTick <= committed; currentTick++) {
+                tickables.forEach(Tickable::onTick);
+            }
+        }
+    }
+}
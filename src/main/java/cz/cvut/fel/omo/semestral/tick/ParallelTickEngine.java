@@ -0,0 +1,125 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Ticks each {@link TickPhase} as a set of partitions running concurrently on a {@link ForkJoinPool}.
+ * Tickables sharing a partition key are ticked sequentially, in subscription order, by a single task.
+ * A phase is not started before all partitions of the previous phase have finished.
+ * <p>
+ * Actions that touch state shared between partitions are passed to {@link #defer(Runnable)}. They are
+ * collected per partition and replayed after the phase barrier in the order the serial engine would have
+ * run them, so a parallel run ends in exactly the same state as a serial one.
+ */
+class ParallelTickEngine implements TickEngine {
+    private static final Object DEFAULT_PARTITION = new Object();
+
+    private final ForkJoinPool pool;
+    private final Map<TickPhase, Map<Object, TickPartition>> phases = new EnumMap<>(TickPhase.class);
+    private final ThreadLocal<TickPartition> currentPartition = new ThreadLocal<>();
+
+    /**
+     * Creates a new parallel engine.
+     *
+     * @param pool The pool the partitions are ticked on.
+     */
+    ParallelTickEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void subscribe(TickSubscription subscription) {
+        Object key = subscription.getPartitionKey() != null ? subscription.getPartitionKey() : DEFAULT_PARTITION;
+        phases.computeIfAbsent(subscription.getPhase(), phase -> new LinkedHashMap<>())
+                .computeIfAbsent(key, k -> new TickPartition())
+                .subscriptions.add(subscription);
+    }
+
+    @Override
+    public void unsubscribe(Tickable tickable) {
+        for (Map<Object, TickPartition> partitions : phases.values()) {
+            partitions.values().forEach(partition -> partition.subscriptions.removeIf(s -> s.getTickable() == tickable));
+            partitions.values().removeIf(partition -> partition.subscriptions.isEmpty());
+        }
+    }
+
+    @Override
+    public void tick() {
+        for (TickPhase phase : TickPhase.values()) {
+            Map<Object, TickPartition> partitions = phases.get(phase);
+            if (partitions == null || partitions.isEmpty()) {
+                continue;
+            }
+            if (partitions.size() == 1) {
+                // Nothing to run concurrently, tick in place so that shared state is touched immediately.
+                partitions.values().iterator().next().tickSubscriptions();
+                continue;
+            }
+            List<TickPartition> tasks = new ArrayList<>(partitions.values());
+            tasks.forEach(ForkJoinTask::reinitialize);
+            pool.invoke(new PhaseTask(tasks));
+            List<DeferredActions> deferred = new ArrayList<>();
+            tasks.forEach(partition -> deferred.add(partition.deferred));
+            DeferredActions.replay(deferred);
+        }
+    }
+
+    @Override
+    public void defer(Runnable action) {
+        TickPartition partition = currentPartition.get();
+        if (partition == null) {
+            action.run();
+        } else {
+            partition.deferred.add(partition.currentOrder, action);
+        }
+    }
+
+    /**
+     * Forks all partitions of a phase and waits for them to finish.
+     */
+    private static class PhaseTask extends RecursiveAction {
+        private final List<TickPartition> partitions;
+
+        PhaseTask(List<TickPartition> partitions) {
+            this.partitions = partitions;
+        }
+
+        @Override
+        protected void compute() {
+            invokeAll(partitions);
+        }
+    }
+
+    /**
+     * Group of subscriptions that are ticked sequentially by one task.
+     */
+    private class TickPartition extends RecursiveAction {
+        private final List<TickSubscription> subscriptions = new ArrayList<>();
+        private final DeferredActions deferred = new DeferredActions();
+        private long currentOrder;
+
+        @Override
+        protected void compute() {
+            currentPartition.set(this);
+            try {
+                tickSubscriptions();
+            } finally {
+                currentPartition.remove();
+            }
+        }
+
+        void tickSubscriptions() {
+            for (TickSubscription subscription : subscriptions) {
+                currentOrder = subscription.getOrder();
+                subscription.getTickable().onTick();
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.Appliance;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.ApplianceGroup;
+import cz.cvut.fel.omo.semestral.entity.devices.controllers.Controller;
+import cz.cvut.fel.omo.semestral.entity.devices.sensors.Sensor;
+import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystem;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Ticks device systems as three global passes instead of system by system.
+ * The wear and power consumption of the tick are accrued for every system before the passes, and the worn out
+ * devices are checked for after them, each in one loop over the columns of the store of the system.
+ * <ol>
+ *     <li>sense - every {@link Sensor} of every system samples its surroundings,</li>
+ *     <li>decide - sensor notifications are delivered to the controllers and every {@link Controller} is ticked,</li>
+ *     <li>act - every {@link Appliance} executes the commands queued by the controllers, then every
+ *     {@link ApplianceGroup} broadcasts the commands queued for the whole group to its members.</li>
+ * </ol>
+ * Each pass walks a single array of one device kind, grouped by concrete class so that consecutive calls
+ * hit the same implementation. Sensors defer their notifications while they are part of the pipeline,
+ * so all sensors sample the same state of the house and repeated notifications within a tick are coalesced.
+ * <p>
+ * Tickables that are not device systems, such as beings, are ticked serially before the passes.
+ */
+class PipelineTickEngine implements TickEngine {
+    private static final Comparator<Object> BY_CLASS = Comparator.comparing(device -> device.getClass().getName());
+
+    private final List<TickSubscription> subscriptions = new ArrayList<>();
+    private final List<Tickable> tickables = new ArrayList<>();
+    private DeviceSystem[] deviceSystems = new DeviceSystem[0];
+    private Sensor[] sensors = new Sensor[0];
+    private Controller[] controllers = new Controller[0];
+    private Appliance[] appliances = new Appliance[0];
+    private ApplianceGroup<?>[] applianceGroups = new ApplianceGroup<?>[0];
+    private Sensor[] notifyingSensors = new Sensor[0];
+    private boolean dirty;
+
+    @Override
+    public void subscribe(TickSubscription subscription) {
+        subscriptions.add(subscription);
+        dirty = true;
+    }
+
+    @Override
+    public void unsubscribe(Tickable tickable) {
+        if (tickable instanceof DeviceSystem deviceSystem) {
+            deviceSystem.getSensors().forEach(sensor -> sensor.setNotificationsDeferred(false));
+        }
+        subscriptions.removeIf(subscription -> subscription.getTickable() == tickable);
+        dirty = true;
+    }
+
+    @Override
+    public void tick() {
+        if (dirty) {
+            rebuild();
+        }
+        for (int i = 0; i < tickables.size(); i++) {
+            tickables.get(i).onTick();
+        }
+        for (DeviceSystem deviceSystem : deviceSystems) {
+            deviceSystem.accrueTick();
+        }
+
+        int notifying = 0;
+        for (Sensor sensor : sensors) {
+            sensor.act();
+            if (sensor.isNotificationPending()) {
+                notifyingSensors[notifying++] = sensor;
+            }
+        }
+
+        for (int i = 0; i < notifying; i++) {
+            notifyingSensors[i].flushNotifications();
+            notifyingSensors[i] = null;
+        }
+        for (Controller controller : controllers) {
+            controller.act();
+        }
+
+        for (Appliance appliance : appliances) {
+            appliance.act();
+        }
+        for (ApplianceGroup<?> applianceGroup : applianceGroups) {
+            applianceGroup.performAllActions();
+        }
+        for (DeviceSystem deviceSystem : deviceSystems) {
+            deviceSystem.checkForWornOutDevices();
+        }
+    }
+
+    /**
+     * Splits the subscribed device systems into the per-kind arrays used by the passes.
+     */
+    private void rebuild() {
+        List<Sensor> sensorList = new ArrayList<>();
+        List<Controller> controllerList = new ArrayList<>();
+        List<Appliance> applianceList = new ArrayList<>();
+        List<ApplianceGroup<?>> applianceGroupList = new ArrayList<>();
+        List<DeviceSystem> deviceSystemList = new ArrayList<>();
+        tickables.clear();
+
+        List<TickSubscription> ordered = new ArrayList<>(subscriptions);
+        ordered.sort(Comparator.comparing(TickSubscription::getPhase).thenComparingLong(TickSubscription::getOrder));
+        for (TickSubscription subscription : ordered) {
+            if (subscription.getTickable() instanceof DeviceSystem deviceSystem) {
+                deviceSystemList.add(deviceSystem);
+                sensorList.addAll(deviceSystem.getSensors());
+                controllerList.addAll(deviceSystem.getControllers());
+                applianceList.addAll(deviceSystem.getAppliances());
+                applianceGroupList.addAll(deviceSystem.getApplianceGroups());
+            } else {
+                tickables.add(subscription.getTickable());
+            }
+        }
+
+        sensorList.sort(BY_CLASS);
+        controllerList.sort(BY_CLASS);
+        applianceList.sort(BY_CLASS);
+        sensorList.forEach(sensor -> sensor.setNotificationsDeferred(true));
+
+        sensors = sensorList.toArray(new Sensor[0]);
+        controllers = controllerList.toArray(new Controller[0]);
+        appliances = applianceList.toArray(new Appliance[0]);
+        applianceGroups = applianceGroupList.toArray(new ApplianceGroup<?>[0]);
+        deviceSystems = deviceSystemList.toArray(new DeviceSystem[0]);
+        notifyingSensors = new Sensor[sensors.length];
+        dirty = false;
+    }
+}
@@ -0,0 +1,28 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ticks all subscribed tickables one after another on the calling thread, in subscription order.
+ */
+class SerialTickEngine implements TickEngine {
+    private final List<Tickable> tickables = new ArrayList<>();
+
+    @Override
+    public void subscribe(TickSubscription subscription) {
+        tickables.add(subscription.getTickable());
+    }
+
+    @Override
+    public void unsubscribe(Tickable tickable) {
+        tickables.remove(tickable);
+    }
+
+    @Override
+    public void tick() {
+        for (int i = 0; i < tickables.size(); i++) {
+            tickables.get(i).onTick();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+import java.time.Duration;
+
+/**
+ * Holds the duration of one tick of a simulation.
+ * <p>
+ * The wear and power models of the devices are calibrated for a reference tick of ten minutes. Devices keep
+ * their rates and lifetimes in reference ticks and scale them through {@link #scale(double)} and
+ * {@link #scaleLifetime(int)} of the clock of their house whenever they use them. A clock is given to the house
+ * once at its construction and never changes, so simulations with different tick durations may run side by side.
+ */
+public final class SimulationClock {
+    /** The tick duration the device models are calibrated for */
+    public static final Duration REFERENCE_TICK_DURATION = Duration.ofMinutes(10);
+    /** The clock of the reference tick duration, used unless a house is given another one */
+    public static final SimulationClock REFERENCE = new SimulationClock(REFERENCE_TICK_DURATION);
+
+    private final Duration tickDuration;
+    /** The ratio of the tick duration to the reference tick duration */
+    private final double ratio;
+
+    /**
+     * Creates a clock.
+     *
+     * @param tickDuration The duration of one tick, must be positive.
+     */
+    public SimulationClock(Duration tickDuration) {
+        if (tickDuration == null || tickDuration.isZero() || tickDuration.isNegative()) {
+            throw new IllegalArgumentException("Tick duration must be positive: " + tickDuration);
+        }
+        this.tickDuration = tickDuration;
+        this.ratio = (double) tickDuration.toNanos() / REFERENCE_TICK_DURATION.toNanos();
+    }
+
+    /**
+     * Retrieves the duration of one tick.
+     *
+     * @return The tick duration.
+     */
+    public Duration getTickDuration() {
+        return tickDuration;
+    }
+
+    /**
+     * Scales a quantity accrued during one reference tick, such as power consumption or a temperature
+     * change, to the quantity accrued during one tick.
+     *
+     * @param perReferenceTick The quantity per reference tick.
+     * @return The quantity per tick.
+     */
+    public double scale(double perReferenceTick) {
+        if (ratio == 1) {
+            return perReferenceTick;
+        }
+        return perReferenceTick * ratio;
+    }
+
+    /**
+     * Scales a lifetime given in reference ticks, such as the wear capacity of a device, to the number of
+     * ticks covering the same time.
+     *
+     * @param referenceTicks The lifetime in reference ticks.
+     * @return The lifetime in ticks, at least 1.
+     */
+    public int scaleLifetime(int referenceTicks) {
+        if (ratio == 1) {
+            return referenceTicks;
+        }
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.round(referenceTicks / ratio)));
+    }
+
+    /**
+     * Retrieves the number of whole ticks a span of time takes.
+     *
+     * @param duration The span of time.
+     * @return The number of ticks, at least 1.
+     */
+    public long ticksIn(Duration duration) {
+        return Math.max(1, duration.toNanos() / tickDuration.toNanos());
+    }
+
+    /**
+     * Converts a number of ticks to the simulated time they cover.
+     *
+     * @param ticks The number of ticks.
+     * @return The simulated time.
+     */
+    public Duration toDuration(long ticks) {
+        return tickDuration.multipliedBy(ticks);
+    }
+}
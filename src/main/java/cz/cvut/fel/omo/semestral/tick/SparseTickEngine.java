@@ -0,0 +1,175 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Ticks only the tickables that have something to do.
+ * <p>
+ * After each {@link Tickable#onTick()} the tickable is asked for {@link Tickable#getTicksUntilWake()} and is
+ * put into a {@link TimerWheel} at the tick it wants to be ticked again, or left out entirely if it sleeps until
+ * woken. When its tick comes, it first catches up on the ticks it slept through via {@link Tickable#skipTicks(int)}.
+ * Tickables due at the same tick are ticked in subscription order, so the results are the same as with the
+ * serial engine while the cost of a tick depends only on the number of active tickables.
+ * <p>
+ * Ticks in which no tickable is due can be skipped entirely by {@link #fastForward(int)}, so a simulation
+ * whose tickables fast-forward through steady stretches runs in time proportional to the number of events.
+ */
+class SparseTickEngine implements TickEngine {
+    private static final long SLEEPING = -1;
+
+    private final Map<Tickable, Entry> entries = new IdentityHashMap<>();
+    private final PriorityQueue<Entry> due = new PriorityQueue<>(Comparator.comparingLong(entry -> entry.order));
+    private final TimerWheel<Entry> wheel;
+    private final List<Entry> expired = new ArrayList<>();
+    private long currentTick;
+    private long currentOrder;
+    private boolean ticking;
+
+    /**
+     * Creates a sparse engine starting at the given tick.
+     *
+     * @param currentTick The tick count of the publisher.
+     */
+    SparseTickEngine(long currentTick) {
+        this.currentTick = currentTick;
+        this.wheel = new TimerWheel<>(currentTick);
+    }
+
+    @Override
+    public void subscribe(TickSubscription subscription) {
+        Entry entry = new Entry(subscription.getTickable(), subscription.getOrder(), currentTick);
+        entries.put(entry.tickable, entry);
+        schedule(entry, currentTick + 1);
+    }
+
+    @Override
+    public void unsubscribe(Tickable tickable) {
+        Entry entry = entries.remove(tickable);
+        if (entry != null) {
+            entry.scheduledTick = SLEEPING;
+        }
+    }
+
+    @Override
+    public void tick() {
+        currentTick++;
+        wheel.advance(expired);
+        for (int i = 0; i < expired.size(); i++) {
+            Entry entry = expired.get(i);
+            if (entry.scheduledTick == currentTick) {
+                due.add(entry);
+            }
+        }
+
+        ticking = true;
+        try {
+            while (!due.isEmpty()) {
+                Entry entry = due.poll();
+                if (entry.scheduledTick != currentTick || entry.lastTick == currentTick) {
+                    continue;
+                }
+                currentOrder = entry.order;
+                catchUp(entry, currentTick - 1);
+                entry.tickable.onTick();
+                entry.lastTick = currentTick;
+
+                int ticksUntilWake = entry.tickable.getTicksUntilWake();
+                if (ticksUntilWake == Tickable.SLEEP_UNTIL_WOKEN) {
+                    entry.scheduledTick = SLEEPING;
+                } else {
+                    schedule(entry, currentTick + Math.max(1, ticksUntilWake));
+                }
+            }
+        } finally {
+            ticking = false;
+        }
+    }
+
+    @Override
+    public void wake(Tickable tickable) {
+        Entry entry = entries.get(tickable);
+        if (entry == null || (ticking && entry.order == currentOrder)) {
+            // The tickable being ticked right now is rescheduled once its tick is over.
+            return;
+        }
+        if (ticking && entry.lastTick < currentTick && entry.order > currentOrder) {
+            // Its turn has not come yet, tick it still within the current tick as the serial engine would.
+            catchUp(entry, currentTick - 1);
+            entry.scheduledTick = currentTick;
+            due.add(entry);
+        } else {
+            catchUp(entry, currentTick);
+            if (entry.scheduledTick == SLEEPING || entry.scheduledTick > currentTick + 1) {
+                schedule(entry, currentTick + 1);
+            }
+        }
+    }
+
+    /**
+     * Skips ticks before the next scheduled tickable without touching any tickable.
+     * The skipped ticks are caught up on lazily, when the tickables are ticked, woken up or synchronized.
+     *
+     * @param maxTicks The maximum number of ticks to be skipped.
+     * @return The number of skipped ticks.
+     */
+    @Override
+    public int fastForward(int maxTicks) {
+        long nextDueTick = wheel.nextDueTick();
+        long idleTicks = nextDueTick == Long.MAX_VALUE ? maxTicks : Math.min(maxTicks, nextDueTick - currentTick - 1);
+        if (idleTicks <= 0) {
+            return 0;
+        }
+        currentTick += idleTicks;
+        wheel.skipTo(currentTick);
+        return (int) idleTicks;
+    }
+
+    @Override
+    public void synchronize() {
+        for (Entry entry : entries.values()) {
+            catchUp(entry, currentTick);
+        }
+    }
+
+    /**
+     * Lets the tickable catch up on all ticks it has slept through.
+     *
+     * @param entry    The entry of the tickable.
+     * @param upToTick The last tick the tickable has to catch up on.
+     */
+    private void catchUp(Entry entry, long upToTick) {
+        long skipped = upToTick - entry.lastTick;
+        while (skipped > 0) {
+            int ticks = (int) Math.min(skipped, Integer.MAX_VALUE);
+            entry.tickable.skipTicks(ticks);
+            skipped -= ticks;
+        }
+        entry.lastTick = Math.max(entry.lastTick, upToTick);
+    }
+
+    private void schedule(Entry entry, long tick) {
+        entry.scheduledTick = tick;
+        wheel.schedule(entry, tick);
+    }
+
+    /**
+     * Scheduling state of one subscribed tickable.
+     */
+    private static class Entry {
+        private final Tickable tickable;
+        private final long order;
+        private long lastTick;
+        private long scheduledTick = SLEEPING;
+
+        Entry(Tickable tickable, long order, long lastTick) {
+            this.tickable = tickable;
+            this.order = order;
+            this.lastTick = lastTick;
+        }
+    }
+}
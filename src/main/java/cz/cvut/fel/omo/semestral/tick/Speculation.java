@@ -0,0 +1,48 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds back the effects of a tick which cannot be rolled back, such as log messages, while the tick runs
+ * speculatively in {@link TickMode#OPTIMISTIC}. The held back effects are run once the ticks are committed
+ * and dropped if they are rolled back, the replayed ticks then produce them again. Outside of speculation
+ * the effects run right away.
+ */
+public final class Speculation {
+    private static final ThreadLocal<List<Runnable>> HELD_BACK = new ThreadLocal<>();
+
+    private Speculation() {}
+
+    /**
+     * Runs an effect which cannot be rolled back, or holds it back until the current speculative tick is committed.
+     *
+     * @param effect The effect to be run.
+     */
+    public static void runWhenCommitted(Runnable effect) {
+        List<Runnable> heldBack = HELD_BACK.get();
+        if (heldBack == null) {
+            effect.run();
+        } else {
+            heldBack.add(effect);
+        }
+    }
+
+    /**
+     * Starts holding back the effects of the current thread.
+     */
+    static void begin() {
+        HELD_BACK.set(new ArrayList<>());
+    }
+
+    /**
+     * Stops holding back the effects of the current thread.
+     *
+     * @return The effects held back since {@link #begin()}, in the order they were to be run.
+     */
+    static List<Runnable> end() {
+        List<Runnable> heldBack = HELD_BACK.get();
+        HELD_BACK.remove();
+        return heldBack != null ? heldBack : List.of();
+    }
+}
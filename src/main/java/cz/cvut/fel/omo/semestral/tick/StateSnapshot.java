@@ -0,0 +1,13 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+/**
+ * Memento holding the state of a tickable at some tick.
+ * Used by {@link TickMode#OPTIMISTIC} to roll back speculatively executed ticks.
+ */
+public interface StateSnapshot {
+
+    /**
+     * Restores the tickable to the state it had when the snapshot was taken.
+     */
+    void restore();
+}
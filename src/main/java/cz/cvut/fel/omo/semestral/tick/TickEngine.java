@@ -0,0 +1,63 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+/**
+ * Strategy used by the {@link TickPublisher} to deliver a tick to its subscribers.
+ *
+ * @see TickMode
+ */
+interface TickEngine {
+
+    /**
+     * Registers a new subscription with the engine.
+     *
+     * @param subscription The subscription to be added.
+     */
+    void subscribe(TickSubscription subscription);
+
+    /**
+     * Removes the subscription of the given tickable.
+     *
+     * @param tickable The tickable to be removed.
+     */
+    void unsubscribe(Tickable tickable);
+
+    /**
+     * Ticks all subscribed tickables once.
+     */
+    void tick();
+
+    /**
+     * Runs an action that touches state shared across partitions.
+     * The action runs immediately unless the engine is inside a concurrent phase, in which case it is
+     * postponed to the end of the phase and run in the order the serial engine would have run it.
+     *
+     * @param action The action to be run.
+     */
+    default void defer(Runnable action) {
+        action.run();
+    }
+
+    /**
+     * Wakes up a sleeping tickable. Engines which tick every tickable on every tick ignore it.
+     *
+     * @param tickable The tickable to be woken up.
+     */
+    default void wake(Tickable tickable) {}
+
+    /**
+     * Brings all tickables up to the current tick, for engines which let tickables skip ticks.
+     */
+    default void synchronize() {}
+
+    /**
+     * Advances through ticks the engine can process on its own, because nothing observable outside of the
+     * engine happens in them, such as ticks in which no tickable would be ticked. Engines which have to
+     * deliver every tick separately never advance.
+     *
+     * @param maxTicks The maximum number of ticks to advance through.
+     * @return The number of ticks advanced through.
+     */
+    default int fastForward(int maxTicks) {
+        return 0;
+    }
+}
@@ -0,0 +1,44 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+/**
+ * Enumerates the strategies a {@link TickPublisher} can use to deliver ticks to its subscribers.
+ */
+public enum TickMode {
+    /** All subscribed tickables are ticked one after another on the calling thread, in subscription order. */
+    SERIAL,
+    /**
+     * Each {@link TickPhase} is split into partitions that are ticked concurrently on a fork/join pool.
+     * Phases are separated by a barrier and the results are identical to {@link #SERIAL}.
+     */
+    PARALLEL,
+    /**
+     * Beings are ticked serially, then all sensors of all device systems sample, all controllers decide
+     * and finally all appliances act, each kind in one pass over the whole house.
+     */
+    PIPELINE,
+    /**
+     * Only tickables that have something to do are ticked, the others sleep in a timer wheel until the tick
+     * they asked for or until they are woken up. {@link TickPublisher#advance(int)} jumps straight to the next
+     * tick in which a tickable is due. The results are identical to {@link #SERIAL}.
+     */
+    SPARSE,
+    /**
+     * Partitions of the device systems phase advance speculatively, each on its own thread, until the next
+     * being acts. When a partition reaches out of itself, for example to report a malfunction, the speculative
+     * ticks are rolled back to that point and the interaction is replayed in {@link #PARALLEL} lock-step.
+     * The results are identical to {@link #SERIAL}.
+     */
+    OPTIMISTIC,
+    /**
+     * Every partition of the device systems phase is an actor processing its mailbox on a pool of workers.
+     * User inputs and sensor notifications coming from outside of an actor are messages in its mailbox instead
+     * of synchronous calls.
+     */
+    ACTOR,
+    /**
+     * Tickables are ticked one after another like in {@link #SERIAL}, but the device systems of unoccupied rooms
+     * are only visited once every few ticks, catching up on the ticks in between, until somebody enters the room
+     * or sends them a user input.
+     */
+    LEVEL_OF_DETAIL
+}
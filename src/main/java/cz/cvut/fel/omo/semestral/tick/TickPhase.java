@@ -0,0 +1,12 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+/**
+ * Phases of a single simulation tick.
+ * Tickables of an earlier phase are always finished before any tickable of a later phase is started.
+ */
+public enum TickPhase {
+    /** Humans and pets, they move between rooms and send inputs to device systems. */
+    BEINGS,
+    /** Device systems, they react to the inputs produced in the beings phase. */
+    DEVICE_SYSTEMS
+}
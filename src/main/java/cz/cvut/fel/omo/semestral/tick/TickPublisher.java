@@ -3,29 +3,133 @@ package cz.cvut.fel.omo.semestral.tick;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Manages the ticking mechanism for a simulation, notifying subscribed entities on each tick.
  * This class acts as a central publisher for tick events, allowing various components of the simulation
  * to stay synchronized with the simulation clock.
+ * <p>
+ * How the tick is delivered is decided by the {@link TickMode} the publisher was created with.
+ * A publisher in {@link TickMode#ACTOR} may start workers of its own, which are shut down when it is closed.
  */
 @Slf4j
-public class TickPublisher {
-    private final List<Tickable> tickables = new ArrayList<>();
+public class TickPublisher implements TickWaker, AutoCloseable {
+    /** The number of ticks between two visits of a demoted tickable in {@link TickMode#LEVEL_OF_DETAIL} by default */
+    public static final int DEFAULT_COARSE_INTERVAL = 6;
+
+    private final TickEngine engine;
+    private long subscriptionCount = 0;
+    /** Workers started by the publisher itself, null if it runs on a pool it was given */
+    private final ExecutorService ownedWorkers;
+
+    /** The mode used to deliver ticks. */
+    @Getter
+    private final TickMode mode;
 
     /** The current tick count. */
     @Getter
     private int tickCount = 0;
 
+    /**
+     * Creates a serial tick publisher.
+     */
+    public TickPublisher() {
+        this(TickMode.SERIAL);
+    }
+
+    /**
+     * Creates a tick publisher using the given mode.
+     * Parallel and optimistic modes run on the common fork/join pool. The actor mode starts virtual threads
+     * when the JDK has them, otherwise it runs on the common fork/join pool as well.
+     *
+     * @param mode The mode used to deliver ticks.
+     */
+    public TickPublisher(TickMode mode) {
+        this(mode, DEFAULT_COARSE_INTERVAL);
+    }
+
+    /**
+     * Creates a tick publisher using the given mode, see {@link #TickPublisher(TickMode)}.
+     *
+     * @param mode           The mode used to deliver ticks.
+     * @param coarseInterval The number of ticks between two visits of a demoted tickable in {@link TickMode#LEVEL_OF_DETAIL}.
+     */
+    public TickPublisher(TickMode mode, int coarseInterval) {
+        this(mode, ForkJoinPool.commonPool(), mode == TickMode.ACTOR ? ActorTickEngine.newVirtualThreadWorkers() : null, coarseInterval);
+    }
+
+    /**
+     * Creates a tick publisher using the given mode.
+     *
+     * @param mode The mode used to deliver ticks.
+     * @param pool The pool used by the parallel, optimistic and actor modes.
+     */
+    public TickPublisher(TickMode mode, ForkJoinPool pool) {
+        this(mode, pool, null, DEFAULT_COARSE_INTERVAL);
+    }
+
+    /**
+     * Creates a tick publisher using the given mode.
+     *
+     * @param mode         The mode used to deliver ticks.
+     * @param pool         The pool used by the parallel and optimistic modes, and by the actor mode without workers.
+     * @param ownedWorkers The workers processing the mailboxes in the actor mode, owned by the publisher, or null.
+     * @param coarseInterval The number of ticks between two visits of a demoted tickable in the level of detail mode.
+     */
+    private TickPublisher(TickMode mode, ForkJoinPool pool, ExecutorService ownedWorkers, int coarseInterval) {
+        if (coarseInterval <= 0) {
+            throw new IllegalArgumentException("Coarse interval must be positive: " + coarseInterval);
+        }
+        this.mode = mode;
+        this.ownedWorkers = ownedWorkers;
+        Executor workers = ownedWorkers != null ? ownedWorkers : pool;
+        this.engine = switch (mode) {
+            case SERIAL -> new SerialTickEngine();
+            case PARALLEL -> new ParallelTickEngine(pool);
+            case PIPELINE -> new PipelineTickEngine();
+            case SPARSE -> new SparseTickEngine(tickCount);
+            case OPTIMISTIC -> new OptimisticTickEngine(pool);
+            case ACTOR -> new ActorTickEngine(workers);
+            case LEVEL_OF_DETAIL -> new LevelOfDetailTickEngine(tickCount, coarseInterval);
+        };
+    }
+
     /**
      * Subscribes a {@link Tickable} entity to receive tick updates.
+     * The entity is ticked in the device systems phase, in the same partition as all other entities
+     * subscribed without a partition key.
      *
      * @param tickable The {@link Tickable} entity to be subscribed.
      */
     public void subscribe(Tickable tickable) {
-        tickables.add(tickable);
+        subscribe(tickable, TickPhase.DEVICE_SYSTEMS, null);
+    }
+
+    /**
+     * Subscribes a {@link Tickable} entity to receive tick updates in the given phase.
+     * The entity shares a partition with all other entities of the phase subscribed without a partition key.
+     *
+     * @param tickable The {@link Tickable} entity to be subscribed.
+     * @param phase    The phase in which the entity is ticked.
+     */
+    public void subscribe(Tickable tickable, TickPhase phase) {
+        subscribe(tickable, phase, null);
+    }
+
+    /**
+     * Subscribes a {@link Tickable} entity to receive tick updates in the given phase and partition.
+     * Entities with the same partition key never run concurrently, so they may freely share state.
+     *
+     * @param tickable     The {@link Tickable} entity to be subscribed.
+     * @param phase        The phase in which the entity is ticked.
+     * @param partitionKey Key of the partition, or null for the default partition of the phase.
+     */
+    public void subscribe(Tickable tickable, TickPhase phase, Object partitionKey) {
+        engine.subscribe(new TickSubscription(tickable, phase, partitionKey, subscriptionCount++));
+        tickable.setWaker(this);
     }
 
     /**
@@ -34,7 +138,8 @@ public class TickPublisher {
      * @param tickable The {@link Tickable} entity to be unsubscribed.
      */
     public void unsubscribe(Tickable tickable) {
-        tickables.remove(tickable);
+        engine.unsubscribe(tickable);
+        tickable.setWaker(null);
     }
 
     /**
@@ -43,8 +148,66 @@ public class TickPublisher {
      */
     public void tick() {
         tickCount++;
-        for (Tickable tickable : tickables) {
-            tickable.onTick();
+        engine.tick();
+    }
+
+    /**
+     * Advances the simulation to the next tick in which something happens and performs that tick.
+     * {@link TickMode#SPARSE} skips ticks in which nothing happens, as all
+     * tickables either sleep or fast-forward through them later. {@link TickMode#OPTIMISTIC} runs the ticks
+     * before the next interaction between partitions speculatively. Other modes always advance by a single tick.
+     *
+     * @param maxTicks The maximum number of ticks to advance by, must be positive.
+     * @return The number of ticks advanced by, including the performed tick.
+     */
+    public int advance(int maxTicks) {
+        int skipped = engine.fastForward(maxTicks - 1);
+        tickCount += skipped;
+        tick();
+        return skipped + 1;
+    }
+
+    /**
+     * Runs an action that modifies state shared between partitions, such as the action plan of a human
+     * reacting to a device malfunction. In parallel mode the action is postponed to the end of the current
+     * phase, otherwise it runs immediately.
+     *
+     * @param action The action to be run.
+     */
+    public void defer(Runnable action) {
+        engine.defer(action);
+    }
+
+    /**
+     * Wakes up a tickable that sleeps until something happens.
+     * Only has an effect in {@link TickMode#SPARSE}, where it makes sure the tickable
+     * is ticked again, and in {@link TickMode#LEVEL_OF_DETAIL}, where it restores the full level of detail.
+     *
+     * @param tickable The tickable to be woken up.
+     */
+    @Override
+    public void wake(Tickable tickable) {
+        engine.wake(tickable);
+    }
+
+    /**
+     * Brings all subscribed tickables up to the current tick.
+     * Tickables sleeping in {@link TickMode#SPARSE}, or simulated coarsely in
+     * {@link TickMode#LEVEL_OF_DETAIL}, catch up on the ticks they skipped,
+     * so their state can be read consistently, for example when generating reports at the end of the simulation.
+     */
+    public void synchronize() {
+        engine.synchronize();
+    }
+
+    /**
+     * Shuts down the workers the publisher has started for {@link TickMode#ACTOR}, if any.
+     * Pools given to the publisher are left running.
+     */
+    @Override
+    public void close() {
+        if (ownedWorkers != null) {
+            ownedWorkers.shutdown();
         }
     }
 }
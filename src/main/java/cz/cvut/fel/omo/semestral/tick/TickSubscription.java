@@ -0,0 +1,22 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A single subscription of a {@link Tickable} to the {@link TickPublisher}.
+ * Besides the tickable itself it remembers the phase the tickable belongs to, the partition it may share
+ * with other tickables and its position in the serial tick order.
+ */
+@Getter
+@AllArgsConstructor
+class TickSubscription {
+    /** The subscribed tickable. */
+    private final Tickable tickable;
+    /** The phase in which the tickable is ticked. */
+    private final TickPhase phase;
+    /** Key of the partition, tickables with the same key are always ticked on the same thread. */
+    private final Object partitionKey;
+    /** Position of the subscription in the serial tick order. */
+    private final long order;
+}
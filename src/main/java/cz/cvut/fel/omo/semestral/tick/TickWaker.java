@@ -0,0 +1,18 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+/**
+ * Wakes up sleeping tickables.
+ * Tickables that report {@link Tickable#SLEEP_UNTIL_WOKEN} use it to get ticked again once they have
+ * something to do.
+ */
+public interface TickWaker {
+
+    /**
+     * Wakes the tickable up so that it is ticked on the next tick, or still within the current tick
+     * if its turn has not come yet. A tickable that has skipped ticks first catches up on them, so the
+     * waker must be called before the change that wakes the tickable up is made.
+     *
+     * @param tickable The tickable to be woken up.
+     */
+    void wake(Tickable tickable);
+}
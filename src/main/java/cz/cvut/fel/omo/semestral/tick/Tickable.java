@@ -7,10 +7,59 @@ package cz.cvut.fel.omo.semestral.tick;
  */
 public interface Tickable {
 
+    /** Returned by {@link #getTicksUntilWake()} when the tickable has nothing to do until it is woken up. */
+    int SLEEP_UNTIL_WOKEN = Integer.MAX_VALUE;
+
     /**
      * Method called on each tick of the simulation.
      * Implementing classes should define the actions to be performed on each tick,
      * such as updating the state, processing events, or performing routine activities.
      */
     void onTick();
+
+    /**
+     * Tells a sparse scheduler how many ticks may pass before {@link #onTick()} has to be called again.
+     * Called right after {@link #onTick()}. Tickables that may sleep must be able to catch up on the
+     * skipped ticks in {@link #skipTicks(int)} and must ask to be woken up whenever something changes.
+     *
+     * @return The number of ticks until the next call, at least 1, or {@link #SLEEP_UNTIL_WOKEN}.
+     */
+    default int getTicksUntilWake() {
+        return 1;
+    }
+
+    /**
+     * Catches up on ticks skipped by a sparse scheduler while the tickable was sleeping.
+     * The result must be the same as if {@link #onTick()} had been called for each of the skipped ticks.
+     *
+     * @param ticks The number of skipped ticks.
+     */
+    default void skipTicks(int ticks) {}
+
+    /**
+     * Sets the waker used to wake this tickable up when something changes while it sleeps.
+     *
+     * @param waker The waker of the tick publisher this tickable is subscribed to.
+     */
+    default void setWaker(TickWaker waker) {}
+
+    /**
+     * Sets the mailbox through which everything addressed to this tickable is delivered in {@link TickMode#ACTOR}.
+     *
+     * @param mailbox The mailbox of the actor running this tickable, or null when messages are delivered directly.
+     */
+    default void setMailbox(Mailbox mailbox) {}
+
+    /**
+     * Saves everything the tickable changes in {@link #onTick()}, so that speculatively executed ticks can be
+     * rolled back. Effects which cannot be rolled back are to be run through {@link Speculation}, devices run
+     * theirs through their effect sink, which the optimistic engine routes there.
+     * {@link TickMode#OPTIMISTIC} delivers every tick in lock-step while a tickable without it is subscribed.
+     *
+     * @return The snapshot of the current state.
+     * @throws UnsupportedOperationException If the tickable does not support state saving.
+     */
+    default StateSnapshot saveState() {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support state saving.");
+    }
 }
@@ -0,0 +1,185 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timer wheel keyed by absolute tick numbers.
+ * <p>
+ * Every level has 64 slots, a slot on level {@code n} spans {@code 64^n} ticks. A timer is placed
+ * on the lowest level whose current revolution contains its due tick, and it is moved one level down
+ * whenever the wheel enters the slot it sits in. Scheduling and expiring a timer are therefore O(1)
+ * regardless of how many timers are pending or how far in the future they are. Expired timers are kept for
+ * reuse, so a wheel that has reached its working size schedules and expires timers without allocating.
+ *
+ * @param <T> Type of the scheduled items.
+ */
+class TimerWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final List<List<Timer<T>>> slots = new ArrayList<>();
+    private final List<Timer<T>> overflow = new ArrayList<>();
+    /** Timers moved between levels during the current advance. */
+    private final List<Timer<T>> cascading = new ArrayList<>();
+    /** Expired timers waiting to be reused. */
+    private final List<Timer<T>> free = new ArrayList<>();
+
+    /** The last tick the wheel has advanced to. */
+    @Getter
+    private long currentTick;
+
+    /** The number of timers in the wheel. */
+    @Getter
+    private int size;
+
+    /**
+     * Creates an empty wheel.
+     *
+     * @param currentTick The tick the wheel starts at.
+     */
+    TimerWheel(long currentTick) {
+        this.currentTick = currentTick;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedules an item to expire at the given tick.
+     *
+     * @param item     The item to be scheduled.
+     * @param dueTick  The tick at which the item expires, must be after the current tick.
+     * @throws IllegalArgumentException If the due tick is not in the future.
+     */
+    void schedule(T item, long dueTick) {
+        if (dueTick <= currentTick) {
+            throw new IllegalArgumentException("Timer must be scheduled after the current tick.");
+        }
+        Timer<T> timer = free.isEmpty() ? new Timer<>() : free.remove(free.size() - 1);
+        timer.item = item;
+        timer.dueTick = dueTick;
+        place(timer);
+        size++;
+    }
+
+    /**
+     * Advances the wheel by one tick.
+     *
+     * @param expired List the items which expire at the new current tick are put into, in no particular order.
+     *                Its previous content is discarded.
+     */
+    void advance(List<T> expired) {
+        currentTick++;
+        if ((currentTick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+            cascade(overflow);
+        }
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                cascade(slot(level, currentTick));
+            }
+        }
+
+        List<Timer<T>> slot = slot(0, currentTick);
+        expired.clear();
+        for (int i = 0; i < slot.size(); i++) {
+            Timer<T> timer = slot.get(i);
+            expired.add(timer.item);
+            timer.item = null;
+            free.add(timer);
+        }
+        size -= slot.size();
+        slot.clear();
+    }
+
+    /**
+     * Empties the given slot and places its timers again, on the levels matching the current tick.
+     *
+     * @param slot The slot to be emptied.
+     */
+    private void cascade(List<Timer<T>> slot) {
+        for (int i = 0; i < slot.size(); i++) {
+            cascading.add(slot.get(i));
+        }
+        slot.clear();
+        for (int i = 0; i < cascading.size(); i++) {
+            place(cascading.get(i));
+        }
+        cascading.clear();
+    }
+
+    /**
+     * Retrieves a lower bound of the earliest due tick of all timers in the wheel. The bound is exact for
+     * timers due within the current revolution of the lowest level, for later timers it is the start of the
+     * slot they sit in.
+     *
+     * @return The lower bound, or {@link Long#MAX_VALUE} if the wheel is empty.
+     */
+    long nextDueTick() {
+        if (size == 0) {
+            return Long.MAX_VALUE;
+        }
+        long nextDueTick = Long.MAX_VALUE;
+        if (!overflow.isEmpty()) {
+            int revolutionShift = SLOT_BITS * LEVELS;
+            nextDueTick = ((currentTick >> revolutionShift) + 1) << revolutionShift;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int slotShift = SLOT_BITS * level;
+            int revolutionShift = slotShift + SLOT_BITS;
+            long revolutionStart = (currentTick >> revolutionShift) << revolutionShift;
+            for (int index = (int) ((currentTick >> slotShift) & SLOT_MASK) + 1; index < SLOTS; index++) {
+                if (!slots.get(level * SLOTS + index).isEmpty()) {
+                    nextDueTick = Math.min(nextDueTick, revolutionStart + ((long) index << slotShift));
+                    break;
+                }
+            }
+        }
+        return nextDueTick;
+    }
+
+    /**
+     * Moves the wheel forward to the given tick without expiring anything.
+     *
+     * @param tick The tick to move to, must be before {@link #nextDueTick()}.
+     * @throws IllegalArgumentException If a timer would expire or be moved on the way.
+     */
+    void skipTo(long tick) {
+        if (tick >= nextDueTick()) {
+            throw new IllegalArgumentException("Cannot skip over a pending timer.");
+        }
+        currentTick = Math.max(currentTick, tick);
+    }
+
+    /**
+     * Puts the timer on the lowest level whose current revolution contains its due tick.
+     *
+     * @param timer The timer to be placed.
+     */
+    private void place(Timer<T> timer) {
+        for (int level = 0; level < LEVELS; level++) {
+            int revolutionShift = SLOT_BITS * (level + 1);
+            if ((timer.dueTick >> revolutionShift) == (currentTick >> revolutionShift)) {
+                slot(level, timer.dueTick).add(timer);
+                return;
+            }
+        }
+        overflow.add(timer);
+    }
+
+    private List<Timer<T>> slot(int level, long tick) {
+        return slots.get(level * SLOTS + (int) ((tick >> (SLOT_BITS * level)) & SLOT_MASK));
+    }
+
+    /**
+     * Item scheduled in the wheel together with its due tick.
+     */
+    private static class Timer<T> {
+        private T item;
+        private long dueTick;
+    }
+}
@@ -0,0 +1,104 @@
+package cz.cvut.fel.omo.semestral.beings;
+
+import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
+import cz.cvut.fel.omo.semestral.entity.actions.Action;
+import cz.cvut.fel.omo.semestral.entity.actions.ActionPlan;
+import cz.cvut.fel.omo.semestral.entity.beings.Human;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.SportEquipmentType;
+import cz.cvut.fel.omo.semestral.tick.Tickable;
+import org.junit.Test;
+
+import java.util.LinkedList;
+import java.util.Queue;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the compact encoding of the action plans of beings
+ */
+public class ActionPlanTest {
+
+    @Test
+    public void testDecodesActionsAsAdded() {
+        Room kitchen = Room.roomBuilder().setRoomID(1).setRoomName("Kitchen").build();
+        ActionPlan plan = new ActionPlan();
+        plan.add(new Action(UserInputType.B_CHANGEROOM, kitchen));
+        plan.add(new Action(UserInputType.TV_VOLUME, 5));
+        plan.add(new Action(UserInputType.HVAC_TEMPERATURE, 5.0));
+        plan.add(new Action(UserInputType.TV_POWER, true));
+        plan.add(new Action(UserInputType.B_STARTSPORT, SportEquipmentType.SKIS));
+        plan.add(new Action(UserInputType.GATE_CONTROL, null));
+
+        assertSame(kitchen, plan.peekRoom());
+        assertNull(plan.peekDevice());
+        plan.poll();
+        assertEquals(5, plan.peekAction().getValue());
+        plan.poll();
+        assertEquals(5.0, plan.peekAction().getValue());
+        plan.poll();
+        assertEquals(Boolean.TRUE, plan.peekAction().getValue());
+        plan.poll();
+        assertEquals(SportEquipmentType.SKIS, plan.peekSportEquipment());
+        plan.poll();
+        assertEquals(UserInputType.GATE_CONTROL, plan.peekType());
+        assertNull(plan.peekAction().getValue());
+        plan.poll();
+        assertTrue(plan.isEmpty());
+        assertNull(plan.peekType());
+    }
+
+    @Test
+    public void testIdleStretchesAreRunLengthEncoded() {
+        ActionPlan plan = new ActionPlan();
+        plan.add(new Action(UserInputType.TV_POWER, null));
+        for (int i = 0; i < 500; i++) {
+            plan.add(new Action(UserInputType.B_NOTHING, null));
+        }
+        plan.addIdle(500);
+        plan.add(new Action(UserInputType.TV_POWER, null));
+
+        assertEquals(1002, plan.size());
+        assertEquals(3, plan.getRunCount());
+        assertEquals(1000, plan.getRunLength(1));
+
+        plan.poll();
+        assertEquals(400, plan.drop(400));
+        assertEquals(600, plan.drop(1000));
+        assertEquals(UserInputType.TV_POWER, plan.peekType());
+        assertEquals(1, plan.size());
+    }
+
+    @Test
+    public void testRingBufferGrows() {
+        ActionPlan plan = new ActionPlan();
+        for (int i = 0; i < 100; i++) {
+            plan.add(new Action(UserInputType.TV_CHANNEL, i));
+            if (i % 3 == 0) {
+                plan.poll();
+            }
+        }
+        assertEquals(66, plan.size());
+        assertEquals(34, plan.peekAction().getValue());
+    }
+
+    @Test
+    public void testBeingSkipsIdleStretchAtOnce() {
+        Human human = new Human(1, "Pavel", null, null);
+        Queue<Action> actions = new LinkedList<>();
+        actions.add(new Action(UserInputType.B_NOTHING, null));
+        actions.add(new Action(UserInputType.B_NOTHING, null));
+        actions.add(new Action(UserInputType.TV_POWER, null));
+        human.setActionPlan(actions);
+        human.getActionPlan().addIdle(1000);
+
+        assertEquals(3, human.getTicksUntilWake());
+        human.skipTicks(2);
+        assertEquals(1, human.getTicksUntilWake());
+        assertEquals(2, human.getTickCounter());
+        human.getActionPlan().poll();
+        assertEquals(Tickable.SLEEP_UNTIL_WOKEN, human.getTicksUntilWake());
+        human.skipTicks(10_000);
+        assertTrue(human.getActionPlan().isEmpty());
+    }
+}
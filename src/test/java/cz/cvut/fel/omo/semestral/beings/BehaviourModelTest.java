@@ -0,0 +1,193 @@
+package cz.cvut.fel.omo.semestral.beings;
+
+import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
+import cz.cvut.fel.omo.semestral.entity.actions.Action;
+import cz.cvut.fel.omo.semestral.entity.actions.ActionPlan;
+import cz.cvut.fel.omo.semestral.entity.actions.BehaviourModel;
+import cz.cvut.fel.omo.semestral.entity.beings.Human;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.tick.SimulationClock;
+import cz.cvut.fel.omo.semestral.tick.Tickable;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Objects;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the behaviour model generating the actions of beings
+ */
+public class BehaviourModelTest {
+
+    @Test
+    public void testEqualSeedsGiveEqualActions() {
+        BehaviourModel model = randomWalk();
+        ActionPlan first = new ActionPlan(model.createSource(0, 7, () -> 0));
+        ActionPlan second = new ActionPlan(model.createSource(0, 7, () -> 0));
+        ActionPlan other = new ActionPlan(model.createSource(0, 8, () -> 0));
+        boolean differs = false;
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(first.peekType(), second.peekType());
+            assertEquals(first.peekAction().getValue(), second.peekAction().getValue());
+            differs |= !Objects.equals(first.peekAction().getValue(), other.peekAction().getValue());
+            first.poll();
+            second.poll();
+            other.poll();
+        }
+        assertTrue(differs);
+    }
+
+    @Test
+    public void testTransitionsFollowWeights() {
+        BehaviourModel.Builder builder = BehaviourModel.builder(1);
+        int start = builder.addState(UserInputType.TV_CHANNEL, 0);
+        int often = builder.addState(UserInputType.TV_CHANNEL, 1);
+        int seldom = builder.addState(UserInputType.TV_CHANNEL, 2);
+        builder.weight(start, often, 3).weight(start, seldom, 1);
+        builder.weight(often, start, 1).weight(seldom, start, 1);
+        ActionPlan plan = new ActionPlan(builder.build().createSource(start, 1, () -> 0));
+
+        int[] counts = new int[3];
+        for (int i = 0; i < 200_000; i++) {
+            counts[(Integer) plan.peekAction().getValue()]++;
+            plan.poll();
+        }
+        assertEquals(100_000, counts[0]);
+        assertEquals(0.75, counts[1] / 100_000.0, 0.01);
+        assertEquals(0.25, counts[2] / 100_000.0, 0.01);
+    }
+
+    @Test
+    public void testWeightsChangeWithTimeOfDay() {
+        long ticksPerHalfDay = SimulationClock.REFERENCE.ticksIn(Duration.ofHours(12));
+        BehaviourModel.Builder builder = BehaviourModel.builder(2);
+        int morning = builder.addState(UserInputType.TV_CHANNEL, 1);
+        int evening = builder.addState(UserInputType.TV_CHANNEL, 2);
+        builder.weight(0, evening, morning, 1).weight(1, morning, evening, 1);
+        long[] now = {0};
+        ActionPlan plan = new ActionPlan(builder.build().createSource(morning, 1, () -> now[0]));
+
+        for (; now[0] < 2 * ticksPerHalfDay; now[0]++) {
+            assertEquals(now[0] < ticksPerHalfDay ? 1 : 2, plan.peekAction().getValue());
+            plan.poll();
+        }
+        assertEquals(1, plan.peekAction().getValue());
+    }
+
+    @Test
+    public void testAddedActionsDoNotShiftTimeOfDay() {
+        long ticksPerHalfDay = SimulationClock.REFERENCE.ticksIn(Duration.ofHours(12));
+        BehaviourModel.Builder builder = BehaviourModel.builder(2);
+        int morning = builder.addState(UserInputType.TV_CHANNEL, 1);
+        int evening = builder.addState(UserInputType.TV_CHANNEL, 2);
+        builder.weight(0, evening, morning, 1).weight(1, morning, evening, 1);
+        long[] now = {0};
+        ActionPlan plan = new ActionPlan(builder.build().createSource(morning, 1, () -> now[0]));
+
+        for (; now[0] < 2 * ticksPerHalfDay; now[0]++) {
+            if (now[0] % 10 == 0) {
+                // Repairs take ticks of their own, the generated actions are drawn for the ticks they are performed in
+                plan.add(UserInputType.B_REPAIR);
+            }
+            if (plan.peekType() == UserInputType.TV_CHANNEL) {
+                assertEquals(now[0] < ticksPerHalfDay ? 1 : 2, plan.peekAction().getValue());
+            }
+            plan.poll();
+        }
+    }
+
+    @Test
+    public void testRepairsAreNotDeferred() {
+        Human human = new Human(1, "John Doe", null, null);
+        human.setActionPlan(new ActionPlan(randomWalk().createSource(0, 1, () -> 0)));
+        assertTrue(human.getTicksUntilWake() < Tickable.SLEEP_UNTIL_WOKEN);
+        human.addActionToPlan(new Action(UserInputType.GATE_CONTROL, null));
+
+        // Only the idle stretch and the action generated while looking ahead come before the added action
+        ActionPlan plan = human.getActionPlan();
+        for (int run = 0; run < 2 && plan.peekType() != UserInputType.GATE_CONTROL; run++) {
+            plan.drop(Integer.MAX_VALUE);
+        }
+        assertEquals(UserInputType.GATE_CONTROL, plan.peekType());
+    }
+
+    @Test
+    public void testIdleStatesAreSkippedAtOnce() {
+        Room kitchen = Room.roomBuilder().setRoomID(1).setRoomName("Kitchen").build();
+        BehaviourModel.Builder builder = BehaviourModel.builder(1);
+        int move = builder.addState(UserInputType.B_CHANGEROOM, kitchen);
+        int rest = builder.addIdleState(50);
+        builder.weight(move, rest, 1).weight(rest, move, 1);
+        Human human = new Human(1, "John Doe", kitchen, null);
+        human.setActionPlan(new ActionPlan(builder.build().createSource(move, 3, () -> 0)));
+
+        assertEquals(51, human.getTicksUntilWake());
+        assertEquals(2, human.getActionPlan().getRunCount());
+        human.skipTicks(50);
+        assertSame(kitchen, human.getActionPlan().peekRoom());
+    }
+
+    @Test
+    public void testRejectsChainWhichOnlyRests() {
+        BehaviourModel.Builder builder = BehaviourModel.builder(2);
+        int rest = builder.addIdleState(3);
+        int move = builder.addState(UserInputType.GATE_CONTROL);
+        builder.weight(rest, move, 1).weight(move, rest, 1).weight(1, rest, move, 0);
+        try {
+            builder.build();
+            fail("Model should be rejected");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("period 1"));
+        }
+    }
+
+    @Test
+    public void testSamplingDoesNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        ActionPlan plan = new ActionPlan(randomWalk().createSource(0, 5, () -> 0));
+        long threadId = Thread.currentThread().getId();
+        long sum = drain(plan, 100_000);
+        long before = threads.getThreadAllocatedBytes(threadId);
+        sum += drain(plan, 100_000);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        assertTrue(sum > 0);
+        assertTrue("Sampling allocated " + allocated + " bytes", allocated < 4096);
+    }
+
+    private static long drain(ActionPlan plan, int actions) {
+        long sum = 0;
+        for (int i = 0; i < actions; i++) {
+            sum += plan.peekType().ordinal() + plan.getRunLength(0);
+            plan.poll();
+        }
+        return sum;
+    }
+
+    /**
+     * Walk over ten TV channels and a rest, with a few idle stretches in between.
+     */
+    private static BehaviourModel randomWalk() {
+        BehaviourModel.Builder builder = BehaviourModel.builder(4);
+        int channels = 10;
+        for (int channel = 0; channel < channels; channel++) {
+            builder.addState(UserInputType.TV_CHANNEL, channel);
+        }
+        int rest = builder.addIdleState(4);
+        for (int from = 0; from < channels; from++) {
+            for (int to = 0; to < channels; to++) {
+                builder.weight(from, to, 1 + from);
+            }
+            builder.weight(from, rest, 2);
+            builder.weight(rest, from, 1);
+        }
+        return builder.build();
+    }
+}
@@ -2,6 +2,7 @@ package cz.cvut.fel.omo.semestral.beings;
 
 import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
 import cz.cvut.fel.omo.semestral.entity.actions.Action;
+import cz.cvut.fel.omo.semestral.entity.beings.Being;
 import cz.cvut.fel.omo.semestral.entity.beings.Human;
 import cz.cvut.fel.omo.semestral.entity.devices.appliances.Gate;
 import cz.cvut.fel.omo.semestral.entity.devices.controllers.GateController;
@@ -59,4 +60,18 @@ public class HumanTests {
 
         assertTrue(gate.isOpen());
     }
+
+    @Test
+    public void testPerformedActionHistoryIsCapped() {
+        int performed = Being.PERFORMED_ACTIONS_LIMIT + 500;
+        for (int i = 0; i < performed; i++) {
+            human.addPerformedAction(new Action(i % 2 == 0 ? UserInputType.GATE_CONTROL : UserInputType.B_CHANGEROOM, i));
+        }
+
+        assertEquals(Being.PERFORMED_ACTIONS_LIMIT, human.getPerformedActions().size());
+        assertEquals(500, human.getPerformedActions().iterator().next().getAction().getValue());
+        assertEquals(performed / 2, human.getPerformedActionCount(UserInputType.GATE_CONTROL));
+        assertEquals(performed / 2, human.getPerformedActionCount(UserInputType.B_CHANGEROOM));
+        assertEquals(0, human.getPerformedActionCount(UserInputType.B_REPAIR));
+    }
 }
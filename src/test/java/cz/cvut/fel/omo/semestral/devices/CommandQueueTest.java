@@ -0,0 +1,180 @@
+package cz.cvut.fel.omo.semestral.devices;
+
+import cz.cvut.fel.omo.semestral.common.enums.DeviceCommand;
+import cz.cvut.fel.omo.semestral.entity.devices.IDeviceCommand;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.CommandQueue;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.Fridge;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.HVAC;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.TV;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Temperature;
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the setpoint commands and the coalescing of the commands queued for an appliance
+ */
+public class CommandQueueTest {
+
+    @Test
+    public void testSetpointTakesOneCommand() {
+        TV tv = new TV(UUID.randomUUID());
+        tv.turnOn();
+        tv.addtoActionPlan(DeviceCommand.SET_CHANNEL, 500);
+        tv.addtoActionPlan(DeviceCommand.SET_VOLUME, 8);
+        assertEquals(2, tv.getActionPlan().size());
+
+        tv.onTick();
+        assertEquals(500, tv.getCurrentChannel());
+        assertEquals(8, tv.getVolumeLevel());
+        assertTrue(tv.getActionPlan().isEmpty());
+
+        Fridge fridge = new Fridge(UUID.randomUUID());
+        fridge.turnOn();
+        fridge.addtoActionPlan(DeviceCommand.SET_TEMPERATURE, 2.5);
+        fridge.onTick();
+        assertEquals(2.5, fridge.getInternalTemperature(), 0);
+    }
+
+    @Test
+    public void testConsecutiveModeSwitchesCoalesce() {
+        HVAC hvac = new HVAC(UUID.randomUUID(), new Temperature(20));
+        hvac.turnOn();
+        hvac.addtoActionPlan(DeviceCommand.SWITCH_TO_HEATING);
+        hvac.addtoActionPlan(DeviceCommand.SWITCH_TO_COOLING);
+        hvac.addtoActionPlan(DeviceCommand.SWITCH_TO_VENTILATION);
+        assertEquals(1, hvac.getActionPlan().size());
+        assertEquals(2, hvac.getActionPlan().getCoalescedCount());
+
+        hvac.onTick();
+        assertSame(hvac.getVentilationState(), hvac.getCurrentState());
+    }
+
+    @Test
+    public void testRelativeAndInterleavedCommandsAreKept() {
+        CommandQueue queue = new CommandQueue();
+        queue.add(DeviceCommand.INCREASE_VOLUME);
+        queue.add(DeviceCommand.INCREASE_VOLUME);
+        queue.add(DeviceCommand.TOGGLE_GATE);
+        queue.add(DeviceCommand.TOGGLE_GATE);
+        assertEquals(4, queue.size());
+
+        queue.add(DeviceCommand.SET_VOLUME, 3);
+        queue.add(DeviceCommand.TURN_ON);
+        queue.add(DeviceCommand.SET_VOLUME, 5);
+        queue.add(DeviceCommand.SET_VOLUME, 6);
+        assertEquals(7, queue.size());
+        assertEquals(1, queue.getCoalescedCount());
+    }
+
+    @Test
+    public void testOverflowPolicies() {
+        CommandQueue dropping = new CommandQueue(4, CommandQueue.OverflowPolicy.DROP_OLDEST);
+        CommandQueue rejecting = new CommandQueue(4, CommandQueue.OverflowPolicy.REJECT);
+        CommandQueue coalescing = new CommandQueue(4, CommandQueue.OverflowPolicy.COALESCE);
+        for (int volume = 0; volume < 6; volume++) {
+            dropping.add(DeviceCommand.SET_VOLUME, volume);
+            rejecting.add(DeviceCommand.SET_VOLUME, volume);
+            coalescing.add(DeviceCommand.SET_VOLUME, volume);
+        }
+
+        assertEquals(4, dropping.size());
+        assertEquals(2, dropping.getDroppedCount());
+        assertEquals(4, rejecting.size());
+        assertEquals(2, rejecting.getRejectedCount());
+        assertEquals(1, coalescing.size());
+        assertEquals(5, coalescing.getCoalescedCount());
+        assertEquals(4, rejecting.getHighWaterMark());
+
+        TV tv = new TV(UUID.randomUUID());
+        dropping.executeAll(tv);
+        assertEquals(5, tv.getVolumeLevel());
+        assertFalse(coalescing.add(DeviceCommand.TOGGLE_GATE) && coalescing.add(DeviceCommand.TOGGLE_GATE)
+                && coalescing.add(DeviceCommand.TOGGLE_GATE) && coalescing.add(DeviceCommand.TOGGLE_GATE));
+        assertEquals(1, coalescing.getRejectedCount());
+    }
+
+    @Test
+    public void testDefaultQueueIsBounded() {
+        CommandQueue queue = new CommandQueue();
+        assertEquals(CommandQueue.DEFAULT_CAPACITY, queue.getCapacity());
+        for (int i = 1; i < CommandQueue.DEFAULT_CAPACITY; i++) {
+            assertTrue(queue.add(DeviceCommand.INCREASE_VOLUME));
+        }
+        assertTrue(queue.add(DeviceCommand.SET_CHANNEL, 3));
+        assertEquals(CommandQueue.DEFAULT_CAPACITY, queue.size());
+        assertTrue(queue.add(DeviceCommand.SET_CHANNEL, 7));
+        assertFalse(queue.add(DeviceCommand.INCREASE_VOLUME));
+        assertEquals(1, queue.getRejectedCount());
+        CommandQueue copy = queue.copy();
+
+        TV tv = new TV(UUID.randomUUID());
+        tv.turnOn();
+        queue.executeAll(tv);
+        assertTrue(queue.isEmpty());
+        assertEquals(7, tv.getCurrentChannel());
+        assertEquals(CommandQueue.DEFAULT_CAPACITY, copy.size());
+    }
+
+    @Test
+    public void testConcurrentQueueKeepsOrder() throws InterruptedException {
+        int commandCount = 100_000;
+        CommandQueue queue = new CommandQueue(16, CommandQueue.OverflowPolicy.REJECT, true);
+        int[] executed = runProducerAndConsumer(queue, commandCount);
+
+        assertEquals(commandCount, executed[0]);
+        assertTrue(queue.isEmpty());
+        assertTrue(queue.getHighWaterMark() <= 16);
+    }
+
+    @Test
+    public void testConcurrentQueueSkipsSupersededCommands() throws InterruptedException {
+        int commandCount = 100_000;
+        CommandQueue queue = new CommandQueue(16, CommandQueue.OverflowPolicy.COALESCE, true);
+        int[] executed = runProducerAndConsumer(queue, commandCount);
+
+        assertEquals(commandCount, executed[1]);
+        assertEquals(commandCount, executed[0] + queue.getCoalescedCount());
+        assertTrue(queue.isEmpty());
+    }
+
+    /**
+     * Adds channel commands with increasing values on another thread while executing them on this one, and
+     * checks that they are executed in the order they were added.
+     *
+     * @param queue        The concurrent queue.
+     * @param commandCount The number of commands to be added.
+     * @return The number of executed commands and the value of the last one.
+     */
+    private static int[] runProducerAndConsumer(CommandQueue queue, int commandCount) throws InterruptedException {
+        Thread producer = new Thread(() -> {
+            for (int i = 1; i <= commandCount; i++) {
+                while (!queue.add(DeviceCommand.SET_CHANNEL, i)) {
+                    Thread.yield();
+                }
+            }
+        });
+        int[] executed = new int[2];
+        IDeviceCommand consumer = new IDeviceCommand() {
+            @Override
+            public void executeCommand(DeviceCommand command) {
+            }
+
+            @Override
+            public void executeCommand(DeviceCommand command, double value) {
+                assertTrue(value > executed[1]);
+                executed[0]++;
+                executed[1] = (int) value;
+            }
+        };
+        producer.start();
+        while (executed[1] < commandCount) {
+            queue.executeAll(consumer);
+            Thread.yield();
+        }
+        producer.join();
+        return executed;
+    }
+}
@@ -0,0 +1,131 @@
+package cz.cvut.fel.omo.semestral.devices;
+
+import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceType;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.*;
+import cz.cvut.fel.omo.semestral.entity.devices.controllers.*;
+import cz.cvut.fel.omo.semestral.entity.devices.sensors.*;
+import cz.cvut.fel.omo.semestral.tick.SimulationClock;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that devices share the constants of their model instead of keeping copies of them
+ */
+public class DeviceFootprintTest {
+
+    private static final List<Class<?>> DEVICE_CLASSES = List.of(
+            Alarm.class, Fridge.class, Gate.class, HVAC.class, Light.class, TV.class,
+            MotionSensor.class, SecuritySensor.class, TemperatureSensor.class, UserInputSensor.class,
+            FridgeController.class, GateController.class, LightController.class, SecurityController.class,
+            TemperatureController.class, TVController.class);
+    /** Shallow size no device may exceed, the values of the devices live in the state store instead */
+    private static final long MAX_INSTANCE_SIZE = 96;
+
+    @Test
+    public void testDevicesOfAModelShareItsType() {
+        TV first = new TV(UUID.randomUUID());
+        TV second = new TV(UUID.randomUUID());
+        assertSame(first.getType(), second.getType());
+        assertSame(new UserInputSensor(UUID.randomUUID()).getType(), new UserInputSensor(UUID.randomUUID()).getType());
+
+        // The model keeps the rates of the reference tick, the clock of the house scales them
+        double referenceConsumption = first.getPowerConsumptionPerTick_ON();
+        SimulationClock minuteClock = new SimulationClock(Duration.ofMinutes(1));
+        assertEquals(referenceConsumption, first.getType().getPowerConsumptionPerTick(DeviceState.ON, SimulationClock.REFERENCE), 0);
+        assertEquals(referenceConsumption, 10 * first.getType().getPowerConsumptionPerTick(DeviceState.ON, minuteClock), 1e-12);
+        assertEquals(0, first.getType().getPowerConsumptionPerTick(DeviceState.OFF, minuteClock), 0);
+    }
+
+    @Test
+    public void testDevicesKeepNoModelConstants() {
+        for (Class<?> type : DEVICE_CLASSES) {
+            for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    assertFalse(c.getSimpleName() + "." + field.getName() + " is a model constant",
+                            field.getName().startsWith("powerConsumption") || field.getName().equals("wearCapacity"));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testModelTakesOneReferencePerInstance() {
+        for (Class<?> type : DEVICE_CLASSES) {
+            int typeFields = 0;
+            for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && field.getType() == DeviceType.class) {
+                        typeFields++;
+                    }
+                }
+            }
+            assertEquals(type.getSimpleName(), 1, typeFields);
+            long size = shallowSize(type);
+            assertTrue(type.getSimpleName() + " takes " + size + " bytes", size <= MAX_INSTANCE_SIZE);
+        }
+    }
+
+    @Test
+    public void testInstancesDrawTheirWearCapacityFromTheModel() {
+        Set<Integer> capacities = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            UserInputSensor sensor = new UserInputSensor(UUID.randomUUID());
+            assertTrue(sensor.getWearCapacity() >= Sensor.MIN_WEAR_CAPACITY);
+            assertTrue(sensor.getWearCapacity() <= Sensor.MAX_WEAR_CAPACITY);
+            capacities.add(sensor.getWearCapacity());
+        }
+        assertTrue(capacities.size() > 1);
+
+        TV tv = new TV(UUID.randomUUID());
+        TVController controller = new TVController(UUID.randomUUID(), tv, new UserInputSensor(UUID.randomUUID()));
+        assertEquals(Controller.MIN_WEAR_CAPACITY, controller.getType().getMinWearCapacity());
+        assertEquals(Controller.MAX_WEAR_CAPACITY, controller.getType().getMaxWearCapacity());
+        assertEquals(500, tv.getWearCapacity());
+    }
+
+    /**
+     * Estimates the shallow size of an instance the way JOL lays it out on a 64-bit JVM with compressed class
+     * pointers and references: a 12-byte header followed by the fields, padded to a multiple of 8 bytes.
+     * Field packing into gaps is ignored, so the estimate is an upper bound.
+     *
+     * @param type The class of the instance.
+     * @return The estimated number of bytes.
+     */
+    private static long shallowSize(Class<?> type) {
+        long size = 12;
+        for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    size += fieldSize(field.getType());
+                }
+            }
+        }
+        return (size + 7) & ~7L;
+    }
+
+    private static int fieldSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return 4;
+    }
+}
@@ -0,0 +1,124 @@
+package cz.cvut.fel.omo.semestral.devices;
+
+import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceStateIndex;
+import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.Appliance;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.Light;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.TV;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Floor;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.House;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Temperature;
+import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystemFactory;
+import cz.cvut.fel.omo.semestral.entity.systems.LightingSystem;
+import cz.cvut.fel.omo.semestral.entity.systems.TVSystem;
+import cz.cvut.fel.omo.semestral.tick.SimulationClock;
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the index of the devices by their state
+ */
+public class DeviceStateIndexTest {
+
+    private Room livingRoom;
+    private Room bedroom;
+    private Floor floor;
+    private TVSystem tvSystem;
+    private LightingSystem lightingSystem;
+
+    @Before
+    public void setUp() {
+        DeviceSystemFactory factory = new DeviceSystemFactory();
+        livingRoom = Room.roomBuilder().setRoomID(1).setRoomName("Living room").build();
+        bedroom = Room.roomBuilder().setRoomID(2).setRoomName("Bedroom").build();
+        tvSystem = factory.createEntertainmentSystem(1);
+        lightingSystem = factory.createLightingSystem(2, bedroom);
+        livingRoom.addDeviceSystem(tvSystem);
+        bedroom.addDeviceSystem(lightingSystem);
+        floor = new Floor(1, "Ground floor", 0, List.of(livingRoom, bedroom));
+    }
+
+    @Test
+    public void testFollowsStateChanges() {
+        tvSystem.turnOn();
+        lightingSystem.turnOn();
+        for (DeviceState state : DeviceState.values()) {
+            List<IDevice> scanned = floor.getAllDeviceSystems().stream()
+                    .flatMap(system -> system.getDevices().stream())
+                    .filter(device -> device.getState() == state)
+                    .toList();
+            List<IDevice> indexed = floor.getDevicesInState(state);
+            assertEquals(scanned.size(), indexed.size());
+            assertTrue(indexed.containsAll(scanned));
+        }
+
+        TV tv = tvSystem.getTv();
+        tv.turnOn();
+        tv.setState(DeviceState.MALFUNCTION);
+        Light light = lightingSystem.getAppliance();
+        light.setState(DeviceState.MALFUNCTION);
+
+        List<IDevice> broken = floor.getDevicesInState(DeviceState.MALFUNCTION);
+        assertEquals(2, broken.size());
+        assertTrue(broken.contains(tv) && broken.contains(light));
+        assertEquals(List.of(light), bedroom.getDevicesInState(DeviceState.MALFUNCTION));
+        assertEquals(List.of(tv), floor.getDevicesInState(DeviceState.MALFUNCTION, TV.class));
+        assertFalse(livingRoom.getDevicesInState(DeviceState.ON).contains(tv));
+
+        tv.repair();
+        assertEquals(List.of(light), floor.getDevicesInState(DeviceState.MALFUNCTION));
+        assertTrue(livingRoom.getDevicesInState(DeviceState.ON).contains(tv));
+    }
+
+    @Test
+    public void testQueriesByClass() {
+        TV tv = new TV(UUID.randomUUID());
+        DeviceStateIndex index = new DeviceStateIndex(SimulationClock.REFERENCE);
+        index.add(tv, null);
+        assertEquals(List.of(tv), index.getDevices(DeviceState.OFF, TV.class));
+        assertEquals(List.of(tv), index.getDevices(DeviceState.OFF, Appliance.class));
+
+        tv.turnOn();
+        assertFalse(index.getDevices(DeviceState.OFF, TV.class).contains(tv));
+        assertTrue(index.getDevices(DeviceState.ON, TV.class).contains(tv));
+        assertTrue(index.getDevices(DeviceState.ON).contains(tv));
+
+        StateSnapshot snapshot = tv.saveState();
+        tv.setState(DeviceState.MALFUNCTION);
+        assertTrue(index.getDevices(DeviceState.MALFUNCTION, TV.class).contains(tv));
+        snapshot.restore();
+        assertFalse(index.getDevices(DeviceState.MALFUNCTION, TV.class).contains(tv));
+        assertTrue(index.getDevices(DeviceState.ON, TV.class).contains(tv));
+
+        index.remove(tv);
+        tv.turnOff();
+        assertTrue(index.getDevices(DeviceState.OFF).isEmpty());
+        assertTrue(index.getDevices(DeviceState.ON).isEmpty());
+    }
+
+    @Test
+    public void testHouseIndexFollowsPlacedAndRemovedSystems() {
+        House house = new House(1, 1, "Street", new Temperature(21), new Temperature(10), List.of(floor));
+        tvSystem.turnOn();
+        TV tv = tvSystem.getTv();
+        tv.turnOn();
+        assertTrue(house.getDevicesInState(DeviceState.ON).contains(tv));
+        assertEquals(List.of(tv), house.getDevicesInState(DeviceState.ON, TV.class));
+        assertEquals(List.of(tv), livingRoom.getDevicesInState(DeviceState.ON, TV.class));
+        assertTrue(bedroom.getDevicesInState(DeviceState.ON, TV.class).isEmpty());
+
+        livingRoom.removeDeviceSystem(tvSystem);
+        tv.setState(DeviceState.MALFUNCTION);
+        assertFalse(house.getDevicesInState(DeviceState.ON).contains(tv));
+        assertTrue(house.getDevicesInState(DeviceState.MALFUNCTION).isEmpty());
+        assertTrue(livingRoom.getDevicesInState(DeviceState.MALFUNCTION).isEmpty());
+    }
+}
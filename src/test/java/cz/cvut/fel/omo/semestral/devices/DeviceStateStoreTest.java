@@ -0,0 +1,159 @@
+package cz.cvut.fel.omo.semestral.devices;
+
+import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.entity.devices.Device;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceStateIndex;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceStateStore;
+import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.Light;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.TV;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Floor;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.House;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Temperature;
+import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystemFactory;
+import cz.cvut.fel.omo.semestral.entity.systems.TVSystem;
+import cz.cvut.fel.omo.semestral.tick.SimulationClock;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the column store of the device values
+ */
+public class DeviceStateStoreTest {
+
+    private DeviceSystemFactory factory;
+    private Room livingRoom;
+    private House house;
+
+    @Before
+    public void setUp() {
+        factory = new DeviceSystemFactory();
+        livingRoom = Room.roomBuilder().setRoomID(1).setRoomName("Living room").build();
+        Floor floor = new Floor(1, "Ground floor", 0, List.of(livingRoom));
+        house = new House(1, 1, "Street", new Temperature(21), new Temperature(10), List.of(floor));
+    }
+
+    @Test
+    public void testDevicesOfAHouseShareTheStore() {
+        TVSystem first = factory.createEntertainmentSystem(1);
+        TVSystem second = factory.createEntertainmentSystem(2);
+        livingRoom.addDeviceSystem(first).addDeviceSystem(second);
+
+        DeviceStateStore store = first.getTv().getStore();
+        List<IDevice> devices = house.getAllDeviceSystems().stream()
+                .flatMap(system -> system.getDevices().stream())
+                .toList();
+        for (IDevice device : devices) {
+            assertSame(store, ((Device) device).getStore());
+        }
+        assertEquals(devices.size(), store.size());
+    }
+
+    @Test
+    public void testRemovedDevicesReleaseTheirSlots() {
+        TVSystem removed = factory.createEntertainmentSystem(1);
+        livingRoom.addDeviceSystem(removed);
+        DeviceStateStore store = removed.getTv().getStore();
+        Set<Integer> releasedSlots = slots(removed.getDevices());
+        int version = store.getVersion();
+
+        livingRoom.removeDeviceSystem(removed);
+        assertEquals(0, store.size());
+        assertNotEquals(version, store.getVersion());
+        assertNotSame(store, removed.getTv().getStore());
+
+        TVSystem added = factory.createEntertainmentSystem(2);
+        livingRoom.addDeviceSystem(added);
+        assertSame(store, added.getTv().getStore());
+        assertEquals(releasedSlots, slots(added.getDevices()));
+    }
+
+    @Test
+    public void testValuesMoveWithTheDevice() {
+        TVSystem tvSystem = factory.createEntertainmentSystem(1);
+        TV tv = tvSystem.getTv();
+        tv.turnOn();
+        tv.updateWear(42);
+        tv.updatePowerConsumption(1.5);
+        tv.setWearCapacity(777);
+        DeviceStateStore ownStore = tv.getStore();
+
+        livingRoom.addDeviceSystem(tvSystem);
+        assertNotSame(ownStore, tv.getStore());
+        assertEquals(DeviceState.ON, tv.getState());
+        assertEquals(42, tv.getTotalWear());
+        assertEquals(1.5, tv.getTotalPowerConsumption(), 1e-9);
+        assertEquals(777, tv.getWearCapacity());
+        assertEquals(List.of(tv), livingRoom.getDevicesInState(DeviceState.ON, TV.class));
+    }
+
+    @Test
+    public void testSystemAccruesAndBreaksDevicesInColumns() {
+        TVSystem tvSystem = factory.createEntertainmentSystem(1);
+        livingRoom.addDeviceSystem(tvSystem);
+        tvSystem.turnOn();
+        TV tv = tvSystem.getTv();
+        tv.turnOn();
+        int wearPerTick = 10;
+        tv.setWearCapacity(5 * wearPerTick);
+
+        for (int tick = 0; tick < 4; tick++) {
+            tvSystem.onTick();
+        }
+        assertEquals(4 * wearPerTick, tv.getTotalWear());
+        assertEquals(4 * tv.getPowerConsumptionPerTick_ON(), tv.getTotalPowerConsumption(), 1e-6);
+        double devicesTotal = tvSystem.getDevices().stream().mapToDouble(IDevice::getTotalPowerConsumption).sum();
+        assertEquals(devicesTotal, tvSystem.getTotalConsumption(), 1e-9);
+        assertEquals(DeviceState.ON, tv.getState());
+
+        tvSystem.onTick();
+        assertEquals(DeviceState.MALFUNCTION, tv.getState());
+        int brokenWear = tv.getTotalWear();
+        tvSystem.onTick();
+        assertEquals(brokenWear, tv.getTotalWear());
+    }
+
+    @Test
+    public void testDevicesMayBeAddedWhileOthersAreUpdated() throws InterruptedException {
+        DeviceStateIndex index = new DeviceStateIndex(new DeviceStateStore(1, SimulationClock.REFERENCE));
+        Light updated = new Light(UUID.randomUUID());
+        index.add(updated, null);
+        updated.setIdle();
+        updated.setWearCapacity(Integer.MAX_VALUE);
+
+        AtomicBoolean adding = new AtomicBoolean(true);
+        Thread adder = new Thread(() -> {
+            for (int i = 0; i < 5000; i++) {
+                index.add(new Light(UUID.randomUUID()), null);
+            }
+            adding.set(false);
+        });
+        adder.start();
+        int ticks = 0;
+        while (adding.get() || ticks < 1000) {
+            updated.onTick();
+            ticks++;
+        }
+        adder.join();
+
+        assertEquals(5001, index.getStore().size());
+        assertEquals(ticks, updated.getTotalWear());
+    }
+
+    private static Set<Integer> slots(List<IDevice> devices) {
+        Set<Integer> slots = new HashSet<>();
+        for (IDevice device : devices) {
+            slots.add(((Device) device).getSlot());
+        }
+        return slots;
+    }
+}
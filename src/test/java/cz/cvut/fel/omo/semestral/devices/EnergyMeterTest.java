@@ -0,0 +1,105 @@
+package cz.cvut.fel.omo.semestral.devices;
+
+import cz.cvut.fel.omo.semestral.entity.devices.EnergyMeter;
+import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.TV;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Floor;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.House;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Temperature;
+import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystemFactory;
+import cz.cvut.fel.omo.semestral.entity.systems.LightingSystem;
+import cz.cvut.fel.omo.semestral.entity.systems.TVSystem;
+import cz.cvut.fel.omo.semestral.tick.StateSnapshot;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the fixed-point energy meters of devices, systems, rooms and the house
+ */
+public class EnergyMeterTest {
+
+    @Test
+    public void testMetersHoldExactSumsOfTheLevelsBelow() {
+        DeviceSystemFactory factory = new DeviceSystemFactory();
+        Room livingRoom = Room.roomBuilder().setRoomID(1).setRoomName("Living room").build();
+        Room kitchen = Room.roomBuilder().setRoomID(2).setRoomName("Kitchen").build();
+        TVSystem tvSystem = factory.createEntertainmentSystem(1);
+        LightingSystem lightingSystem = factory.createLightingSystem(2, kitchen);
+        livingRoom.addDeviceSystem(tvSystem);
+        kitchen.addDeviceSystem(lightingSystem);
+        House house = new House(1, 1, "Street", new Temperature(21), new Temperature(10),
+                List.of(new Floor(1, "Ground floor", 0, new ArrayList<>(List.of(livingRoom, kitchen)))));
+
+        for (int i = 0; i < 100; i++) {
+            tvSystem.onTick();
+            lightingSystem.onTick();
+        }
+
+        long tvDevices = sumOfDevices(tvSystem.getDevices());
+        long lightingDevices = sumOfDevices(lightingSystem.getDevices());
+        assertTrue(tvDevices > 0);
+        assertEquals(tvDevices, tvSystem.getEnergyMeter().getMicroWh());
+        assertEquals(lightingDevices, kitchen.getEnergyMeter().getMicroWh());
+        assertEquals(tvDevices + lightingDevices, house.getEnergyMeter().getMicroWh());
+        assertEquals(EnergyMeter.toKWh(tvDevices + lightingDevices), house.getEnergyMeter().getKWh(), 0);
+    }
+
+    @Test
+    public void testRolledBackConsumptionIsTakenBackFromAllLevels() {
+        TVSystem tvSystem = new DeviceSystemFactory().createEntertainmentSystem(1);
+        Room room = Room.roomBuilder().setRoomID(1).setRoomName("Living room").addDeviceSystem(tvSystem).build();
+        tvSystem.onTick();
+        long consumed = room.getEnergyMeter().getMicroWh();
+
+        StateSnapshot snapshot = tvSystem.saveState();
+        for (int i = 0; i < 10; i++) {
+            tvSystem.onTick();
+        }
+        assertTrue(room.getEnergyMeter().getMicroWh() > consumed);
+        snapshot.restore();
+
+        assertEquals(consumed, tvSystem.getEnergyMeter().getMicroWh());
+        assertEquals(consumed, room.getEnergyMeter().getMicroWh());
+    }
+
+    @Test
+    public void testDevicesPlacedInRoomsAreMetered() {
+        TV tv = new TV(UUID.randomUUID());
+        tv.turnOn();
+        TVSystem tvSystem = new DeviceSystemFactory().createEntertainmentSystem(1);
+        tvSystem.getEnergyMeter();
+        Room room = Room.roomBuilder().setRoomID(1).setRoomName("Living room").addDevice(tv).build();
+        room.addDeviceSystem(tvSystem);
+
+        tv.onTick();
+        tvSystem.onTick();
+
+        long expected = EnergyMeter.toMicroWh(tv.getTotalPowerConsumption()) + sumOfDevices(tvSystem.getDevices());
+        assertTrue(EnergyMeter.toMicroWh(tv.getTotalPowerConsumption()) > 0);
+        assertEquals(expected, room.getEnergyMeter().getMicroWh());
+    }
+
+    @Test
+    public void testRepeatedSmallAmountsDoNotDrift() {
+        EnergyMeter meter = new EnergyMeter();
+        long perTick = EnergyMeter.toMicroWh(1.75 / 600);
+        for (int i = 0; i < 1_000_000; i++) {
+            meter.add(perTick);
+        }
+        assertEquals(perTick * 1_000_000, meter.getMicroWh());
+    }
+
+    private long sumOfDevices(List<IDevice> devices) {
+        long sum = 0;
+        for (IDevice device : devices) {
+            sum += EnergyMeter.toMicroWh(device.getTotalPowerConsumption());
+        }
+        return sum;
+    }
+}
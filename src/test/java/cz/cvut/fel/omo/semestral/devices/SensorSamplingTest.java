@@ -0,0 +1,94 @@
+package cz.cvut.fel.omo.semestral.devices;
+
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.CommandQueue;
+import cz.cvut.fel.omo.semestral.entity.devices.sensors.SamplingPolicy;
+import cz.cvut.fel.omo.semestral.entity.devices.sensors.TemperatureSensor;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Temperature;
+import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystemFactory;
+import cz.cvut.fel.omo.semestral.entity.systems.HVACSystem;
+import cz.cvut.fel.omo.semestral.entity.systems.LightingSystem;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the sampling intervals, deadband and hysteresis of the sensors
+ */
+public class SensorSamplingTest {
+
+    @Test
+    public void testSamplesEveryInterval() {
+        Temperature temperature = new Temperature(20);
+        TemperatureSensor sensor = new TemperatureSensor(UUID.randomUUID(), temperature);
+        sensor.setSamplingPolicy(new SamplingPolicy(3, 0, 0));
+        sensor.turnOn();
+        int[] notifications = new int[1];
+        sensor.addObserver(device -> notifications[0]++);
+
+        for (int tick = 1; tick <= 9; tick++) {
+            temperature.setTemperature(20 + tick);
+            sensor.onTick();
+        }
+        assertEquals(3, notifications[0]);
+        assertEquals(29, sensor.getCurrentTemperature(), 0);
+    }
+
+    @Test
+    public void testDeadbandAndHysteresis() {
+        Temperature temperature = new Temperature(20);
+        TemperatureSensor sensor = new TemperatureSensor(UUID.randomUUID(), temperature);
+        sensor.setSamplingPolicy(new SamplingPolicy(1, 1.0, 0.5));
+        sensor.turnOn();
+        int[] notifications = new int[1];
+        sensor.addObserver(device -> notifications[0]++);
+
+        temperature.setTemperature(20.5);
+        sensor.onTick();
+        assertEquals(0, notifications[0]);
+
+        temperature.setTemperature(21);
+        sensor.onTick();
+        assertEquals(1, notifications[0]);
+
+        // A reversal has to exceed the deadband by the hysteresis
+        temperature.setTemperature(20);
+        sensor.onTick();
+        assertEquals(1, notifications[0]);
+        assertEquals(21, sensor.getCurrentTemperature(), 0);
+
+        temperature.setTemperature(19.5);
+        sensor.onTick();
+        assertEquals(2, notifications[0]);
+        assertEquals(19.5, sensor.getCurrentTemperature(), 0);
+    }
+
+    @Test
+    public void testFactoryAssignsPoliciesByModel() {
+        SamplingPolicy motionSampling = new SamplingPolicy(5, 0, 0);
+        DeviceSystemFactory factory = new DeviceSystemFactory(CommandQueue.DEFAULT_CAPACITY, CommandQueue.OverflowPolicy.COALESCE,
+                Map.of("MotionSensor", motionSampling));
+        Room room = Room.roomBuilder().setRoomID(1).setRoomName("Kitchen").build();
+
+        LightingSystem lightingSystem = factory.createLightingSystem(1, room);
+        HVACSystem hvacSystem = factory.createHVACSystem(2, new Temperature(20), new Temperature(10));
+
+        assertSame(motionSampling, lightingSystem.getMotionSensor().getSamplingPolicy());
+        assertSame(SamplingPolicy.DEFAULT, hvacSystem.getInternalSensor().getSamplingPolicy());
+        assertSame(SamplingPolicy.DEFAULT, new TemperatureSensor(UUID.randomUUID(), new Temperature(20)).getSamplingPolicy());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFactoryRejectsUnknownModels() {
+        new DeviceSystemFactory(CommandQueue.DEFAULT_CAPACITY, CommandQueue.OverflowPolicy.COALESCE,
+                Map.of("ThermoSensor", new SamplingPolicy(5, 0, 0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsInvalidInterval() {
+        new SamplingPolicy(0, 0, 0);
+    }
+}
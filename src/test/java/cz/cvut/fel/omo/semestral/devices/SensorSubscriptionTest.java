@@ -0,0 +1,123 @@
+package cz.cvut.fel.omo.semestral.devices;
+
+import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
+import cz.cvut.fel.omo.semestral.entity.actions.Action;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.TV;
+import cz.cvut.fel.omo.semestral.entity.devices.controllers.TVController;
+import cz.cvut.fel.omo.semestral.entity.devices.sensors.SensorReading;
+import cz.cvut.fel.omo.semestral.entity.devices.sensors.UserInputSensor;
+import cz.cvut.fel.omo.semestral.entity.systems.TVSystem;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Flow;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the subscriptions to sensor readings
+ */
+public class SensorSubscriptionTest {
+
+    private TVSystem tvSystem;
+    private TV tv;
+    private TVController controller;
+    private UserInputSensor userInputSensor;
+
+    @Before
+    public void setUp() {
+        tv = new TV(UUID.randomUUID());
+        userInputSensor = new UserInputSensor(UUID.randomUUID());
+        controller = new TVController(UUID.randomUUID(), tv, userInputSensor);
+        tvSystem = new TVSystem(1, tv, controller, userInputSensor);
+    }
+
+    @Test
+    public void testSlowSubscriberHoldsBackUserInput() {
+        RecordingSubscriber subscriber = new RecordingSubscriber(2);
+        userInputSensor.subscribe(subscriber);
+        for (int i = 0; i < 10; i++) {
+            userInputSensor.addtoActionPlan(new Action(UserInputType.TV_CHANNEL, i));
+        }
+        for (int i = 0; i < 10; i++) {
+            tvSystem.onTick();
+        }
+
+        assertEquals(2, subscriber.readings.size());
+        assertEquals(8, userInputSensor.getActionPlan().size());
+        assertEquals(0, userInputSensor.getSteadyTicks());
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        for (int i = 0; i < 10; i++) {
+            tvSystem.onTick();
+        }
+        assertEquals(10, subscriber.readings.size());
+        assertTrue(userInputSensor.getActionPlan().isEmpty());
+        assertEquals(9, ((Action) subscriber.readings.get(9).getValue()).getValue());
+    }
+
+    @Test
+    public void testBufferKeepsLatestReadings() {
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        userInputSensor.subscribe(subscriber, 2);
+        for (int i = 0; i < 5; i++) {
+            userInputSensor.detectInput(UserInputType.TV_VOLUME, i);
+        }
+        assertTrue(subscriber.readings.isEmpty());
+
+        subscriber.subscription.request(10);
+        assertEquals(2, subscriber.readings.size());
+        assertEquals(3, ((Action) subscriber.readings.get(0).getValue()).getValue());
+        assertEquals(4, ((Action) subscriber.readings.get(1).getValue()).getValue());
+    }
+
+    @Test
+    public void testControllerProcessesLimitedReadingsPerTick() {
+        controller.setReadingsPerTick(1);
+        for (int i = 0; i < 3; i++) {
+            userInputSensor.detectInput(UserInputType.TV_CHANNEL, i + 1);
+        }
+        assertEquals(1, controller.getRecords().size());
+        assertEquals(0, controller.getSteadyTicks());
+
+        tvSystem.onTick();
+        assertEquals(2, controller.getRecords().size());
+        assertEquals("TV channel set to 3", controller.getRecords().get(1).getAction());
+        assertTrue(controller.getSteadyTicks() > 0);
+
+        tvSystem.onTick();
+        assertEquals(2, controller.getRecords().size());
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<SensorReading> {
+        private final long initialDemand;
+        private final List<SensorReading> readings = new ArrayList<>();
+        private Flow.Subscription subscription;
+
+        RecordingSubscriber(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialDemand > 0) {
+                subscription.request(initialDemand);
+            }
+        }
+
+        @Override
+        public void onNext(SensorReading reading) {
+            readings.add(reading);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {}
+
+        @Override
+        public void onComplete() {}
+    }
+}
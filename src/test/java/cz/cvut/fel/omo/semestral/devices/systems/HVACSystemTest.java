@@ -8,10 +8,12 @@ import static org.junit.Assert.*;
 import cz.cvut.fel.omo.semestral.entity.livingSpace.Temperature;
 import cz.cvut.fel.omo.semestral.entity.devices.appliances.HVAC;
 import cz.cvut.fel.omo.semestral.entity.devices.controllers.TemperatureController;
+import cz.cvut.fel.omo.semestral.entity.devices.sensors.SamplingPolicy;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.TemperatureSensor;
 import cz.cvut.fel.omo.semestral.entity.devices.sensors.UserInputSensor;
 import cz.cvut.fel.omo.semestral.entity.systems.HVACSystem;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -110,4 +112,47 @@ public class HVACSystemTest {
 
         assertEquals(20.0, internalTemperature.getTemperature(), 0.0);
     }
+
+    @Test
+    public void testTemperatureRampIsFastForwardedAsIfTicked() {
+        Temperature otherInternalTemperature = new Temperature(22.0);
+        TemperatureSensor otherInternalSensor = new TemperatureSensor(UUID.randomUUID(), otherInternalTemperature);
+        TemperatureSensor otherExternalSensor = new TemperatureSensor(UUID.randomUUID(), new Temperature(15.0));
+        UserInputSensor otherUserInputSensor = new UserInputSensor(UUID.randomUUID());
+        HVAC otherHvac = new HVAC(UUID.randomUUID(), otherInternalTemperature);
+        HVACSystem skippingSystem = new HVACSystem(2, otherHvac,
+                new TemperatureController(UUID.randomUUID(), otherInternalSensor, otherExternalSensor, otherHvac, otherUserInputSensor),
+                otherInternalSensor, otherExternalSensor, otherUserInputSensor);
+
+        for (HVACSystem system : List.of(hvacSystem, skippingSystem)) {
+            system.internalSensor.setSamplingPolicy(new SamplingPolicy(2, 1.0, 0.5));
+            system.userInputSensor.detectInput(UserInputType.HVAC_TEMPERATURE, 30.0);
+            system.onTick();
+        }
+        assertEquals("HeatingState", otherHvac.getCurrentState().getClass().getSimpleName());
+
+        int skippedTicks = 0;
+        for (int tick = 1; tick < 40; tick++) {
+            int ticksUntilWake = skippingSystem.getTicksUntilWake();
+            int ticks = Math.min(ticksUntilWake - 1, 40 - tick);
+            skippingSystem.skipTicks(ticks);
+            for (int i = 0; i < ticks; i++) {
+                hvacSystem.onTick();
+            }
+            skippedTicks += ticks;
+            tick += ticks;
+            assertEquals(internalTemperature.getTemperature(), otherInternalTemperature.getTemperature(), 1e-9);
+            assertEquals(internalSensor.getCurrentTemperature(), otherInternalSensor.getCurrentTemperature(), 1e-9);
+            assertEquals(internalSensor.getLastChangeDirection(), otherInternalSensor.getLastChangeDirection());
+            assertEquals(hvac.getTotalWear(), otherHvac.getTotalWear());
+
+            hvacSystem.onTick();
+            skippingSystem.onTick();
+            assertEquals(hvac.getCurrentState().getClass(), otherHvac.getCurrentState().getClass());
+        }
+        assertTrue(skippedTicks > 10);
+        // The controller switched the HVAC back and forth around the target just as often
+        assertEquals(controller.getRecords().size(), skippingSystem.controller.getRecords().size());
+        assertTrue(controller.getRecords().size() > 2);
+    }
 }
@@ -0,0 +1,77 @@
+package cz.cvut.fel.omo.semestral.devices.systems;
+
+import cz.cvut.fel.omo.semestral.common.enums.DeviceCommand;
+import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.Light;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystemFactory;
+import cz.cvut.fel.omo.semestral.entity.systems.LightingSystem;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the lighting system commanding its lights as a group
+ */
+public class LightingSystemTest {
+
+    private static final int LIGHT_COUNT = 200;
+
+    private LightingSystem lightingSystem;
+
+    @Before
+    public void setUp() {
+        Room room = Room.roomBuilder().setRoomID(1).setRoomName("Hall").build();
+        lightingSystem = new DeviceSystemFactory().createLightingSystem(1, room, LIGHT_COUNT);
+    }
+
+    @Test
+    public void testGroupCommandSwitchesAllLights() {
+        assertEquals(LIGHT_COUNT, lightingSystem.getLights().size());
+        assertEquals(LIGHT_COUNT + 3, lightingSystem.getDevices().size());
+
+        lightingSystem.getUserInputSensor().detectInput(UserInputType.LIGHT_SWITCH, true);
+        lightingSystem.onTick();
+
+        for (Light light : lightingSystem.getLights()) {
+            assertEquals(DeviceState.ON, light.getState());
+            assertTrue(light.getActionPlan().isEmpty());
+        }
+        assertEquals(1, lightingSystem.getController().getRecords().size());
+        assertFalse(lightingSystem.getLightGroup().hasPendingCommands());
+    }
+
+    @Test
+    public void testGroupCommandsCoalesce() {
+        lightingSystem.getLightGroup().addtoActionPlan(DeviceCommand.TURN_ON);
+        lightingSystem.getLightGroup().addtoActionPlan(DeviceCommand.TURN_OFF);
+        assertEquals(1, lightingSystem.getTicksUntilWake());
+
+        Light broken = lightingSystem.getLights().get(0);
+        broken.setState(DeviceState.MALFUNCTION);
+        lightingSystem.getLightGroup().performAllActions();
+
+        assertEquals(DeviceState.MALFUNCTION, broken.getState());
+        assertEquals(DeviceState.IDLE, lightingSystem.getLights().get(1).getState());
+    }
+
+    @Test
+    public void testBrokenLightsExecuteGroupCommandsOnceRepaired() {
+        Light broken = lightingSystem.getLights().get(0);
+        broken.setState(DeviceState.MALFUNCTION);
+        lightingSystem.getLightGroup().addtoActionPlan(DeviceCommand.TURN_ON);
+        lightingSystem.getLightGroup().performAllActions();
+
+        assertEquals(DeviceState.MALFUNCTION, broken.getState());
+        assertFalse(broken.getActionPlan().isEmpty());
+        assertEquals(DeviceState.ON, lightingSystem.getLights().get(1).getState());
+
+        broken.repair();
+        broken.setState(DeviceState.IDLE);
+        broken.onTick();
+        assertEquals(DeviceState.ON, broken.getState());
+        assertTrue(broken.getActionPlan().isEmpty());
+    }
+}
@@ -0,0 +1,94 @@
+package cz.cvut.fel.omo.semestral.livingSpace;
+
+import cz.cvut.fel.omo.semestral.entity.beings.Being;
+import cz.cvut.fel.omo.semestral.entity.beings.Human;
+import cz.cvut.fel.omo.semestral.entity.beings.Pet;
+import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Floor;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.House;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Temperature;
+import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystem;
+import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystemFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the cached views of the content of the house and its floors
+ */
+public class AggregateViewsTest {
+
+    private House house;
+    private Floor groundFloor;
+    private Room kitchen;
+    private Room attic;
+    private Human human;
+    private Pet pet;
+
+    @Before
+    public void setUp() {
+        DeviceSystemFactory factory = new DeviceSystemFactory();
+        human = new Human(1, "Pavel", null, null);
+        pet = new Pet(2, "Rex", null);
+        kitchen = Room.roomBuilder().setRoomID(1).setRoomName("Kitchen").addPerson(human).addPerson(pet)
+                .addDeviceSystem(factory.createEntertainmentSystem(1)).build();
+        attic = Room.roomBuilder().setRoomID(2).setRoomName("Attic").build();
+        human.setRoom(kitchen);
+        pet.setRoom(kitchen);
+        groundFloor = new Floor(1, "Ground floor", 0, List.of(kitchen));
+        house = new House(1, 13, "Address", new Temperature(20), new Temperature(10),
+                List.of(groundFloor, new Floor(2, "Attic", 1, List.of(attic))));
+    }
+
+    @Test
+    public void testViewsAreCachedBetweenChanges() {
+        List<Human> people = house.getAllPeople();
+        List<Being> beings = house.getAllBeings();
+        List<DeviceSystem> deviceSystems = house.getAllDeviceSystems();
+        assertSame(people, house.getAllPeople());
+        assertSame(beings, house.getAllBeings());
+        assertSame(deviceSystems, house.getAllDeviceSystems());
+        assertSame(kitchen.getAllBeings(), kitchen.getAllBeings());
+        assertEquals(List.of(human), people);
+        assertEquals(List.of(pet), house.getAllPets());
+        assertEquals(List.of(human, pet), beings);
+    }
+
+    @Test
+    public void testBeingsMovingInvalidateViews() {
+        List<Human> people = house.getAllPeople();
+        List<Human> groundFloorPeople = groundFloor.getAllPeople();
+        human.goTo(attic);
+
+        assertTrue(groundFloor.getAllPeople().isEmpty());
+        assertEquals(List.of(human), house.getAllPeople());
+        assertNotSame(people, house.getAllPeople());
+        assertEquals(List.of(human), groundFloorPeople);
+        assertEquals(List.of(pet), kitchen.getAllBeings());
+        assertEquals(List.of(human), attic.getAllBeings());
+        assertEquals(List.of(pet, human), house.getAllBeings());
+    }
+
+    @Test
+    public void testAddedDeviceSystemInvalidatesViews() {
+        int deviceCount = house.getAllDevices().size();
+        List<DeviceSystem> deviceSystems = house.getAllDeviceSystems();
+        DeviceSystem lightingSystem = new DeviceSystemFactory().createLightingSystem(2, attic);
+        attic.addDeviceSystem(lightingSystem);
+
+        assertEquals(deviceSystems.size() + 1, house.getAllDeviceSystems().size());
+        assertTrue(house.getAllDeviceSystems().contains(lightingSystem));
+        assertEquals(deviceCount, house.getAllDevices().size());
+        assertSame(house.getAllDeviceSystems(), house.getAllDeviceSystems());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testViewsAreReadOnly() {
+        List<IDevice> devices = house.getAllDevices();
+        devices.clear();
+    }
+}
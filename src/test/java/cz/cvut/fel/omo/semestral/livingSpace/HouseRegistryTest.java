@@ -0,0 +1,112 @@
+package cz.cvut.fel.omo.semestral.livingSpace;
+
+import cz.cvut.fel.omo.semestral.entity.beings.Human;
+import cz.cvut.fel.omo.semestral.entity.beings.Pet;
+import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.Light;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.TV;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Floor;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Garage;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.House;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.HouseRegistry;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Temperature;
+import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystemFactory;
+import cz.cvut.fel.omo.semestral.entity.systems.LightingSystem;
+import cz.cvut.fel.omo.semestral.entity.systems.TVSystem;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the indices of the house registry
+ */
+public class HouseRegistryTest {
+
+    private House house;
+    private Room kitchen;
+    private Garage garage;
+    private Human human;
+    private Pet pet;
+    private TVSystem tvSystem;
+
+    @Before
+    public void setUp() {
+        DeviceSystemFactory factory = new DeviceSystemFactory();
+        human = new Human(1, "Pavel", null, null);
+        pet = new Pet(2, "Rex", null);
+        tvSystem = factory.createEntertainmentSystem(10);
+        kitchen = Room.roomBuilder().setRoomID(1).setRoomName("Kitchen").addPerson(human).addPerson(pet)
+                .addDeviceSystem(tvSystem).build();
+        garage = Garage.garageBuilder().setRoomID(2).setRoomName("Garage").build();
+        house = new House(1, 13, "Address", new Temperature(20), new Temperature(10),
+                List.of(new Floor(1, "Ground floor", 0, List.of(kitchen, garage))));
+    }
+
+    @Test
+    public void testLooksUpRegisteredEntities() {
+        HouseRegistry registry = house.getRegistry();
+        assertSame(kitchen, registry.getRoom("Kitchen"));
+        assertSame(kitchen, registry.getRoom(1));
+        assertSame(garage, house.getGarage());
+        assertSame(house.getFloors().get(0), house.getFLoor(0));
+        assertSame(house.getFloors().get(0), registry.getFloor("Ground floor"));
+        assertNull(house.getFLoor(1));
+        assertSame(human, registry.getHuman("Pavel"));
+        assertSame(pet, registry.getPet("Rex"));
+        assertNull(registry.getHuman("Rex"));
+        assertSame(tvSystem, registry.getDeviceSystem(10));
+        TV tv = tvSystem.getTv();
+        assertSame(tv, registry.getDevice(tv.getSerialNumber()));
+        assertEquals(List.of(tv), registry.getDevices(TV.class));
+    }
+
+    @Test
+    public void testFollowsAddedAndRemovedEntities() {
+        HouseRegistry registry = house.getRegistry();
+        LightingSystem lightingSystem = new DeviceSystemFactory().createLightingSystem(11, kitchen, 5);
+        kitchen.addDeviceSystem(lightingSystem);
+        assertSame(lightingSystem, registry.getDeviceSystem(11));
+        assertEquals(5, registry.getDevices(Light.class).size());
+
+        kitchen.removeDeviceSystem(tvSystem);
+        assertNull(registry.getDeviceSystem(10));
+        for (IDevice device : tvSystem.getDevices()) {
+            assertNull(registry.getDevice(device.getSerialNumber()));
+        }
+        assertTrue(registry.getDevices(TV.class).isEmpty());
+
+        assertTrue(house.getFloors().get(0).removeRoom(garage));
+        assertNull(registry.getGarage());
+        assertNull(registry.getRoom("Garage"));
+        assertFalse(house.getAllDeviceSystems().contains(tvSystem));
+    }
+
+    @Test
+    public void testFindsRemainingEntityOfRemovedName() {
+        Room secondKitchen = Room.roomBuilder().setRoomID(3).setRoomName("Kitchen").build();
+        Floor upperFloor = new Floor(2, "Upper floor", 1, List.of(secondKitchen));
+        house.addFloor(upperFloor);
+        HouseRegistry registry = house.getRegistry();
+        assertSame(kitchen, registry.getRoom("Kitchen"));
+
+        assertTrue(house.getFloors().get(0).removeRoom(kitchen));
+        assertSame(secondKitchen, registry.getRoom("Kitchen"));
+        assertNull(registry.getDeviceSystem(10));
+        assertNull(registry.getHuman("Pavel"));
+        assertFalse(house.getAllDevices().contains(tvSystem.getTv()));
+
+        assertTrue(house.removeFloor(upperFloor));
+        assertNull(registry.getRoom("Kitchen"));
+        assertNull(registry.getFloor("Upper floor"));
+        assertTrue(house.getAllDevices().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsFloorOnTakenLevel() {
+        house.addFloor(new Floor(2, "Another ground floor", 0, List.of()));
+    }
+}
@@ -0,0 +1,109 @@
+package cz.cvut.fel.omo.semestral.livingSpace;
+
+import cz.cvut.fel.omo.semestral.entity.beings.Human;
+import cz.cvut.fel.omo.semestral.entity.beings.Pet;
+import cz.cvut.fel.omo.semestral.entity.devices.sensors.MotionSensor;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystemFactory;
+import cz.cvut.fel.omo.semestral.entity.systems.LightingSystem;
+import cz.cvut.fel.omo.semestral.manual.ManualRepoProxy;
+import cz.cvut.fel.omo.semestral.manual.OfflineManualDatabase;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the occupancy of the rooms and the motion sensors subscribed to it
+ */
+public class RoomOccupancyTest {
+
+    private Room kitchen;
+    private Room bedroom;
+    private Human human;
+    private Pet pet;
+
+    @Before
+    public void setUp() {
+        kitchen = Room.roomBuilder().setRoomID(1).setRoomName("Kitchen").build();
+        bedroom = Room.roomBuilder().setRoomID(2).setRoomName("Bedroom").build();
+        human = new Human(1, "Pavel", kitchen, new ManualRepoProxy(new OfflineManualDatabase()));
+        pet = new Pet(2, "Rex", kitchen);
+        kitchen.enterRoom(human);
+        kitchen.enterRoom(pet);
+    }
+
+    @Test
+    public void testCountsPeopleAndPetsSeparately() {
+        assertEquals(1, kitchen.getOccupancy().getPeopleCount());
+        assertEquals(1, kitchen.getOccupancy().getPetCount());
+        assertEquals(2, kitchen.getAllBeings().size());
+
+        kitchen.enterRoom(human);
+        assertEquals(1, kitchen.getAllPeople().size());
+
+        human.goTo(bedroom);
+        assertFalse(kitchen.getOccupancy().contains(human));
+        assertTrue(bedroom.getOccupancy().contains(human));
+        assertTrue(kitchen.getAllPeople().isEmpty());
+        assertEquals(1, bedroom.getAllPeople().size());
+        assertTrue(kitchen.isOccupied());
+
+        pet.goTo(bedroom);
+        assertFalse(kitchen.isOccupied());
+        assertEquals(2, bedroom.getAllBeings().size());
+    }
+
+    @Test
+    public void testPushesChangesToMotionSensors() {
+        MotionSensor sensor = new MotionSensor(UUID.randomUUID(), bedroom);
+        sensor.turnOn();
+        int[] notifications = new int[1];
+        sensor.addObserver(device -> notifications[0]++);
+        int[] changes = new int[1];
+        bedroom.getOccupancy().subscribe((room, people, pets) -> changes[0]++);
+
+        sensor.onTick();
+        assertFalse(sensor.isMotionDetected());
+
+        human.goTo(bedroom);
+        pet.goTo(bedroom);
+        assertEquals(2, changes[0]);
+        sensor.onTick();
+        assertTrue(sensor.isMotionDetected());
+        assertEquals(1, notifications[0]);
+
+        sensor.setRoom(kitchen);
+        sensor.onTick();
+        assertFalse(sensor.isMotionDetected());
+        human.goTo(kitchen);
+        sensor.onTick();
+        assertTrue(sensor.isMotionDetected());
+        assertEquals(3, notifications[0]);
+    }
+
+    @Test
+    public void testRemovedSystemsStopListeningToTheRoom() {
+        LightingSystem lightingSystem = new DeviceSystemFactory().createLightingSystem(1, bedroom);
+        bedroom.addDeviceSystem(lightingSystem);
+        MotionSensor sensor = lightingSystem.getMotionSensor();
+        sensor.turnOn();
+
+        bedroom.removeDeviceSystem(lightingSystem);
+        assertNull(sensor.getRoom());
+        human.goTo(bedroom);
+        sensor.onTick();
+        assertFalse(sensor.isMotionDetected());
+
+        kitchen.addDeviceSystem(lightingSystem);
+        assertSame(kitchen, sensor.getRoom());
+        sensor.onTick();
+        assertTrue(sensor.isMotionDetected());
+        human.goTo(bedroom);
+        pet.goTo(bedroom);
+        sensor.onTick();
+        assertFalse(sensor.isMotionDetected());
+    }
+}
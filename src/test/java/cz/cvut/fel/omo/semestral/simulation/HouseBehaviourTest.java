@@ -0,0 +1,111 @@
+package cz.cvut.fel.omo.semestral.simulation;
+
+import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
+import cz.cvut.fel.omo.semestral.entity.actions.ActionPlan;
+import cz.cvut.fel.omo.semestral.entity.beings.Human;
+import cz.cvut.fel.omo.semestral.entity.beings.Pet;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Floor;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.House;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Temperature;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the behaviour generated for the beings of a house
+ */
+public class HouseBehaviourTest {
+
+    private House house;
+    private Room kitchen;
+    private Room hall;
+    private Human human;
+    private Pet pet;
+
+    @Before
+    public void setUp() {
+        human = new Human(1, "John Doe", null, null);
+        pet = new Pet(2, "Fido", null);
+        kitchen = Room.roomBuilder().setRoomID(1).setRoomName("Kitchen").addPerson(human).addPerson(pet).build();
+        hall = Room.roomBuilder().setRoomID(2).setRoomName("Main Hall").build();
+        human.setRoom(kitchen);
+        pet.setRoom(kitchen);
+        house = new House(1, 13, "Address", new Temperature(20), new Temperature(10),
+                List.of(new Floor(1, "Ground floor", 0, List.of(kitchen, hall))));
+    }
+
+    @Test
+    public void testBeingsMoveBetweenRooms() {
+        HouseBehaviour behaviour = new HouseBehaviour(house, 1, 7, 22);
+        behaviour.plan(human, () -> 0);
+        behaviour.plan(pet, () -> 0);
+
+        for (ActionPlan plan : List.of(human.getActionPlan(), pet.getActionPlan())) {
+            Room room = kitchen;
+            for (int i = 0; i < 10_000; i++) {
+                UserInputType type = plan.peekType();
+                if (type == UserInputType.B_CHANGEROOM) {
+                    assertNotSame(room, plan.peekRoom());
+                    room = plan.peekRoom();
+                } else {
+                    assertEquals(UserInputType.B_NOTHING, type);
+                }
+                plan.poll();
+            }
+        }
+    }
+
+    @Test
+    public void testBeingsRestMoreAtNight() {
+        HouseBehaviour behaviour = new HouseBehaviour(house, 1, 7, 22);
+        long[] now = {0};
+        behaviour.plan(human, () -> now[0]);
+        long ticksPerHour = house.getClock().ticksIn(Duration.ofHours(1));
+        long ticksPerDay = 24 * ticksPerHour;
+
+        int nightMoves = 0;
+        int dayMoves = 0;
+        ActionPlan plan = human.getActionPlan();
+        for (; now[0] < 30 * ticksPerDay; now[0]++) {
+            if (plan.peekType() == UserInputType.B_CHANGEROOM) {
+                long hour = now[0] % ticksPerDay / ticksPerHour;
+                if (hour >= 7 && hour < 22) {
+                    dayMoves++;
+                } else {
+                    nightMoves++;
+                }
+            }
+            plan.poll();
+        }
+        assertTrue(dayMoves + " moves by day, " + nightMoves + " by night", dayMoves > 10 * nightMoves);
+    }
+
+    @Test
+    public void testSeedDecidesActions() {
+        Human twin = new Human(1, "John Doe", kitchen, null);
+        new HouseBehaviour(house, 5, 7, 22).plan(human, () -> 0);
+        new HouseBehaviour(house, 5, 7, 22).plan(twin, () -> 0);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(human.getActionPlan().peekType(), twin.getActionPlan().peekType());
+            assertSame(human.getActionPlan().peekRoom(), twin.getActionPlan().peekRoom());
+            human.getActionPlan().poll();
+            twin.getActionPlan().poll();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsBeingWithoutRoom() {
+        new HouseBehaviour(house, 1, 7, 22).plan(new Human(3, "Jane Doe", null, null), () -> 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsHourOutsideOfDay() {
+        new HouseBehaviour(house, 1, 7, 24);
+    }
+}
@@ -0,0 +1,161 @@
+package cz.cvut.fel.omo.semestral.simulation;
+
+import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
+import cz.cvut.fel.omo.semestral.entity.actions.Action;
+import cz.cvut.fel.omo.semestral.entity.actions.ActionPlan;
+import cz.cvut.fel.omo.semestral.entity.beings.Human;
+import cz.cvut.fel.omo.semestral.entity.beings.Pet;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Floor;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.House;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.SportEquipmentType;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Temperature;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the scenarios read from files as the simulation goes
+ */
+public class ScenarioScriptTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private House house;
+    private Room kitchen;
+    private Room hall;
+    private Human human;
+
+    @Before
+    public void setUp() {
+        human = new Human(1, "John Doe", null, null);
+        Pet pet = new Pet(2, "Fido", null);
+        kitchen = Room.roomBuilder().setRoomID(1).setRoomName("Kitchen").addPerson(human).addPerson(pet).build();
+        hall = Room.roomBuilder().setRoomID(2).setRoomName("Main Hall").build();
+        human.setRoom(kitchen);
+        pet.setRoom(kitchen);
+        house = new House(1, 13, "Address", new Temperature(20), new Temperature(10),
+                List.of(new Floor(1, "Ground floor", 0, List.of(kitchen, hall))));
+    }
+
+    @Test
+    public void testReadsSectionOfEachBeing() throws Exception {
+        Path file = write("# Test scenario",
+                "[Fido]",
+                "B_CHANGEROOM Main Hall",
+                "",
+                "[John Doe]",
+                "B_CHANGEROOM Main Hall   # to the hall",
+                "TV_VOLUME 5",
+                "HVAC_TEMPERATURE 5.0",
+                "TV_POWER true",
+                "B_NOTHING 3",
+                "B_STARTSPORT SKIS",
+                "GATE_CONTROL");
+        ScenarioScript scenario = ScenarioScript.load(file, house.getRegistry());
+        assertEquals(List.of("Fido", "John Doe"), List.copyOf(scenario.getBeingNames()));
+        assertNull(scenario.createActionPlan("Nobody"));
+
+        ActionPlan plan = scenario.createActionPlan("John Doe");
+        assertSame(hall, plan.peekRoom());
+        plan.poll();
+        assertEquals(5, plan.peekAction().getValue());
+        plan.poll();
+        assertEquals(5.0, plan.peekAction().getValue());
+        plan.poll();
+        assertEquals(Boolean.TRUE, plan.peekAction().getValue());
+        plan.poll();
+        assertEquals(3, plan.drop(10));
+        assertEquals(SportEquipmentType.SKIS, plan.peekSportEquipment());
+        plan.poll();
+        assertEquals(UserInputType.GATE_CONTROL, plan.peekType());
+        plan.poll();
+        assertTrue(plan.isEmpty());
+
+        ActionPlan petPlan = scenario.createActionPlan("Fido");
+        assertSame(hall, petPlan.peekRoom());
+        petPlan.poll();
+        assertTrue(petPlan.isEmpty());
+    }
+
+    @Test
+    public void testLongScenarioIsReadOnDemand() throws Exception {
+        Path file = folder.newFile("long.txt").toPath();
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file))) {
+            writer.println("[John Doe]");
+            writer.println("B_NOTHING 1000000");
+            for (int i = 0; i < 100_000; i++) {
+                writer.println("TV_CHANNEL " + i);
+            }
+        }
+        ScenarioScript scenario = ScenarioScript.load(file, house.getRegistry());
+        human.setActionPlan(scenario.createActionPlan("John Doe"));
+
+        assertEquals(1_000_001, human.getTicksUntilWake());
+        assertEquals(2, human.getActionPlan().getRunCount());
+        human.skipTicks(1_000_000);
+        for (int i = 0; i < 50_000; i++) {
+            assertEquals(i, human.getActionPlan().peekAction().getValue());
+            human.getActionPlan().poll();
+        }
+        assertTrue(human.getActionPlan().getRunCount() <= 1);
+    }
+
+    @Test
+    public void testAddedActionsAreNotHeldBackByScenario() throws Exception {
+        Path file = write("[John Doe]", "TV_POWER", "B_NOTHING 2", "TV_POWER");
+        ScenarioScript scenario = ScenarioScript.load(file, house.getRegistry());
+        human.setActionPlan(scenario.createActionPlan("John Doe"));
+        assertEquals(UserInputType.TV_POWER, human.getActionPlan().peekType());
+        human.addActionToPlan(new Action(UserInputType.GATE_CONTROL, null));
+
+        ActionPlan plan = human.getActionPlan();
+        plan.poll();
+        assertEquals(UserInputType.GATE_CONTROL, plan.peekType());
+        plan.poll();
+        assertEquals(2, plan.drop(2));
+        assertEquals(UserInputType.TV_POWER, plan.peekType());
+        plan.poll();
+        assertTrue(plan.isEmpty());
+    }
+
+    @Test
+    public void testRejectsInvalidScenario() throws Exception {
+        assertInvalid("testScenario.txt:3 Unknown room : Cellar", "[John Doe]", "TV_POWER", "B_CHANGEROOM Cellar");
+        assertInvalid("Unknown being : Jane Doe", "[Jane Doe]");
+        assertInvalid("Second section of : John Doe", "[John Doe]", "[John Doe]");
+        assertInvalid("Action outside of a section", "TV_POWER");
+        assertInvalid("Unknown action : TV_OFF", "[John Doe]", "TV_OFF");
+        assertInvalid("Number of idle ticks", "[John Doe]", "B_NOTHING 0");
+        assertInvalid("Unknown sport equipment : BALL", "[John Doe]", "B_STARTSPORT BALL");
+        assertInvalid("Value must be", "[John Doe]", "TV_VOLUME loud");
+    }
+
+    private void assertInvalid(String message, String... lines) throws IOException {
+        Path file = write(lines);
+        try {
+            ScenarioScript.load(file, house.getRegistry());
+            fail("Scenario should be rejected: " + message);
+        } catch (ConfigurationException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(message));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private Path write(String... lines) throws IOException {
+        Path file = folder.getRoot().toPath().resolve("testScenario.txt");
+        Files.write(file, List.of(lines));
+        return file;
+    }
+}
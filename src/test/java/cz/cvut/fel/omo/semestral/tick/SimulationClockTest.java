@@ -0,0 +1,90 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.TV;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.states.HeatingState;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Floor;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.House;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Temperature;
+import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystemFactory;
+import cz.cvut.fel.omo.semestral.entity.systems.TVSystem;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the scaling of the device models to the tick duration
+ */
+public class SimulationClockTest {
+
+    private final DeviceSystemFactory factory = new DeviceSystemFactory();
+
+    @Test
+    public void testShorterTicksKeepRatesPerSimulatedTime() {
+        SimulationClock minuteClock = new SimulationClock(Duration.ofMinutes(1));
+        TV reference = createTV(createFloorOfHouse(SimulationClock.REFERENCE), 1);
+        TV scaled = createTV(createFloorOfHouse(minuteClock), 2);
+
+        // Houses of different tick durations are simulated side by side
+        assertSame(minuteClock, scaled.getClock());
+        assertEquals(reference.getPowerConsumptionPerTick_ON(), 10 * scaled.getPowerConsumptionPerTick_ON(), 1e-12);
+        assertEquals(10 * (reference.getSteadyTicks() + 1), scaled.getSteadyTicks() + 1);
+        assertEquals(0.05, new HeatingState().getTempChangePerTick(minuteClock), 1e-12);
+        assertEquals(Duration.ofMinutes(200), minuteClock.toDuration(200));
+    }
+
+    @Test
+    public void testDevicesFollowTheClockOfTheirHouse() {
+        TVSystem tvSystem = factory.createEntertainmentSystem(1);
+        TV tv = tvSystem.getTv();
+        tv.setState(DeviceState.ON);
+        double referenceConsumption = tv.getPowerConsumptionPerTick_ON();
+        assertSame(SimulationClock.REFERENCE, tv.getClock());
+
+        SimulationClock minuteClock = new SimulationClock(Duration.ofMinutes(1));
+        Floor floor = createFloorOfHouse(minuteClock);
+        Room room = floor.getRooms().get(0);
+        room.addDeviceSystem(tvSystem);
+        assertEquals(referenceConsumption, 10 * tv.getPowerConsumptionPerTick_ON(), 1e-12);
+
+        // A room leaving the house keeps the tick duration of the house
+        floor.removeRoom(room);
+        assertSame(minuteClock, tv.getClock());
+    }
+
+    @Test
+    public void testLongerTicksShortenLifetime() {
+        SimulationClock hourClock = new SimulationClock(Duration.ofHours(1));
+
+        assertEquals(17, hourClock.scaleLifetime(100));
+        assertEquals(1, hourClock.scaleLifetime(1));
+        assertEquals(6 * 0.5, hourClock.scale(0.5), 1e-12);
+        assertEquals(24, hourClock.ticksIn(Duration.ofDays(1)));
+        assertEquals(1, hourClock.ticksIn(Duration.ofMinutes(30)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTickDurationMustBePositive() {
+        new SimulationClock(Duration.ZERO);
+    }
+
+    private static Floor createFloorOfHouse(SimulationClock clock) {
+        Room room = Room.roomBuilder().setRoomID(1).setRoomName("Living room").build();
+        Floor floor = new Floor(1, "Ground floor", 0, new ArrayList<>(List.of(room)));
+        new House(1, 1, "Street", new Temperature(21), new Temperature(10), List.of(floor), clock);
+        return floor;
+    }
+
+    private TV createTV(Floor floor, int deviceSystemID) {
+        TVSystem tvSystem = factory.createEntertainmentSystem(deviceSystemID);
+        floor.getRooms().get(0).addDeviceSystem(tvSystem);
+        TV tv = tvSystem.getTv();
+        tv.setState(DeviceState.ON);
+        return tv;
+    }
+}
@@ -0,0 +1,85 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Temperature;
+import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystem;
+import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystemFactory;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that ticks in which no device changes do not allocate
+ */
+public class SteadyTickAllocationTest {
+
+    private static final int WARMUP_TICKS = 20000;
+    private static final int MEASURED_TICKS = 1000;
+    /** Allowance for the measurement itself, a single allocation per tick already exceeds it */
+    private static final long ALLOWED_BYTES = 256;
+
+    @Test
+    public void testSteadySerialTickDoesNotAllocate() {
+        long allocated = measureSteadyTicks(TickMode.SERIAL);
+        assertTrue("Steady ticks allocated " + allocated + " bytes", allocated < ALLOWED_BYTES);
+    }
+
+    @Test
+    public void testSteadySparseTickDoesNotAllocate() {
+        long allocated = measureSteadyTicks(TickMode.SPARSE);
+        assertTrue("Steady ticks allocated " + allocated + " bytes", allocated < ALLOWED_BYTES);
+    }
+
+    /**
+     * Ticks a house with one system of every kind until it has settled and the tick path is compiled,
+     * then measures the bytes allocated by the calling thread during further ticks.
+     *
+     * @param mode The tick mode to be measured, must tick on the calling thread.
+     * @return The number of allocated bytes.
+     */
+    private long measureSteadyTicks(TickMode mode) {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        TickPublisher publisher = new TickPublisher(mode);
+        for (DeviceSystem system : createSystems()) {
+            system.getAppliances().forEach(device -> device.setWearCapacity(Integer.MAX_VALUE));
+            system.getSensors().forEach(device -> device.setWearCapacity(Integer.MAX_VALUE));
+            system.getControllers().forEach(device -> device.setWearCapacity(Integer.MAX_VALUE));
+            system.turnOn();
+            publisher.subscribe(system, TickPhase.DEVICE_SYSTEMS);
+        }
+        for (int i = 0; i < WARMUP_TICKS; i++) {
+            publisher.tick();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_TICKS; i++) {
+            publisher.tick();
+        }
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private List<DeviceSystem> createSystems() {
+        DeviceSystemFactory factory = new DeviceSystemFactory();
+        Room room = Room.roomBuilder().setRoomID(1).setRoomName("Living room").build();
+        List<DeviceSystem> systems = new ArrayList<>();
+        systems.add(factory.createFridgeSystem(1));
+        systems.add(factory.createGateControlSystem(2));
+        systems.add(factory.createSecuritySystem(3));
+        systems.add(factory.createLightingSystem(4, room));
+        systems.add(factory.createHVACSystem(5, new Temperature(21), new Temperature(10)));
+        systems.add(factory.createEntertainmentSystem(6));
+        systems.forEach(system -> system.setRoom(room));
+        return systems;
+    }
+}
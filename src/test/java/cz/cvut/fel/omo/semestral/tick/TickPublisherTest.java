@@ -0,0 +1,468 @@
+package cz.cvut.fel.omo.semestral.tick;
+
+import cz.cvut.fel.omo.semestral.common.enums.DeviceCommand;
+import cz.cvut.fel.omo.semestral.common.enums.DeviceState;
+import cz.cvut.fel.omo.semestral.common.enums.UserInputType;
+import cz.cvut.fel.omo.semestral.entity.actions.Action;
+import cz.cvut.fel.omo.semestral.entity.beings.Human;
+import cz.cvut.fel.omo.semestral.entity.devices.DeviceEffects;
+import cz.cvut.fel.omo.semestral.entity.devices.IDevice;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.Light;
+import cz.cvut.fel.omo.semestral.entity.devices.appliances.TV;
+import cz.cvut.fel.omo.semestral.entity.devices.controllers.TVController;
+import cz.cvut.fel.omo.semestral.entity.devices.sensors.UserInputSensor;
+import cz.cvut.fel.omo.semestral.entity.livingSpace.Room;
+import cz.cvut.fel.omo.semestral.entity.systems.DeviceSystemFactory;
+import cz.cvut.fel.omo.semestral.entity.systems.LightingSystem;
+import cz.cvut.fel.omo.semestral.entity.systems.TVSystem;
+import cz.cvut.fel.omo.semestral.manual.ManualRepoProxy;
+import cz.cvut.fel.omo.semestral.manual.OfflineManualDatabase;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the tick modes of the tick publisher
+ */
+public class TickPublisherTest {
+
+    private static final int ROOMS = 8;
+    private static final int TICKS = 300;
+
+    @Test
+    public void testParallelModeMatchesSerialMode() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<String> serialEvents = new ArrayList<>();
+            List<String> parallelEvents = new ArrayList<>();
+            List<TVSystem> serialSystems = runSimulation(new TickPublisher(TickMode.SERIAL), serialEvents);
+            List<TVSystem> parallelSystems = runSimulation(new TickPublisher(TickMode.PARALLEL, pool), parallelEvents);
+
+            assertFalse(serialEvents.isEmpty());
+            assertEquals(serialEvents, parallelEvents);
+            for (int i = 0; i < ROOMS; i++) {
+                assertEquals(serialSystems.get(i).getTotalConsumption(), parallelSystems.get(i).getTotalConsumption(), 0.0);
+                assertEquals(serialSystems.get(i).getTv().getState(), parallelSystems.get(i).getTv().getState());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testOptimisticModeMatchesSerialMode() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<String> serialEvents = new ArrayList<>();
+            List<String> optimisticEvents = new ArrayList<>();
+            List<TVSystem> serialSystems = runSimulation(new TickPublisher(TickMode.SERIAL), serialEvents);
+            List<TVSystem> optimisticSystems = runSimulation(new TickPublisher(TickMode.OPTIMISTIC, pool), optimisticEvents);
+
+            assertFalse(serialEvents.isEmpty());
+            assertEquals(serialEvents, optimisticEvents);
+            for (int i = 0; i < ROOMS; i++) {
+                assertEquals(serialSystems.get(i).getTotalConsumption(), optimisticSystems.get(i).getTotalConsumption(), 0.0);
+                assertEquals(serialSystems.get(i).getTv().getState(), optimisticSystems.get(i).getTv().getState());
+                assertEquals(serialSystems.get(i).getController().getTickCounter(), optimisticSystems.get(i).getController().getTickCounter());
+            }
+            assertEquals(runHouse(new TickPublisher(TickMode.SERIAL)), runHouse(new TickPublisher(TickMode.OPTIMISTIC, pool)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testOptimisticModeRunsHeldBackEffectsOnce() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            TickPublisher publisher = new TickPublisher(TickMode.OPTIMISTIC, pool);
+            List<Integer> reaching = new ArrayList<>();
+            List<Integer> local = new ArrayList<>();
+            publisher.subscribe(new EffectCounter(publisher, reaching, 5), TickPhase.DEVICE_SYSTEMS, new Object());
+            publisher.subscribe(new EffectCounter(publisher, local, 0), TickPhase.DEVICE_SYSTEMS, new Object());
+            while (publisher.getTickCount() < 20) {
+                publisher.advance(20 - publisher.getTickCount());
+            }
+
+            List<Integer> expected = new ArrayList<>();
+            for (int tick = 1; tick <= 20; tick++) {
+                expected.add(tick);
+            }
+            assertEquals(expected, reaching);
+            assertEquals(expected, local);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testOptimisticModeTicksInLockStepWithoutStateSaving() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            TickPublisher publisher = new TickPublisher(TickMode.OPTIMISTIC, pool);
+            int[] ticks = new int[1];
+            publisher.subscribe(() -> ticks[0]++, TickPhase.DEVICE_SYSTEMS, new Object());
+
+            assertEquals(1, publisher.advance(10));
+            assertEquals(1, ticks[0]);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPipelineModeDeliversUserInput() {
+        TV tv = new TV(UUID.randomUUID());
+        UserInputSensor userInputSensor = new UserInputSensor(UUID.randomUUID());
+        TVController controller = new TVController(UUID.randomUUID(), tv, userInputSensor);
+        TVSystem system = new TVSystem(1, tv, controller, userInputSensor);
+        TickPublisher publisher = new TickPublisher(TickMode.PIPELINE);
+        publisher.subscribe(system, TickPhase.DEVICE_SYSTEMS);
+
+        userInputSensor.addtoActionPlan(new Action(UserInputType.TV_POWER, null));
+        userInputSensor.addtoActionPlan(new Action(UserInputType.TV_VOLUME, 7));
+        userInputSensor.addtoActionPlan(new Action(UserInputType.TV_CHANNEL, 3));
+        for (int i = 0; i < 3; i++) {
+            publisher.tick();
+        }
+
+        assertTrue(userInputSensor.isNotificationsDeferred());
+        assertFalse(userInputSensor.isNotificationPending());
+        assertEquals(DeviceState.ON, tv.getState());
+        assertEquals(7, tv.getVolumeLevel());
+        assertEquals(3, tv.getCurrentChannel());
+    }
+
+    @Test
+    public void testPipelineModeBroadcastsGroupCommands() {
+        Room room = Room.roomBuilder().setRoomID(1).setRoomName("Office").build();
+        LightingSystem system = new DeviceSystemFactory().createLightingSystem(1, room, 20);
+        room.addDeviceSystem(system);
+        TickPublisher publisher = new TickPublisher(TickMode.PIPELINE);
+        publisher.subscribe(system, TickPhase.DEVICE_SYSTEMS);
+
+        system.getUserInputSensor().addtoActionPlan(new Action(UserInputType.LIGHT_SWITCH, false));
+        for (int i = 0; i < 3; i++) {
+            publisher.tick();
+        }
+
+        assertFalse(system.getLightGroup().hasPendingCommands());
+        for (Light light : system.getLights()) {
+            assertEquals(DeviceState.IDLE, light.getState());
+        }
+    }
+
+    @Test
+    public void testActorModeDeliversUserInput() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            TV tv = new TV(UUID.randomUUID());
+            UserInputSensor userInputSensor = new UserInputSensor(UUID.randomUUID());
+            TVController controller = new TVController(UUID.randomUUID(), tv, userInputSensor);
+            TVSystem system = new TVSystem(1, tv, controller, userInputSensor);
+            TickPublisher publisher = new TickPublisher(TickMode.ACTOR, pool);
+            publisher.subscribe(system, TickPhase.DEVICE_SYSTEMS);
+
+            system.post(() -> userInputSensor.addtoActionPlan(new Action(UserInputType.TV_POWER, null)));
+            system.post(() -> userInputSensor.addtoActionPlan(new Action(UserInputType.TV_VOLUME, 7)));
+            system.post(() -> userInputSensor.addtoActionPlan(new Action(UserInputType.TV_CHANNEL, 3)));
+            assertEquals(3, system.getMailbox().getDepth());
+            for (int i = 0; i < 4; i++) {
+                publisher.tick();
+            }
+
+            assertSame(system.getMailbox(), userInputSensor.getNotificationMailbox());
+            assertEquals(0, system.getMailbox().getDepth());
+            assertEquals(7, system.getMailbox().getProcessedCount());
+            assertEquals(DeviceState.ON, tv.getState());
+            assertEquals(7, tv.getVolumeLevel());
+            assertEquals(3, tv.getCurrentChannel());
+            assertEquals(runHouse(new TickPublisher(TickMode.SERIAL)), runHouse(new TickPublisher(TickMode.ACTOR, pool)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSparseModeMatchesSerialMode() {
+        List<String> serialTrace = runHouse(new TickPublisher(TickMode.SERIAL));
+        List<String> sparseTrace = runHouse(new TickPublisher(TickMode.SPARSE));
+
+        assertTrue(serialTrace.stream().anyMatch(line -> line.startsWith("B_REPAIR")));
+        assertEquals(serialTrace, sparseTrace);
+    }
+
+    @Test
+    public void testSparseModeFastForwardsSteadyDevices() {
+        TVSystem serialSystem = createSteadyTVSystem();
+        TVSystem sparseSystem = createSteadyTVSystem();
+        TickPublisher serialPublisher = new TickPublisher(TickMode.SERIAL);
+        TickPublisher sparsePublisher = new TickPublisher(TickMode.SPARSE);
+        serialPublisher.subscribe(serialSystem);
+        sparsePublisher.subscribe(sparseSystem);
+
+        int serialSteps = 0;
+        int sparseSteps = 0;
+        while (serialPublisher.getTickCount() < 10 * TICKS) {
+            serialPublisher.advance(10 * TICKS - serialPublisher.getTickCount());
+            serialSteps++;
+        }
+        while (sparsePublisher.getTickCount() < 10 * TICKS) {
+            sparsePublisher.advance(10 * TICKS - sparsePublisher.getTickCount());
+            sparseSteps++;
+        }
+        sparsePublisher.synchronize();
+
+        assertEquals(10 * TICKS, serialSteps);
+        assertTrue(sparseSteps <= 3);
+        assertEquals(serialSystem.getTv().getTotalWear(), sparseSystem.getTv().getTotalWear());
+        assertEquals(serialSystem.getController().getTickCounter(), sparseSystem.getController().getTickCounter());
+        assertEquals(serialSystem.getTotalConsumption(), sparseSystem.getTotalConsumption(), 1e-9);
+    }
+
+    @Test
+    public void testSparseModeJumpsBetweenActivations() {
+        TVSystem serialSystem = createSteadyTVSystem();
+        TVSystem sparseSystem = createSteadyTVSystem();
+        TickPublisher serialPublisher = new TickPublisher(TickMode.SERIAL);
+        TickPublisher sparsePublisher = new TickPublisher(TickMode.SPARSE);
+        serialPublisher.subscribe(serialSystem);
+        sparsePublisher.subscribe(sparseSystem);
+
+        for (int i = 0; i < 100 * TICKS; i++) {
+            serialPublisher.tick();
+        }
+        assertEquals(1, sparsePublisher.advance(100 * TICKS));
+        assertEquals(100 * TICKS - 1, sparsePublisher.advance(100 * TICKS - 1));
+        sparsePublisher.synchronize();
+
+        assertEquals(serialSystem.getTv().getTotalWear(), sparseSystem.getTv().getTotalWear());
+        assertEquals(serialSystem.getController().getTickCounter(), sparseSystem.getController().getTickCounter());
+        assertEquals(serialSystem.getTotalConsumption(), sparseSystem.getTotalConsumption(), 1e-9);
+    }
+
+    @Test
+    public void testLevelOfDetailModeDemotesUnoccupiedRooms() {
+        TVSystem serialSystem = createSteadyTVSystem();
+        TVSystem lodSystem = createSteadyTVSystem();
+        Room room = Room.roomBuilder().setRoomID(1).setRoomName("Room").addDeviceSystem(lodSystem).build();
+        int[] ticks = new int[2];
+        Tickable counter = new Tickable() {
+            @Override
+            public void onTick() {
+                ticks[0]++;
+            }
+
+            @Override
+            public int getTicksUntilWake() {
+                return SLEEP_UNTIL_WOKEN;
+            }
+
+            @Override
+            public void skipTicks(int skipped) {
+                ticks[1] += skipped;
+            }
+        };
+        TickPublisher serialPublisher = new TickPublisher(TickMode.SERIAL);
+        TickPublisher lodPublisher = new TickPublisher(TickMode.LEVEL_OF_DETAIL);
+        serialPublisher.subscribe(serialSystem);
+        lodPublisher.subscribe(lodSystem, TickPhase.DEVICE_SYSTEMS, room);
+        lodPublisher.subscribe(counter, TickPhase.DEVICE_SYSTEMS, room);
+
+        int coarseTicks = 10 * TickPublisher.DEFAULT_COARSE_INTERVAL;
+        for (int i = 0; i < coarseTicks; i++) {
+            lodPublisher.tick();
+        }
+        assertEquals(10, ticks[0]);
+        assertEquals(coarseTicks - 10, ticks[1]);
+
+        lodPublisher.wake(counter);
+        lodPublisher.tick();
+        assertEquals(11, ticks[0]);
+        for (int i = 0; i < TickPublisher.DEFAULT_COARSE_INTERVAL; i++) {
+            lodPublisher.tick();
+        }
+        assertEquals(12, ticks[0]);
+
+        room.enterRoom(new Human(1, "Pavel", room, new ManualRepoProxy(new OfflineManualDatabase())));
+        for (int i = 0; i < 5; i++) {
+            lodPublisher.tick();
+        }
+        assertEquals(17, ticks[0]);
+
+        lodPublisher.synchronize();
+        for (int i = 0; i < lodPublisher.getTickCount(); i++) {
+            serialPublisher.tick();
+        }
+        assertEquals(serialSystem.getTv().getTotalWear(), lodSystem.getTv().getTotalWear());
+        assertEquals(serialSystem.getController().getTickCounter(), lodSystem.getController().getTickCounter());
+        assertEquals(serialSystem.getTotalConsumption(), lodSystem.getTotalConsumption(), 1e-9);
+    }
+
+    @Test
+    public void testLevelOfDetailModeTicksDemotedSystemsWhichAreNotSteady() {
+        List<TVSystem> serialSystems = List.of(createSteadyTVSystem(), createSteadyTVSystem());
+        List<TVSystem> lodSystems = List.of(createSteadyTVSystem(), createSteadyTVSystem());
+        Room room = Room.roomBuilder().setRoomID(1).setRoomName("Room")
+                .addDeviceSystem(lodSystems.get(0)).addDeviceSystem(lodSystems.get(1)).build();
+        TickPublisher serialPublisher = new TickPublisher(TickMode.SERIAL);
+        TickPublisher lodPublisher = new TickPublisher(TickMode.LEVEL_OF_DETAIL, 4);
+        for (List<TVSystem> systems : List.of(serialSystems, lodSystems)) {
+            // The first TV is about to break, the second one has a command waiting
+            systems.forEach(system -> system.getTv().setState(DeviceState.ON));
+            systems.get(0).getTv().setWearCapacity(25);
+            systems.get(1).getTv().addtoActionPlan(DeviceCommand.TURN_OFF);
+        }
+        serialSystems.forEach(serialPublisher::subscribe);
+        lodSystems.forEach(system -> lodPublisher.subscribe(system, TickPhase.DEVICE_SYSTEMS, room));
+
+        for (int i = 0; i < 4; i++) {
+            serialPublisher.tick();
+            lodPublisher.tick();
+        }
+
+        assertEquals(DeviceState.MALFUNCTION, lodSystems.get(0).getTv().getState());
+        assertEquals(DeviceState.IDLE, lodSystems.get(1).getTv().getState());
+        for (int i = 0; i < serialSystems.size(); i++) {
+            TV serialTv = serialSystems.get(i).getTv();
+            TV lodTv = lodSystems.get(i).getTv();
+            assertEquals(serialTv.getState(), lodTv.getState());
+            assertEquals(serialTv.getTotalWear(), lodTv.getTotalWear());
+            assertEquals(serialSystems.get(i).getTotalConsumption(), lodSystems.get(i).getTotalConsumption(), 1e-9);
+        }
+    }
+
+    private TVSystem createSteadyTVSystem() {
+        TV tv = new TV(UUID.randomUUID());
+        UserInputSensor userInputSensor = new UserInputSensor(UUID.randomUUID());
+        TVController controller = new TVController(UUID.randomUUID(), tv, userInputSensor);
+        tv.setWearCapacity(100000);
+        userInputSensor.setWearCapacity(100000);
+        controller.setWearCapacity(100000);
+        return new TVSystem(0, tv, controller, userInputSensor);
+    }
+
+    private List<String> runHouse(TickPublisher publisher) {
+        List<TVSystem> systems = new ArrayList<>();
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            TV tv = new TV(UUID.randomUUID());
+            UserInputSensor userInputSensor = new UserInputSensor(UUID.randomUUID());
+            TVController controller = new TVController(UUID.randomUUID(), tv, userInputSensor);
+            tv.setWearCapacity(150);
+            userInputSensor.setWearCapacity(100000);
+            controller.setWearCapacity(100000);
+            TVSystem system = new TVSystem(i, tv, controller, userInputSensor);
+            systems.add(system);
+            rooms.add(Room.roomBuilder().setRoomID(i + 1).setRoomName("Room" + i).addDeviceSystem(system).build());
+        }
+        systems.get(1).turnOff();
+
+        Human human = new Human(1, "Pavel", rooms.get(0), new ManualRepoProxy(new OfflineManualDatabase()));
+        rooms.get(0).enterRoom(human);
+        Queue<Action> plan = new LinkedList<>();
+        plan.add(new Action(UserInputType.TV_POWER, null));
+        addIdleActions(plan, 20);
+        plan.add(new Action(UserInputType.TV_VOLUME, 5));
+        addIdleActions(plan, 50);
+        plan.add(new Action(UserInputType.B_CHANGEROOM, rooms.get(1)));
+        addIdleActions(plan, 10);
+        plan.add(new Action(UserInputType.TV_POWER, null));
+        human.setActionPlan(plan);
+
+        publisher.subscribe(human, TickPhase.BEINGS);
+        for (TVSystem system : systems) {
+            for (IDevice device : system.getDevices()) {
+                device.addMalfunctionObserver(broken -> publisher.defer(() -> human.addActionToPlan(new Action(UserInputType.B_REPAIR, broken))));
+            }
+            publisher.subscribe(system, TickPhase.DEVICE_SYSTEMS);
+        }
+        while (publisher.getTickCount() < TICKS) {
+            publisher.advance(TICKS - publisher.getTickCount());
+        }
+        publisher.synchronize();
+
+        List<String> trace = new ArrayList<>();
+        human.getPerformedActions().forEach(record -> trace.add(record.getAction().getType() + "@" + record.getTick()));
+        trace.add("human ticks " + human.getTickCounter() + ", planned " + human.getActionPlan().size());
+        for (TVSystem system : systems) {
+            trace.add(system.getTv().getState() + " volume " + system.getTv().getVolumeLevel() + " wear " + system.getTv().getTotalWear()
+                    + " controller ticks " + system.getController().getTickCounter()
+                    + " consumption " + String.format("%.9f", system.getTotalConsumption()));
+        }
+        return trace;
+    }
+
+    private void addIdleActions(Queue<Action> plan, int count) {
+        for (int i = 0; i < count; i++) {
+            plan.add(new Action(UserInputType.B_NOTHING, null));
+        }
+    }
+
+    private List<TVSystem> runSimulation(TickPublisher publisher, List<String> events) {
+        List<TVSystem> systems = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) {
+            TV tv = new TV(UUID.randomUUID());
+            UserInputSensor userInputSensor = new UserInputSensor(UUID.randomUUID());
+            TVController controller = new TVController(UUID.randomUUID(), tv, userInputSensor);
+            tv.setWearCapacity(100 + 25 * (i % 3));
+            userInputSensor.setWearCapacity(1000);
+            controller.setWearCapacity(1000);
+            TVSystem system = new TVSystem(i, tv, controller, userInputSensor);
+
+            String name = "room" + i;
+            for (IDevice device : system.getDevices()) {
+                device.addMalfunctionObserver(broken -> publisher.defer(() -> {
+                    events.add(name + ":" + broken.getClass().getSimpleName() + "@" + publisher.getTickCount());
+                    broken.repair(null);
+                }));
+            }
+            publisher.subscribe(system, TickPhase.DEVICE_SYSTEMS, name);
+            systems.add(system);
+        }
+        while (publisher.getTickCount() < TICKS) {
+            publisher.advance(TICKS - publisher.getTickCount());
+        }
+        return systems;
+    }
+
+    /**
+     * Counts its ticks and records each of them as an effect which cannot be rolled back, through the effect
+     * sink of the devices.
+     */
+    private static class EffectCounter implements Tickable {
+        private final TickPublisher publisher;
+        private final List<Integer> effects;
+        /** The tick in which the counter reaches out of its partition, 0 if it never does */
+        private final int reachingTick;
+        private int ticks;
+
+        EffectCounter(TickPublisher publisher, List<Integer> effects, int reachingTick) {
+            this.publisher = publisher;
+            this.effects = effects;
+            this.reachingTick = reachingTick;
+        }
+
+        @Override
+        public void onTick() {
+            int tick = ++ticks;
+            DeviceEffects.run(() -> effects.add(tick));
+            if (tick == reachingTick) {
+                publisher.defer(() -> {});
+            }
+        }
+
+        @Override
+        public StateSnapshot saveState() {
+            int savedTicks = ticks;
+            return () -> ticks = savedTicks;
+        }
+    }
+}